@@ -2,7 +2,6 @@ package P10.AgeAnalysis.Spec_BigFuzz;
 
 import edu.berkeley.cs.jqf.instrument.tracing.TraceLogger;
 import edu.ucla.cs.bigfuzz.dataflow.*;
-import janala.logger.inst.METHOD_BEGIN;
 import janala.logger.inst.MemberRef;
 import scala.Tuple3;
 import main.java.sharedClasses.CustomArray;
@@ -15,22 +14,26 @@ import java.util.*;public class TwoFlowsCustomArray {
     public void TwoFlowsCustomArray() {
 
     }
+ private static final OperatorSite MAP1_SITE = new OperatorSite();
+
  public static ArrayList< Tuple3> Map1(ArrayList<String> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP1_SITE.method(); // containing method
 
         ArrayList<Tuple3> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for (String results: result){ans.add( map3.apply( results));}
 return ans;
 }
+ private static final OperatorSite FILTER1_SITE = new OperatorSite();
+
  public static ArrayList< Tuple3> Filter1(ArrayList< Tuple3> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = FILTER1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = FILTER1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = FILTER1_SITE.method(); // containing method
 
         ArrayList< Tuple3> ans = new ArrayList<>();
 for ( Tuple3 results: result){if (filter1.apply(results)) ans.add(results );}
@@ -39,11 +42,13 @@ for ( Tuple3 results: result){if (filter1.apply(results)) ans.add(results );}
      TraceLogger.get().emit(new FilterEvent(iid, method, callersLineNumber,arm));
 return ans;
 }
+ private static final OperatorSite MAP2_SITE = new OperatorSite();
+
  public static ArrayList< map2> Map2(ArrayList< Tuple3> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP2_SITE.method(); // containing method
 
         ArrayList< map2> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
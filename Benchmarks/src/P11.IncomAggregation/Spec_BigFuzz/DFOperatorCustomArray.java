@@ -2,7 +2,6 @@ package P11.IncomAggregation.Spec_BigFuzz;
 
 import edu.berkeley.cs.jqf.instrument.tracing.TraceLogger;
 import edu.ucla.cs.bigfuzz.dataflow.*;
-import janala.logger.inst.METHOD_BEGIN;
 import janala.logger.inst.MemberRef;
 import scala.Tuple2;
 import scala.Tuple3;
@@ -16,22 +15,26 @@ import java.util.*;public class DFOperatorCustomArray {
     public void DFOperatorCustomArray() {
 
     }
+ private static final OperatorSite MAP1_SITE = new OperatorSite();
+
  public static ArrayList<Tuple3> Map1(ArrayList<String> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP1_SITE.method(); // containing method
 
         ArrayList< Tuple3> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for (String results: result){ans.add( map3.apply( results));}
 return ans;
 }
+ private static final OperatorSite FILTER1_SITE = new OperatorSite();
+
  public static ArrayList< Tuple3> Filter1(ArrayList< Tuple3> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = FILTER1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = FILTER1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = FILTER1_SITE.method(); // containing method
 
         ArrayList< Tuple3> ans = new ArrayList<>();
 
@@ -41,58 +44,64 @@ for ( Tuple3 results: result){if (filter1.apply(results)) ans.add(results );}
      TraceLogger.get().emit(new FilterEvent(iid, method, callersLineNumber,arm));
 return ans;
 }
+ private static final OperatorSite MAP2_SITE = new OperatorSite();
+
  public static ArrayList< map2> Map2(ArrayList< Tuple3> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP2_SITE.method(); // containing method
 
         ArrayList< map2> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for ( Tuple3 results: result){ans.add( map2.apply( results));}
 return ans;
 }
+ private static final OperatorSite MAP_VALUES1_SITE = new OperatorSite();
+
  public static ArrayList<Tuple2> MapValues1(ArrayList< map2> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP_VALUES1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP_VALUES1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP_VALUES1_SITE.method(); // containing method
 
         ArrayList< Tuple2> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapValuesEvent(iid, method, callersLineNumber));
 for ( map2 results: result){ans.add( new Tuple2(results._1(),mapValues101.apply( results._2())));}
 return ans;
 }
+ private static final OperatorSite REDUCE_BY_KEY1_SITE = new OperatorSite();
+
  public static ArrayList< Tuple2> ReduceByKey1(ArrayList<Tuple2> result) throws Exception {
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = REDUCE_BY_KEY1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = REDUCE_BY_KEY1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = REDUCE_BY_KEY1_SITE.method(); // containing method
         TraceLogger.get().emit(new ReduceByKeyEvent(iid, method, callersLineNumber));
 
      ArrayList<Tuple2> ans =new ArrayList<>();
      Tuple2<Integer,Integer>[][] array;  //prepare for reduce by key, array[][] records number list
      int[] num; // num[] records how many same item for one specific item
      num = new int[result.size() + 1];
-     array = new Tuple2 [result.size()+1][result.size()+1];
+     array = new Tuple2 [result.size()+1][]; // rows are allocated per key and grow when needed
      ArrayList<Tuple2<String,Tuple2<Integer,Integer>>> results55 = new ArrayList<>();
+     HashMap<String, Integer> positions = new HashMap<>(); // position of every key in results55
      for (Tuple2<String,Tuple2<Integer,Integer>> result1: result){
-         int a = 0; //flag
-         for (Tuple2<String,Tuple2<Integer,Integer>> result2: results55){
-             if (result1._1().equals(result2._1())) {
-                 num[a] = num[a] + 1;
-                 a = a - 99999;
-                 break;
-             }
-             a = a+1;
-         }
-         if (a>=0) {
-             array[results55.size()][num[results55.size()]] = result1._2();
-             num[results55.size()]=1;
+         Integer a = positions.get(result1._1());
+         if (a == null) {
+             a = results55.size();
+             positions.put(result1._1(), a);
+             array[a] = new Tuple2[2];
+             array[a][num[a]] = result1._2();
+             num[a]=1;
              results55.add(result1);
          }
          else {
-             array[a+99999][num[a+99999]] = result1._2();
+             num[a] = num[a] + 1;
+             if (num[a] >= array[a].length) {
+                 array[a] = Arrays.copyOf(array[a], 2 * array[a].length);
+             }
+             array[a][num[a]] = result1._2();
          }
      }
 
@@ -108,11 +117,13 @@ return ans;
      }
      return ans;
 }
+ private static final OperatorSite MAP_VALUES2_SITE = new OperatorSite();
+
  public static ArrayList< Tuple2> MapValues2(ArrayList<Tuple2> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP_VALUES2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP_VALUES2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP_VALUES2_SITE.method(); // containing method
 
         ArrayList< Tuple2> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapValuesEvent(iid, method, callersLineNumber));
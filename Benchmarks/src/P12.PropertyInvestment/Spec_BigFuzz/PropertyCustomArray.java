@@ -2,7 +2,6 @@ package P12.PropertyInvestment.Spec_BigFuzz;
 
 import edu.berkeley.cs.jqf.instrument.tracing.TraceLogger;
 import edu.ucla.cs.bigfuzz.dataflow.*;
-import janala.logger.inst.METHOD_BEGIN;
 import janala.logger.inst.MemberRef;
 import scala.Tuple4;
 
@@ -16,22 +15,26 @@ import java.util.*;public class PropertyCustomArray {
     public void PropertyCustomArray() {
 
     }
+ private static final OperatorSite MAP1_SITE = new OperatorSite();
+
  public static ArrayList<Tuple4> Map1(ArrayList<String> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP1_SITE.method(); // containing method
 
         ArrayList< Tuple4> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for (String results: result){ans.add( map2.apply( results));}
 return ans;
 }
+ private static final OperatorSite MAP2_SITE = new OperatorSite();
+
  public static ArrayList< Tuple4> Map2(ArrayList< Tuple4> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP2_SITE.method(); // containing method
 
         ArrayList< Tuple4> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
@@ -2,7 +2,6 @@ package P2.CommuteType.Spec_BigFuzz;
 
 import edu.berkeley.cs.jqf.instrument.tracing.TraceLogger;
 import edu.ucla.cs.bigfuzz.dataflow.*;
-import janala.logger.inst.METHOD_BEGIN;
 import janala.logger.inst.MemberRef;
 import main.java.sharedClasses.CustomArray;
 
@@ -13,44 +12,52 @@ import java.util.*;public class CommuteTypeCustomArray {
     public void CommuteTypeCustomArray() {
 
     }
+ private static final OperatorSite MAP1_SITE = new OperatorSite();
+
  public static ArrayList<map5> Map1(ArrayList<String> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP1_SITE.method(); // containing method
 
         ArrayList< map5> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for (String results: result){ans.add( map5.apply( results));}
 return ans;
 }
+ private static final OperatorSite MAP2_SITE = new OperatorSite();
+
  public static ArrayList<map3> Map2(ArrayList<String> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP2_SITE.method(); // containing method
 
         ArrayList< map3> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for (String results: result){ans.add( map3.apply( results));}
 return ans;
 }
+ private static final OperatorSite FILTER1_SITE = new OperatorSite();
+
  public static ArrayList< map3> Filter1(ArrayList< map3> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = FILTER1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = FILTER1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = FILTER1_SITE.method(); // containing method
 
         ArrayList< map3> ans = new ArrayList<>();
         TraceLogger.get().emit(new FilterEvent(iid, method, callersLineNumber,1));
 for ( map3 results: result){if (filter2.apply( results._1(),results._2())) ans.add(results);}
 return ans;
 }
+ private static final OperatorSite JOIN1_SITE = new OperatorSite();
+
  public static ArrayList<join6> Join1(ArrayList< map3> result, ArrayList<map5> result0){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = JOIN1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = JOIN1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = JOIN1_SITE.method(); // containing method
 
         ArrayList< join6> ans = new ArrayList<>();
 //        TraceLogger.get().emit(new JoinEvent(iid, method, callersLineNumber)); //TODO: Can this be removed without impacting the benchmark?
@@ -62,47 +69,51 @@ for ( map5 results: result0)
     }
 return ans;
 }
+ private static final OperatorSite MAP3_SITE = new OperatorSite();
+
  public static ArrayList<map1> Map3(ArrayList< join6> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP3_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP3_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP3_SITE.method(); // containing method
 
         ArrayList< map1> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for ( join6 results: result){ans.add( map1.apply( results.s1,results.n1,results.s2));}
 return ans;
 }
+ private static final OperatorSite REDUCE_BY_KEY1_SITE = new OperatorSite();
+
  public static ArrayList< map1> ReduceByKey1(ArrayList< map1> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = REDUCE_BY_KEY1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = REDUCE_BY_KEY1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = REDUCE_BY_KEY1_SITE.method(); // containing method
 
         ArrayList< map1> ans = new ArrayList<>();
         TraceLogger.get().emit(new ReduceByKeyEvent(iid, method, callersLineNumber));
      int[][] array;  //prepare for reduce by key, array[][] records number list
      int[] num; // num[] records how many same item for one specific item
      num = new int [result.size()+1];
-     array = new int [result.size()+1][result.size()+1];
+     array = new int [result.size()+1][]; // rows are allocated per key and grow when needed
      ArrayList<map1> results55 = new ArrayList<>();
+     HashMap<String, Integer> positions = new HashMap<>(); // position of every key in results55
      for (map1 result1: result){
-         int a = 0; //flag
-         for (map1 result2: results55){
-             if (result1._1().equals(result2._1())) {
-                 num[a] = num[a] + 1;
-                 a = a - 99999;
-                 break;
-             }
-             a = a+1;
-         }
-         if (a>=0) {
-             array[results55.size()][num[results55.size()]] = result1._2();
-             num[results55.size()]=1;
+         Integer a = positions.get(result1._1());
+         if (a == null) {
+             a = results55.size();
+             positions.put(result1._1(), a);
+             array[a] = new int[2];
+             array[a][num[a]] = result1._2();
+             num[a]=1;
              results55.add(result1);
          }
          else {
-             array[a+99999][num[a+99999]] = result1._2();
+             num[a] = num[a] + 1;
+             if (num[a] >= array[a].length) {
+                 array[a] = Arrays.copyOf(array[a], 2 * array[a].length);
+             }
+             array[a][num[a]] = result1._2();
          }
      }
 
@@ -4,7 +4,6 @@ package P4.FindSalary.Spec_BigFuzz;
 
 import edu.berkeley.cs.jqf.instrument.tracing.TraceLogger;
 import edu.ucla.cs.bigfuzz.dataflow.*;
-import janala.logger.inst.METHOD_BEGIN;
 import janala.logger.inst.MemberRef;
 import main.java.sharedClasses.CustomArray;
 
@@ -16,33 +15,39 @@ import java.util.*;public class FindSalaryCustomArray {
     public void FindSalaryCustomArray() {
 
     }
+ private static final OperatorSite MAP1_SITE = new OperatorSite();
+
  public static ArrayList< String> Map1(ArrayList<String> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP1_SITE.method(); // containing method
 
         ArrayList< String> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for (String results: result){ans.add( map4.apply( results));}
 return ans;
 }
+ private static final OperatorSite MAP2_SITE = new OperatorSite();
+
  public static ArrayList<Integer> Map2(ArrayList< String> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP2_SITE.method(); // containing method
 
         ArrayList<Integer> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for ( String results: result){ans.add( map3.apply( results));}
 return ans;
 }
+ private static final OperatorSite FILTER1_SITE = new OperatorSite();
+
  public static ArrayList<Integer> Filter1(ArrayList<Integer> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = FILTER1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = FILTER1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = FILTER1_SITE.method(); // containing method
 
         ArrayList<Integer> ans = new ArrayList<>();
         int arm = 1;
@@ -51,11 +56,13 @@ if (ans.isEmpty()) {arm=0;}
      TraceLogger.get().emit(new FilterEvent(iid, method, callersLineNumber,arm));
 return ans;
 }
+ private static final OperatorSite REDUCE1_SITE = new OperatorSite();
+
  public static ArrayList<Integer> Reduce1(ArrayList<Integer> result){
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = REDUCE1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = REDUCE1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = REDUCE1_SITE.method(); // containing method
 
         ArrayList<Integer> ans = new ArrayList<>();
         TraceLogger.get().emit(new ReduceEvent(iid, method, callersLineNumber));
@@ -2,6 +2,7 @@
 
 package main.java.sharedClasses;
 
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import edu.berkeley.cs.jqf.instrument.tracing.TraceLogger;
 import edu.ucla.cs.bigfuzz.dataflow.*;
 import janala.logger.inst.METHOD_BEGIN;
@@ -23,6 +24,14 @@ public class CustomArray {
     }
 
     public static String readStr(String inputPath) throws IOException {
+        List<String> rows = InputProvider.get(inputPath);
+        if (rows != null) {
+            String list = null;
+            for (String row : rows) {
+                list = list + row;
+            }
+            return list;
+        }
         BufferedReader br = new BufferedReader(new FileReader(inputPath));
         //List<String> lists = new ArrayList<String>();
         String list =null;
@@ -43,6 +52,10 @@ public class CustomArray {
 
 
     public static ArrayList<String> read(String inputPath) throws IOException {
+        List<String> rows = InputProvider.get(inputPath);
+        if (rows != null) {
+            return new ArrayList<String>(rows);
+        }
         ArrayList<String> list  = new ArrayList<String>();
         BufferedReader br = new BufferedReader(new FileReader(inputPath));
         //List<String> lists = new ArrayList<String>();
@@ -61,14 +74,16 @@ public class CustomArray {
         return list;
     }
 
+    private static final OperatorSite MAP1_SITE = new OperatorSite();
+
     public static ArrayList<SalaryItem> map1(ArrayList<String> lines)
     {
 //        System.out.println("Generating Data Flow Event: Map");
 
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP1_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
@@ -100,6 +115,8 @@ public class CustomArray {
         //System.out.println(ret);
         return ret;
     }
+    private static final OperatorSite FILTER1_SITE = new OperatorSite();
+
     public static ArrayList<SalaryItem> filter1(ArrayList<SalaryItem> items, String zipcode)
     {
         ArrayList<SalaryItem> ret = new ArrayList<SalaryItem>();
@@ -115,10 +132,10 @@ public class CustomArray {
 //        System.out.println(ret.size());
         if( !ret.isEmpty()) arm = 1;
 
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = FILTER1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = FILTER1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = FILTER1_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new FilterEvent(iid, method, callersLineNumber, arm));
@@ -126,12 +143,14 @@ public class CustomArray {
         return ret;
     }
 
+    private static final OperatorSite MAP2_SITE = new OperatorSite();
+
     public static ArrayList<Pair<String, Integer>> map2(ArrayList<SalaryItem> items)
     {
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP2_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
@@ -164,12 +183,14 @@ public class CustomArray {
         return ret;
     }
 
+    private static final OperatorSite MAP_VALUES1_SITE = new OperatorSite();
+
     public static ArrayList<Pair<String, Pair<Integer, Integer>>> mapValues1(ArrayList<Pair<String, Integer>> arrayList)
     {
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP_VALUES1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP_VALUES1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP_VALUES1_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new MapValuesEvent(iid, method, callersLineNumber));
@@ -182,12 +203,14 @@ public class CustomArray {
         return ret;
     }
 
+    private static final OperatorSite REDUCE_BY_KEY1_SITE = new OperatorSite();
+
     public static Map<String, Pair<Integer, Integer>>  reduceByKey1(ArrayList<Pair<String, Pair<Integer, Integer>>> arrayList)
     {
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = REDUCE_BY_KEY1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = REDUCE_BY_KEY1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = REDUCE_BY_KEY1_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new ReduceByKeyEvent(iid, method, callersLineNumber));
@@ -213,12 +236,14 @@ public class CustomArray {
         return res;
     }
 
+    private static final OperatorSite MAP_VALUES2_SITE = new OperatorSite();
+
     public static Map<String, Double> mapValues2(Map<String, Pair<Integer, Integer>> mmp)
     {
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP_VALUES2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP_VALUES2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP_VALUES2_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new MapValuesEvent(iid, method, callersLineNumber));
@@ -240,14 +265,16 @@ public class CustomArray {
         return ret;
     }
 
+    private static final OperatorSite MAP_SITE = new OperatorSite();
+
     public static ArrayList<ArrayList<Integer>> map(ArrayList<String> lines)
     {
 //        System.out.println("Generating Data Flow Event: Map");
 
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
@@ -281,6 +308,8 @@ public class CustomArray {
         return ret;
     }
 
+    private static final OperatorSite FILTER_SITE = new OperatorSite();
+
     public static ArrayList<Integer> filter(ArrayList<Integer> input, Integer maximum)
     {
 //        System.out.println("Generating Data Flow Event: Filter");
@@ -298,10 +327,10 @@ public class CustomArray {
 //        System.out.println(ret.size());
         if( !ret.isEmpty()) arm = 1;
 
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = FILTER_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = FILTER_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = FILTER_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new FilterEvent(iid, method, callersLineNumber, arm));
@@ -334,14 +363,16 @@ public class CustomArray {
 
         return sum;
     }*/
+    private static final OperatorSite REDUCE_SITE = new OperatorSite();
+
     public static ArrayList<Integer> reduce(ArrayList<ArrayList<Integer>> input)
     {
 //        System.out.println("Generating Data Flow Event: Reduce");
 
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = REDUCE_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = REDUCE_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = REDUCE_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new ReduceEvent(iid, method, callersLineNumber));
@@ -379,13 +410,15 @@ public class CustomArray {
         }
         return words;
     }
+    private static final OperatorSite FLAT_MAP_SITE = new OperatorSite();
+
     public static ArrayList<String> flatMap() {
 //        System.out.println("Generating Data Flow Event: FlatMap");
 
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = FLAT_MAP_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = FLAT_MAP_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = FLAT_MAP_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new FlatMapEvent(iid, method, callersLineNumber));
@@ -393,6 +426,8 @@ public class CustomArray {
         ArrayList<String> words  = new ArrayList<String>();
         return words;
     }
+    private static final OperatorSite MAP_TO_PAIR_SITE = new OperatorSite();
+
     public static ArrayList<Map<String, Integer>> mapToPair(List<String> words) {
 //        System.out.println("Generating Data Flow Event: mapToPair");
 
@@ -403,10 +438,10 @@ public class CustomArray {
 //            System.out.println(Thread.currentThread().getStackTrace()[i].getMethodName() + " "+ Thread.currentThread().getStackTrace()[i].getLineNumber());
 //        }
 
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP_TO_PAIR_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP_TO_PAIR_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP_TO_PAIR_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new MapToPairEvent(iid, method, callersLineNumber));
@@ -435,6 +470,8 @@ public class CustomArray {
         }
         return wordsCountMapList;
     }
+    private static final OperatorSite REDUCE_BY_KEY_SITE = new OperatorSite();
+
     public static Map<String, Integer> reduceByKey(ArrayList<Map<String, Integer>> wordsCountMapList) {
 //        System.out.println("Generating Data Flow Event: ReduceByKey");
 
@@ -443,10 +480,10 @@ public class CustomArray {
 //            System.out.println(Thread.currentThread().getStackTrace()[i].getMethodName() + " "+ Thread.currentThread().getStackTrace()[i].getLineNumber());
 //        }
 
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = REDUCE_BY_KEY_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = REDUCE_BY_KEY_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = REDUCE_BY_KEY_SITE.method(); // containing method
 
         // Generate a custom event!
         TraceLogger.get().emit(new ReduceByKeyEvent(iid, method, callersLineNumber));
@@ -1,5 +1,6 @@
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.JQF;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
@@ -15,7 +16,7 @@ public class CommuteTypeDriver {
     public void testCommuteType(String fileName) throws IOException {
         System.out.println("CommuteTypeDriver::testCommuteType: "+fileName);
 
-        List<String> fileList = Files.readAllLines(Paths.get(fileName));
+        List<String> fileList = InputProvider.readAllLines(fileName);
 
         CommuteType analysis = new CommuteType();
         analysis.CommuteType(fileList.get(0), fileList.get(1));
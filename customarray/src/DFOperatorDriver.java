@@ -1,10 +1,9 @@
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.JQF;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 
 @RunWith(JQF.class)
@@ -14,7 +13,7 @@ public class DFOperatorDriver {
     public void testDFOperator(String fileName) throws IOException {
         System.out.println("DFOperatorDriver::testDFOperator: "+fileName);
         DFOperator analysis = new DFOperator();
-    List<String> fileList = Files.readAllLines(Paths.get(fileName));
+    List<String> fileList = InputProvider.readAllLines(fileName);
     System.out.println("file list: *****" + fileList.size());
     analysis.DFOperator(fileList.get(0));
     }
@@ -2,11 +2,10 @@
 
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.JQF;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 
 @RunWith(JQF.class)
@@ -17,7 +16,7 @@ public class ExternalUDFDriver {
 //        System.out.println("edu.ucla.cs.bigfuzz.customarray.inapplicable.ExternalUDF.ExternalUDFDriver::testExternalUDF: "+fileName);
         ExternalUDF analysis = new ExternalUDF();
 
-        List<String> fileList = Files.readAllLines(Paths.get(fileName));
+        List<String> fileList = InputProvider.readAllLines(fileName);
 //        System.out.println("file list: *****" + fileList.size());
         analysis.ExternalUDF(fileList.get(0));
     }
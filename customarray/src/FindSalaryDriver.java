@@ -1,13 +1,12 @@
 
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.JQF;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import org.junit.runner.RunWith;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
 
@@ -19,7 +18,7 @@ public class FindSalaryDriver {
     public void testFindSalary(String fileName) throws IOException {
 //        System.out.println("edu.ucla.cs.bigfuzz.customarray.applicable.FindSalary.FindSalaryDriver::testFindSalary: "+fileName);
 
-        List<String> fileList = Files.readAllLines(Paths.get(fileName));
+        List<String> fileList = InputProvider.readAllLines(fileName);
         FindSalary analysis = new FindSalary();
         analysis.FindSalary(fileList.get(0));
     }
@@ -1,15 +1,11 @@
 
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.JQF;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import org.junit.runner.RunWith;
 
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
-import java.util.Scanner;
 
 @RunWith(JQF.class)
 public class InfiniteloopDriver {
@@ -18,18 +14,11 @@ public class InfiniteloopDriver {
     public void testInfiniteloop(String fileName) throws IOException {
         System.out.println("InfiniteloopDriver::testInfiniteloop: "+fileName);
 
-        try {
-            Scanner sc = new Scanner(new File(fileName));
-            while (sc.hasNextLine()) {
-                System.out.println(sc.nextLine());
-
-            }
-        } catch (FileNotFoundException e) {
-
+        List<String> fileList = InputProvider.readAllLines(fileName);
+        for (String line : fileList) {
+            System.out.println(line);
         }
 
-        List<String> fileList = Files.readAllLines(Paths.get(fileName));
-
         Infiniteloop analysis = new Infiniteloop();
         analysis.Infiniteloop(fileList.get(0));
     }
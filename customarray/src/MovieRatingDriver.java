@@ -1,10 +1,9 @@
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.JQF;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 
 @RunWith(JQF.class)
@@ -15,7 +14,7 @@ public class MovieRatingDriver {
     public void testMovieRating(String fileName) throws IOException {
 //        System.out.println("MovieRatingDriver::testMovieRating: "+fileName);
         MovieRating analysis = new MovieRating();
-    List<String> fileList = Files.readAllLines(Paths.get(fileName));
+    List<String> fileList = InputProvider.readAllLines(fileName);
 //    System.out.println(fileList.size());
     analysis.MovieRating(fileList.get(0));
     }
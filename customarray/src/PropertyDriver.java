@@ -2,11 +2,10 @@
 
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.JQF;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 
 @RunWith(JQF.class)
@@ -17,7 +16,7 @@ public class PropertyDriver {
     public void testProperty(String fileName) throws IOException {
 //        System.out.println("edu.ucla.cs.bigfuzz.customarray.inapplicable.Property.PropertyDriver::testProperty: "+fileName);
 
-        List<String> fileList = Files.readAllLines(Paths.get(fileName));
+        List<String> fileList = InputProvider.readAllLines(fileName);
 
         Property analysis = new Property();
         analysis.Property(fileList.get(0));
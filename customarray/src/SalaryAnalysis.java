@@ -1,10 +1,10 @@
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import edu.ucla.cs.bigfuzz.customarray.CustomArray;
 import edu.ucla.cs.bigfuzz.customarray.SalaryItem;
 import org.apache.commons.lang3.tuple.Pair;
 
 //import org.supercsv.cellprocessor.ParseDouble;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -13,9 +13,8 @@ import java.util.Map;
 public class SalaryAnalysis {
 
     public void SalaryAnalysis(String inputFile) throws IOException {
-        File file=new File(inputFile);
         ArrayList<String> list;
-        if(file.exists())
+        if(InputProvider.exists(inputFile))
         {
             list = CustomArray.read(inputFile);
             /*for(String line : list)
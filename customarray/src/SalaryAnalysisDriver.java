@@ -1,10 +1,9 @@
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.JQF;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 
 import static edu.tud.cs.jqf.bigfuzzplus.BigFuzzPlusDriver.PRINT_METHOD_NAMES;
@@ -21,7 +20,7 @@ public class SalaryAnalysisDriver {
 //        byte[] bytes = fileName.getBytes();
         if (PRINT_METHOD_NAMES) { System.out.println("SalaryAnalysisDriver::testSalaryAnalysis: "+fileName); }
         SalaryAnalysis analysis = new SalaryAnalysis();
-        List<String> fileList = Files.readAllLines(Paths.get(fileName));
+        List<String> fileList = InputProvider.readAllLines(fileName);
         if (PRINT_MUTATION_DETAILS) {
             System.out.println("fileList size: " + fileList.size());
         }
@@ -35,7 +34,7 @@ public class SalaryAnalysisDriver {
         if (PRINT_METHOD_NAMES) { System.out.println("SalaryAnalysisDriver::testSalaryAnalysis: "+fileName); }
         SalaryAnalysis analysis = new SalaryAnalysis();
         System.out.println(fileName);
-        List<String> fileList = Files.readAllLines(Paths.get(fileName));
+        List<String> fileList = InputProvider.readAllLines(fileName);
         System.out.println(fileList.size());
         analysis.SalaryAnalysis(fileList.get(0));
     }
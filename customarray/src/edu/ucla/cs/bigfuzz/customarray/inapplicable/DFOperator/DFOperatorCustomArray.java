@@ -4,14 +4,16 @@ import edu.berkeley.cs.jqf.instrument.tracing.TraceLogger;
 import edu.ucla.cs.bigfuzz.customarray.CustomArray;
 import edu.ucla.cs.bigfuzz.dataflow.FilterEvent;
 import edu.ucla.cs.bigfuzz.dataflow.MapEvent;
+import edu.ucla.cs.bigfuzz.dataflow.OperatorSite;
 import edu.ucla.cs.bigfuzz.dataflow.MapValuesEvent;
 import edu.ucla.cs.bigfuzz.dataflow.ReduceByKeyEvent;
-import janala.logger.inst.METHOD_BEGIN;
 import janala.logger.inst.MemberRef;
 import scala.Tuple2;
 import scala.Tuple3;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
 public class DFOperatorCustomArray {
 
@@ -20,12 +22,14 @@ public class DFOperatorCustomArray {
     public void DFOperatorCustomArray() {
 
     }
+ private static final OperatorSite MAP1_SITE = new OperatorSite();
+
  public static ArrayList<Tuple3> Map1(ArrayList<String> result){
         System.out.println("map1***********");
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP1_SITE.method(); // containing method
 
         ArrayList< Tuple3> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
@@ -37,12 +41,14 @@ public class DFOperatorCustomArray {
 System.out.println("ans size: "+ans.size());
 return ans;
 }
+ private static final OperatorSite FILTER1_SITE = new OperatorSite();
+
  public static ArrayList< Tuple3> Filter1(ArrayList< Tuple3> result){
         System.out.println("filter1**********");
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = FILTER1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = FILTER1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = FILTER1_SITE.method(); // containing method
 
         ArrayList< Tuple3> ans = new ArrayList<>();
 
@@ -52,24 +58,28 @@ for ( Tuple3 results: result){if (filter1.apply(results)) ans.add(results );}
      TraceLogger.get().emit(new FilterEvent(iid, method, callersLineNumber,arm));
 return ans;
 }
+ private static final OperatorSite MAP2_SITE = new OperatorSite();
+
  public static ArrayList<map2> Map2(ArrayList< Tuple3> result){
         System.out.println("map2*******8");
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP2_SITE.method(); // containing method
 
         ArrayList<map2> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapEvent(iid, method, callersLineNumber));
 for ( Tuple3 results: result){ans.add( map2.apply( results));}
 return ans;
 }
+ private static final OperatorSite MAP_VALUES1_SITE = new OperatorSite();
+
  public static ArrayList<Tuple2> MapValues1(ArrayList<map2> result){
         System.out.println("map2****");
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP_VALUES1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP_VALUES1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP_VALUES1_SITE.method(); // containing method
 
         ArrayList< Tuple2> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapValuesEvent(iid, method, callersLineNumber));
@@ -77,36 +87,38 @@ for ( map2 results: result){
     ans.add( new Tuple2(results.sa,mapValues101.apply( results._2())));}
 return ans;
 }
+ private static final OperatorSite REDUCE_BY_KEY1_SITE = new OperatorSite();
+
  public static ArrayList< Tuple2> ReduceByKey1(ArrayList<Tuple2> result) throws Exception {
         System.out.println("ReduceByke***********");
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = REDUCE_BY_KEY1_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = REDUCE_BY_KEY1_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = REDUCE_BY_KEY1_SITE.method(); // containing method
         TraceLogger.get().emit(new ReduceByKeyEvent(iid, method, callersLineNumber));
 
      ArrayList<Tuple2> ans =new ArrayList<>();
      Tuple2<Integer,Integer>[][] array;  //prepare for reduce by key, array[][] records number list
      int[] num; // num[] records how many same item for one specific item
      num = new int[result.size() + 1];
-     array = new Tuple2 [result.size()+1][result.size()+1];
+     array = new Tuple2 [result.size()+1][]; // rows are allocated per key and grow when needed
      ArrayList<Tuple2<String,Tuple2<Integer,Integer>>> results55 = new ArrayList<>();
+     HashMap<String, Integer> positions = new HashMap<>(); // position of every key in results55
      for (Tuple2<String,Tuple2<Integer,Integer>> result1: result){
-         int a = 0; //flag
-         for (Tuple2<String,Tuple2<Integer,Integer>> result2: results55){
-             if (result1._1().equals(result2._1())) {
-                 num[a] = num[a] + 1;
-                 a = a - 99999;
-                 break;
-             }
-             a = a+1;
-         }
-         if (a>=0) {
-             array[results55.size()][num[results55.size()]] = result1._2();
+         Integer a = positions.get(result1._1());
+         if (a == null) {
+             a = results55.size();
+             positions.put(result1._1(), a);
+             array[a] = new Tuple2[2];
+             array[a][num[a]] = result1._2();
              results55.add(result1);
          }
          else {
-             array[a+99999][num[a+99999]] = result1._2();
+             num[a] = num[a] + 1;
+             if (num[a] >= array[a].length) {
+                 array[a] = Arrays.copyOf(array[a], 2 * array[a].length);
+             }
+             array[a][num[a]] = result1._2();
          }
      }
 
@@ -124,12 +136,14 @@ return ans;
      }
      return ans;
 }
+ private static final OperatorSite MAP_VALUES2_SITE = new OperatorSite();
+
  public static ArrayList< Tuple2> MapValues2(ArrayList<Tuple2> result){
         System.out.println("mapvalues***********8");
-        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();
+        int callersLineNumber = MAP_VALUES2_SITE.lineNumber();
 
-        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a program location
-        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassName(), Thread.currentThread().getStackTrace()[1].getMethodName(), "()V"); // containing method
+        int iid = MAP_VALUES2_SITE.iid(); // unique for every operator and stable across runs
+        MemberRef method = MAP_VALUES2_SITE.method(); // containing method
 
         ArrayList< Tuple2> ans = new ArrayList<>();
         TraceLogger.get().emit(new MapValuesEvent(iid, method, callersLineNumber));
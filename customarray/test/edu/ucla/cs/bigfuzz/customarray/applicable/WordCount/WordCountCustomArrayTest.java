@@ -0,0 +1,160 @@
+package edu.ucla.cs.bigfuzz.customarray.applicable.WordCount;
+
+import edu.berkeley.cs.jqf.instrument.tracing.SingleSnoop;
+import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
+import edu.ucla.cs.bigfuzz.customarray.CustomArray;
+import edu.ucla.cs.bigfuzz.dataflow.FlatMapEvent;
+import edu.ucla.cs.bigfuzz.dataflow.MapToPairEvent;
+import edu.ucla.cs.bigfuzz.dataflow.OperatorSite;
+import edu.ucla.cs.bigfuzz.dataflow.ReduceByKeyEvent;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class WordCountCustomArrayTest {
+
+    @After
+    public void resetCallback() {
+        SingleSnoop.setCallbackGenerator((t) -> (e) -> {});
+    }
+
+    /** Runs the word count program twice on a fresh thread and returns the dataflow events it emitted. */
+    private static List<TraceEvent> traceTwoRuns(ArrayList<String> lines) throws InterruptedException {
+        List<TraceEvent> events = new ArrayList<>();
+        SingleSnoop.setCallbackGenerator((t) -> events::add);
+        // A fresh thread gets a tracer with the callback above
+        Thread runner = new Thread(() -> {
+            try {
+                for (int i = 0; i < 2; i++) {
+                    WordCountCustomArray.ReduceByKey1(
+                            WordCountCustomArray.MapToPair1(WordCountCustomArray.FlatMap1(lines)));
+                }
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        runner.start();
+        runner.join();
+        return events;
+    }
+
+    @Test
+    public void testOperatorSitesAreResolvedOnce() throws InterruptedException {
+        List<TraceEvent> events = traceTwoRuns(new ArrayList<>(Arrays.asList("a b", "b c")));
+
+        assertEquals(6, events.size());
+        assertTrue(events.get(0) instanceof FlatMapEvent);
+        assertTrue(events.get(1) instanceof MapToPairEvent);
+        assertTrue(events.get(2) instanceof ReduceByKeyEvent);
+        String className = WordCountCustomArray.class.getName();
+        String[] operators = {"FlatMap1", "MapToPair1", "ReduceByKey1"};
+        for (int i = 0; i < operators.length; i++) {
+            TraceEvent first = events.get(i);
+            TraceEvent second = events.get(i + operators.length);
+            assertEquals(className, first.getContainingClass().replace('/', '.'));
+            assertEquals(operators[i], first.getContainingMethodName());
+            assertTrue(first.getLineNumber() > 0);
+            // The second run reuses the site that the first run resolved
+            assertEquals(first.getLineNumber(), second.getLineNumber());
+            assertEquals(first.getContainingMethodName(), second.getContainingMethodName());
+        }
+        // Including the method reference, which is not created again
+        assertSame(((FlatMapEvent) events.get(0)).invokedMethod, ((FlatMapEvent) events.get(3)).invokedMethod);
+    }
+
+    @Test
+    public void testOperatorsHaveDistinctStableIids() throws InterruptedException {
+        List<TraceEvent> events = traceTwoRuns(new ArrayList<>(Arrays.asList("a b", "b c")));
+
+        String className = WordCountCustomArray.class.getName();
+        String[] operators = {"FlatMap1", "MapToPair1", "ReduceByKey1"};
+        Set<Integer> iids = new HashSet<>();
+        for (int i = 0; i < operators.length; i++) {
+            int iid = events.get(i).getIid();
+            // Derived from the names only, so it is the same in every run of the program
+            assertEquals(OperatorSite.iid(className, operators[i]), iid);
+            assertEquals(iid, events.get(i + operators.length).getIid());
+            assertTrue(iids.add(iid));
+        }
+        // The iid no longer depends on the identity hash of a class
+        assertFalse(iids.contains(CustomArray.class.hashCode()));
+    }
+
+    /** The quadratic grouping that ReduceByKey1 used before, which serves as the reference. */
+    private static ArrayList<mapToPair2> quadraticReduceByKey(ArrayList<mapToPair2> result) throws Exception {
+        ArrayList<mapToPair2> ans = new ArrayList<>();
+        int[] num = new int[result.size() + 1];
+        int[][] array = new int[result.size() + 1][result.size() + 1];
+        ArrayList<mapToPair2> results55 = new ArrayList<>();
+        for (mapToPair2 result1 : result) {
+            int a = 0;
+            for (mapToPair2 result2 : results55) {
+                if (result1._1().equals(result2._1())) {
+                    num[a] = num[a] + 1;
+                    a = a - 99999;
+                    break;
+                }
+                a = a + 1;
+            }
+            if (a >= 0) {
+                array[results55.size()][num[results55.size()]] = result1._2();
+                num[results55.size()] = 1;
+                results55.add(result1);
+            } else {
+                array[a + 99999][num[a + 99999]] = result1._2();
+            }
+        }
+        int a = 0;
+        for (mapToPair2 results : results55) {
+            int k = 0;
+            for (int i = 0; i < num[a]; i++) {
+                k = reduceByKey1.apply(array[a][i], k);
+            }
+            ans.add(new mapToPair2(results._1(), k + 2147483600));
+            a = a + 1;
+        }
+        return ans;
+    }
+
+    private static ArrayList<mapToPair2> randomPairs(Random random, int rows, int keys) {
+        ArrayList<mapToPair2> pairs = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            pairs.add(new mapToPair2("k" + random.nextInt(keys), random.nextInt(100)));
+        }
+        return pairs;
+    }
+
+    @Test
+    public void testReduceByKeyMatchesQuadraticGrouping() throws Exception {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 50; trial++) {
+            ArrayList<mapToPair2> pairs = randomPairs(random, random.nextInt(200), 1 + random.nextInt(20));
+            ArrayList<mapToPair2> expected = quadraticReduceByKey(pairs);
+            ArrayList<mapToPair2> actual = WordCountCustomArray.ReduceByKey1(pairs);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i)._1(), actual.get(i)._1());
+                assertEquals(expected.get(i)._2(), actual.get(i)._2());
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testReduceByKeyHandlesLargeInputs() throws Exception {
+        // The quadratic grouping would need a 200k x 200k matrix for this input
+        ArrayList<mapToPair2> pairs = randomPairs(new Random(42), 200_000, 5_000);
+        ArrayList<mapToPair2> reduced = WordCountCustomArray.ReduceByKey1(pairs);
+        assertEquals(5_000, reduced.size());
+    }
+}
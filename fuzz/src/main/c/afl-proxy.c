@@ -32,6 +32,8 @@
 #include <stdlib.h>
 #include <unistd.h>
 #include <stdarg.h>
+#include <string.h>
+#include <sys/mman.h>
 #include <sys/shm.h>
 #include <sys/stat.h>
 #include <sys/types.h>
@@ -41,6 +43,10 @@
 
 #define PID_MAX_LIMIT (1 << 22)  // Portable upper-bound for value defined in linux/threads.h
 
+/* Size of the map shared with Java: the trace bits followed by the perf bits */
+#define SHARED_MAP_SIZE (MAP_SIZE + (1 << 16))
+#define SHARED_MAP_ENV_VAR "JQF_SHARED_MAP"
+
 /* 
 * Proxy between AFL and JQF. Communicates to 
 * both via pipes -- those launched by AFL and two whose names
@@ -50,6 +56,10 @@
 * This proxy is general and can be used to exchange information
 * from any external utility writing in the command-line pipes.
 *
+* If the env var JQF_SHARED_MAP names a file, Java writes the
+* trace bits (and perf bits) to that file, which both sides map
+* into memory, and only sends the return status through the pipe.
+*
 * author: Caroline Lemieux
 * author: Rohan Padhye
 */
@@ -159,6 +169,24 @@ int main(int argc, char** argv) {
 
   log_to_file(0, log_file_name, "opened from java fifo %s\n", from_java_str);
 
+  /* set up the map shared with Java, if any. Java creates the
+     file before opening the fifos, so it exists at this point */
+  u8 * shared_map = NULL;
+  char * shared_map_str = getenv(SHARED_MAP_ENV_VAR);
+  if (shared_map_str != NULL && shared_map_str[0] != '\0') {
+    int shared_map_fd = open(shared_map_str, O_RDONLY);
+    if (shared_map_fd < 0) {
+      log_to_file(1, log_file_name, "Failed to open shared map %s\n", shared_map_str);
+    }
+    shared_map = mmap(NULL, SHARED_MAP_SIZE, PROT_READ, MAP_SHARED, shared_map_fd, 0);
+    if (shared_map == MAP_FAILED) {
+      log_to_file(1, log_file_name, "Failed to map shared map %s\n", shared_map_str);
+    }
+    close(shared_map_fd);
+
+    log_to_file(0, log_file_name, "mapped shared map %s\n", shared_map_str);
+  }
+
   /* set up the trace bits */
   char * shm_str = getenv(SHM_ENV_VAR);
   if (shm_str == NULL){
@@ -215,25 +243,40 @@ int main(int argc, char** argv) {
 
     log_to_file(0, log_file_name, "Got return status from Java.\n");
 
-    /* Get trace bits from Java */
-    if ((comm_bytes = fread( trace_bits, 1, MAP_SIZE, from_java_fd)) < MAP_SIZE) {
-      log_to_file(1, log_file_name, 
-        "Something went wrong getting trace_bits from Java: read %d bytes.\n", comm_bytes);
-    }
+    if (shared_map != NULL) {
+      /* Java has written the trace bits to the shared map before sending the status */
+      memcpy(trace_bits, shared_map, MAP_SIZE);
+
+      log_to_file(0, log_file_name, "Got trace bits from shared map.\n");
 
-    log_to_file(0, log_file_name, "Got trace bits from java.\n");
-    
 #ifdef PERF_SIZE
-    if (use_perf_map) {
-      /* Get perf bits from Java */
-      if ((comm_bytes = fread( perf_bits, 4, PERF_SIZE, from_java_fd)) < PERF_SIZE) {
+      if (use_perf_map) {
+        memcpy(perf_bits, shared_map + MAP_SIZE, PERF_SIZE * 4);
+
+        log_to_file(0, log_file_name, "Got perf bits from shared map.\n");
+      }
+#endif
+    } else {
+      /* Get trace bits from Java */
+      if ((comm_bytes = fread( trace_bits, 1, MAP_SIZE, from_java_fd)) < MAP_SIZE) {
         log_to_file(1, log_file_name, 
-          "Something went wrong getting perf_bits from Java: read %d bytes.\n", comm_bytes);
+          "Something went wrong getting trace_bits from Java: read %d bytes.\n", comm_bytes);
       }
 
-      log_to_file(0, log_file_name, "Got perf bits from java.\n");
-    }
+      log_to_file(0, log_file_name, "Got trace bits from java.\n");
+
+#ifdef PERF_SIZE
+      if (use_perf_map) {
+        /* Get perf bits from Java */
+        if ((comm_bytes = fread( perf_bits, 4, PERF_SIZE, from_java_fd)) < PERF_SIZE) {
+          log_to_file(1, log_file_name, 
+            "Something went wrong getting perf_bits from Java: read %d bytes.\n", comm_bytes);
+        }
+
+        log_to_file(0, log_file_name, "Got perf bits from java.\n");
+      }
 #endif
+    }
 
     if (!run_once) {
       /* Tell AFL we got the return */
@@ -37,9 +37,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Date;
 import java.util.function.Consumer;
 
@@ -62,6 +65,14 @@ import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
  * helps populate the shared memory coverage buffer that the JVM cannot
  * access.
  *
+ * <p>The coverage is either sent through the pipe after the status of
+ * every run, or, if a shared map file is given, written to a file that
+ * both this guidance and the proxy map into memory. In the latter case
+ * only the status is sent through the pipe once a run is complete. The map
+ * holds the trace bits followed by the feedback of subclasses such as the
+ * performance map of the {@link PerfFuzzGuidance}, and both are written
+ * to the map directly while a run executes.
+ *
  * @author Rohan Padhye and Caroline Lemieux
  */
 public class AFLGuidance implements Guidance {
@@ -78,8 +89,8 @@ public class AFLGuidance implements Guidance {
     /** The size of the "coverage" map that will be sent to AFL. */
     protected static final int COVERAGE_MAP_SIZE = 1 << 16;
 
-    /** The "coverage" map that will be sent to AFL. */
-    protected byte[] traceBits;
+    /** The "coverage" map that will be sent to AFL, which is part of the shared map if there is one. */
+    protected ByteBuffer traceBits;
 
     /** Whether to keep executing more inputs. */
     protected boolean everything_ok = true;
@@ -87,6 +98,12 @@ public class AFLGuidance implements Guidance {
     /** The bits that will be communicated to the AFL proxy. */
     protected ByteBuffer feedback;
 
+    /** The memory-mapped file shared with the AFL proxy, or <tt>null</tt> if coverage is sent through the pipe. */
+    protected MappedByteBuffer sharedMap;
+
+    /** The status of a run, which is all that is sent through the pipe when a shared map is used. */
+    private final ByteBuffer statusBytes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+
     /** A temporary holding the opened input file stream during a run. */
     private InputStream inputFileStream;
 
@@ -105,6 +122,9 @@ public class AFLGuidance implements Guidance {
     private static final int FEEDBACK_BUFFER_SIZE = 1 << 17;
     private static final byte[] FEEDBACK_ZEROS = new byte[FEEDBACK_BUFFER_SIZE];
 
+    /** The size of the shared map: the trace bits followed by the feedback of subclasses. */
+    private static final int SHARED_MAP_SIZE = COVERAGE_MAP_SIZE + (1 << 16);
+
     /**
      * Creates an instance of an AFLGuidance given file handles for I/O.
      *
@@ -114,11 +134,43 @@ public class AFLGuidance implements Guidance {
      * @throws IOException  if any file or pipe could not be opened
      */
     public AFLGuidance(File inputFile, File inPipe, File outPipe) throws IOException {
+        this(inputFile, inPipe, outPipe, sharedMapFromProperty());
+    }
+
+    /**
+     * Creates an instance of an AFLGuidance given file handles for I/O,
+     * which shares the coverage with the AFL proxy through a memory-mapped file.
+     *
+     * <p>The shared map file is created before the pipes are opened, such that
+     * it exists when the proxy has opened its ends of the pipes.
+     *
+     * @param inputFile  the file that AFL will write inputs to
+     * @param inPipe     a FIFO-like pipe for receiving messages from the AFL proxy
+     * @param outPipe    a FIFO-like pipe for sending messages to the AFL proxy
+     * @param sharedMapFile the file to share the coverage through, or <tt>null</tt>
+     *                   to send the coverage through the pipe
+     * @throws IOException  if any file or pipe could not be opened
+     */
+    public AFLGuidance(File inputFile, File inPipe, File outPipe, File sharedMapFile) throws IOException {
         this.inputFile = inputFile;
+        if (sharedMapFile != null) {
+            try (RandomAccessFile file = new RandomAccessFile(sharedMapFile, "rw")) {
+                file.setLength(SHARED_MAP_SIZE);
+                // The mapping stays valid after the channel is closed
+                this.sharedMap = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, SHARED_MAP_SIZE);
+            }
+            ((Buffer) sharedMap).limit(COVERAGE_MAP_SIZE);
+            this.traceBits = sharedMap.slice();
+            ((Buffer) sharedMap).limit(SHARED_MAP_SIZE).position(COVERAGE_MAP_SIZE);
+            this.feedback = sharedMap.slice();
+            ((Buffer) sharedMap).rewind();
+        } else {
+            this.traceBits = ByteBuffer.allocate(COVERAGE_MAP_SIZE);
+            this.feedback = ByteBuffer.allocate(FEEDBACK_BUFFER_SIZE);
+        }
+        this.feedback.order(ByteOrder.LITTLE_ENDIAN);
         this.proxyInput = new BufferedInputStream(new FileInputStream(inPipe));
         this.proxyOutput = new BufferedOutputStream(new FileOutputStream(outPipe));
-        this.feedback = ByteBuffer.allocate(FEEDBACK_BUFFER_SIZE);
-        this.feedback.order(ByteOrder.LITTLE_ENDIAN);
 
         // Try to parse the single-run timeout
         String timeout = System.getProperty("jqf.afl.TIMEOUT");
@@ -144,6 +196,11 @@ public class AFLGuidance implements Guidance {
         this(new File(inputFileName), new File(inPipeName), new File(outPipeName));
     }
 
+    private static File sharedMapFromProperty() {
+        String sharedMap = System.getProperty("jqf.afl.sharedMap");
+        return sharedMap != null && !sharedMap.isEmpty() ? new File(sharedMap) : null;
+    }
+
     /**
      * Closes the pipes used to communicate with the AFL proxy.
      */
@@ -212,7 +269,7 @@ public class AFLGuidance implements Guidance {
                 }
 
                 // Reset trace-bits
-                traceBits = new byte[COVERAGE_MAP_SIZE];
+                clear(traceBits);
 
             } catch (IOException e) {
                 everything_ok = false;
@@ -263,7 +320,9 @@ public class AFLGuidance implements Guidance {
 
         // Set at least one tracebit so that AFL doesn't complain about
         // no instrumentation
-        traceBits[0] = traceBits[0] == 0 ? 1 : traceBits[0];
+        if (traceBits.get(0) == 0) {
+            traceBits.put(0, (byte) 1);
+        }
 
 
         // Check result and set status value
@@ -292,7 +351,7 @@ public class AFLGuidance implements Guidance {
                 // ever consider such an input as interesting enough to
                 // save in its queue
                 for (int i = 1; i < COVERAGE_MAP_SIZE; i++) {
-                    traceBits[i] = 0;
+                    traceBits.put(i, (byte) 0);
                 }
 */
 
@@ -310,18 +369,26 @@ public class AFLGuidance implements Guidance {
             }
         }
 
-        // Send the status value to AFL
-        feedback.putInt(status);
+        try {
+            if (sharedMap == null) {
+                // Send the status value to AFL
+                feedback.putInt(status);
 
-        // Send trace-bits to AFL as a contiguous array
-        for (int i = 0; i < COVERAGE_MAP_SIZE; i++) {
-            feedback.put(traceBits[i]);
-        }
+                // Send trace-bits to AFL as a contiguous array
+                feedback.put(traceBits.array(), 0, COVERAGE_MAP_SIZE);
 
+                // Send feedback to AFL
+                sendFeedback(feedback.position());
+            }
+            // Otherwise, the trace-bits have been written to the shared map during the run
 
-        // Send feedback to AFL
-        try {
-            proxyOutput.write(feedback.array(), 0, feedback.position());
+            sendAdditionalFeedback();
+
+            if (sharedMap != null) {
+                // Send the status value to AFL once the shared map is complete
+                statusBytes.putInt(0, status);
+                proxyOutput.write(statusBytes.array());
+            }
             proxyOutput.flush();
         } catch (IOException e) {
             everything_ok = false;
@@ -329,6 +396,33 @@ public class AFLGuidance implements Guidance {
 
     }
 
+    /**
+     * Sends feedback that follows the trace bits, such as performance counters.
+     *
+     * <p>The default implementation sends nothing. Implementations put
+     * their feedback into the {@link #feedback} buffer and then call
+     * {@link #sendFeedback(int)}.
+     *
+     * @throws IOException if the feedback could not be sent
+     */
+    protected void sendAdditionalFeedback() throws IOException {
+        // Nothing to add
+    }
+
+    /**
+     * Sends the first bytes of the {@link #feedback} buffer to the AFL
+     * proxy. When a shared map is used, the buffer is part of the map
+     * and nothing needs to be sent.
+     *
+     * @param length the number of bytes to send
+     * @throws IOException if the bytes could not be sent
+     */
+    protected void sendFeedback(int length) throws IOException {
+        if (sharedMap == null) {
+            proxyOutput.write(feedback.array(), 0, length);
+        }
+    }
+
     /**
      * Returns a callback to handle trace events.
      *
@@ -382,18 +476,22 @@ public class AFLGuidance implements Guidance {
      * @param index the key in the trace bits map
      */
     protected void incrementTraceBits(int index) {
-        traceBits[index]++;
+        traceBits.put(index, (byte) (traceBits.get(index) + 1));
     }
 
 
     /** Clears the feedback buffer by resetting it to zero. */
     protected void clearFeedbackBuffer() {
+        clear(feedback);
+    }
+
+    private static void clear(ByteBuffer buffer) {
         // These redundant casts are to prevent Java 9's covariant
         // return types to use the new methods that return ByteBuffer
         // instead, which do not exist in JDK 8 and below.
-        ((Buffer) feedback).rewind();
-        feedback.put(FEEDBACK_ZEROS);
-        ((Buffer) feedback).rewind();
+        ((Buffer) buffer).rewind();
+        buffer.put(FEEDBACK_ZEROS, 0, buffer.capacity());
+        ((Buffer) buffer).rewind();
     }
 
     protected void checkForTimeouts() throws TimeoutException {
@@ -39,7 +39,6 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 
-import edu.berkeley.cs.jqf.fuzz.guidance.Result;
 import edu.berkeley.cs.jqf.fuzz.util.Counter;
 import edu.berkeley.cs.jqf.fuzz.util.Hashing;
 import edu.berkeley.cs.jqf.fuzz.util.MapOfCounters;
@@ -204,9 +203,8 @@ public class PerfFuzzGuidance extends AFLGuidance {
 
 
     @Override
-    public void handleResult(Result result, Throwable error) {
-        // First, communicate the coverage information as usual
-        super.handleResult(result, error);
+    protected void sendAdditionalFeedback() throws IOException {
+        // The coverage information has been communicated as usual
 
         // Wait for calling context to be empty
         // (i.e. all AECs are processed)
@@ -267,12 +265,7 @@ public class PerfFuzzGuidance extends AFLGuidance {
         //scores.println("\n");
 
         // Send feedback to AFL
-        try {
-            proxyOutput.write(feedback.array(), 0, PERF_MAP_SIZE * 4);
-            proxyOutput.flush();
-        } catch (IOException e) {
-            everything_ok = false;
-        }
+        sendFeedback(PERF_MAP_SIZE * 4);
     }
 
     protected int hashMemorylocation(int objectId, String field) {
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.fuzz.ei;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A store of interned execution indexes, shared by all inputs of an
+ * {@link ExecutionIndexingGuidance}.
+ *
+ * <p>Execution indexes are kept as a prefix trie in which every node is
+ * a (call-site, count) pair whose parent is the node of the enclosing
+ * frame. A node therefore stands for the execution index formed by the
+ * pairs on its path from the root, and equal execution indexes of different
+ * inputs are represented by the same integer node id. Common prefixes,
+ * such as the frames of the test driver, are stored only once.</p>
+ *
+ * <p>The execution contexts (call stacks without counts) of the nodes are
+ * interned in the same way, so that two nodes have equal execution contexts
+ * if and only if {@link #getContext(int)} returns the same id for both.
+ * Context ids are small and dense, and can be used to index arrays.</p>
+ *
+ * <p>Nodes are only removed by {@link #compact(BitSet)}, which keeps the
+ * nodes that are still referenced and renumbers them. Without compaction,
+ * the trie grows with the number of distinct execution indexes that have
+ * been requested during a fuzzing session.</p>
+ */
+public class ExecutionIndexTrie {
+
+    /** The id of the root node, which stands for the empty prefix. */
+    public static final int ROOT = 0;
+
+    /** Nodes of execution indexes, keyed by (parent, call-site, count). */
+    private final Nodes indexNodes = new Nodes();
+
+    /** Nodes of execution contexts, keyed by (parent, call-site, 0). */
+    private final Nodes contextNodes = new Nodes();
+
+    /** The execution context of every node in {@link #indexNodes}. */
+    private int[] contexts = new int[Nodes.INITIAL_CAPACITY];
+
+    /**
+     * Returns the node of an execution index, creating it if needed.
+     *
+     * @param ei the execution index
+     * @return the id of the node standing for <code>ei</code>
+     */
+    public int intern(ExecutionIndex ei) {
+        int node = ROOT;
+        int[] pairs = ei.ei;
+        for (int i = 0; i < pairs.length; i += 2) {
+            node = intern(node, pairs[i], pairs[i+1]);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the child of a node for a (call-site, count) pair, creating
+     * it if needed.
+     *
+     * @param parent   the node of the enclosing frame, or {@link #ROOT}
+     * @param callSite the call-site or event iid
+     * @param count    the number of times the call-site has been executed in this frame
+     * @return the id of the child node
+     */
+    public int intern(int parent, int callSite, int count) {
+        int node = indexNodes.find(parent, callSite, count);
+        if (node < 0) {
+            int context = contextNodes.intern(contexts[parent], callSite, 0);
+            node = indexNodes.add(parent, callSite, count);
+            if (node == contexts.length) {
+                contexts = Arrays.copyOf(contexts, contexts.length * 2);
+            }
+            contexts[node] = context;
+        }
+        return node;
+    }
+
+    /**
+     * Returns the node of an execution index without creating it.
+     *
+     * @param ei the execution index
+     * @return the id of the node standing for <code>ei</code>, or -1 if
+     *         it has not been interned
+     */
+    public int find(ExecutionIndex ei) {
+        int node = ROOT;
+        int[] pairs = ei.ei;
+        for (int i = 0; i < pairs.length && node >= 0; i += 2) {
+            node = indexNodes.find(node, pairs[i], pairs[i+1]);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the execution context of a node.
+     *
+     * @param node the node id
+     * @return the id of the execution context of <code>node</code>
+     */
+    public int getContext(int node) {
+        return contexts[node];
+    }
+
+    /**
+     * Reconstructs the execution index that a node stands for.
+     *
+     * @param node the node id, which must not be the root
+     * @return a new execution index
+     */
+    public ExecutionIndex getExecutionIndex(int node) {
+        int length = 0;
+        for (int n = node; n != ROOT; n = indexNodes.parents[n]) {
+            length += 2;
+        }
+        int[] ei = new int[length];
+        for (int n = node; n != ROOT; n = indexNodes.parents[n]) {
+            ei[--length] = indexNodes.counts[n];
+            ei[--length] = indexNodes.callSites[n];
+        }
+        return new ExecutionIndex(ei);
+    }
+
+    /**
+     * Returns the number of execution index nodes, including the root.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return indexNodes.size;
+    }
+
+    /**
+     * Returns the number of distinct execution contexts, including the
+     * empty one.
+     *
+     * @return the number of execution contexts
+     */
+    public int numContexts() {
+        return contextNodes.size;
+    }
+
+    /**
+     * Removes all nodes except the retained ones and their ancestors, together
+     * with the execution contexts that are no longer used. The remaining nodes
+     * and contexts are renumbered densely, in their original order.
+     *
+     * <p>Node and context ids that were obtained before the compaction must be
+     * translated using the returned mapping; this includes the nodes cached by
+     * an {@link ExecutionIndexingState}.</p>
+     *
+     * @param retained the ids of the nodes to keep
+     * @return the mapping from old ids to new ids
+     */
+    public Compaction compact(BitSet retained) {
+        int size = indexNodes.size;
+        boolean[] keep = new boolean[size];
+        keep[ROOT] = true;
+        for (int n = retained.nextSetBit(0); n >= 0 && n < size; n = retained.nextSetBit(n+1)) {
+            keep[n] = true;
+        }
+        // Parents are always created before their children, so a single
+        // backwards pass keeps all ancestors
+        boolean[] keepContext = new boolean[contextNodes.size];
+        for (int n = size - 1; n >= 0; n--) {
+            if (keep[n]) {
+                keep[indexNodes.parents[n]] = true;
+                keepContext[contexts[n]] = true;
+            }
+        }
+
+        int[] contextIds = renumber(contextNodes, keepContext);
+        Nodes contextsKept = new Nodes();
+        for (int c = 1; c < keepContext.length; c++) {
+            if (keepContext[c]) {
+                contextsKept.add(contextIds[contextNodes.parents[c]], contextNodes.callSites[c], 0);
+            }
+        }
+
+        int[] nodeIds = renumber(indexNodes, keep);
+        Nodes nodesKept = new Nodes();
+        int[] contextsOfKept = new int[Nodes.INITIAL_CAPACITY];
+        for (int n = 1; n < size; n++) {
+            if (keep[n]) {
+                int node = nodesKept.add(nodeIds[indexNodes.parents[n]], indexNodes.callSites[n], indexNodes.counts[n]);
+                if (node == contextsOfKept.length) {
+                    contextsOfKept = Arrays.copyOf(contextsOfKept, contextsOfKept.length * 2);
+                }
+                contextsOfKept[node] = contextIds[contexts[n]];
+            }
+        }
+
+        indexNodes.replaceWith(nodesKept);
+        contextNodes.replaceWith(contextsKept);
+        contexts = contextsOfKept;
+        return new Compaction(nodeIds, contextIds);
+    }
+
+    /** Returns the new ids of the kept nodes in order, and -1 for the others. */
+    private static int[] renumber(Nodes nodes, boolean[] keep) {
+        int[] ids = new int[nodes.size];
+        int next = 0;
+        for (int n = 0; n < nodes.size; n++) {
+            ids[n] = keep[n] ? next++ : -1;
+        }
+        return ids;
+    }
+
+    /**
+     * The renumbering of nodes and contexts done by {@link #compact(BitSet)}.
+     */
+    public static class Compaction {
+        private final int[] nodes;
+        private final int[] contexts;
+
+        private Compaction(int[] nodes, int[] contexts) {
+            this.nodes = nodes;
+            this.contexts = contexts;
+        }
+
+        /**
+         * Returns the new id of a node.
+         *
+         * @param node the id of the node before compaction
+         * @return the id of the node after compaction, or -1 if it was removed
+         */
+        public int getNode(int node) {
+            return nodes[node];
+        }
+
+        /**
+         * Returns the new id of an execution context.
+         *
+         * @param context the id of the context before compaction
+         * @return the id of the context after compaction, or -1 if it was removed
+         */
+        public int getContext(int context) {
+            return contexts[context];
+        }
+    }
+
+    /**
+     * Trie nodes in parallel arrays, with an open-addressing hash table
+     * from (parent, call-site, count) to node ids.
+     */
+    private static class Nodes {
+        static final int INITIAL_CAPACITY = 1024;
+
+        int[] parents = new int[INITIAL_CAPACITY];
+        int[] callSites = new int[INITIAL_CAPACITY];
+        int[] counts = new int[INITIAL_CAPACITY];
+        int size = 1; // The root is always present
+
+        /** Node ids; 0 marks an empty slot since the root is never a child. */
+        int[] table = new int[2 * INITIAL_CAPACITY];
+
+        private static int hash(int parent, int callSite, int count) {
+            int h = parent * 0x9E3779B1 + callSite * 0x85EBCA6B + count * 0xC2B2AE35;
+            return h ^ (h >>> 16);
+        }
+
+        private int slot(int parent, int callSite, int count) {
+            int mask = table.length - 1;
+            int slot = hash(parent, callSite, count) & mask;
+            int node;
+            while ((node = table[slot]) != 0) {
+                if (parents[node] == parent && callSites[node] == callSite && counts[node] == count) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        int find(int parent, int callSite, int count) {
+            int node = table[slot(parent, callSite, count)];
+            return node == 0 ? -1 : node;
+        }
+
+        int intern(int parent, int callSite, int count) {
+            int node = find(parent, callSite, count);
+            return node < 0 ? add(parent, callSite, count) : node;
+        }
+
+        /** Takes over the nodes of another instance. */
+        void replaceWith(Nodes other) {
+            parents = other.parents;
+            callSites = other.callSites;
+            counts = other.counts;
+            size = other.size;
+            table = other.table;
+        }
+
+        /** Adds a node that is known to be absent. */
+        int add(int parent, int callSite, int count) {
+            if (size == parents.length) {
+                parents = Arrays.copyOf(parents, size * 2);
+                callSites = Arrays.copyOf(callSites, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            int node = size++;
+            parents[node] = parent;
+            callSites[node] = callSite;
+            counts[node] = count;
+            table[slot(parent, callSite, count)] = node;
+            if (size * 2 > table.length) {
+                table = new int[table.length * 2];
+                for (int n = 1; n < size; n++) {
+                    table[slot(parents[n], callSites[n], counts[n])] = n;
+                }
+            }
+            return node;
+        }
+    }
+}
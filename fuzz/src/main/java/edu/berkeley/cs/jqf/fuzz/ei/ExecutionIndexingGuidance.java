@@ -35,11 +35,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -49,7 +53,6 @@ import edu.berkeley.cs.jqf.fuzz.ei.ExecutionIndex.Suffix;
 import edu.berkeley.cs.jqf.fuzz.guidance.GuidanceException;
 import edu.berkeley.cs.jqf.fuzz.guidance.Result;
 import edu.berkeley.cs.jqf.fuzz.util.Coverage;
-import edu.berkeley.cs.jqf.fuzz.util.ProducerHashMap;
 import edu.berkeley.cs.jqf.instrument.tracing.SingleSnoop;
 import edu.berkeley.cs.jqf.instrument.tracing.events.CallEvent;
 import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
@@ -65,13 +68,19 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
     /** The execution indexing logic. */
     protected ExecutionIndexingState eiState;
 
+    /** The execution indexes of all inputs, interned as nodes of a shared trie. */
+    protected final ExecutionIndexTrie eiTrie = new ExecutionIndexTrie();
+
+    /** The size of {@link #eiTrie} beyond which it is compacted, see {@link #compactTrie()}. */
+    private int trieCompactionThreshold = MIN_TRIE_COMPACTION_SIZE;
+
     /**
-     * A map of execution contexts (call stacks) to locations in saved inputs with those contexts.
+     * A map of execution contexts (call stacks) to locations in saved inputs with those contexts,
+     * indexed by the context ids of {@link #eiTrie}. Contexts without locations may be {@code null}.
      *
      * This is a nifty data structure for quickly finding candidates for input splicing.
      */
-    private Map<ExecutionContext, ArrayList<InputLocation>> ecToInputLoc
-            = new ProducerHashMap<>(() -> new ArrayList<>());
+    private ArrayList<ArrayList<InputLocation>> ecToInputLoc = new ArrayList<>();
 
     /** The thread being instrumented for coverage-guided fuzzing. */
     protected Thread appThread;
@@ -100,10 +109,13 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
     /** Max number of contiguous bytes to splice in from another input during the splicing stage. */
     static final int MAX_SPLICE_SIZE = 64; // Bytes
 
+    /** Minimum number of nodes in the execution index trie before it is compacted. */
+    static final int MIN_TRIE_COMPACTION_SIZE = 1 << 16;
+
     /** Whether to splice only in the same sub-tree */
     static final boolean SPLICE_SUBTREE = Boolean.getBoolean("jqf.ei.SPLICE_SUBTREE");
 
-    /** Probability of splicing in {@link MappedInput#fuzz(Random, Map)} */
+    /** Probability of splicing in {@link MappedInput#fuzz(Random, List)} */
     static final double STANDARD_SPLICING_PROBABILITY = 0.0;
 
     /** Probability of splicing in {@link MappedInput#getOrGenerateFresh(ExecutionIndex, Random)}  */
@@ -165,8 +177,8 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
 
                 MappedInput mappedInput = (MappedInput) currentInput;
 
-                // Get the execution index of the last event
-                ExecutionIndex executionIndex = eiState.getExecutionIndex(lastEvent);
+                // Get the execution index of the last event, as a node of the trie
+                int executionIndex = eiState.getExecutionIndexNode(lastEvent);
 
                 // Attempt to get a value from the map, or else generate a random value
                 int value = mappedInput.getOrGenerateFresh(executionIndex, random);
@@ -178,8 +190,15 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
 
     @Override
     public InputStream getInput() throws GuidanceException {
+        // Drop the execution indexes of discarded inputs once the trie has
+        // doubled since the last compaction; the previous run is over, so no
+        // execution indexing state holds on to trie nodes
+        if (eiTrie.size() > trieCompactionThreshold) {
+            compactTrie();
+        }
+
         // First, reset execution indexing state
-        eiState = new ExecutionIndexingState();
+        eiState = new ExecutionIndexingState(eiTrie);
 
         // Unmark "test started"
         testEntered = false;
@@ -288,12 +307,72 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
     }
 
 
+    /**
+     * Removes the execution indexes that are not mapped by any input that
+     * is still in use from {@link #eiTrie}, and renumbers the trie nodes and
+     * execution contexts of the inputs that are.
+     *
+     * <p>Inputs that were executed but not saved leave their execution
+     * indexes behind in the trie, so without compaction the trie grows with
+     * every run. This must only be called between runs, as the execution
+     * indexing state of a run caches trie nodes.</p>
+     */
+    protected void compactTrie() {
+        // Saved inputs, pending seeds, and the sources of splices are in use
+        Set<MappedInput> liveInputs = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Input input : savedInputs) {
+            if (input instanceof MappedInput) {
+                liveInputs.add((MappedInput) input);
+            }
+        }
+        for (Input input : seedInputs) {
+            if (input instanceof MappedInput) {
+                liveInputs.add((MappedInput) input);
+            }
+        }
+        if (currentInput instanceof MappedInput) {
+            liveInputs.add((MappedInput) currentInput);
+        }
+        for (List<InputLocation> inputLocations : ecToInputLoc) {
+            if (inputLocations != null) {
+                for (InputLocation inputLocation : inputLocations) {
+                    liveInputs.add(inputLocation.input);
+                }
+            }
+        }
+
+        BitSet retained = new BitSet();
+        for (MappedInput input : liveInputs) {
+            input.retainKeys(retained);
+        }
+        ExecutionIndexTrie.Compaction compaction = eiTrie.compact(retained);
+        for (MappedInput input : liveInputs) {
+            input.remapKeys(compaction);
+        }
+
+        // Context ids are renumbered as well
+        ArrayList<ArrayList<InputLocation>> remapped = new ArrayList<>(Collections.nCopies(eiTrie.numContexts(), null));
+        for (int ec = 0; ec < ecToInputLoc.size(); ec++) {
+            if (ecToInputLoc.get(ec) != null) {
+                remapped.set(compaction.getContext(ec), ecToInputLoc.get(ec));
+            }
+        }
+        ecToInputLoc = remapped;
+
+        trieCompactionThreshold = Math.max(MIN_TRIE_COMPACTION_SIZE, 2 * eiTrie.size());
+    }
+
     private void mapEcToInputLoc(Input input) {
         if (input instanceof MappedInput) {
             MappedInput mappedInput = (MappedInput) input;
             for (int offset = 0; offset < mappedInput.size(); offset++) {
-                ExecutionIndex ei = mappedInput.orderedKeys.get(offset);
-                ExecutionContext ec = new ExecutionContext(ei);
+                int ec = eiTrie.getContext(mappedInput.orderedKeys[offset]);
+                while (ecToInputLoc.size() <= ec) {
+                    ecToInputLoc.add(null);
+                }
+                if (ecToInputLoc.get(ec) == null) {
+                    ecToInputLoc.set(ec, new ArrayList<>());
+                }
                 ecToInputLoc.get(ec).add(new InputLocation(mappedInput, offset));
             }
         }
@@ -355,6 +434,11 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
      * this input map (a fresh value is generated and stored in the map
      * if the key is not mapped).</p>
      *
+     * <p>Execution indexes are keyed by their node in the guidance's
+     * {@link ExecutionIndexTrie}, and the map is kept in parallel arrays
+     * of node ids and values, with an open-addressing index from node ids
+     * to positions in those arrays.</p>
+     *
      * <p>Inputs should not be publicly mutable. The only way to mutate
      * an input is via the {@link #fuzz} method which produces a new input
      * object with some values mutated.</p>
@@ -367,23 +451,35 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          * When this field is {@code false}, the field {@link #orderedKeys}
          * is not yet populated and must not be used. When this field is {@code true},
          * the input should be considered immutable and neither {@link #orderedKeys} nor
-         * {@link #valuesMap} must be modified.
+         * {@link #keys} and {@link #values} must be modified.
          */
         protected boolean executed = false;
 
-        /** A map from execution indexes to the byte (0-255) to be returned at that index. */
-        protected LinkedHashMap<ExecutionIndex, Integer> valuesMap;
+        /** The trie nodes of the execution indexes that are mapped, in order of insertion. */
+        protected int[] keys;
+
+        /** The byte (0-255) to be returned at each of the {@link #keys}. */
+        protected int[] values;
+
+        /** The number of mapped execution indexes. */
+        protected int numMappings;
+
+        /** Positions in {@link #keys} plus one, hashed by node id; 0 marks an empty slot. */
+        private int[] slots;
 
         /**
-         * A list of execution indexes that are actually requested by the test program when
-         * executed with this input.
+         * The trie nodes of the execution indexes that are actually requested by the
+         * test program when executed with this input.
          *
          * <p>This list is initially empty, and is populated at the end of the run, after which
          * it is frozen. The list of keys are in order of their occurrence in the execution
          * trace and can therefore be used to serialize the map into a sequence of bytes.</p>
          *
          */
-        protected ArrayList<ExecutionIndex> orderedKeys = new ArrayList<>();
+        protected int[] orderedKeys = new int[16];
+
+        /** The number of entries in {@link #orderedKeys}. */
+        protected int numOrderedKeys;
 
 
         private List<InputPrefixMapping> demandDrivenSpliceMap = new ArrayList<>();
@@ -393,7 +489,9 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          */
         public MappedInput() {
             super();
-            valuesMap = new LinkedHashMap<>();
+            keys = new int[16];
+            values = new int[16];
+            slots = new int[32];
         }
 
         /**
@@ -403,7 +501,31 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          */
         public MappedInput(MappedInput toClone) {
             super(toClone);
-            valuesMap = new LinkedHashMap<>(toClone.valuesMap);
+            keys = Arrays.copyOf(toClone.keys, toClone.numMappings + 16);
+            values = Arrays.copyOf(toClone.values, toClone.numMappings + 16);
+            numMappings = toClone.numMappings;
+            slots = toClone.slots.clone();
+        }
+
+        /** Adds the trie nodes that this input maps or has requested to a set of nodes. */
+        void retainKeys(BitSet retained) {
+            for (int pos = 0; pos < numMappings; pos++) {
+                retained.set(keys[pos]);
+            }
+            for (int i = 0; i < numOrderedKeys; i++) {
+                retained.set(orderedKeys[i]);
+            }
+        }
+
+        /** Translates the trie nodes of this input after the trie has been compacted. */
+        void remapKeys(ExecutionIndexTrie.Compaction compaction) {
+            for (int pos = 0; pos < numMappings; pos++) {
+                keys[pos] = compaction.getNode(keys[pos]);
+            }
+            for (int i = 0; i < numOrderedKeys; i++) {
+                orderedKeys[i] = compaction.getNode(orderedKeys[i]);
+            }
+            rehash(slots.length);
         }
 
         /**
@@ -413,7 +535,51 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          * @return the size of this input
          */
         public final int size() {
-            return valuesMap.size();
+            return numMappings;
+        }
+
+        /** Returns the slot of a node in {@link #slots}, which is empty if the node is not mapped. */
+        private int slotOf(int key) {
+            int mask = slots.length - 1;
+            int h = key * 0x9E3779B1;
+            int slot = (h ^ (h >>> 16)) & mask;
+            int pos;
+            while ((pos = slots[slot]) != 0 && keys[pos-1] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /** Returns the position of a node in {@link #keys}, or -1 if it is not mapped. */
+        private int indexOf(int key) {
+            return slots[slotOf(key)] - 1;
+        }
+
+        /** Maps a node to a value, replacing an existing mapping in place. */
+        private void put(int key, int val) {
+            int slot = slotOf(key);
+            if (slots[slot] != 0) {
+                values[slots[slot]-1] = val;
+                return;
+            }
+            if (numMappings == keys.length) {
+                keys = Arrays.copyOf(keys, numMappings * 2);
+                values = Arrays.copyOf(values, numMappings * 2);
+            }
+            keys[numMappings] = key;
+            values[numMappings] = val;
+            numMappings++;
+            slots[slot] = numMappings;
+            if (numMappings * 2 > slots.length) {
+                rehash(slots.length * 2);
+            }
+        }
+
+        private void rehash(int numSlots) {
+            slots = new int[numSlots];
+            for (int pos = 0; pos < numMappings; pos++) {
+                slots[slotOf(keys[pos])] = pos + 1;
+            }
         }
 
         /**
@@ -428,34 +594,32 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          *                               has been executed
          */
         private final int getValueAtOffset(int offset) throws IndexOutOfBoundsException, IllegalStateException {
-            if (!executed) {
-                throw new IllegalStateException("Cannot get with offset before execution");
-            }
-
             // Return the mapping for the execution index queried at the offset
-            ExecutionIndex ei = orderedKeys.get(offset);
-            return valuesMap.get(ei);
+            return values[indexOf(getKeyAtOffset(offset))];
         }
 
 
         /**
-         * Returns the execution index mapped by this input at a given offset.
+         * Returns the trie node of the execution index mapped by this input at a given offset.
          *
          * @param offset the byte offset in the input
-         * @return the execution index value at that offset
+         * @return the execution index node at that offset
          *
          * @throws IndexOutOfBoundsException if the offset is negative or
          *      larger than {@link #size}()-1
          * @throws IllegalStateException if this method is called before the input
          *                               has been executed
          */
-        private final ExecutionIndex getKeyAtOffset(int offset) throws IndexOutOfBoundsException, IllegalStateException {
+        private final int getKeyAtOffset(int offset) throws IndexOutOfBoundsException, IllegalStateException {
             if (!executed) {
                 throw new IllegalStateException("Cannot get with offset before execution");
             }
+            if (offset < 0 || offset >= numOrderedKeys) {
+                throw new IndexOutOfBoundsException("Offset: " + offset + ", Size: " + numOrderedKeys);
+            }
 
             // Return the execution index queried at the offset
-            return orderedKeys.get(offset);
+            return orderedKeys[offset];
         }
 
         private InputPrefixMapping getInputPrefixMapping(ExecutionIndex ei) {
@@ -480,17 +644,32 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          */
         @Override
         public int getOrGenerateFresh(ExecutionIndex key, Random random) throws IllegalStateException {
+            return getOrGenerateFresh(eiTrie.intern(key), random);
+        }
+
+        /**
+         * Retrieve a value for an execution index if mapped, else generate
+         * a fresh value.
+         *
+         * @param key    the trie node of the execution index of the trace event requesting a new byte
+         * @param random the PRNG
+         * @return the value to return to the quickcheck-like generator
+         * @throws IllegalStateException if this method is called after the input
+         *                               has been executed
+         */
+        public int getOrGenerateFresh(int key, Random random) throws IllegalStateException {
             if (executed) {
                 throw new IllegalStateException("Cannot generate fresh values after execution");
             }
 
             // If we reached a limit, then just return EOF
-            if (orderedKeys.size() >= MAX_INPUT_SIZE) {
+            if (numOrderedKeys >= MAX_INPUT_SIZE) {
                 return -1;
             }
 
             // Try to get existing values
-            Integer val = valuesMap.get(key);
+            int pos = indexOf(key);
+            Integer val = pos < 0 ? null : values[pos];
 
             // If not, generate a new value
             if (val == null) {
@@ -498,7 +677,8 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
 
                 // If we have an input prefix mapping for this execution index,
                 // then splice from the source input
-                if ((ipm = getInputPrefixMapping(key)) != null) {
+                if (!demandDrivenSpliceMap.isEmpty() &&
+                        (ipm = getInputPrefixMapping(eiTrie.getExecutionIndex(key))) != null) {
                     Prefix sourcePrefix = ipm.sourcePrefix;
                     Suffix sourceSuffix = ipm.sourcePrefix.getEi().getSuffixOfPrefix(sourcePrefix);
                     ExecutionIndex sourceEi = new ExecutionIndex(sourcePrefix, sourceSuffix);
@@ -526,15 +706,23 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
                 // Put the new value into the map
                 assert (val != null);
 
-                valuesMap.put(key, val);
+                put(key, val);
             }
 
             // Mark this key as visited
-            orderedKeys.add(key);
+            addOrderedKey(key);
 
             return val;
         }
 
+        /** Appends a node to {@link #orderedKeys}. */
+        protected final void addOrderedKey(int key) {
+            if (numOrderedKeys == orderedKeys.length) {
+                orderedKeys = Arrays.copyOf(orderedKeys, numOrderedKeys * 2);
+            }
+            orderedKeys[numOrderedKeys++] = key;
+        }
+
 
         /**
          * Gets the byte mapped by this input at a given execution index.
@@ -546,7 +734,9 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          *      larger than {@link #size}()-1
          */
         protected final Integer getValueAtKey(ExecutionIndex ei) throws IndexOutOfBoundsException {
-            return valuesMap.get(ei);
+            int key = eiTrie.find(ei);
+            int pos = key < 0 ? -1 : indexOf(key);
+            return pos < 0 ? null : values[pos];
         }
 
         /**
@@ -561,11 +751,24 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          *                               has been executed
          */
         protected final void setValueAtKey(ExecutionIndex ei, int val) throws IndexOutOfBoundsException, IllegalStateException {
+            setValueAtKey(eiTrie.intern(ei), val);
+        }
+
+        /**
+         * Sets the byte mapped by this input at the trie node of an execution index.
+         *
+         * @param key the execution index node at which to insert
+         * @param val the byte to insert
+         *
+         * @throws IllegalStateException if this method is called after the input
+         *                               has been executed
+         */
+        protected final void setValueAtKey(int key, int val) throws IllegalStateException {
             if (executed) {
                 throw new IllegalStateException("Cannot set value before execution");
             }
 
-            valuesMap.put(ei, val);
+            put(key, val);
         }
 
         /**
@@ -578,12 +781,24 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          */
         @Override
         public void gc() {
-            LinkedHashMap<ExecutionIndex, Integer> newMap = new LinkedHashMap<>();
-            for (ExecutionIndex key : orderedKeys) {
-                newMap.put(key, valuesMap.get(key));
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            int[] positions = new int[numOrderedKeys];
+            for (int i = 0; i < numOrderedKeys; i++) {
+                positions[i] = indexOf(orderedKeys[i]);
             }
-            valuesMap = newMap;
-            assert valuesMap.size() == orderedKeys.size() : "valuesMap and orderedKeys must be of same size";
+
+            keys = new int[numOrderedKeys];
+            values = new int[numOrderedKeys];
+            numMappings = 0;
+            slots = new int[Integer.highestOneBit(Math.max(numOrderedKeys, 8)) * 4];
+            for (int pos : positions) {
+                put(oldKeys[pos], oldValues[pos]);
+            }
+            assert numMappings == numOrderedKeys : "values and orderedKeys must be of same size";
+
+            // The ordered keys do not grow any more
+            orderedKeys = Arrays.copyOf(orderedKeys, numOrderedKeys);
 
             // Set the `executed` flag
             executed = true;
@@ -593,7 +808,7 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          * Return a new input derived from this one with some values
          * mutated.
          *
-         * Pass-through to {@link #fuzz(Random, Map)}
+         * Pass-through to {@link #fuzz(Random, List)}
          *
          */
         @Override
@@ -622,9 +837,11 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
          * {@link #MAX_SPLICE_SIZE}.</p>
          *
          * @param random the PRNG
+         * @param ecToInputLoc input locations indexed by execution context id, see
+         *                     {@link ExecutionIndexTrie#getContext(int)}
          * @return a newly fuzzed input
          */
-        protected MappedInput fuzz(Random random, Map<ExecutionContext, ArrayList<InputLocation>> ecToInputLoc) {
+        protected MappedInput fuzz(Random random, List<? extends List<InputLocation>> ecToInputLoc) {
             // Derive new input from this object as source
             MappedInput newInput = new MappedInput(this);
 
@@ -645,14 +862,14 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
                         // Choose an execution context at which to splice at
                         // Note: We get EI and value from `this` rather than `newInput`
                         // because `this` has already been executed
-                        int targetOffset = random.nextInt(newInput.valuesMap.size());
-                        ExecutionIndex targetEi = this.getKeyAtOffset(targetOffset);
+                        int targetOffset = random.nextInt(newInput.size());
+                        int targetKey = this.getKeyAtOffset(targetOffset);
 
-                        ExecutionContext targetEc = new ExecutionContext(targetEi);
+                        int targetEc = eiTrie.getContext(targetKey);
                         int valueAtTarget = this.getValueAtOffset(targetOffset);
 
                         // Find a suitable input location to splice from
-                        ArrayList<InputLocation> inputLocations = ecToInputLoc.get(targetEc);
+                        List<InputLocation> inputLocations = getInputLocations(ecToInputLoc, targetEc);
 
                         // If this was a bad choice of target, try again without penalty if possible
                         if (inputLocations.size() == 0) {
@@ -685,7 +902,8 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
                             int splicedBytes = 0;
                             if (SPLICE_SUBTREE) {
                                 // Do not splice if there is no common suffix between EI of source and target
-                                ExecutionIndex sourceEi = sourceInput.getKeyAtOffset(sourceOffset);
+                                ExecutionIndex targetEi = eiTrie.getExecutionIndex(targetKey);
+                                ExecutionIndex sourceEi = eiTrie.getExecutionIndex(sourceInput.getKeyAtOffset(sourceOffset));
                                 Suffix suffix = targetEi.getCommonSuffix(sourceEi);
                                 if (suffix.size() == 0) {
                                     continue;
@@ -699,14 +917,14 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
                                 // OK, this looks good. Let's splice!
                                 int srcIdx = sourceOffset;
                                 while (srcIdx < sourceInput.size()) {
-                                    ExecutionIndex candidateEi = sourceInput.getKeyAtOffset(srcIdx);
+                                    ExecutionIndex candidateEi = eiTrie.getExecutionIndex(sourceInput.getKeyAtOffset(srcIdx));
                                     if (candidateEi.hasPrefix(sourcePrefix) == false) {
                                         // We are no more in the same sub-tree as sourceEi
                                         break;
                                     }
                                     Suffix spliceSuffix = candidateEi.getSuffixOfPrefix(sourcePrefix);
                                     ExecutionIndex spliceEi = new ExecutionIndex(targetPrefix, spliceSuffix);
-                                    newInput.valuesMap.put(spliceEi, sourceInput.valuesMap.get(candidateEi));
+                                    newInput.put(eiTrie.intern(spliceEi), sourceInput.getValueAtOffset(srcIdx));
 
                                     srcIdx++;
                                 }
@@ -720,7 +938,7 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
                                 int tgtSize = newInput.size();
                                 while (splicedBytes < spliceSize && src < srcSize && tgt < tgtSize) {
                                     int val = sourceInput.getValueAtOffset(src);
-                                    ExecutionIndex key = this.getKeyAtOffset(tgt);
+                                    int key = this.getKeyAtOffset(tgt);
                                     newInput.setValueAtKey(key, val);
 
                                     splicedBytes++;
@@ -751,7 +969,7 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
                 for (int mutation = 1; mutation <= numMutations; mutation++) {
 
                     // Select a random offset and size
-                    int offset = random.nextInt(newInput.valuesMap.size());
+                    int offset = random.nextInt(newInput.size());
                     int mutationSize = sampleGeometric(random, MEAN_MUTATION_SIZE);
                     // infoLog("[%d] Mutating %d bytes at offset %d", mutation, mutationSize, offset);
 
@@ -762,27 +980,16 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
                         newInput.desc += "=0";
                     }
 
-                    // Iterate over all entries in the value map
-                    Iterator<Map.Entry<ExecutionIndex, Integer>> entryIterator
-                            = newInput.valuesMap.entrySet().iterator();
-                    ExecutionContext ecToMutate = null;
-                    for (int i = 0; entryIterator.hasNext(); i++) {
-                        Map.Entry<ExecutionIndex, Integer> e = entryIterator.next();
-                        // Only mutate `mutationSize` contiguous entries from
-                        // the randomly selected `idx`.
-                        if (i >= offset && i < (offset + mutationSize)) {
-                            ExecutionContext currentEc = new ExecutionContext(e.getKey());
-                            if (ecToMutate == null) {
-                                ecToMutate = currentEc;
-                            } else if (!ecToMutate.equals(currentEc)) {
-                                break;
-                            }
-                            // infoLog("Mutating: %s", e.getKey());
-                            // Apply a random mutation
-                            int mutatedValue = setToZero ? 0 : random.nextInt(256);
-                            e.setValue(mutatedValue);
-
+                    // Only mutate `mutationSize` contiguous entries from
+                    // the randomly selected `idx`, as long as they share an execution context
+                    int end = Math.min(offset + mutationSize, newInput.size());
+                    int ecToMutate = eiTrie.getContext(newInput.keys[offset]);
+                    for (int i = offset; i < end; i++) {
+                        if (eiTrie.getContext(newInput.keys[i]) != ecToMutate) {
+                            break;
                         }
+                        // Apply a random mutation
+                        newInput.values[i] = setToZero ? 0 : random.nextInt(256);
                     }
                 }
             }
@@ -795,21 +1002,36 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
         public Iterator<Integer> iterator() {
             return new Iterator<Integer>() {
 
-                Iterator<ExecutionIndex> keyIt = orderedKeys.iterator();
+                int offset = 0;
 
                 @Override
                 public boolean hasNext() {
-                    return keyIt.hasNext();
+                    return offset < numOrderedKeys;
                 }
 
                 @Override
                 public Integer next() {
-                    return valuesMap.get(keyIt.next());
+                    if (offset >= numOrderedKeys) {
+                        throw new NoSuchElementException();
+                    }
+                    return values[indexOf(orderedKeys[offset++])];
                 }
             };
         }
     }
 
+    /**
+     * Returns the input locations that have a given execution context.
+     *
+     * @param ecToInputLoc input locations indexed by execution context id
+     * @param ec           the execution context id
+     * @return the input locations, which may be empty
+     */
+    static List<InputLocation> getInputLocations(List<? extends List<InputLocation>> ecToInputLoc, int ec) {
+        List<InputLocation> inputLocations = ec < ecToInputLoc.size() ? ecToInputLoc.get(ec) : null;
+        return inputLocations == null ? Collections.emptyList() : inputLocations;
+    }
+
     static class InputLocation {
         private final MappedInput input;
         private final int offset;
@@ -844,7 +1066,7 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
         }
 
         @Override
-        public int getOrGenerateFresh(ExecutionIndex key, Random random) {
+        public int getOrGenerateFresh(int key, Random random) {
             int value;
             try {
                 value = in.read();
@@ -866,8 +1088,8 @@ public class ExecutionIndexingGuidance extends ZestGuidance {
             }
 
             // Populate the value map
-            orderedKeys.add(key);
-            valuesMap.put(key, value);
+            addOrderedKey(key);
+            setValueAtKey(key, value);
 
             return value;
         }
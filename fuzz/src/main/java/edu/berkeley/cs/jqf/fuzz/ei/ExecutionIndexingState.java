@@ -54,7 +54,30 @@ public class ExecutionIndexingState implements TraceEventVisitor {
     private ArrayList<Counter> stackOfCounters = new ArrayList<>();
     private int[] rollingIndex = new int[2*MAX_SUPPORTED_DEPTH];
 
+    /** The trie in which execution indexes are interned, if any. */
+    private final ExecutionIndexTrie trie;
+
+    /** The trie nodes of the frames on the stack; valid up to {@link #internedDepth}. */
+    private int[] rollingNodes;
+
+    /** The number of frames whose trie nodes in {@link #rollingNodes} are up to date. */
+    private int internedDepth = 0;
+
     public ExecutionIndexingState() {
+        this(null);
+    }
+
+    /**
+     * Creates an execution indexing state whose execution indexes can also be
+     * retrieved as nodes of a trie.
+     *
+     * @param trie the trie in which to intern execution indexes
+     * @see #getExecutionIndexNode(TraceEvent)
+     */
+    public ExecutionIndexingState(ExecutionIndexTrie trie) {
+        this.trie = trie;
+        this.rollingNodes = trie == null ? null : new int[MAX_SUPPORTED_DEPTH];
+
         // Create a counter for depth = 0
         stackOfCounters.add(new NonZeroCachingCounter(COUNTER_SIZE));
     }
@@ -67,6 +90,9 @@ public class ExecutionIndexingState implements TraceEventVisitor {
         rollingIndex[2*depth] = e.getIid();
         rollingIndex[2*depth + 1] = count;
 
+        // The frame at this depth has changed
+        internedDepth = Math.min(internedDepth, depth);
+
         // Increment depth
         depth++;
 
@@ -88,17 +114,22 @@ public class ExecutionIndexingState implements TraceEventVisitor {
 
         // Decrement depth
         depth--;
+        internedDepth = Math.min(internedDepth, depth);
 
         assert (depth >= 0);
     }
 
-    public ExecutionIndex getExecutionIndex(TraceEvent e) {
+    private void countEvent(TraceEvent e) {
         // Increment counter for event (note: this is subject to hash collisions)
         int count = stackOfCounters.get(depth).increment(e.getIid());
 
         // Add to rolling execution index
         rollingIndex[2*depth] = e.getIid();
         rollingIndex[2*depth + 1] = count;
+    }
+
+    public ExecutionIndex getExecutionIndex(TraceEvent e) {
+        countEvent(e);
 
         // Snapshot the rolling index
         int size = 2*(depth+1); // 2 integers for each depth value
@@ -108,6 +139,36 @@ public class ExecutionIndexingState implements TraceEventVisitor {
         return new ExecutionIndex(ei);
     }
 
+    /**
+     * Computes the execution index of an event like {@link #getExecutionIndex(TraceEvent)},
+     * but returns its node in the trie instead of a new execution index.
+     *
+     * <p>The nodes of the frames on the stack are remembered, so that only the
+     * frames that have been entered since the previous call need to be looked up.</p>
+     *
+     * @param e the trace event
+     * @return the trie node of the execution index of <code>e</code>
+     * @throws IllegalStateException if this state was created without a trie
+     */
+    public int getExecutionIndexNode(TraceEvent e) {
+        if (trie == null) {
+            throw new IllegalStateException("No trie to intern execution indexes in");
+        }
+
+        countEvent(e);
+
+        // Intern the frames that have changed since the last lookup
+        int node = internedDepth == 0 ? ExecutionIndexTrie.ROOT : rollingNodes[internedDepth-1];
+        for (int d = internedDepth; d < depth; d++) {
+            node = trie.intern(node, rollingIndex[2*d], rollingIndex[2*d + 1]);
+            rollingNodes[d] = node;
+        }
+        internedDepth = depth;
+
+        // Then the event itself
+        return trie.intern(node, rollingIndex[2*depth], rollingIndex[2*depth + 1]);
+    }
+
     @Override
     public void visitCallEvent(CallEvent c) {
         this.pushCall(c);
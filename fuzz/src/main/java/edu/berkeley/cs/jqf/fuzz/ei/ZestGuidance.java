@@ -37,6 +37,7 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.time.Duration;
 import java.util.ArrayDeque;
@@ -50,6 +51,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -485,22 +487,54 @@ public class ZestGuidance implements Guidance {
      * to mutate.
      */
     protected InputStream createParameterStream() {
-        // Return an input stream that reads bytes from a linear array
-        return new InputStream() {
-            int bytesRead = 0;
+        // Return the input stream that reads bytes from a linear array
+        linearInputStream.bytesRead = 0;
+        return linearInputStream;
+    }
+
+    /** The stream returned by {@link #createParameterStream()}, which is reused for every run. */
+    private final LinearInputStream linearInputStream = new LinearInputStream();
 
-            @Override
-            public int read() throws IOException {
-                assert currentInput instanceof LinearInput : "ZestGuidance should only mutate LinearInput(s)";
+    /**
+     * An input stream that reads the bytes of the current {@link LinearInput},
+     * without boxing the bytes or their positions.
+     */
+    private class LinearInputStream extends InputStream {
+        int bytesRead = 0;
+
+        @Override
+        public int read() throws IOException {
+            assert currentInput instanceof LinearInput : "ZestGuidance should only mutate LinearInput(s)";
+
+            // For linear inputs, get with key = bytesRead (which is then incremented)
+            LinearInput linearInput = (LinearInput) currentInput;
+            // Attempt to get a value from the array, or else generate a random value
+            int ret = linearInput.getOrGenerateFresh(bytesRead++, random);
+            // infoLog("read(%d) = %d", bytesRead, ret);
+            return ret;
+        }
 
-                // For linear inputs, get with key = bytesRead (which is then incremented)
-                LinearInput linearInput = (LinearInput) currentInput;
-                // Attempt to get a value from the list, or else generate a random value
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            // The same checks as InputStream#read(byte[], int, int)
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException("Range [" + off + ", " + off + " + " + len +
+                        ") out of bounds for length " + b.length);
+            }
+            if (len == 0) {
+                return 0;
+            }
+            assert currentInput instanceof LinearInput : "ZestGuidance should only mutate LinearInput(s)";
+            LinearInput linearInput = (LinearInput) currentInput;
+            for (int i = 0; i < len; i++) {
                 int ret = linearInput.getOrGenerateFresh(bytesRead++, random);
-                // infoLog("read(%d) = %d", bytesRead, ret);
-                return ret;
+                if (ret < 0) {
+                    return i == 0 ? -1 : i;
+                }
+                b[off + i] = (byte) ret;
             }
-        };
+            return len;
+        }
     }
 
     @Override
@@ -765,10 +799,7 @@ public class ZestGuidance implements Guidance {
 
     protected void writeCurrentInputToFile(File saveFile) throws IOException {
         try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(saveFile))) {
-            for (Integer b : currentInput) {
-                assert (b >= 0 && b < 256);
-                out.write(b);
-            }
+            currentInput.writeTo(out);
         }
 
     }
@@ -948,6 +979,19 @@ public class ZestGuidance implements Guidance {
         public abstract Input fuzz(Random random);
         public abstract void gc();
 
+        /**
+         * Writes the bytes of this input.
+         *
+         * @param out the stream to write to
+         * @throws IOException if the bytes could not be written
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            for (Integer b : this) {
+                assert (b >= 0 && b < 256);
+                out.write(b);
+            }
+        }
+
 
 
         /**
@@ -981,30 +1025,56 @@ public class ZestGuidance implements Guidance {
 
     public class LinearInput extends Input<Integer> {
 
-        /** A list of byte values (0-255) ordered by their index. */
-        protected ArrayList<Integer> values;
+        /** The byte values ordered by their index; only the first {@link #size} are used. */
+        protected byte[] values;
+
+        /** The number of byte values. */
+        protected int size = 0;
+
+        /**
+         * Whether {@link #values} may be shared with a parent or child input.
+         *
+         * <p>A mutant shares the values of its parent until one of them
+         * writes, which then first copies the values (copy-on-write).</p>
+         */
+        private boolean shared = false;
 
         /** The number of bytes requested so far */
         protected int requested = 0;
 
         public LinearInput() {
             super();
-            this.values = new ArrayList<>();
+            this.values = new byte[16];
         }
 
         public LinearInput(LinearInput other) {
             super(other);
-            this.values = new ArrayList<>(other.values);
+            this.values = other.values;
+            this.size = other.size;
+            this.shared = true;
+            other.shared = true;
         }
 
 
         @Override
         public int getOrGenerateFresh(Integer key, Random random) {
+            return getOrGenerateFresh(key.intValue(), random);
+        }
+
+        /**
+         * Returns the byte value at a position, or generates it if it
+         * lies just beyond the end of the input.
+         *
+         * @param key the position, which must be the number of bytes requested so far
+         * @param random the source of fresh values
+         * @return the byte value (0-255), or -1 for end-of-stream
+         */
+        public int getOrGenerateFresh(int key, Random random) {
             // Otherwise, make sure we are requesting just beyond the end-of-list
-            // assert (key == values.size());
+            // assert (key == size);
             if (key != requested) {
                 throw new IllegalStateException(String.format("Bytes from linear input out of order. " +
-                        "Size = %d, Key = %d", values.size(), key));
+                        "Size = %d, Key = %d", size, key));
             }
 
             // Don't generate over the limit
@@ -1012,11 +1082,11 @@ public class ZestGuidance implements Guidance {
                 return -1;
             }
 
-            // If it exists in the list, return it
-            if (key < values.size()) {
+            // If it exists in the array, return it
+            if (key < size) {
                 requested++;
                 // infoLog("Returning old byte at key=%d, total requested=%d", key, requested);
-                return values.get(key);
+                return values[key] & 0xFF;
             }
 
             // Handle end of stream
@@ -1025,20 +1095,38 @@ public class ZestGuidance implements Guidance {
             } else {
                 // Just generate a random input
                 int val = random.nextInt(256);
-                values.add(val);
+                append(val);
                 requested++;
                 // infoLog("Generating fresh byte at key=%d, total requested=%d", key, requested);
                 return val;
             }
         }
 
+        /** Appends a byte value, growing the array if needed. */
+        protected void append(int value) {
+            if (shared || size == values.length) {
+                values = Arrays.copyOf(values, Math.max(16, size == values.length ? size * 2 : values.length));
+                shared = false;
+            }
+            values[size++] = (byte) value;
+        }
+
+        /** Overwrites the byte value at a position below {@link #size}. */
+        protected void set(int index, int value) {
+            if (shared) {
+                values = Arrays.copyOf(values, size);
+                shared = false;
+            }
+            values[index] = (byte) value;
+        }
+
         @Override
         public int size() {
-            return values.size();
+            return size;
         }
 
         /**
-         * Truncates the input list to remove values that were never actually requested.
+         * Truncates the input to remove values that were never actually requested.
          *
          * <p>Although this operation mutates the underlying object, the effect should
          * not be externally visible (at least as long as the test executions are
@@ -1047,13 +1135,15 @@ public class ZestGuidance implements Guidance {
         @Override
         public void gc() {
             // Remove elements beyond "requested"
-            values = new ArrayList<>(values.subList(0, requested));
-            values.trimToSize();
+            size = Math.min(size, requested);
+            if (!shared && values.length > size) {
+                values = Arrays.copyOf(values, size);
+            }
         }
 
         @Override
         public Input fuzz(Random random) {
-            // Clone this input to create initial version of new child
+            // Create the new child, which shares the values of this input until it mutates them
             LinearInput newInput = new LinearInput(this);
 
             // Stack a bunch of mutations
@@ -1065,7 +1155,7 @@ public class ZestGuidance implements Guidance {
             for (int mutation = 1; mutation <= numMutations; mutation++) {
 
                 // Select a random offset and size
-                int offset = random.nextInt(newInput.values.size());
+                int offset = random.nextInt(newInput.size);
                 int mutationSize = sampleGeometric(random, MEAN_MUTATION_SIZE);
 
                 // desc += String.format(":%d@%d", mutationSize, idx);
@@ -1073,22 +1163,42 @@ public class ZestGuidance implements Guidance {
                 // Mutate a contiguous set of bytes from offset
                 for (int i = offset; i < offset + mutationSize; i++) {
                     // Don't go past end of list
-                    if (i >= newInput.values.size()) {
+                    if (i >= newInput.size) {
                         break;
                     }
 
                     // Otherwise, apply a random mutation
                     int mutatedValue = setToZero ? 0 : random.nextInt(256);
-                    newInput.values.set(i, mutatedValue);
+                    newInput.set(i, mutatedValue);
                 }
             }
 
             return newInput;
         }
 
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(values, 0, size);
+        }
+
         @Override
         public Iterator<Integer> iterator() {
-            return values.iterator();
+            return new Iterator<Integer>() {
+                int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public Integer next() {
+                    if (index >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return values[index++] & 0xFF;
+                }
+            };
         }
     }
 
@@ -1104,7 +1214,7 @@ public class ZestGuidance implements Guidance {
         }
 
         @Override
-        public int getOrGenerateFresh(Integer key, Random random) {
+        public int getOrGenerateFresh(int key, Random random) {
             int value;
             try {
                 value = in.read();
@@ -1113,15 +1223,15 @@ public class ZestGuidance implements Guidance {
 
             }
 
-            // assert (key == values.size())
-            if (key != values.size()) {
+            // assert (key == size)
+            if (key != size) {
                 throw new IllegalStateException(String.format("Bytes from seed out of order. " +
-                        "Size = %d, Key = %d", values.size(), key));
+                        "Size = %d, Key = %d", size, key));
             }
 
             if (value >= 0) {
                 requested++;
-                values.add(value);
+                append(value);
             }
 
             // If value is -1, then it is returned (as EOF) but not added to the list
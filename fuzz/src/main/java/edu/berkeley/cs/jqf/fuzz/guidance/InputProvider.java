@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.fuzz.guidance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of inputs that exist only in memory.
+ *
+ * <p>Guidances that generate file-based inputs can register the
+ * lines of a generated file under the path at which that file would
+ * otherwise have been written. Test drivers that read their inputs
+ * through this class will then see the registered lines without the
+ * file ever touching the disk. Paths that have not been registered
+ * are read from the file system as usual.</p>
+ *
+ * <p>This class lives outside of the instrumented packages, so reading
+ * an input through it does not contribute to the coverage of a trial.</p>
+ */
+public final class InputProvider {
+
+    /** Lines of in-memory inputs, keyed by the path they stand in for. */
+    private static final Map<String, List<String>> inputs = new ConcurrentHashMap<>();
+
+    private InputProvider() {}
+
+    /**
+     * Registers the lines of an in-memory input.
+     *
+     * @param path  the path at which the input would otherwise be stored
+     * @param lines the lines of the input, without line terminators
+     */
+    public static void register(String path, List<String> lines) {
+        inputs.put(path, lines);
+    }
+
+    /**
+     * Removes an in-memory input, if it was registered.
+     *
+     * @param path the path of the input to remove
+     */
+    public static void unregister(String path) {
+        inputs.remove(path);
+    }
+
+    /**
+     * Returns the lines of an in-memory input.
+     *
+     * @param path the path of the input
+     * @return the registered lines, or <tt>null</tt> if nothing is
+     *         registered at <tt>path</tt>
+     */
+    public static List<String> get(String path) {
+        return inputs.get(path);
+    }
+
+    /**
+     * Returns whether an input exists either in memory or on disk.
+     *
+     * @param path the path of the input
+     * @return <tt>true</tt> iff the input can be read
+     */
+    public static boolean exists(String path) {
+        return inputs.containsKey(path) || Files.exists(Paths.get(path));
+    }
+
+    /**
+     * Reads all lines of an input, preferring an in-memory input over
+     * the file system.
+     *
+     * @param path the path of the input
+     * @return the lines of the input
+     * @throws IOException if the input is not in memory and the file
+     *                     cannot be read
+     */
+    public static List<String> readAllLines(String path) throws IOException {
+        List<String> lines = inputs.get(path);
+        if (lines != null) {
+            return lines;
+        }
+        return Files.readAllLines(Paths.get(path));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.fuzz.junit;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.TestClass;
+
+/**
+ * Runs the trials of a fuzz method without building a {@link TrialRunner}
+ * for every trial.
+ *
+ * <p>The test class is validated once, and method handles to its
+ * constructor and to the fuzz method are resolved once. Every trial then
+ * creates a new test instance and invokes the fuzz method directly, which
+ * is what the JUnit statement of a {@link TrialRunner} boils down to when the
+ * test class has no {@link Before} or {@link After} methods and no
+ * {@link Rule}s. Exceptions thrown by the fuzz method are propagated
+ * unwrapped, just like {@link FrameworkMethod#invokeExplosively} does.</p>
+ */
+public class HotTrialRunner {
+
+    /** Whether trials may run through a hot trial runner. */
+    public static final boolean ENABLED = !Boolean.getBoolean("jqf.junit.DISABLE_HOT_LOOP");
+
+    private final MethodHandle constructor;
+    private final MethodHandle method;
+
+    private HotTrialRunner(MethodHandle constructor, MethodHandle method) {
+        this.constructor = constructor;
+        this.method = method;
+    }
+
+    /**
+     * Creates a hot trial runner for a fuzz method.
+     *
+     * @param testClass the test class
+     * @param method the fuzz method
+     * @return a hot trial runner, or <tt>null</tt> if hot trials are
+     * disabled or the trials need the full JUnit statement
+     */
+    public static HotTrialRunner create(TestClass testClass, FrameworkMethod method) {
+        if (!ENABLED) {
+            return null;
+        }
+
+        // Befores, afters and rules wrap the statement, keep using a TrialRunner for those
+        if (!testClass.getAnnotatedMethods(Before.class).isEmpty() ||
+                !testClass.getAnnotatedMethods(After.class).isEmpty() ||
+                !testClass.getAnnotatedMethods(Rule.class).isEmpty() ||
+                !testClass.getAnnotatedFields(Rule.class).isEmpty()) {
+            return null;
+        }
+
+        try {
+            // Validate the test class once, like every TrialRunner would
+            new TrialRunner(testClass.getJavaClass(), method, null);
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle constructor = lookup.unreflectConstructor(testClass.getOnlyConstructor())
+                    .asType(MethodType.methodType(Object.class));
+            MethodHandle invoker = lookup.unreflect(method.getMethod())
+                    .asSpreader(Object[].class, method.getMethod().getParameterCount())
+                    .asType(MethodType.methodType(void.class, Object.class, Object[].class));
+            return new HotTrialRunner(constructor, invoker);
+        } catch (InitializationError | IllegalAccessException e) {
+            // Let the TrialRunner report the problem on every trial, as before
+            return null;
+        }
+    }
+
+    /**
+     * Runs a single trial.
+     *
+     * @param args the arguments of the fuzz method
+     * @throws Throwable any exception thrown by the test
+     */
+    public void run(Object[] args) throws Throwable {
+        Object test = (Object) constructor.invokeExact();
+        method.invokeExact(test, args);
+    }
+}
@@ -52,7 +52,9 @@ import edu.berkeley.cs.jqf.fuzz.guidance.Result;
 import edu.berkeley.cs.jqf.fuzz.guidance.StreamBackedRandom;
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.junit.GuidedFuzzing;
+import edu.berkeley.cs.jqf.fuzz.junit.HotTrialRunner;
 import edu.berkeley.cs.jqf.fuzz.junit.TrialRunner;
+import edu.berkeley.cs.jqf.instrument.tracing.AsyncEventRing;
 import org.junit.AssumptionViolatedException;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.MultipleFailureException;
@@ -118,6 +120,9 @@ public class FuzzStatement extends Statement {
             }
         }
 
+        // Validate the test once instead of building a JUnit runner for every trial
+        HotTrialRunner hotRunner = HotTrialRunner.create(testClass, method);
+
         // Keep fuzzing until no more input or I/O error with guidance
         try {
 
@@ -180,7 +185,17 @@ public class FuzzStatement extends Statement {
                     }
 
                     // Attempt to run the trial
-                    new TrialRunner(testClass.getJavaClass(), method, args).run();
+                    try {
+                        if (hotRunner != null) {
+                            hotRunner.run(args);
+                        } else {
+                            new TrialRunner(testClass.getJavaClass(), method, args).run();
+                        }
+                    } finally {
+                        // Make sure the guidance has seen all trace events of this trial. Exceptions
+                        // thrown by the callbacks surface here, and are classified like those of the trial.
+                        AsyncEventRing.awaitDelivery();
+                    }
 
                     // If we reached here, then the trial must be a success
                     result = SUCCESS;
@@ -49,7 +49,9 @@ import edu.berkeley.cs.jqf.fuzz.repro.ReproGuidance;
 import edu.berkeley.cs.jqf.fuzz.guidance.Result;
 import edu.berkeley.cs.jqf.fuzz.Fuzz;
 import edu.berkeley.cs.jqf.fuzz.junit.GuidedFuzzing;
+import edu.berkeley.cs.jqf.fuzz.junit.HotTrialRunner;
 import edu.berkeley.cs.jqf.fuzz.junit.TrialRunner;
+import edu.berkeley.cs.jqf.instrument.tracing.AsyncEventRing;
 import org.junit.AssumptionViolatedException;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.MultipleFailureException;
@@ -125,6 +127,9 @@ public class FuzzStringStatement extends Statement {
             }
         }
 
+        // Validate the test once instead of building a JUnit runner for every trial
+        HotTrialRunner hotRunner = HotTrialRunner.create(testClass, method);
+
         // Keep fuzzing until no more input or I/O error with guidance
         try {
 
@@ -179,7 +184,17 @@ public class FuzzStringStatement extends Statement {
                     }
 
                     // Attempt to run the trial and submit spark job
-                    new TrialRunner(testClass.getJavaClass(), method, args).run();
+                    try {
+                        if (hotRunner != null) {
+                            hotRunner.run(args);
+                        } else {
+                            new TrialRunner(testClass.getJavaClass(), method, args).run();
+                        }
+                    } finally {
+                        // Make sure the guidance has seen all trace events of this trial. Exceptions
+                        // thrown by the callbacks surface here, and are classified like those of the trial.
+                        AsyncEventRing.awaitDelivery();
+                    }
 
                     // If we reached here, then the trial must be a success
                     result = SUCCESS;
@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 
+import edu.berkeley.cs.jqf.instrument.tracing.FastCoverageLogger;
 import edu.berkeley.cs.jqf.instrument.tracing.events.BranchEvent;
 import edu.berkeley.cs.jqf.instrument.tracing.events.CallEvent;
 import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
@@ -51,7 +52,7 @@ public class Coverage implements TraceEventVisitor {
     private final int COVERAGE_MAP_SIZE = (1 << 16) - 1; // Minus one to reduce collisions
 
     /** The coverage counts for each edge. */
-    private final Counter counter = new NonZeroCachingCounter(COVERAGE_MAP_SIZE);
+    private final NonZeroCachingCounter counter = new NonZeroCachingCounter(COVERAGE_MAP_SIZE);
 
     /** Creates a new coverage map. */
     public Coverage() {
@@ -64,7 +65,8 @@ public class Coverage implements TraceEventVisitor {
      * @param that the coverage map to copy
      */
     public Coverage(Coverage that) {
-        for (int idx = 0; idx < COVERAGE_MAP_SIZE; idx++) {
+        for (int i = 0; i < that.counter.getNonZeroSize(); i++) {
+            int idx = that.counter.getNonZeroIndex(i);
             this.counter.setAtIndex(idx, that.counter.getAtIndex(idx));
         }
     }
@@ -102,6 +104,18 @@ public class Coverage implements TraceEventVisitor {
 //        if (PRINT_METHODNAMES) { System.out.println("Coverage::visitCallEvent"); }
     }
 
+    /**
+     * Adds the branch and call hits that were recorded by the
+     * {@link FastCoverageLogger} to this coverage map, and resets them.
+     *
+     * <p>This is only needed if instrumented code is traced with
+     * <tt>-Djqf.tracing.FAST_COVERAGE=true</tt>, in which case no
+     * branch and call events are emitted.</p>
+     */
+    public void drainFastCoverage() {
+        FastCoverageLogger.get().drainHits(counter::incrementAtIndex);
+    }
+
     public void visitMapEvent(MapEvent e) {
         counter.increment(e.getIid());
         if (PRINT_METHOD_NAMES) { System.out.println("Coverage: visitMap"); }
@@ -157,8 +171,39 @@ public class Coverage implements TraceEventVisitor {
 
     }
 
+    /**
+     * Returns the non-zero counts of this coverage map, such that they
+     * can be restored later with {@link #setCounts(int[])}.
+     *
+     * @return the index and count of every non-zero entry, in pairs
+     */
+    public int[] getCounts() {
+        int[] counts = new int[2 * counter.getNonZeroSize()];
+        for (int i = 0; i < counts.length / 2; i++) {
+            int idx = counter.getNonZeroIndex(i);
+            counts[2 * i] = idx;
+            counts[2 * i + 1] = counter.getAtIndex(idx);
+        }
+        return counts;
+    }
+
+    /**
+     * Replaces the counts of this coverage map.
+     *
+     * @param counts counts as returned by {@link #getCounts()}
+     */
+    public void setCounts(int[] counts) {
+        this.counter.clear();
+        for (int i = 0; i < counts.length; i += 2) {
+            this.counter.setAtIndex(counts[i], counts[i + 1]);
+        }
+    }
+
     /**
      * Clears the coverage map.
+     *
+     * <p>Only the non-zero entries are reset, so a coverage map can
+     * be reused for every run instead of allocating a new one.</p>
      */
     public void clear() {
         this.counter.clear();
@@ -207,7 +252,9 @@ public class Coverage implements TraceEventVisitor {
      */
     public boolean updateBits(Coverage that) {
         boolean changed = false;
-        for (int idx = 0; idx < COVERAGE_MAP_SIZE; idx++) {
+        // Entries that are zero in that coverage cannot change any bits
+        for (int i = 0; i < that.counter.getNonZeroSize(); i++) {
+            int idx = that.counter.getNonZeroIndex(i);
             int before = this.counter.getAtIndex(idx);
             int after = before | hob(that.counter.getAtIndex(idx));
             if (after != before) {
@@ -218,10 +265,31 @@ public class Coverage implements TraceEventVisitor {
         return changed;
     }
 
-    /** Returns a hash code of the edge counts in the coverage map. */
+    /** Powers of 31, used to compute the hash code of the edge counts. */
+    private static final int[] HASH_POWERS = new int[(1 << 16)];
+
+    static {
+        HASH_POWERS[0] = 1;
+        for (int i = 1; i < HASH_POWERS.length; i++) {
+            HASH_POWERS[i] = 31 * HASH_POWERS[i-1];
+        }
+    }
+
+    /**
+     * Returns a hash code of the edge counts in the coverage map.
+     *
+     * <p>The hash code is equal to {@link Arrays#hashCode(int[])} of the
+     * counts, but only the non-zero counts are visited.</p>
+     */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(counter.counts);
+        int n = COVERAGE_MAP_SIZE;
+        int hash = HASH_POWERS[n];
+        for (int i = 0; i < counter.getNonZeroSize(); i++) {
+            int idx = counter.getNonZeroIndex(i);
+            hash += counter.getAtIndex(idx) * HASH_POWERS[n - 1 - idx];
+        }
+        return hash;
     }
 
     /** Returns a hash code of the list of edges that have been covered at least once. */
@@ -28,7 +28,9 @@
  */
 package edu.berkeley.cs.jqf.fuzz.util;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -39,36 +41,81 @@ import java.util.List;
  * <p>This version of counter is used by classes such as
  * {@link Coverage}, which require frequent queries of
  * the non-zero locations.</p>
+ *
+ * <p>The non-zero indices are kept in a dense primitive list, in the order
+ * in which they became non-zero, such that clearing the counter and
+ * iterating over its non-zero entries takes time proportional to the
+ * number of non-zero entries instead of the size of the counter.</p>
  */
 public class NonZeroCachingCounter extends Counter {
 
     private int nonZeroCount;
 
-    private Collection<Integer> nonZeroIndices;
+    private int[] nonZeroIndices;
+
+    private final List<Integer> nonZeroIndicesView = new AbstractList<Integer>() {
+        @Override
+        public Integer get(int i) {
+            if (i >= nonZeroCount) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + nonZeroCount);
+            }
+            return nonZeroIndices[i];
+        }
+
+        @Override
+        public int size() {
+            return nonZeroCount;
+        }
+    };
 
     public NonZeroCachingCounter(int size) {
         super(size);
         this.nonZeroCount = 0;
-        this.nonZeroIndices = new ArrayList<>();
+        this.nonZeroIndices = new int[Math.min(size, 1024)];
     }
 
     @Override
     public void clear() {
-        for (int idx : nonZeroIndices) {
-            counts[idx] = 0;
+        for (int i = 0; i < nonZeroCount; i++) {
+            counts[nonZeroIndices[i]] = 0;
         }
         this.nonZeroCount = 0;
-        this.nonZeroIndices.clear();
     }
 
+    private void addNonZeroIndex(int index) {
+        if (nonZeroCount == nonZeroIndices.length) {
+            nonZeroIndices = Arrays.copyOf(nonZeroIndices, Math.min(size, nonZeroIndices.length * 2));
+        }
+        nonZeroIndices[nonZeroCount++] = index;
+    }
+
+    private void removeNonZeroIndex(int index) {
+        for (int i = 0; i < nonZeroCount; i++) {
+            if (nonZeroIndices[i] == index) {
+                System.arraycopy(nonZeroIndices, i + 1, nonZeroIndices, i, nonZeroCount - i - 1);
+                nonZeroCount--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the i-th non-zero index, in the order in which the
+     * indices became non-zero.
+     *
+     * @param i a number in [0, {@link #getNonZeroSize()})
+     * @return the i-th non-zero index
+     */
+    int getNonZeroIndex(int i) {
+        return nonZeroIndices[i];
+    }
 
     @Override
     public int incrementAtIndex(int index, int delta) {
         int newValue = super.incrementAtIndex(index, delta);
         // A count becomes non-zero if it was incremented to delta
-        if (newValue == delta) {
-            nonZeroIndices.add(index);
-            nonZeroCount++;
+        if (newValue == delta && delta != 0) {
+            addNonZeroIndex(index);
         }
         return newValue;
     }
@@ -80,14 +127,14 @@ public class NonZeroCachingCounter extends Counter {
 
     @Override
     public Collection<Integer> getNonZeroIndices() {
-        return nonZeroIndices;
+        return nonZeroIndicesView;
     }
 
     @Override
     public Collection<Integer> getNonZeroValues() {
-        List<Integer> values = new ArrayList<>(size /2);
-        for (int idx : nonZeroIndices) {
-            int count = counts[idx];
+        List<Integer> values = new ArrayList<>(nonZeroCount);
+        for (int i = 0; i < nonZeroCount; i++) {
+            int count = counts[nonZeroIndices[i]];
             assert (count != 0);
             values.add(count);
         }
@@ -99,8 +146,9 @@ public class NonZeroCachingCounter extends Counter {
         int oldValue = counts[index];
         super.setAtIndex(index, newValue);
         if (oldValue == 0 && newValue != 0) {
-            nonZeroIndices.add(index);
-            nonZeroCount++;
+            addNonZeroIndex(index);
+        } else if (oldValue != 0 && newValue == 0) {
+            removeNonZeroIndex(index);
         }
     }
 
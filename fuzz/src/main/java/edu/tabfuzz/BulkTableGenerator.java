@@ -0,0 +1,227 @@
+package edu.tabfuzz;
+
+import com.opencsv.CSVWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+
+/**
+ * Generates large tables from the input specification of an InputManager, e.g. to run the dataflow benchmarks on
+ * realistic data volumes. The rows are generated in chunks on several threads and streamed to the output in order.
+ *
+ * Every chunk draws from its own random number generator, split off from a generator with the given seed in chunk
+ * order. The output therefore only depends on the seed and the chunk size, not on the amount of threads.
+ */
+public class BulkTableGenerator {
+
+    public static final int DEFAULT_CHUNK_ROWS = 8192;
+    private static final int ARRAY_SIZE = 5;
+
+    private final DataFormat[] inputSpecification;
+    private final WriterSettings ws;
+    private final long seed;
+    private final int threads;
+    private final int chunkRows;
+
+    public BulkTableGenerator(DataFormat[] inputSpecification, WriterSettings ws, long seed) {
+        this(inputSpecification, ws, seed, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * @param inputSpecification the columns of the table.
+     * @param ws settings of the CSV output.
+     * @param seed seed of the random number generators.
+     * @param threads amount of threads that generate rows.
+     * @param chunkRows amount of rows that a thread generates at once.
+     */
+    public BulkTableGenerator(DataFormat[] inputSpecification, WriterSettings ws, long seed, int threads, int chunkRows) {
+        this.inputSpecification = inputSpecification;
+        this.ws = ws;
+        this.seed = seed;
+        this.threads = Math.max(1, threads);
+        this.chunkRows = Math.max(1, chunkRows);
+    }
+
+    /**
+     * Writes a table in CSV format. At most two chunks per thread are kept in memory at once.
+     * @param rows amount of rows.
+     * @param out writer to write to, it is flushed but not closed.
+     * @throws IOException if the table cannot be written.
+     */
+    public void writeRows(long rows, Writer out) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            SplittableRandom chunkRandoms = new SplittableRandom(seed);
+            Deque<Future<String>> pending = new ArrayDeque<>();
+            long submitted = 0;
+            while (submitted < rows || !pending.isEmpty()) {
+                while (submitted < rows && pending.size() < 2 * threads) {
+                    int chunk = (int) Math.min(chunkRows, rows - submitted);
+                    SplittableRandom random = chunkRandoms.split();
+                    pending.add(executor.submit(() -> formatChunk(chunk, random)));
+                    submitted += chunk;
+                }
+                out.write(await(pending.poll()));
+            }
+            out.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates a table in columnar form. The values are the same as those of {@link #writeRows(long, Writer)} with
+     * the same seed.
+     * @param rows amount of rows.
+     * @return the values per column, indexed by column and then by row.
+     * @throws IOException if the generation is interrupted.
+     */
+    public String[][] generateColumns(int rows) throws IOException {
+        String[][] columns = new String[inputSpecification.length][rows];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            SplittableRandom chunkRandoms = new SplittableRandom(seed);
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int start = 0; start < rows; start += chunkRows) {
+                int from = start;
+                int to = Math.min(rows, start + chunkRows);
+                SplittableRandom random = chunkRandoms.split();
+                chunks.add(executor.submit(() -> {
+                    Random chunkRandom = new SplitRandom(random);
+                    String[] row = new String[inputSpecification.length];
+                    for (int i = from; i < to; i++) {
+                        generateRow(row, chunkRandom);
+                        for (int column = 0; column < row.length; column++) {
+                            columns[column][i] = row[column];
+                        }
+                    }
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                await(chunk);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return columns;
+    }
+
+    private String formatChunk(int rows, SplittableRandom random) throws IOException {
+        Random chunkRandom = new SplitRandom(random);
+        StringWriter chunk = new StringWriter(rows * 16 * inputSpecification.length);
+        CSVWriter writer = new CSVWriter(chunk, ws.getSeparator(), ws.getQuoteChar(), ws.getEscapeChar(), ws.getLineEnd());
+        String[] row = new String[inputSpecification.length];
+        for (int i = 0; i < rows; i++) {
+            generateRow(row, chunkRandom);
+            writer.writeNext(row);
+        }
+        writer.flush();
+        return chunk.toString();
+    }
+
+    /**
+     * Generates a row of data like the InputGenerator does.
+     */
+    private void generateRow(String[] row, Random random) {
+        for (int i = 0; i < inputSpecification.length; i++) {
+            if (inputSpecification[i].getDataType().contains("array")) {
+                row[i] = inputSpecification[i].generateArrayInputInRange(ARRAY_SIZE, random);
+            } else {
+                row[i] = inputSpecification[i].generateInputInRange(random);
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating rows");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * A Random that draws from a SplittableRandom, for the generators that need a Random. Unlike a Random it does not
+     * synchronize on its seed, it must only be used by one thread.
+     */
+    private static class SplitRandom extends Random {
+        private final SplittableRandom random;
+
+        SplitRandom(SplittableRandom random) {
+            super(0);
+            this.random = random;
+        }
+
+        @Override
+        protected int next(int bits) {
+            return (int) (random.nextLong() >>> (64 - bits));
+        }
+
+        @Override
+        public int nextInt() {
+            return random.nextInt();
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+
+        @Override
+        public long nextLong() {
+            return random.nextLong();
+        }
+
+        @Override
+        public double nextDouble() {
+            return random.nextDouble();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return random.nextBoolean();
+        }
+    }
+
+    /**
+     * Generates a table from a specification file.
+     * Usage: BulkTableGenerator SPECIFICATION_FILE ROWS OUTPUT_FILE [SEED]
+     * The amount of threads and the chunk size can be set with -Dtabfuzz.threads and -Dtabfuzz.chunkRows.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: java " + BulkTableGenerator.class.getName() + " SPECIFICATION_FILE ROWS OUTPUT_FILE [SEED]");
+            System.exit(1);
+        }
+        WriterSettings ws = new WriterSettings();
+        InputManager im = new InputManager(new File(args[0]), ws);
+        long rows = Long.parseLong(args[1]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.currentTimeMillis();
+        int threads = Integer.getInteger("tabfuzz.threads", Runtime.getRuntime().availableProcessors());
+        int chunkRows = Integer.getInteger("tabfuzz.chunkRows", DEFAULT_CHUNK_ROWS);
+
+        long startTime = System.currentTimeMillis();
+        BulkTableGenerator generator = new BulkTableGenerator(im.getInputs(), ws, seed, threads, chunkRows);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[2]), StandardCharsets.UTF_8), 1 << 16)) {
+            generator.writeRows(rows, out);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(2);
+        }
+        long endTime = System.currentTimeMillis();
+        System.out.println("Generated " + rows + " rows with seed " + seed + " in " + (endTime - startTime) + "ms");
+    }
+}
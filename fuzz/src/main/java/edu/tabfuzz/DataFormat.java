@@ -1,8 +1,7 @@
 package edu.tabfuzz;
 
-import com.github.curiousoddman.rgxgen.RgxGen;
-
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class DataFormat {
     private String columnName;
@@ -10,11 +9,27 @@ public class DataFormat {
     private String[] range;
     private String[] specialValues;
 
+    // Compiled from the data type and range, see compileGenerators()
+    private String[] reverseIntervals;
+    private ValueGenerator inRangeGenerator;
+    private ValueGenerator outsideRangeGenerator;
+
     public DataFormat(String columnName, String dataType, String range, String specialValues) {
         this.columnName = columnName;
         this.dataType = dataType;
         this.range = processRange(dataType, range);
         this.specialValues = processSpecialValues(specialValues);
+        compileGenerators();
+    }
+
+    /**
+     * Parses the range once into the generators of values within and outside of it, such that generating a value does
+     * not parse regular expressions or intervals again.
+     */
+    private void compileGenerators() {
+        reverseIntervals = computeReverseIntervals();
+        inRangeGenerator = ValueGenerator.inRange(dataType, range);
+        outsideRangeGenerator = ValueGenerator.outsideRange(dataType, range, reverseIntervals);
     }
 
     private String[] processRange(String dataType, String range) {
@@ -63,93 +78,20 @@ public class DataFormat {
      * @return Random input within a range.
      */
     public String generateInputInRange() {
-        String s = "";
-        if (dataType.equals("String") || dataType.equals("char")) {
-            RgxGen generator;
-            if (range[0].trim().equals("")) {
-                if (dataType.equals("String")) {
-                    generator = new RgxGen(".*");
-                } else {
-                    generator = new RgxGen(".");
-                }
-            } else {
-                generator = new RgxGen(range[0]);
-            }
-            s = generator.generate();
-        } else if (dataType.equals("boolean")) {
-            int boolSelection = (int) (Math.random() * 2);
-            if (boolSelection == 0) {
-                return "true";
-            }
-            return "false";
-        } else if (dataType.contains("array(")) {
-            generateArrayInputInRange(5); //TODO: What should array size be?
-        }
-        else {
-            s = generateIntervalValue(range);
-        }
-        return s;
+        return generateInputInRange(ThreadLocalRandom.current());
     }
 
-    private String generateIntervalValue(String[] range) {
-        String interval = "";
-        if (range.length != 0) {
-            int rangeSelection = (int) (Math.random() * range.length);
-            interval = range[rangeSelection];
-        }
-        String s  = "";
-        switch(dataType) {
-            case "byte":
-                s = generateByteValue(interval);
-                break;
-            case "short":
-                s = generateShortValue(interval);
-                break;
-            case "int":
-                s = generateIntValue(interval);
-                break;
-            case "long":
-                s = generateLongValue(interval);
-                break;
-            case "float":
-                s = generateFloatValue(interval);
-                break;
-            case "double":
-                s = generateDoubleValue(interval);
-                break;
-        }
-        return s;
+    /**
+     * Generates a random input that lies within the range, drawing from the given source of randomness.
+     * @param random source of randomness.
+     * @return Random input within a range.
+     */
+    public String generateInputInRange(Random random) {
+        return inRangeGenerator.generate(random);
     }
 
-        public String generateInputOutsideRange() {
-        String s = "";
-            switch (dataType) {
-                case "String":
-                    if (range[0].equals("")) {
-                        return generateInputInRange();
-                    }
-                    RgxGen generator = new RgxGen(range[0]);
-                    s = generator.generateNotMatching();
-                    break;
-                case "char":
-                    return "";
-                //TODO: generate char outside regex
-                case "boolean":
-                    // In case of boolean just generate either true or false;
-                    int boolSelection = (int) (Math.random() * 2);
-                    if (boolSelection == 0) {
-                        return "True";
-                    }
-                    return "False";
-                default:
-                    if (range.length == 0) {
-                        generateIntervalValue(range);
-                    }
-                    s = generateIntervalValue(findReverseIntervals());
-                    //TODO: Default range
-                    break;
-            }
-        return s;
+    public String generateInputOutsideRange() {
+        return outsideRangeGenerator.generate(ThreadLocalRandom.current());
     }
 
     Comparator<String> c = new Comparator<String>() {
@@ -171,9 +113,16 @@ public class DataFormat {
     };
 
 
+    /**
+     * Returns the intervals of a numeric data type that are not part of the range.
+     * @return the reverse intervals, empty if the data type is not numeric.
+     */
     public String[] findReverseIntervals() {
-        String[] sortedRanges = range;
-        Arrays.sort(sortedRanges, c);
+        return reverseIntervals.clone();
+    }
+
+    private String[] computeReverseIntervals() {
+        String[] sortedRanges = range.clone();
         ArrayList<String> result = new ArrayList<>();
         switch(dataType) {
             case "byte":
@@ -195,14 +144,12 @@ public class DataFormat {
                 result = constructReverseIntervals(Double.MIN_VALUE, Double.MAX_VALUE, sortedRanges);
                 break;
         }
-        for (int i = 0; i < result.size(); i++) {
-            System.out.println(result.get(i));
-        }
         String[] res = new String[result.size()];
         return result.toArray(res);
     }
 
     private ArrayList<String> constructReverseIntervals(double minValue, double maxValue, String[] sortedRanges) {
+        Arrays.sort(sortedRanges, c);
         // Format the data to all intervals:
         for (int i = 0; i < sortedRanges.length; i++) {
             if (sortedRanges[i].contains("<")) {
@@ -398,9 +345,20 @@ public class DataFormat {
      * @return String representation of an input array.
      */
     public String generateArrayInputInRange(int arraySize) {
+        return generateArrayInputInRange(arraySize, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Generates a String representation of an array of the corresponding dataType, drawing from the given source of
+     * randomness.
+     * @param arraySize size of the array.
+     * @param random source of randomness.
+     * @return String representation of an input array.
+     */
+    public String generateArrayInputInRange(int arraySize, Random random) {
         String array = "[";
         for (int i = 0; i < arraySize; i++) {
-            array += generateInputInRange() + ", ";
+            array += generateInputInRange(random) + ", ";
         }
         array = array.substring(0, array.length() - 2);
         array += "]";
@@ -408,140 +366,6 @@ public class DataFormat {
         return array;
     }
 
-    private String generateByteValue(String interval) {
-        if (interval.equals("")) {
-            Random r = new Random();
-            return r.nextInt(Byte.MAX_VALUE + 1) + "";
-        }
-        byte low;
-        byte high;
-        if (interval.contains(">")) {
-            low = Byte.parseByte(interval.substring(1));
-            high = Byte.MAX_VALUE;
-        } else if (interval.contains("<")) {
-            low = Byte.MIN_VALUE;
-            high = Byte.parseByte(interval.substring(1));
-        } else {
-            String[] bounds = interval.split("#");
-            low = Byte.parseByte(bounds[0]);
-            high = Byte.parseByte(bounds[1]);
-        }
-        return low + (byte) (Math.random() * (high - low)) + "";
-    }
-
-    private String generateShortValue(String interval) {
-        if (interval.equals("")) {
-            Random r = new Random();
-            return r.nextInt(Short.MAX_VALUE + 1) + "";
-        }
-        short low;
-        short high;
-        if (interval.contains(">")) {
-            low = Short.parseShort(interval.substring(1));
-            high = Short.MAX_VALUE;
-        } else if (interval.contains("<")) {
-            low = Short.MIN_VALUE;
-            high = Short.parseShort(interval.substring(1));
-        } else {
-            String[] bounds = interval.split("#");
-            low = Short.parseShort(bounds[0]);
-            high = Short.parseShort(bounds[1]);
-        }
-        return low + (short) (Math.random() * (high - low)) + "";
-    }
-
-    private String generateIntValue(String interval) {
-        if (interval.equals("")) {
-            Random r = new Random();
-            return r.nextInt() + "";
-        }
-        int low;
-        int high;
-        if (interval.contains(">")) {
-            low = Integer.parseInt(interval.substring(1));
-            high = Integer.MAX_VALUE;
-        } else if (interval.contains("<")) {
-            low = Integer.MIN_VALUE;
-            high = Integer.parseInt(interval.substring(1));
-        } else {
-            String[] bounds = interval.split("#");
-            low = Integer.parseInt(bounds[0]);
-            high = Integer.parseInt(bounds[1]);
-        }
-        return low + (int) (Math.random() * (high - low)) + "";
-    }
-
-    private String generateLongValue(String interval) {
-        if (interval.equals("")) {
-            Random r = new Random();
-            return r.nextLong() + "";
-        }
-        long low;
-        long high;
-        if (interval.contains(">")) {
-            low = Long.parseLong(interval.substring(1));
-            high = Long.MAX_VALUE;
-        } else if (interval.contains("<")) {
-            low = Long.MIN_VALUE;
-            high = Long.parseLong(interval.substring(1));
-        } else {
-            String[] bounds = interval.split("#");
-            low = Long.parseLong(bounds[0]);
-            high = Long.parseLong(bounds[1]);
-        }
-        return low + (long) (Math.random() * (high - low)) + "";
-    }
-
-    private String generateFloatValue(String interval) { //TODO: Check what the string representation should be
-        if (interval.equals("")) {
-            Random r = new Random();
-            int signSelection = (int) (Math.random() * 2);
-            if (signSelection == 0) {
-                return r.nextFloat() * Float.MAX_VALUE + "";
-            }
-            return "-" + r.nextFloat() * Float.MAX_VALUE + "";
-        }
-        float low;
-        float high;
-        if (interval.contains(">")) {
-            low = Float.parseFloat(interval.substring(1));
-            high = Float.MAX_VALUE;
-        } else if (interval.contains("<")) {
-            low = Float.MIN_VALUE;
-            high = Float.parseFloat(interval.substring(1));
-        } else {
-            String[] bounds = interval.split("#");
-            low = Float.parseFloat(bounds[0]);
-            high = Float.parseFloat(bounds[1]);
-        }
-        return low + (Math.random() * (high - low)) + "";
-    }
-
-    private String generateDoubleValue(String interval) { //TODO: Check what the string representation should be
-        if (interval.equals("")) {
-            Random r = new Random();
-            int signSelection = (int) (Math.random() * 2);
-            if (signSelection == 0) {
-                return r.nextDouble() * Double.MAX_VALUE + "";
-            }
-            return "-" + r.nextDouble() * Double.MAX_VALUE + "";
-        }
-        double low;
-        double high;
-        if (interval.contains(">")) {
-            low = Double.parseDouble(interval.substring(1));
-            high = Double.MAX_VALUE;
-        } else if (interval.contains("<")) {
-            low = Double.MIN_VALUE;
-            high = Double.parseDouble(interval.substring(1));
-        } else {
-            String[] bounds = interval.split("#");
-            low = Double.parseDouble(bounds[0]);
-            high = Double.parseDouble(bounds[1]);
-        }
-        return low + (Math.random() * (high - low)) + "";
-    }
-
     /**
      * Return datatype as a readable string.
      * @return string representation of a datatype.
@@ -581,6 +405,7 @@ public class DataFormat {
 
     public void setDataType(String dataType) {
         this.dataType = dataType;
+        compileGenerators();
     }
 
     public String[] getRange() {
@@ -589,6 +414,7 @@ public class DataFormat {
 
     public void setRange(String[] range) {
         this.range = range;
+        compileGenerators();
     }
 
     public String[] getSpecialValues() {
@@ -2,10 +2,12 @@ package edu.tabfuzz;
 
 import com.opencsv.CSVWriter;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 public class InputGenerator {
 
@@ -13,6 +15,7 @@ public class InputGenerator {
     String generatedInputFilesFolder = "fuzz/src/main/java/edu/tabfuzz/generatedInputFiles/";
     private static final int INPUT_FILE_AMOUNT_OF_LINES = 2;
     private static final int ARRAY_SIZE = 5;
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
     private final WriterSettings ws;
 
     public InputGenerator(DataFormat[] inputSpecification, WriterSettings ws) {
@@ -25,12 +28,11 @@ public class InputGenerator {
      * @return the filePath of the generated file
      */
     public String generateInputFile() {
-        String fileName = "InputFile";
-        fileName += new SimpleDateFormat("yyyyMMddHHmmssSS").format(Calendar.getInstance().getTime());
+        String fileName = "InputFile" + LocalDateTime.now().format(FILE_NAME_FORMAT);
         String filePath = generatedInputFilesFolder + fileName + ".csv";
         try {
 
-            CSVWriter writer = new CSVWriter(new FileWriter(filePath), ws.getSeparator(), ws.getQuoteChar(), ws.getEscapeChar(), ws.getLineEnd());
+            CSVWriter writer = new CSVWriter(new BufferedWriter(new FileWriter(filePath)), ws.getSeparator(), ws.getQuoteChar(), ws.getEscapeChar(), ws.getLineEnd());
             for (int i = 0; i < INPUT_FILE_AMOUNT_OF_LINES; i++) { //TODO: i is the amount of lines; BigFuzz-> generates 1 to 20 lines (randomly chosen)
                 String[] inputData = generateInputData();
                 writer.writeNext(inputData);
@@ -42,6 +44,23 @@ public class InputGenerator {
         return fileName;
     }
 
+    /**
+     * Generates a large inputfile (CSV format) based on the inputSpecification, see the BulkTableGenerator.
+     * @param rows amount of rows of the file.
+     * @param seed seed of the generated values, the same seed generates the same file.
+     * @return the filePath of the generated file
+     */
+    public String generateInputFile(long rows, long seed) {
+        String fileName = "InputFile" + LocalDateTime.now().format(FILE_NAME_FORMAT);
+        String filePath = generatedInputFilesFolder + fileName + ".csv";
+        try (Writer out = new BufferedWriter(new FileWriter(filePath), 1 << 16)) {
+            new BulkTableGenerator(inputSpecification, ws, seed).writeRows(rows, out);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return fileName;
+    }
+
     /**
      * Generates a row of data in the form of an array.
      * @return a row of data in the form of an array.
@@ -1,6 +1,7 @@
 package edu.tabfuzz;
 
 import edu.berkeley.cs.jqf.fuzz.junit.GuidedFuzzing;
+import edu.tud.cs.jqf.bigfuzzplus.ExecutionResultCache;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -27,7 +28,14 @@ public class TabFuzzDriver {
         } else {
             // Generate a random seed
             InputGenerator ig = new InputGenerator(im.getInputs(), ws);
-            String fileName = ig.generateInputFile();
+            // A large seed can be generated with -Dtabfuzz.rows=N, optionally reproducibly with -Dtabfuzz.seed=S
+            Long rows = Long.getLong("tabfuzz.rows");
+            String fileName;
+            if (rows != null) {
+                fileName = ig.generateInputFile(rows, Long.getLong("tabfuzz.seed", System.currentTimeMillis()));
+            } else {
+                fileName = ig.generateInputFile();
+            }
             System.out.println("Random seed generated: " + fileName);
             fileConf = "fuzz/src/main/java/edu/tabfuzz/generatedConfigurations/" + fileName + ".csv";
             try {
@@ -48,7 +56,24 @@ public class TabFuzzDriver {
             Duration duration = Duration.of(100, ChronoUnit.SECONDS);
             TabFuzzGuidance guidance = new TabFuzzGuidance("Test1", fileConf, im.getInputs(), 20, duration, System.err, ws);
 
+            // Outcomes of inputs are cached in this file and reused by later runs, for deterministic test programs only
+            String resultCacheFile = System.getProperty("tabfuzz.resultCache");
+            ExecutionResultCache resultCache = null;
+            if (resultCacheFile != null) {
+                resultCache = new ExecutionResultCache("SalaryAnalysisDriver#testSalaryAnalysis", 1 << 16);
+                resultCache.load(new File(resultCacheFile));
+                guidance.setResultCache(resultCache);
+            }
+
             GuidedFuzzing.run("SalaryAnalysisDriver", "testSalaryAnalysis", guidance, System.out);
+            if (resultCache != null) {
+                resultCache.save(new File(resultCacheFile));
+            }
+            // The unique failures are indexed in this file, if it is set
+            String crashIndexFile = System.getProperty("tabfuzz.crashIndex");
+            if (crashIndexFile != null) {
+                guidance.getUniqueFailures().write(new File(crashIndexFile));
+            }
             
             long endTime = System.currentTimeMillis();
             System.out.println("*********Running Time：" + (endTime - startTime) + "ms");
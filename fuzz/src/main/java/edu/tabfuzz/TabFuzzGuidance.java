@@ -4,7 +4,11 @@ import edu.berkeley.cs.jqf.fuzz.guidance.Guidance;
 import edu.berkeley.cs.jqf.fuzz.guidance.GuidanceException;
 import edu.berkeley.cs.jqf.fuzz.guidance.Result;
 import edu.berkeley.cs.jqf.fuzz.util.Coverage;
+import edu.berkeley.cs.jqf.instrument.tracing.FastCoverageLogger;
 import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
+import edu.tud.cs.jqf.bigfuzzplus.CrashSignatureIndex;
+import edu.tud.cs.jqf.bigfuzzplus.ExecutionResultCache;
+import edu.tud.cs.jqf.bigfuzzplus.MutantFingerprintCache;
 import edu.ucla.cs.jqf.bigfuzz.BigFuzzMutation;
 //import org.apache.commons.io.FileUtils;
 
@@ -66,8 +70,8 @@ public class TabFuzzGuidance implements Guidance {
     /** The maximum number of keys covered by any single input found so far. */
     protected int maxCoverage = 0;
 
-    /** The set of unique failures found so far. */
-    protected Set<List<StackTraceElement>> uniqueFailures = new HashSet<>();
+    /** Signatures of the unique failures found so far. */
+    protected CrashSignatureIndex uniqueFailures = new CrashSignatureIndex();
 
     // ---------- LOGGING / STATS OUTPUT ------------
 
@@ -100,6 +104,18 @@ public class TabFuzzGuidance implements Guidance {
     ArrayList<String> testInputFiles = new ArrayList<String>();
     WriterSettings ws;
 
+    /** Outcomes of inputs that have been run, null if every input is run. */
+    private ExecutionResultCache resultCache;
+
+    /** Fingerprint of the current input, only computed if results are cached. */
+    private long currentFingerprint;
+
+    /** Whether the result that is handled is a cached outcome, rather than the result of running the current input. */
+    private boolean replayingResult;
+
+    /** The number of trials whose result was taken from the result cache instead of running the input. */
+    protected long numReplayedResults = 0;
+
     public TabFuzzGuidance(String testName, String initialInputFile, DataFormat[] dataSpecification, long maxTrials, Duration duration, PrintStream out, WriterSettings ws) throws IOException {
 
         this.testName = testName;
@@ -141,16 +157,26 @@ public class TabFuzzGuidance implements Guidance {
 
         ///copy the configuration/input file
         if (!testInputFiles.isEmpty()) {
-            try
-            {
-                String nextInputFile = initialInputFile + "-mutation_" + numTrials;
-                System.out.println(nextInputFile);
-                mutation.mutate(initialInputFile, nextInputFile);//currentInputFile
-                currentInputFile = nextInputFile;
-
-            }
-            catch (IOException e)
-            {
+            mutateInput();
+        }
+        if (resultCache != null) {
+            try {
+                currentFingerprint = MutantFingerprintCache.fingerprint(currentInputFile);
+                // Handle the cached outcome of inputs instead of running them, leaving the last trial to be run
+                ExecutionResultCache.Outcome outcome;
+                while (keepGoing && numTrials + 1 < maxTrials && (outcome = resultCache.get(currentFingerprint)) != null) {
+                    testInputFiles.add(currentInputFile);
+                    outcome.restoreCoverage(runCoverage);
+                    replayingResult = true;
+                    handleResult(outcome.getResult(), outcome.getError());
+                    replayingResult = false;
+                    numReplayedResults++;
+                    runCoverage.clear();
+
+                    mutateInput();
+                    currentFingerprint = MutantFingerprintCache.fingerprint(currentInputFile);
+                }
+            } catch (IOException e) {
                 System.out.println(e);
             }
         }
@@ -162,6 +188,31 @@ public class TabFuzzGuidance implements Guidance {
         return targetStream;
     }
 
+    private void mutateInput() {
+        try
+        {
+            String nextInputFile = initialInputFile + "-mutation_" + numTrials;
+            System.out.println(nextInputFile);
+            mutation.mutate(initialInputFile, nextInputFile);//currentInputFile
+            currentInputFile = nextInputFile;
+
+        }
+        catch (IOException e)
+        {
+            System.out.println(e);
+        }
+    }
+
+    /**
+     * Handle the cached outcome of inputs that have been run before instead of running them again. Only sound for
+     * deterministic test programs.
+     *
+     * @param resultCache cache of outcomes, which can be shared with other guidances
+     */
+    public void setResultCache(ExecutionResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
     /** Writes a line of text to a given log file. */
     protected void appendLineToFile(File file, String line) throws GuidanceException {
 
@@ -201,6 +252,15 @@ public class TabFuzzGuidance implements Guidance {
         // Stop timeout handling
         this.runStart = null;
 
+        // Collect branch and call coverage that was not emitted as trace events
+        if (FastCoverageLogger.ENABLED) {
+            runCoverage.drainFastCoverage();
+        }
+
+        if (resultCache != null && !replayingResult) {
+            resultCache.put(currentFingerprint, result, runCoverage, error);
+        }
+
         System.out.println("BigFuzz::handleResult");
         System.out.println(result);
 
@@ -324,17 +384,17 @@ public class TabFuzzGuidance implements Guidance {
             }
 
             //   Attempt to add this to the set of unique failures
-            if (uniqueFailures.add(Arrays.asList(rootCause.getStackTrace()))) {
+            if (uniqueFailures.add(CrashSignatureIndex.signature(rootCause, null), numTrials, rootCause::toString)) {
                 int crashIdx = uniqueFailures.size() - 1;
 
-                infoLog("%s", "Found crash: " + error.getClass() + " - " + (msg != null ? msg : ""));
+                infoLog("%s", "Found crash: " + ExecutionResultCache.failureClassName(error) + " - " + (msg != null ? msg : ""));
 
 //                String how = currentInput.desc;
                 String why = result == Result.FAILURE ? "+crash" : "+hang";
 //                infoLog("Saved - %s %s %s", saveFile.getPath(), how, why);
 
                 File src = new File(currentInputFile);
-                currentInputFile = currentInputFile + why + "+" + crashIdx + "+" + rootCause;
+                currentInputFile = currentInputFile + why + "+" + crashIdx + "+" + ExecutionResultCache.failureClassName(rootCause);
                 File des = new File(currentInputFile);
                 //src.renameTo(des); TODO: important?
             } else {
@@ -432,4 +492,12 @@ public class TabFuzzGuidance implements Guidance {
         }
         return coverage;
     }
+
+    /**
+     * Returns the signatures of the unique failures found so far.
+     * @return the crash index
+     */
+    public CrashSignatureIndex getUniqueFailures() {
+        return uniqueFailures;
+    }
 }
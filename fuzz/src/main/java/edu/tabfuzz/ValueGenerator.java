@@ -0,0 +1,271 @@
+package edu.tabfuzz;
+
+import com.github.curiousoddman.rgxgen.RgxGen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A generator of the values of a column, compiled once from the data type and range of a DataFormat. Regular
+ * expressions are parsed into an RgxGen and numeric intervals into their bounds when the generator is compiled, such
+ * that generating a value only draws random numbers. Generators are immutable and can be shared between threads, the
+ * random numbers are drawn from the source that is passed in.
+ */
+abstract class ValueGenerator {
+
+    /**
+     * @param random source of randomness.
+     * @return a random value.
+     */
+    abstract String generate(Random random);
+
+    /**
+     * @return whether the generator generates values of intervals, but none of its intervals is left.
+     */
+    boolean hasNoIntervals() {
+        return false;
+    }
+
+    /**
+     * Compiles a generator of values that lie within the range of a column.
+     * @param dataType data type of the column.
+     * @param range range of the column, a regular expression for String and char columns or intervals otherwise.
+     * @return the compiled generator.
+     */
+    static ValueGenerator inRange(String dataType, String[] range) {
+        switch (dataType) {
+            case "String":
+            case "char":
+                String regex = range[0];
+                if (regex.trim().equals("")) {
+                    regex = dataType.equals("String") ? ".*" : ".";
+                }
+                return new RegexGenerator(new RgxGen(regex), false);
+            case "boolean":
+                return new ChoiceGenerator("true", "false");
+            default:
+                return intervals(dataType, range, false);
+        }
+    }
+
+    /**
+     * Compiles a generator of values that lie outside the range of a column.
+     * @param dataType data type of the column.
+     * @param range range of the column.
+     * @param reverseIntervals the intervals of a numeric column that are not part of its range.
+     * @return the compiled generator.
+     */
+    static ValueGenerator outsideRange(String dataType, String[] range, String[] reverseIntervals) {
+        switch (dataType) {
+            case "String":
+                if (range[0].equals("")) {
+                    return inRange(dataType, range);
+                }
+                return new RegexGenerator(new RgxGen(range[0]), true);
+            case "char":
+                //TODO: generate char outside regex
+                return new ChoiceGenerator("");
+            case "boolean":
+                // In case of boolean just generate either true or false;
+                return new ChoiceGenerator("True", "False");
+            default:
+                return intervals(dataType, reverseIntervals, true);
+        }
+    }
+
+    /**
+     * Compiles intervals like <code>-10#15</code>, <code>&gt;1300</code> and <code>&lt;5</code> into a generator that
+     * picks one of the intervals uniformly and then a value within it. Without intervals, any value of the data type
+     * is generated. If all reverse intervals are dropped, every value of the data type is in range, so an empty value is
+     * generated instead, like for char columns.
+     * @param decimalBounds whether the bounds are written as decimals, as those of the reverse intervals are. Such
+     *                      bounds are computed rather than specified, so they are clamped to the values of the data
+     *                      type and the intervals that end up empty (e.g. between overlapping ranges) are dropped.
+     */
+    private static ValueGenerator intervals(String dataType, String[] intervals, boolean decimalBounds) {
+        ValueGenerator generator;
+        switch (dataType) {
+            case "byte":
+                generator = new IntegralGenerator(Byte.MIN_VALUE, Byte.MAX_VALUE, intervals, decimalBounds);
+                break;
+            case "short":
+                generator = new IntegralGenerator(Short.MIN_VALUE, Short.MAX_VALUE, intervals, decimalBounds);
+                break;
+            case "int":
+                generator = new IntegralGenerator(Integer.MIN_VALUE, Integer.MAX_VALUE, intervals, decimalBounds);
+                break;
+            case "long":
+                generator = new IntegralGenerator(Long.MIN_VALUE, Long.MAX_VALUE, intervals, decimalBounds);
+                break;
+            case "float":
+                generator = new DecimalGenerator(Float.MIN_VALUE, Float.MAX_VALUE, intervals, true, decimalBounds);
+                break;
+            case "double":
+                generator = new DecimalGenerator(Double.MIN_VALUE, Double.MAX_VALUE, intervals, false, decimalBounds);
+                break;
+            default:
+                return new ChoiceGenerator("");
+        }
+        if (decimalBounds && intervals.length > 0 && generator.hasNoIntervals()) {
+            return new ChoiceGenerator("");
+        }
+        return generator;
+    }
+
+    private static String[][] splitIntervals(String[] intervals, String min, String max) {
+        String[][] bounds = new String[intervals.length][];
+        for (int i = 0; i < intervals.length; i++) {
+            String interval = intervals[i];
+            if (interval.contains(">")) {
+                bounds[i] = new String[] {interval.substring(1), max};
+            } else if (interval.contains("<")) {
+                bounds[i] = new String[] {min, interval.substring(1)};
+            } else {
+                bounds[i] = interval.split("#");
+            }
+        }
+        return bounds;
+    }
+
+    private static class RegexGenerator extends ValueGenerator {
+        private final RgxGen generator;
+        private final boolean notMatching;
+
+        RegexGenerator(RgxGen generator, boolean notMatching) {
+            this.generator = generator;
+            this.notMatching = notMatching;
+        }
+
+        @Override
+        String generate(Random random) {
+            return notMatching ? generator.generateNotMatching(random) : generator.generate(random);
+        }
+    }
+
+    private static class ChoiceGenerator extends ValueGenerator {
+        private final String[] values;
+
+        ChoiceGenerator(String... values) {
+            this.values = values;
+        }
+
+        @Override
+        String generate(Random random) {
+            return values.length == 1 ? values[0] : values[random.nextInt(values.length)];
+        }
+    }
+
+    /**
+     * Generates byte, short, int and long values. The lower bound and the width of every interval are computed once.
+     */
+    private static class IntegralGenerator extends ValueGenerator {
+        private final long min;
+        private final long max;
+        private final long[] lows;
+        private final double[] widths;
+
+        IntegralGenerator(long min, long max, String[] intervals, boolean decimalBounds) {
+            this.min = min;
+            this.max = max;
+            String[][] bounds = splitIntervals(intervals, Long.toString(min), Long.toString(max));
+            long[] lows = new long[bounds.length];
+            double[] widths = new double[bounds.length];
+            int amount = 0;
+            for (String[] interval : bounds) {
+                long low = parse(interval[0], decimalBounds);
+                long high = parse(interval[1], decimalBounds);
+                if (low > high) {
+                    continue;
+                }
+                lows[amount] = low;
+                widths[amount] = (double) high - low;
+                amount++;
+            }
+            this.lows = Arrays.copyOf(lows, amount);
+            this.widths = Arrays.copyOf(widths, amount);
+        }
+
+        @Override
+        boolean hasNoIntervals() {
+            return lows.length == 0;
+        }
+
+        private long parse(String bound, boolean decimal) {
+            if (decimal) {
+                double value = Double.parseDouble(bound);
+                return value <= min ? min : value >= max ? max : (long) value;
+            }
+            long value = Long.parseLong(bound);
+            if (value < min || value > max) {
+                throw new NumberFormatException("Value out of range. Value:\"" + bound + "\"");
+            }
+            return value;
+        }
+
+        @Override
+        String generate(Random random) {
+            if (lows.length == 0) {
+                if (max == Long.MAX_VALUE) {
+                    return Long.toString(random.nextLong());
+                } else if (max == Integer.MAX_VALUE) {
+                    return Integer.toString(random.nextInt());
+                }
+                return Integer.toString(random.nextInt((int) max + 1));
+            }
+            int interval = lows.length == 1 ? 0 : random.nextInt(lows.length);
+            return Long.toString(lows[interval] + (long) (random.nextDouble() * widths[interval]));
+        }
+    }
+
+    /**
+     * Generates float and double values. The lower bound and the width of every interval are computed once.
+     */
+    private static class DecimalGenerator extends ValueGenerator {
+        private final boolean isFloat;
+        private final double[] lows;
+        private final double[] widths;
+
+        DecimalGenerator(double min, double max, String[] intervals, boolean isFloat, boolean clampBounds) {
+            this.isFloat = isFloat;
+            String[][] bounds = splitIntervals(intervals, Double.toString(min), Double.toString(max));
+            double[] lows = new double[bounds.length];
+            double[] widths = new double[bounds.length];
+            int amount = 0;
+            for (String[] interval : bounds) {
+                double low = isFloat ? Float.parseFloat(interval[0]) : Double.parseDouble(interval[0]);
+                double high = isFloat ? Float.parseFloat(interval[1]) : Double.parseDouble(interval[1]);
+                if (clampBounds) {
+                    // The smallest value of a column is -max, min is the smallest positive value
+                    low = Math.max(-max, Math.min(max, low));
+                    high = Math.max(-max, Math.min(max, high));
+                    if (low > high) {
+                        continue;
+                    }
+                }
+                lows[amount] = low;
+                widths[amount] = high - low;
+                amount++;
+            }
+            this.lows = Arrays.copyOf(lows, amount);
+            this.widths = Arrays.copyOf(widths, amount);
+        }
+
+        @Override
+        boolean hasNoIntervals() {
+            return lows.length == 0;
+        }
+
+        @Override
+        String generate(Random random) { //TODO: Check what the string representation should be
+            if (lows.length == 0) {
+                String sign = random.nextBoolean() ? "" : "-";
+                if (isFloat) {
+                    return sign + random.nextFloat() * Float.MAX_VALUE;
+                }
+                return sign + random.nextDouble() * Double.MAX_VALUE;
+            }
+            int interval = lows.length == 1 ? 0 : random.nextInt(lows.length);
+            return Double.toString(lows[interval] + random.nextDouble() * widths[interval]);
+        }
+    }
+}
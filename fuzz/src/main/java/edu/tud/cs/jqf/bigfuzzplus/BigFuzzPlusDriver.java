@@ -1,18 +1,16 @@
 package edu.tud.cs.jqf.bigfuzzplus;
 
 import edu.berkeley.cs.jqf.fuzz.junit.GuidedFuzzing;
-import edu.tud.cs.jqf.bigfuzzplus.stackedMutation.HighOrderMutation;
 import edu.tud.cs.jqf.bigfuzzplus.stackedMutation.StackedMutation;
 import edu.tud.cs.jqf.bigfuzzplus.stackedMutation.StackedMutationEnum;
+import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.MutationSubtree;
 import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.SystematicMutation;
 
 import java.io.*;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 
 @SuppressWarnings("StringConcatenationInsideStringBufferAppend")
 public class BigFuzzPlusDriver {
@@ -23,9 +21,35 @@ public class BigFuzzPlusDriver {
 	public static boolean PRINT_MUTATIONS = false;
 	public static boolean PRINT_TEST_RESULTS = false;
 	public static boolean SAVE_INPUTS = false;
-	public static StringBuilder program_configuration = new StringBuilder();
-	public static StringBuilder iteration_results = new StringBuilder();
-	public static StringBuilder summarized_results = new StringBuilder();
+	// Keep mutated inputs in memory and only write inputs that are saved (+cov, +valid, +crash, +hang) to disk.
+	// Only applies to mutation classes that implement InMemoryMutation.
+	public static boolean IN_MEMORY_INPUTS = Boolean.getBoolean("bigfuzz.inMemoryInputs");
+	// Skip mutants that are identical to an input that has already been run in the same iteration. The fingerprints of
+	// up to DUPLICATE_CACHE_SIZE inputs are remembered.
+	public static boolean SKIP_DUPLICATES = Boolean.getBoolean("bigfuzz.skipDuplicates");
+	public static int DUPLICATE_CACHE_SIZE = Integer.getInteger("bigfuzz.duplicateCacheSize", 1 << 16);
+	// Handle the cached outcome of inputs that have been run before, also in earlier program iterations, instead of
+	// running them again. Only use this for deterministic test programs. Outcomes are saved in results.cache in the
+	// output directory, and up to RESULT_CACHE_SIZE outcomes are kept.
+	public static boolean MEMOIZE_RESULTS = Boolean.getBoolean("bigfuzz.memoizeResults");
+	public static int RESULT_CACHE_SIZE = Integer.getInteger("bigfuzz.resultCacheSize", 1 << 16);
+	private static ExecutionResultCache resultCache;
+	// Record the latencies of the phases of every trial, throughput, validity and coverage over time. The metrics are
+	// exposed through JMX while an iteration runs and appended every METRICS_INTERVAL milliseconds to plot_data in the
+	// output directory of the iteration.
+	public static boolean METRICS = Boolean.getBoolean("bigfuzz.metrics");
+	public static int METRICS_INTERVAL = Integer.getInteger("bigfuzz.metricsInterval", 1000);
+	// Write a record per trial to trials.jsonl in the output directory of the iteration
+	public static boolean LOG_TRIALS = Boolean.getBoolean("bigfuzz.logTrials");
+	// Amount of program iterations that run at the same time, each in its own worker JVM. 1 runs all iterations in this JVM.
+	public static int WORKERS = Integer.getInteger("bigfuzz.workers", 1);
+	// Amount of worker JVMs that explore the tree of SystematicMutation in parallel, split into subtrees. 0 explores the
+	// whole tree in every program iteration.
+	public static int SUBTREE_WORKERS = Integer.getInteger("bigfuzz.subtreeWorkers", 0);
+	// Level of the tree at which it is split into subtrees
+	public static int SUBTREE_SPLIT_LEVEL = Integer.getInteger("bigfuzz.subtreeSplitLevel", 2);
+	// Amount of program iterations
+	private static final int ITERATIONS = 20;
 
 	/**
 	 * Run the BigFuzzPlus program with the following parameters for StackedMutation:
@@ -43,6 +67,10 @@ public class BigFuzzPlusDriver {
 	 * [3] - max Trials                (default = Long.MAXVALUE)
 	 * [4] - mutate columns            (default = disabled)
 	 * [5] - max mutation depth        (default = 6)
+	 * <p>
+	 * The program iterations can be run in parallel worker JVMs by setting -Dbigfuzz.workers=N. The tree of
+	 * SystematicMutation can be explored in parallel worker JVMs by setting -Dbigfuzz.subtreeWorkers=N, in which case the
+	 * subtrees replace the program iterations.
 	 *
 	 * @param args program arguments
 	 */
@@ -60,7 +88,12 @@ public class BigFuzzPlusDriver {
 		long maxTrials = args.length > 3 ? Long.parseLong(args[3]) : Long.MAX_VALUE;
 		System.out.println("maxTrials: " + maxTrials);
 
-		long programStartTime = System.currentTimeMillis();
+		// Workers are started by the BigFuzzPlusWorkerPool to run a single iteration of an already started program
+		Integer workerIteration = Integer.getInteger(BigFuzzPlusWorkerPool.WORKER_ITERATION_PROPERTY);
+		// Workers are started by the BigFuzzPlusSubtreePool to explore subtrees of an already started program
+		String workerSubtrees = System.getProperty(BigFuzzPlusSubtreePool.WORKER_SUBTREES_PROPERTY);
+
+		long programStartTime = workerIteration != null || workerSubtrees != null ? Long.getLong(BigFuzzPlusWorkerPool.WORKER_START_TIME_PROPERTY) : System.currentTimeMillis();
 		File outputDir = new File("output/" + programStartTime);
 
 		int intStackedMutationMethod;
@@ -93,21 +126,50 @@ public class BigFuzzPlusDriver {
 
 		// **************
 
-		program_configuration.append("Program started with the following parameters: ");
-		program_configuration.append("\n\tTest class: " + testClassName);
-		program_configuration.append("\n\tTest method: " + testMethodName);
-		program_configuration.append("\n\tTest method: " + mutationMethodClassName);
+		String file = seedFile(testClassName);
+
+		if (workerIteration != null) {
+			outputDir = new File(System.getProperty(BigFuzzPlusWorkerPool.WORKER_OUTPUT_DIR_PROPERTY));
+			IterationResult result = runIteration(workerIteration, testClassName, testMethodName, mutationMethodClassName, file, maxTrials, programStartTime,
+					outputDir, stackedMutationMethod, intMutationStackCount);
+			if (result != null) {
+				try {
+					result.write(BigFuzzPlusWorkerPool.resultFile(outputDir, workerIteration));
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+			return;
+		}
+		if (workerSubtrees != null) {
+			outputDir = new File(System.getProperty(BigFuzzPlusWorkerPool.WORKER_OUTPUT_DIR_PROPERTY));
+			exploreSubtrees(new File(workerSubtrees), testClassName, testMethodName, mutationMethodClassName, file, maxTrials, programStartTime, outputDir);
+			return;
+		}
+		boolean exploreSubtrees = SUBTREE_WORKERS > 0 && mutationMethodClassName.equalsIgnoreCase("systematicmutation");
+
+		StringBuilder configuration = new StringBuilder();
+		configuration.append("Program started with the following parameters: ");
+		configuration.append("\n\tTest class: " + testClassName);
+		configuration.append("\n\tTest method: " + testMethodName);
+		configuration.append("\n\tTest method: " + mutationMethodClassName);
 		if (mutationMethodClassName.equalsIgnoreCase("StackedMutation")) {
-			program_configuration.append("\n\tTest stackedMutation method: " + stackedMutationMethod);
-			program_configuration.append("\n\tTest maximal stacked mutations: " + intMutationStackCount);
+			configuration.append("\n\tTest stackedMutation method: " + stackedMutationMethod);
+			configuration.append("\n\tTest maximal stacked mutations: " + intMutationStackCount);
 		}
 		if (mutationMethodClassName.equals("SystematicMutation")) {
-			program_configuration.append("\n\tTest mutate columns: " + SystematicMutation.MUTATE_COLUMNS);
-			program_configuration.append("\n\tTest tree depth: " + SystematicMutation.MUTATION_DEPTH);
+			configuration.append("\n\tTest mutate columns: " + SystematicMutation.MUTATE_COLUMNS);
+			configuration.append("\n\tTest tree depth: " + SystematicMutation.MUTATION_DEPTH);
+		}
+
+		if (exploreSubtrees) {
+			configuration.append("\n\tSubtree workers: " + SUBTREE_WORKERS + ", split at level " + SUBTREE_SPLIT_LEVEL);
+		} else if (WORKERS > 1) {
+			configuration.append("\n\tParallel workers: " + WORKERS);
 		}
 
-		program_configuration.append("\nOutput directory is set to: " + outputDir);
-		program_configuration.append("\nProgram is started at: " + programStartTime);
+		configuration.append("\nOutput directory is set to: " + outputDir);
+		configuration.append("\nProgram is started at: " + programStartTime);
 
 		boolean newOutputDirCreated = outputDir.mkdir();
 		if (!newOutputDirCreated) {
@@ -115,251 +177,213 @@ public class BigFuzzPlusDriver {
 			System.exit(0);
 		}
 
-		ArrayList<ArrayList<Integer>> uniqueFailureResults = new ArrayList<>();
-		ArrayList<ArrayList<String>> inputs = new ArrayList<>();
-		ArrayList<ArrayList<String>> methods = new ArrayList<>();
-		ArrayList<ArrayList<String>> columns = new ArrayList<>();
-		ArrayList<Long> durations = new ArrayList<>();
-		ArrayList<Integer> uniqueFailures = new ArrayList<>();
-		int totalRestartAmount = 0;
-
-		String file;
-		switch (testClassName) {
-			case "WordCountDriver":
-			case "WordCountNewDriver":
-				file = "dataset/conf_wordcount";
-				break;
-			case "CommuteTypeDriver":
-				file = "dataset/commutetype";
-				break;
-			case "ExternalUDFDriver":
-				file = "dataset/conf_externaludf";
-				break;
-			case "FindSalaryDriver":
-				file = "dataset/conf_findsalary";
-				break;
-			case "StudentGradesDriver":
-				file = "dataset/conf_studentgrades";
-				break;
-			case "MovieRatingDriver":
-				file = "dataset/conf_movierating";
-				break;
-			case "SalaryAnalysisDriver":
-				file = "dataset/conf_salary";
-				break;
-			case "PropertyDriver":
-				file = "dataset/conf_property";
-				break;
-			default:
-				file = "dataset/conf";
-		}
-
-		for (int i = 0; i < 20; i++) {
-			int atIteration = i + 1;
-			System.out.println("******** START OF PROGRAM ITERATION: " + atIteration + "**********************");
-
-			try {
-				long iterationStartTime = System.currentTimeMillis();
-
-				Duration maxDuration = Duration.of(10, ChronoUnit.MINUTES);
-				//NoGuidance guidance = new NoGuidance(file, maxTrials, System.err);
-				String iterationOutputDir = outputDir + "/Test" + atIteration;
-				BigFuzzPlusGuidance guidance = new BigFuzzPlusGuidance("Test" + atIteration, file, maxTrials, iterationStartTime, maxDuration, System.err, iterationOutputDir, mutationMethodClassName);
-
-				// Set the provided input argument stackedMutationMethod in the guidance mutation
-				if (guidance.mutation instanceof StackedMutation) {
-					((StackedMutation) guidance.mutation).setStackedMutationMethod(stackedMutationMethod);
-					guidance.setMutationStackCount(intMutationStackCount);
+		// Results are streamed to the campaign log and added to the summary as iterations finish, instead of being
+		// collected until the end of the program
+		try (CampaignLog campaignLog = new CampaignLog(new File(outputDir, "campaign.jsonl"));
+		     CampaignSummary summary = new CampaignSummary(outputDir)) {
+			campaignLog.record("config", "testClass", testClassName, "testMethod", testMethodName,
+					"mutation", mutationMethodClassName, "maxTrials", maxTrials, "outputDir", outputDir.getPath(),
+					"startTime", programStartTime, "workers", WORKERS, "subtreeWorkers", exploreSubtrees ? SUBTREE_WORKERS : 0);
+			campaignLog.flush();
+			Consumer<IterationResult> sink = result -> {
+				try {
+					campaignLog.record("iteration", "iteration", result.iteration, "duration", result.duration,
+							"trials", result.trials, "uniqueFailures", result.uniqueFailures,
+							"uniqueFailureTrials", result.uniqueFailureTrials, "coverage", result.coveredBranches.size(),
+							"restarts", result.restartAmount, "inputs", result.inputsFile);
+					campaignLog.flush();
+					summary.add(result);
+				} catch (IOException e) {
+					e.printStackTrace();
 				}
-				if (guidance.mutation instanceof SystematicMutation) {
-					totalRestartAmount += SystematicMutation.restartAmount;
+			};
+
+			if (exploreSubtrees) {
+				List<MutationSubtree> subtrees = SystematicMutation.splitTree(file, SUBTREE_SPLIT_LEVEL);
+				new BigFuzzPlusSubtreePool(args, outputDir, programStartTime, SUBTREE_WORKERS).run(subtrees, sink);
+			} else if (WORKERS > 1) {
+				new BigFuzzPlusWorkerPool(args, outputDir, programStartTime, WORKERS).run(ITERATIONS, sink);
+			} else {
+				for (int i = 0; i < ITERATIONS; i++) {
+					IterationResult result = runIteration(i + 1, testClassName, testMethodName, mutationMethodClassName, file, maxTrials, programStartTime,
+							outputDir, stackedMutationMethod, intMutationStackCount);
+					if (result != null) {
+						sink.accept(result);
+					}
 				}
-				// Set the randomization seed to the program start time. Seed is passed to allow for custom seeds, independent of the program start time
-				guidance.setRandomizationSeed(programStartTime);
-
-				// Set the test class name in the guidance for the failure tracking
-				guidance.setTestClassName(testClassName);
-
-				// Run the Junit test
-				GuidedFuzzing.run(testClassName, testMethodName, guidance, System.out);
-				long endTime = System.currentTimeMillis();
-
-				// Evaluate the results
-//                evaluation(testClassName, testMethodName, file, maxTrials, maxDuration, iterationStartTime, endTime, guidance, atIteration);
-				writeToLists(guidance, maxTrials, inputs, uniqueFailureResults, methods, columns, uniqueFailures);
-				durations.add(endTime - iterationStartTime);
-				System.out.println("************************* END OF PROGRAM ITERATION ************************");
-			} catch (Exception e) {
-				e.printStackTrace();
 			}
+
+			campaignLog.record("summary", "uniqueFailures", summary.getMergedUniqueFailures(),
+					"coverage", summary.getMergedCoverage(), "restarts", summary.getRestartAmount());
+			Writer stdout = new OutputStreamWriter(System.out);
+			summary.writeTo(stdout);
+			System.out.println();
+			writeLogToFile(outputDir, configuration, summary);
+			summary.writeCrashIndex(new File(outputDir, "crashes.txt"));
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
-		summarizeProgramIterations(uniqueFailureResults, inputs, methods, columns, durations, totalRestartAmount, uniqueFailures);
-		writeLogToFile(outputDir);
 	}
 
 	/**
-	 * Write collected log in the variables log, summarized results and iteration results to a file in the output folder named log.txt.
+	 * Explore subtrees of the queue of a BigFuzzPlusSubtreePool until it is empty. Every subtree is explored in its own
+	 * program iteration, numbered by the position of the subtree in the queue.
 	 *
-	 * @param outputDir Directory where the log file should be written to
+	 * @param subtreeFile             file with the queue of subtrees
+	 * @param testClassName           class name which is being tested
+	 * @param testMethodName          test method name which is used to perform the test
+	 * @param mutationMethodClassName mutation method class name
+	 * @param file                    input file for the testing
+	 * @param maxTrials               maximal amount of trials per subtree
+	 * @param programStartTime        start time of the program, used as randomization seed
+	 * @param outputDir               output directory of the program
 	 */
-	private static void writeLogToFile(File outputDir) {
-		File f_out = new File(outputDir + "/log.txt");
-		FileOutputStream fos = null;
-		try {
-			fos = new FileOutputStream(f_out);
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-			System.exit(0);
-		}
-
-		BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos));
-		String output = program_configuration.append("\n\n").append(summarized_results).append("\n\n").append(iteration_results).toString();
-
+	private static void exploreSubtrees(File subtreeFile, String testClassName, String testMethodName, String mutationMethodClassName, String file,
+	                                    long maxTrials, long programStartTime, File outputDir) {
 		try {
-			bw.write(output);
-			bw.close();
-			fos.close();
+			List<MutationSubtree> subtrees = BigFuzzPlusSubtreePool.readSubtrees(subtreeFile);
+			int next;
+			while ((next = BigFuzzPlusSubtreePool.takeSubtree(subtreeFile)) < subtrees.size()) {
+				SystematicMutation.SUBTREE = subtrees.get(next);
+				System.out.println("Exploring subtree " + (next + 1) + ": " + SystematicMutation.SUBTREE);
+				IterationResult result = runIteration(next + 1, testClassName, testMethodName, mutationMethodClassName, file, maxTrials, programStartTime,
+						outputDir, StackedMutationEnum.StackedMutationMethod.Disabled, 0);
+				if (result != null) {
+					result.write(BigFuzzPlusWorkerPool.resultFile(outputDir, next + 1));
+				}
+			}
 		} catch (IOException e) {
 			e.printStackTrace();
+		} finally {
+			SystematicMutation.SUBTREE = null;
 		}
 	}
 
 	/**
-	 * Convert collected data lists to a readable string in summarized_results
+	 * Run a single program iteration.
 	 *
-	 * @param uniqueFailureResults List of unique failures per program iteration
-	 * @param inputs               List of sequential mutated inputs per program iteration
-	 * @param methods              List of summed HighOrderMutation methods applied per iteration
-	 * @param columns              List of count per column how many times mutation was applied to said column
-	 * @param durations            List of iteration durations
+	 * @param atIteration             iteration number, starting at 1
+	 * @param testClassName           class name which is being tested
+	 * @param testMethodName          test method name which is used to perform the test
+	 * @param mutationMethodClassName mutation method class name
+	 * @param file                    input file for the testing
+	 * @param maxTrials               maximal amount of trials configuration
+	 * @param programStartTime        start time of the program, used as randomization seed
+	 * @param outputDir               output directory of the program
+	 * @param stackedMutationMethod   stacked mutation method, only used for StackedMutation
+	 * @param intMutationStackCount   maximal amount of stacked mutations, only used for StackedMutation
+	 * @return results of the iteration, null if the iteration failed
 	 */
-	private static void summarizeProgramIterations(ArrayList<ArrayList<Integer>> uniqueFailureResults, ArrayList<ArrayList<String>> inputs, ArrayList<ArrayList<String>> methods,
-	                                               ArrayList<ArrayList<String>> columns, ArrayList<Long> durations, int restartAmount, ArrayList<Integer> uniqueFailures) {
-
-		summarized_results.append("********* PROGRAM SUMMARY **********");
-		// --------------- UNIQUE FAILURES --------------
-		summarized_results.append("\nCUMULATIVE UNIQUE FAILURE PER TEST PER ITERATION");
-		for (ArrayList<Integer> uniqueFailureResult : uniqueFailureResults) {
-			summarized_results.append("\n" + uniqueFailureResult);
-		}
+	private static IterationResult runIteration(int atIteration, String testClassName, String testMethodName, String mutationMethodClassName, String file,
+	                                            long maxTrials, long programStartTime, File outputDir,
+	                                            StackedMutationEnum.StackedMutationMethod stackedMutationMethod, int intMutationStackCount) {
+		System.out.println("******** START OF PROGRAM ITERATION: " + atIteration + "**********************");
 
-		// --------------- INPUTS --------------
-		summarized_results.append("\n\nAPPLIED MUTATIONS PER ITERATION");
-		for (int i = 0; i < inputs.size(); i++) {
-			summarized_results.append("\nRun " + (i + 1) + " [");
-			for (int j = 0; j < inputs.get(i).size(); j++) {
-				if (j != 0) {
-					summarized_results.append(", ");
-				}
-				summarized_results.append("\"" + inputs.get(i).get(j) + "\"");
-			}
-			summarized_results.append("]");
-		}
+		try {
+			long iterationStartTime = System.currentTimeMillis();
 
-		// --------------- MUTATION COUNTER --------------
-		summarized_results.append("\n\n MUTATED INPUTS PER ITERATION");
-		for (int i = 0; i < methods.size(); i++) {
-			summarized_results.append("\nRun " + (i + 1) + ": [");
-			for (int j = 0; j < methods.get(i).size(); j++) {
-				if (j != 0) {
-					summarized_results.append(", ");
-				}
-				summarized_results.append("(" + methods.get(i).get(j) + ")");
-			}
-			summarized_results.append("]");
-		}
+			Duration maxDuration = Duration.of(10, ChronoUnit.MINUTES);
+			//NoGuidance guidance = new NoGuidance(file, maxTrials, System.err);
+			String iterationOutputDir = outputDir + "/Test" + atIteration;
+			BigFuzzPlusGuidance guidance = new BigFuzzPlusGuidance("Test" + atIteration, file, maxTrials, iterationStartTime, maxDuration, System.err, iterationOutputDir, mutationMethodClassName);
 
-		// --------------- COLUMN COUNTER --------------
-		summarized_results.append("\n\n MUTATIONS APPLIED ON COLUMN PER ITERATION");
-		for (int i = 0; i < columns.size(); i++) {
-			summarized_results.append("\nRun " + (i + 1) + ": [");
-			for (int j = 0; j < columns.get(i).size(); j++) {
-				if (j != 0) {
-					summarized_results.append(", ");
+			// Set the provided input argument stackedMutationMethod in the guidance mutation
+			if (guidance.mutation instanceof StackedMutation) {
+				((StackedMutation) guidance.mutation).setStackedMutationMethod(stackedMutationMethod);
+				guidance.setMutationStackCount(intMutationStackCount);
+			}
+			int restartsBefore = SystematicMutation.restartAmount;
+			// Set the randomization seed to the program start time. Seed is passed to allow for custom seeds, independent of the program start time
+			guidance.setRandomizationSeed(programStartTime);
+
+			// Set the test class name in the guidance for the failure tracking
+			guidance.setTestClassName(testClassName);
+
+			File resultCacheFile = new File(outputDir, "results.cache");
+			if (MEMOIZE_RESULTS) {
+				// Iterations in this JVM share the cache, iterations in other JVMs share it through the file
+				if (resultCache == null) {
+					resultCache = new ExecutionResultCache(testClassName + "#" + testMethodName, RESULT_CACHE_SIZE);
+					resultCache.load(resultCacheFile);
 				}
-				summarized_results.append("(" + columns.get(i).get(j) + ")");
+				guidance.setResultCache(resultCache);
 			}
-			summarized_results.append("]");
-		}
 
-		// --------------- DURATION --------------
-		summarized_results.append("\n\n DURATION PER ITERATION");
-		summarized_results.append("\ndurations: " + durations);
-		for (int i = 0; i < durations.size(); i++) {
-			summarized_results.append("\nRun " + (i + 1) + ": " + durations.get(i) + " ms ");
-		}
-		// --------------- TREE RESTARTS ----------------
-		summarized_results.append("\n\n AMOUNT OF TREE RESTARTS");
-		summarized_results.append("\nTotal amount of restarts: " + restartAmount);
-
-		// --------------- UNIQUE FAILURES --------------
-		summarized_results.append("\n\n UNIQUE FAILURES PER RUN");
-		for (int i = 0; i < uniqueFailures.size(); i++) {
-			summarized_results.append("\nRun " + (i + 1) + ": " + uniqueFailures.get(i));
+			// Run the Junit test
+			GuidedFuzzing.run(testClassName, testMethodName, guidance, System.out);
+			long endTime = System.currentTimeMillis();
+
+			// Evaluate the results
+//            evaluation(testClassName, testMethodName, file, maxTrials, maxDuration, iterationStartTime, endTime, guidance, atIteration);
+			// A subtree is usually explored before the maximal amount of trials is reached
+			long trials = SystematicMutation.SUBTREE != null ? guidance.numTrials : maxTrials;
+			IterationResult result = new IterationResult(atIteration, guidance, trials, endTime - iterationStartTime,
+					SystematicMutation.restartAmount - restartsBefore);
+			if (SKIP_DUPLICATES) {
+				System.out.println("Skipped duplicate mutants: " + guidance.numSkippedDuplicates);
+			}
+			if (MEMOIZE_RESULTS) {
+				resultCache.save(resultCacheFile);
+				System.out.println("Trials with a cached result: " + guidance.numReplayedResults);
+			}
+			if (guidance.getMetrics() != null) {
+				guidance.getMetrics().close();
+				System.out.println(guidance.getMetrics().summary());
+			}
+			guidance.closeLogs();
+			System.out.println("************************* END OF PROGRAM ITERATION ************************");
+			return result;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
 		}
-
-		System.out.println(summarized_results);
 	}
 
 	/**
-	 * Transforms data in guidance to required lists.
+	 * Seed file that is used for the test class.
 	 *
-	 * @param guidance             guidance class which contains all data
-	 * @param maxTrials            maximal amount of trials (configuration)
-	 * @param inputs               list of inputs passed to the program that is being tested
-	 * @param uniqueFailureResults list of unique failures
-	 * @param methods              list of methods applied
-	 * @param columns              list of count how many times mutation was applied per column
+	 * @param testClassName class name which is being tested
+	 * @return path to the seed conf file
 	 */
-	private static void writeToLists(BigFuzzPlusGuidance guidance, Long maxTrials, ArrayList<ArrayList<String>> inputs, ArrayList<ArrayList<Integer>> uniqueFailureResults, ArrayList<ArrayList<String>> methods, ArrayList<ArrayList<String>> columns, ArrayList<Integer> uniqueFailures) {
-		// Unique failure results
-		int cumulative = 0;
-		ArrayList<Integer> runFoundUniqueFailureCumulative = new ArrayList<>();
-		for (long j = 0; j < maxTrials; j++) {
-			if (guidance.uniqueFailureRuns.contains(j))
-				cumulative++;
-			runFoundUniqueFailureCumulative.add(cumulative);
-		}
-		// Methods and columns
-		if (guidance.mutation instanceof StackedMutation) {
-			ArrayList<String> methodStringList = new ArrayList<>();
-			ArrayList<String> columnStringList = new ArrayList<>();
-			combineUsedMethodsAndColumns(methodStringList, columnStringList, guidance);
-			methods.add(methodStringList);
-			columns.add(columnStringList);
+	private static String seedFile(String testClassName) {
+		switch (testClassName) {
+			case "WordCountDriver":
+			case "WordCountNewDriver":
+				return "dataset/conf_wordcount";
+			case "CommuteTypeDriver":
+				return "dataset/commutetype";
+			case "ExternalUDFDriver":
+				return "dataset/conf_externaludf";
+			case "FindSalaryDriver":
+				return "dataset/conf_findsalary";
+			case "StudentGradesDriver":
+				return "dataset/conf_studentgrades";
+			case "MovieRatingDriver":
+				return "dataset/conf_movierating";
+			case "SalaryAnalysisDriver":
+				return "dataset/conf_salary";
+			case "PropertyDriver":
+				return "dataset/conf_property";
+			default:
+				return "dataset/conf";
 		}
-
-		inputs.add(guidance.inputs);
-		uniqueFailureResults.add(runFoundUniqueFailureCumulative);
-		uniqueFailures.add(cumulative);
 	}
 
-	private static void combineUsedMethodsAndColumns(ArrayList<String> methodStringList, ArrayList<String> columnStringList, BigFuzzPlusGuidance guidance) {
-		ArrayList<HighOrderMutation.HighOrderMutationMethod> methodTracker = ((StackedMutation) guidance.mutation).getMutationMethodTracker();
-		ArrayList<Integer> columnTracker = ((StackedMutation) guidance.mutation).getMutationColumnTracker();
-
-		HashMap<HighOrderMutation.HighOrderMutationMethod, Integer> methodMap = new HashMap<>();
-		HashMap<Integer, Integer> columnMap = new HashMap<>();
-		for (int i = 0; i < methodTracker.size(); i++) {
-			HighOrderMutation.HighOrderMutationMethod method = methodTracker.get(i);
-			int column = columnTracker.get(i);
-			if (methodMap.containsKey(method)) {
-				methodMap.put(method, methodMap.get(method) + 1);
-			} else {
-				methodMap.put(method, 1);
-			}
-			if (columnMap.containsKey(column)) {
-				columnMap.put(column, columnMap.get(column) + 1);
-			} else {
-				columnMap.put(column, 1);
-			}
-		}
-		for (Map.Entry<HighOrderMutation.HighOrderMutationMethod, Integer> e : methodMap.entrySet()) {
-			methodStringList.add(e.getKey() + ": " + e.getValue());
-		}
-
-		for (Map.Entry<Integer, Integer> e : columnMap.entrySet()) {
-			columnStringList.add(e.getKey() + ": " + e.getValue());
+	/**
+	 * Write the configuration and the summary of the program to a file in the output folder named log.txt.
+	 *
+	 * @param outputDir     Directory where the log file should be written to
+	 * @param configuration configuration of the program
+	 * @param summary       summary of the program iterations
+	 */
+	private static void writeLogToFile(File outputDir, CharSequence configuration, CampaignSummary summary) {
+		File f_out = new File(outputDir + "/log.txt");
+		try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(f_out)))) {
+			bw.append(configuration).append("\n\n");
+			summary.writeTo(bw);
+			bw.write("\n\n");
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
 	}
 
@@ -389,14 +413,9 @@ public class BigFuzzPlusDriver {
 		if (guidance.mutation instanceof StackedMutation) {
 			e_log.append("\n\tRandomization seed: " + ((StackedMutation) guidance.mutation).getRandomizationSeed());
 		}
-		e_log.append("\n\tMutated inputs: [");
-		for (int i = 0; i < guidance.inputs.size(); i++) {
-			if (i != 0) {
-				e_log.append(", ");
-			}
-			e_log.append("\"" + guidance.inputs.get(i) + "\"");
+		if (guidance.inputsFile != null) {
+			e_log.append("\n\tMutated inputs: " + guidance.inputsFile);
 		}
-		e_log.append("]");
 
 		// Print results
 		e_log.append("\n---RESULTS---");
@@ -434,6 +453,5 @@ public class BigFuzzPlusDriver {
 
 		e_log.append("\n\tPercent valid coverage: " + (float) validCov / totalCov * 100 + "%");
 		System.out.println(e_log);
-		iteration_results.append(e_log);
 	}
 }
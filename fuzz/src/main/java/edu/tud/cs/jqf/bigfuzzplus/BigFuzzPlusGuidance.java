@@ -2,17 +2,22 @@ package edu.tud.cs.jqf.bigfuzzplus;
 
 import edu.berkeley.cs.jqf.fuzz.guidance.Guidance;
 import edu.berkeley.cs.jqf.fuzz.guidance.GuidanceException;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
 import edu.berkeley.cs.jqf.fuzz.guidance.Result;
 import edu.berkeley.cs.jqf.fuzz.util.Coverage;
+import edu.berkeley.cs.jqf.instrument.tracing.FastCoverageLogger;
 import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
 import edu.tud.cs.jqf.bigfuzzplus.stackedMutation.StackedMutation;
 import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.SystematicMutation;
 import edu.ucla.cs.jqf.bigfuzz.BigFuzzMutation;
+import edu.ucla.cs.jqf.bigfuzz.InMemoryMutation;
+import edu.ucla.cs.jqf.bigfuzz.MutatedInput;
 import edu.ucla.cs.jqf.bigfuzz.mutationclasses.*;
 import org.apache.commons.io.FileUtils;
 
 import java.io.*;
 import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.util.*;
@@ -96,15 +101,70 @@ public class BigFuzzPlusGuidance implements Guidance {
 	protected int totalFailures = 0;
 
 	/**
-	 * The set of unique failures found so far.
+	 * Signatures of the unique failures found so far.
 	 */
-	protected Set<List<StackTraceElement>> uniqueFailures = new HashSet<>();
+	protected CrashSignatureIndex uniqueFailures = new CrashSignatureIndex();
 
 	/**
 	 * List of runs which have at which new unique failures have been detected.
 	 */
 	protected List<Long> uniqueFailureRuns = new ArrayList<>();
-	protected ArrayList<String> inputs = new ArrayList<>();
+
+	/**
+	 * File that the mutated inputs are written to if they are saved, one input per line, null if inputs are not saved.
+	 */
+	protected File inputsFile;
+	private Writer inputsWriter;
+
+	/**
+	 * Log with a record per trial, null unless trials are logged.
+	 */
+	private CampaignLog trialLog;
+
+	/**
+	 * Fingerprints of the inputs that have been run, null if duplicate mutants are run as well.
+	 */
+	private final MutantFingerprintCache runInputs = SKIP_DUPLICATES ? new MutantFingerprintCache(DUPLICATE_CACHE_SIZE) : null;
+
+	/**
+	 * Maximal amount of duplicate mutants that are skipped in a row, after which a duplicate is run anyway.
+	 */
+	private static final int MAX_SKIPPED_DUPLICATES = 100;
+
+	/**
+	 * The number of mutants that were skipped because an identical input had already been run.
+	 */
+	protected long numSkippedDuplicates = 0;
+
+	/**
+	 * Outcomes of inputs that have been run, null if every input is run.
+	 */
+	private ExecutionResultCache resultCache;
+
+	/**
+	 * Whether the result that is handled is a cached outcome, rather than the result of running the current input.
+	 */
+	private boolean replayingResult;
+
+	/**
+	 * The number of trials whose result was taken from the result cache instead of running the input.
+	 */
+	protected long numReplayedResults = 0;
+
+	/**
+	 * Fingerprint of the current input, only computed if duplicates are skipped or results are cached.
+	 */
+	private long currentFingerprint;
+
+	/**
+	 * Latencies of the phases of a trial and other runtime metrics, null unless metrics are enabled.
+	 */
+	private CampaignMetrics metrics;
+
+	/**
+	 * Time at which the test method started running the current input, in nanoseconds.
+	 */
+	private long executionStart;
 
 	// ---------- LOGGING / STATS OUTPUT ------------
 
@@ -136,6 +196,16 @@ public class BigFuzzPlusGuidance implements Guidance {
 	BigFuzzMutation mutation;
 	private String currentInputFile;
 
+	/**
+	 * Mutant of the current run if it is kept in memory, null if the current input is stored on disk.
+	 */
+	private MutatedInput currentMutant;
+
+	/**
+	 * Path that the in-memory data of the current mutant is registered under.
+	 */
+	private String currentDataFile;
+
 	ArrayList<String> testInputFiles = new ArrayList<>();
 
 
@@ -164,6 +234,18 @@ public class BigFuzzPlusGuidance implements Guidance {
 		this.out = out;
 
 		setMutation(mutationMethodClassName, initialInputFile);
+
+		if (METRICS) {
+			metrics = new CampaignMetrics(testName, new File(outputDir, "plot_data"), METRICS_INTERVAL);
+			metrics.register();
+		}
+		if (LOG_TRIALS) {
+			trialLog = new CampaignLog(new File(outputDir, "trials.jsonl"));
+		}
+		if (SAVE_INPUTS) {
+			inputsFile = new File(outputDir, "inputs.txt");
+			inputsWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(inputsFile), Charset.defaultCharset()));
+		}
 	}
 
 	/**
@@ -235,29 +317,86 @@ public class BigFuzzPlusGuidance implements Guidance {
 
 	@Override
 	public InputStream getInput() {
+		long inputStart = metrics != null ? System.nanoTime() : 0;
+		// Time spent mutating and handling cached results, which is not part of materializing the input
+		long excludedNanos = 0;
+
 		// Clear coverage stats for this run
-		runCoverage = new Coverage();
+		runCoverage.clear();
 
 		///copy the configuration/input file
 		if (testInputFiles.isEmpty()) {
-			// if test input files has not been filled yet, copy the current input file
+			// if test input files has not been filled yet, copy the current input file. The copy is placed in the
+			// output directory, since iterations that run in parallel worker JVMs share the working directory.
 			String fileName = currentInputFile.substring(currentInputFile.lastIndexOf('/') + 1);
 			File src = new File(currentInputFile);
-			File dst = new File(fileName);
+			File dst = new File(outputDirName, fileName);
 			try {
 				copyFileUsingFileChannels(src, dst);
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
-			currentInputFile = fileName;
+			currentInputFile = dst.getPath();
+			if (runInputs != null || resultCache != null) {
+				try {
+					currentFingerprint = fingerprintCurrentInput();
+					if (runInputs != null) {
+						runInputs.add(currentFingerprint);
+					}
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
 		} else {
 			try {
-				// Use the current date and number of trials to create a new file name. This file is used mutate
-				String nextInputFile = new SimpleDateFormat("yyyyMMddHHmmss'_" + this.numTrials + "'").format(new Date());
-				nextInputFile = this.outputDirName + "/" + nextInputFile;
-				mutation.mutate(initialInputFile, nextInputFile);//currentInputFile
-				currentInputFile = nextInputFile;
-
+				int skipped = 0;
+				while (true) {
+					// Use the current date and number of trials to create a new file name. This file is used mutate
+					String nextInputFile = new SimpleDateFormat("yyyyMMddHHmmss'_" + this.numTrials + "'").format(new Date());
+					nextInputFile = this.outputDirName + "/" + nextInputFile;
+					long mutationStart = metrics != null ? System.nanoTime() : 0;
+					if (IN_MEMORY_INPUTS && mutation instanceof InMemoryMutation) {
+						MutatedInput mutant = ((InMemoryMutation) mutation).mutateInMemory(initialInputFile);
+						excludedNanos += recordMutation(mutationStart);
+						registerMutant(mutant, nextInputFile);
+					} else {
+						mutation.mutate(initialInputFile, nextInputFile);//currentInputFile
+						excludedNanos += recordMutation(mutationStart);
+					}
+					currentInputFile = nextInputFile;
+					if (runInputs == null && resultCache == null) {
+						break;
+					}
+					currentFingerprint = fingerprintCurrentInput();
+					// Another mutant can only be used instead of this one if there is one
+					if (!keepGoing || (mutation instanceof SystematicMutation && ((SystematicMutation) mutation).isExhausted())) {
+						break;
+					}
+
+					// Skip mutants that have been run before
+					if (runInputs != null && !runInputs.add(currentFingerprint) && skipped < MAX_SKIPPED_DUPLICATES) {
+						discardCurrentInput();
+						skipped++;
+						numSkippedDuplicates++;
+						continue;
+					}
+					// Handle the cached result of a mutant instead of running it, leaving the last trial to be run
+					ExecutionResultCache.Outcome outcome = resultCache != null ? resultCache.get(currentFingerprint) : null;
+					if (outcome != null && numTrials + 1 < maxTrials) {
+						testInputFiles.add(currentInputFile);
+						outcome.restoreCoverage(runCoverage);
+						long replayStart = metrics != null ? System.nanoTime() : 0;
+						replayingResult = true;
+						handleResult(outcome.getResult(), outcome.getError());
+						replayingResult = false;
+						numReplayedResults++;
+						if (metrics != null) {
+							excludedNanos += System.nanoTime() - replayStart;
+						}
+						continue;
+					}
+					break;
+				}
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -271,25 +410,140 @@ public class BigFuzzPlusGuidance implements Guidance {
 		if (SAVE_INPUTS) {
 			saveInput();
 		}
+		if (metrics != null) {
+			executionStart = System.nanoTime();
+			metrics.record(CampaignMetrics.Phase.MATERIALIZATION, executionStart - inputStart - excludedNanos);
+		}
 		return targetStream;
 	}
 
 	/**
-	 * Save input that is in currentInputFile.
+	 * Record the latency of a mutation that started at the given time.
+	 *
+	 * @param mutationStart start of the mutation in nanoseconds
+	 * @return duration of the mutation in nanoseconds, 0 if metrics are disabled
+	 */
+	private long recordMutation(long mutationStart) {
+		if (metrics == null) {
+			return 0;
+		}
+		long mutationNanos = System.nanoTime() - mutationStart;
+		metrics.record(CampaignMetrics.Phase.MUTATION, mutationNanos);
+		return mutationNanos;
+	}
+
+	/**
+	 * @return fingerprint of the current input, see {@link MutantFingerprintCache}
+	 * @throws IOException if the current input cannot be read
+	 */
+	private long fingerprintCurrentInput() throws IOException {
+		if (currentMutant == null) {
+			return MutantFingerprintCache.fingerprint(currentInputFile);
+		}
+		return MutantFingerprintCache.fingerprint(currentMutant);
+	}
+
+	/**
+	 * Make a mutant available to the test driver under the same paths that file based mutation would have written it to.
+	 *
+	 * @param mutant        mutant produced by the mutation class
+	 * @param nextInputFile path of the conf file for the mutant
+	 */
+	private void registerMutant(MutatedInput mutant, String nextInputFile) {
+		currentMutant = mutant;
+		currentDataFile = new File(nextInputFile + "+" + mutant.getSeedFileName()).getAbsolutePath();
+		InputProvider.register(currentDataFile, mutant.getRows());
+		InputProvider.register(nextInputFile, mutant.getInputLocations(currentDataFile));
+	}
+
+	/**
+	 * Keep the current input under a new conf file name. In-memory inputs are written to disk at this point.
+	 *
+	 * @param keptInputFile path of the conf file of the kept input
+	 */
+	private void keepCurrentInput(String keptInputFile) {
+		if (currentMutant != null) {
+			try {
+				try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(currentDataFile), Charset.defaultCharset()))) {
+					currentMutant.writeContent(writer);
+				}
+				FileUtils.writeLines(new File(keptInputFile), currentMutant.getInputLocations(currentDataFile));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			releaseCurrentMutant();
+		} else {
+			File src = new File(currentInputFile);
+			File des = new File(keptInputFile);
+			src.renameTo(des);
+		}
+		currentInputFile = keptInputFile;
+	}
+
+	/**
+	 * Discard the current input, removing it from disk or memory.
+	 */
+	private void discardCurrentInput() {
+		if (currentMutant != null) {
+			releaseCurrentMutant();
+			return;
+		}
+		try {
+			mutation.deleteFile(currentInputFile);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		File src2 = new File(currentInputFile);
+		src2.delete();
+	}
+
+	private void releaseCurrentMutant() {
+		InputProvider.unregister(currentInputFile);
+		InputProvider.unregister(currentDataFile);
+		currentMutant = null;
+		currentDataFile = null;
+	}
+
+	/**
+	 * Save input that is in currentInputFile, by appending its rows as a single line to the inputs file.
 	 */
 	private void saveInput() {
-		String inputFileName = loadInputLocation(currentInputFile);
-		StringBuilder contentBuilder = new StringBuilder();
-		try (BufferedReader br = new BufferedReader(new FileReader(inputFileName))) {
+		try {
+			if (currentMutant != null) {
+				for (String row : currentMutant.getRows()) {
+					inputsWriter.write(row);
+				}
+			} else {
+				String inputFileName = loadInputLocation(currentInputFile);
+				try (BufferedReader br = new BufferedReader(new FileReader(inputFileName))) {
+					String sCurrentLine;
+					while ((sCurrentLine = br.readLine()) != null) {
+						inputsWriter.write(sCurrentLine);
+					}
+				}
+			}
+			inputsWriter.write(System.lineSeparator());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
 
-			String sCurrentLine;
-			while ((sCurrentLine = br.readLine()) != null) {
-				contentBuilder.append(sCurrentLine);
+	/**
+	 * Flush and close the inputs file and the trial log, and write the crash index to crashes.txt in the output
+	 * directory. Called once the iteration has finished.
+	 */
+	public void closeLogs() {
+		try {
+			uniqueFailures.write(new File(outputDirName, "crashes.txt"));
+			if (inputsWriter != null) {
+				inputsWriter.close();
+			}
+			if (trialLog != null) {
+				trialLog.close();
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
-		inputs.add(contentBuilder.toString());
 	}
 
 	/**
@@ -345,19 +599,37 @@ public class BigFuzzPlusGuidance implements Guidance {
 
 	@Override
 	public boolean hasInput() {
+		// A systematic mutation that explores a subtree is done once every mutation of the subtree has been run
+		if (mutation instanceof SystematicMutation && ((SystematicMutation) mutation).isExhausted()) {
+			return false;
+		}
 		return keepGoing;
 	}
 
 	@Override
 	public void handleResult(Result result, Throwable error) {
+		long mergeStart = metrics != null ? System.nanoTime() : 0;
+		if (metrics != null && !replayingResult) {
+			metrics.record(CampaignMetrics.Phase.EXECUTION, mergeStart - executionStart);
+		}
+
 		//progress bar
 		if (!SystematicMutation.EVALUATE && numTrials % (maxTrials / 20) == 0) {
 			System.out.print("\rCompleted trials: " + numTrials * 100 / maxTrials + "%");
 		}
 
+		// Collect branch and call coverage that was not emitted as trace events
+		if (FastCoverageLogger.ENABLED) {
+			runCoverage.drainFastCoverage();
+		}
+
 		// Stop timeout handling
 		this.runStart = null;
 
+		if (resultCache != null && !replayingResult) {
+			resultCache.put(currentFingerprint, result, runCoverage, error);
+		}
+
 		if (PRINT_METHOD_NAMES) {
 			System.out.println("BigFuzz::handleResult");
 		}
@@ -368,6 +640,8 @@ public class BigFuzzPlusGuidance implements Guidance {
 		this.numTrials++;
 
 		boolean valid = result == Result.SUCCESS;
+		// Reason why the input is kept, null if it is discarded
+		String saved = null;
 
 		if (valid) {
 			// Increment valid counter
@@ -447,19 +721,10 @@ public class BigFuzzPlusGuidance implements Guidance {
 						nonZeroAfter);
 
 				// Change current inputfile name
-				File src = new File(currentInputFile);
-				currentInputFile += why;
-				File des = new File(currentInputFile);
-				src.renameTo(des);
+				keepCurrentInput(currentInputFile + why);
+				saved = why;
 			} else {
-				try {
-					mutation.deleteFile(currentInputFile);
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-
-				File src2 = new File(currentInputFile);
-				src2.delete();
+				discardCurrentInput();
 			}
 		} else if (result == Result.FAILURE || result == Result.TIMEOUT) {
 
@@ -473,46 +738,40 @@ public class BigFuzzPlusGuidance implements Guidance {
 			this.totalFailures++;
 
 
-			// Only check the Stack trace elements until the program driver that is being tested
-			ArrayList<StackTraceElement> testProgramTraceElements = new ArrayList<>();
-			boolean testClassFound = false;
-			for (int i = 0; i < rootCause.getStackTrace().length; i++) {
-				// If the test class has been found in the stacktrace, but this element is no longer said test class then the stacktrace will only contain the test framework, not the test program.
-				if (testClassFound && !rootCause.getStackTrace()[i].getClassName().equals(testClassName)) {
-					break;
-				}
-
-				testProgramTraceElements.add(rootCause.getStackTrace()[i]);
-
-				// Check the currect element of the stacktrace if it originated from the test class.
-				if (rootCause.getStackTrace()[i].getClassName().equals(testClassName)) {
-					testClassFound = true;
-				}
-			}
-
-			if (uniqueFailures.add(testProgramTraceElements)) {
+			// Only the stack trace elements until the program driver that is being tested are part of the signature
+			long signature = CrashSignatureIndex.signature(rootCause, testClassName);
+			if (uniqueFailures.add(signature, numTrials, rootCause::toString)) {
 				int crashIdx = uniqueFailures.size() - 1;
 				uniqueFailureRuns.add(numTrials);
 
-				infoLog("%s", "Found crash: " + error.getClass() + " - " + (msg != null ? msg : ""));
+				infoLog("%s", "Found crash: " + ExecutionResultCache.failureClassName(error) + " - " + (msg != null ? msg : ""));
 
 				String why = result == Result.FAILURE ? "+crash" : "+hang";
 
-				File src = new File(currentInputFile);
-				currentInputFile = currentInputFile + why + "+" + crashIdx + "+" + rootCause;
-				File des = new File(currentInputFile);
-				src.renameTo(des);
+				// The exception type identifies the crash in the file name, crashes.txt holds the full description
+				String type = ExecutionResultCache.failureClassName(rootCause);
+				keepCurrentInput(currentInputFile + why + "+" + crashIdx + "+" + type);
+				saved = why;
 			} else {
-				try {
-					mutation.deleteFile(currentInputFile);
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-				File src2 = new File(currentInputFile);
-				src2.delete();
+				discardCurrentInput();
 			}
 		}
-		runCoverage = new Coverage();
+		runCoverage.clear();
+
+		if (trialLog != null) {
+			try {
+				trialLog.record("trial", "trial", numTrials, "result", result, "replayed", replayingResult,
+						"saved", saved, "coverage", totalCoverage.getNonZeroCount(), "uniqueFailures", uniqueFailures.size());
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		if (metrics != null) {
+			metrics.record(CampaignMetrics.Phase.COVERAGE_MERGE, System.nanoTime() - mergeStart);
+			metrics.trialCompleted(valid, totalCoverage.getNonZeroCount(), validCoverage.getNonZeroCount(),
+					uniqueFailures.size());
+		}
 	}
 
 	// Compute a set of branches for which the current input may assume responsibility
@@ -586,6 +845,23 @@ public class BigFuzzPlusGuidance implements Guidance {
 		this.testClassName = testClassName;
 	}
 
+	/**
+	 * Handle the cached outcome of inputs that have been run before instead of running them again. Only sound for
+	 * deterministic test programs.
+	 *
+	 * @param resultCache cache of outcomes, which can be shared with the guidances of other program iterations
+	 */
+	public void setResultCache(ExecutionResultCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	/**
+	 * @return runtime metrics of this guidance, null unless they are enabled with -Dbigfuzz.metrics=true
+	 */
+	public CampaignMetrics getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * Set the randomization seed of the mutation class. Only implemented for MutationTemplate
 	 *
@@ -0,0 +1,148 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.MutationSubtree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Explores the tree of a SystematicMutation in parallel, by splitting it into subtrees that are explored independently.
+ * Like the {@link BigFuzzPlusWorkerPool}, the subtrees are explored in worker JVMs, since the guidance, the mutation
+ * classes and the tracing callbacks rely on static state.
+ *
+ * <p>The workers take subtrees from a shared queue until it is empty, such that a worker that finishes its subtrees
+ * early takes over subtrees that would otherwise wait for a busy worker. The queue is a file with the subtrees and a
+ * file with the index of the next subtree to be taken, which is updated while holding a file lock. Every subtree is
+ * explored in its own guidance run, whose result is written to TestN.result in the output directory, N being the
+ * position of the subtree in the queue.</p>
+ */
+public class BigFuzzPlusSubtreePool {
+
+	/**
+	 * System property passed to a worker JVM to explore subtrees from the queue in the given file.
+	 */
+	static final String WORKER_SUBTREES_PROPERTY = "bigfuzz.worker.subtrees";
+
+	private final String[] args;
+	private final File outputDir;
+	private final long programStartTime;
+	private final int workers;
+
+	/**
+	 * @param args             program arguments of the driver, passed on to the workers
+	 * @param outputDir        output directory of the program
+	 * @param programStartTime start time of the program, used as randomization seed by the workers
+	 * @param workers          amount of worker JVMs
+	 */
+	public BigFuzzPlusSubtreePool(String[] args, File outputDir, long programStartTime, int workers) {
+		this.args = args;
+		this.outputDir = outputDir;
+		this.programStartTime = programStartTime;
+		this.workers = workers;
+	}
+
+	/**
+	 * Explore the subtrees and wait for all of them to be explored.
+	 *
+	 * @param subtrees subtrees to explore, in the order in which they are taken from the queue
+	 * @param sink     receives the results of the subtrees that were explored, ordered by position in the queue
+	 */
+	public void run(List<MutationSubtree> subtrees, Consumer<IterationResult> sink) {
+		File subtreeFile = new File(outputDir, "subtrees.txt");
+		List<String> lines = new ArrayList<>();
+		for (MutationSubtree subtree : subtrees) {
+			lines.add(subtree.toString());
+		}
+		List<Process> processes = new ArrayList<>();
+		try {
+			Files.write(subtreeFile.toPath(), lines, StandardCharsets.UTF_8);
+			Files.deleteIfExists(claimFile(subtreeFile).toPath());
+
+			int workerAmount = Math.max(1, Math.min(workers, subtrees.size()));
+			System.out.println("Exploring " + subtrees.size() + " subtrees with " + workerAmount + " workers");
+			for (int i = 1; i <= workerAmount; i++) {
+				File logFile = new File(outputDir, "Worker" + i + ".log");
+				List<String> command = BigFuzzPlusWorkerPool.workerCommand(args,
+						"-D" + WORKER_SUBTREES_PROPERTY + "=" + subtreeFile.getPath(),
+						"-D" + BigFuzzPlusWorkerPool.WORKER_OUTPUT_DIR_PROPERTY + "=" + outputDir.getPath(),
+						"-D" + BigFuzzPlusWorkerPool.WORKER_START_TIME_PROPERTY + "=" + programStartTime);
+				processes.add(new ProcessBuilder(command)
+						.redirectErrorStream(true)
+						.redirectOutput(logFile)
+						.start());
+			}
+			for (int i = 0; i < processes.size(); i++) {
+				int exitCode = processes.get(i).waitFor();
+				System.out.println("Worker " + (i + 1) + " finished with exit code " + exitCode);
+			}
+		} catch (IOException | InterruptedException e) {
+			e.printStackTrace();
+			for (Process process : processes) {
+				process.destroy();
+			}
+		}
+
+		for (int i = 1; i <= subtrees.size(); i++) {
+			File resultFile = BigFuzzPlusWorkerPool.resultFile(outputDir, i);
+			if (!resultFile.exists()) {
+				System.err.println("Subtree " + i + " (" + subtrees.get(i - 1) + ") was not explored, see the worker logs");
+				continue;
+			}
+			try {
+				sink.accept(IterationResult.read(resultFile));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Read the subtrees of the queue.
+	 *
+	 * @param subtreeFile file with the subtrees, one per line
+	 * @return the subtrees
+	 * @throws IOException if the file cannot be read
+	 */
+	static List<MutationSubtree> readSubtrees(File subtreeFile) throws IOException {
+		List<MutationSubtree> subtrees = new ArrayList<>();
+		for (String line : Files.readAllLines(subtreeFile.toPath(), StandardCharsets.UTF_8)) {
+			subtrees.add(MutationSubtree.parse(line));
+		}
+		return subtrees;
+	}
+
+	/**
+	 * Take the next subtree from the queue. Subtrees are taken by several workers at the same time, so the queue
+	 * position is updated while holding a lock on the claim file.
+	 *
+	 * @param subtreeFile file with the subtrees
+	 * @return position of the subtree in the queue, starting at 0, which is past the end once all subtrees are taken
+	 * @throws IOException if the claim file cannot be updated
+	 */
+	static int takeSubtree(File subtreeFile) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(claimFile(subtreeFile), "rw");
+		     FileChannel channel = file.getChannel()) {
+			FileLock lock = channel.lock();
+			try {
+				int next = file.length() >= 4 ? file.readInt() : 0;
+				file.seek(0);
+				file.writeInt(next + 1);
+				return next;
+			} finally {
+				lock.release();
+			}
+		}
+	}
+
+	private static File claimFile(File subtreeFile) {
+		return new File(subtreeFile.getPath() + ".claim");
+	}
+}
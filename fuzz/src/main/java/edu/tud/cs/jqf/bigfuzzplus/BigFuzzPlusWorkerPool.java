@@ -0,0 +1,167 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Runs program iterations of the BigFuzzPlusDriver in parallel. Every iteration is run in its own worker JVM, such
+ * that each iteration has its own class loader, instrumentation, tracer and guidance state (the guidance, the mutation
+ * classes and the tracing callbacks rely on static state). The worker JVM is started with the same JVM arguments,
+ * class path and program arguments as the coordinating driver.
+ */
+public class BigFuzzPlusWorkerPool {
+
+	/**
+	 * System properties passed to a worker JVM to run a single iteration.
+	 */
+	static final String WORKER_ITERATION_PROPERTY = "bigfuzz.worker.iteration";
+	static final String WORKER_OUTPUT_DIR_PROPERTY = "bigfuzz.worker.outputDir";
+	static final String WORKER_START_TIME_PROPERTY = "bigfuzz.worker.startTime";
+
+	private final Class<?> mainClass;
+	private final String[] args;
+	private final File outputDir;
+	private final long programStartTime;
+	private final int workers;
+
+	/**
+	 * @param args             program arguments of the driver, passed on to the workers
+	 * @param outputDir        output directory of the program
+	 * @param programStartTime start time of the program, used as randomization seed by the workers
+	 * @param workers          maximal amount of iterations that run at the same time
+	 */
+	public BigFuzzPlusWorkerPool(String[] args, File outputDir, long programStartTime, int workers) {
+		this(BigFuzzPlusDriver.class, args, outputDir, programStartTime, workers);
+	}
+
+	/**
+	 * @param mainClass        class whose main method runs an iteration in a worker JVM
+	 * @param args             program arguments of the driver, passed on to the workers
+	 * @param outputDir        output directory of the program
+	 * @param programStartTime start time of the program, used as randomization seed by the workers
+	 * @param workers          maximal amount of iterations that run at the same time
+	 */
+	BigFuzzPlusWorkerPool(Class<?> mainClass, String[] args, File outputDir, long programStartTime, int workers) {
+		this.mainClass = mainClass;
+		this.args = args;
+		this.outputDir = outputDir;
+		this.programStartTime = programStartTime;
+		this.workers = workers;
+	}
+
+	/**
+	 * Run the iterations and wait for all of them to finish.
+	 *
+	 * @param iterations amount of program iterations
+	 * @param sink       receives the results of the iterations that completed, ordered by iteration, as soon as they
+	 *                   and the iterations before them have completed
+	 */
+	public void run(int iterations, Consumer<IterationResult> sink) {
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		List<Future<IterationResult>> futures = new ArrayList<>();
+		for (int i = 0; i < iterations; i++) {
+			final int atIteration = i + 1;
+			futures.add(executor.submit(() -> runWorker(atIteration)));
+		}
+		executor.shutdown();
+
+		for (Future<IterationResult> future : futures) {
+			try {
+				IterationResult result = future.get();
+				if (result != null) {
+					sink.accept(result);
+				}
+			} catch (InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Start a worker JVM for an iteration and read its result. Output of the worker is written to TestN.log in the output
+	 * directory.
+	 *
+	 * @param atIteration iteration number
+	 * @return result of the iteration, null if the worker did not produce a result
+	 * @throws IOException          if the worker cannot be started
+	 * @throws InterruptedException if interrupted while waiting for the worker
+	 */
+	private IterationResult runWorker(int atIteration) throws IOException, InterruptedException {
+		File resultFile = resultFile(outputDir, atIteration);
+		File logFile = new File(outputDir, "Test" + atIteration + ".log");
+
+		List<String> command = workerCommand(mainClass, args,
+				"-D" + WORKER_ITERATION_PROPERTY + "=" + atIteration,
+				"-D" + WORKER_OUTPUT_DIR_PROPERTY + "=" + outputDir.getPath(),
+				"-D" + WORKER_START_TIME_PROPERTY + "=" + programStartTime);
+
+		System.out.println("Starting worker for iteration " + atIteration + ", output is written to " + logFile);
+		Process process = new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(logFile)
+				.start();
+		int exitCode = process.waitFor();
+		System.out.println("Worker for iteration " + atIteration + " finished with exit code " + exitCode);
+
+		if (!resultFile.exists()) {
+			System.err.println("Worker for iteration " + atIteration + " did not produce a result, see " + logFile);
+			return null;
+		}
+		return IterationResult.read(resultFile);
+	}
+
+	/**
+	 * Command that starts a worker JVM with the same JVM arguments, class path and program arguments as this JVM.
+	 *
+	 * @param args       program arguments of the driver
+	 * @param properties additional JVM arguments for the worker
+	 * @return the command
+	 */
+	static List<String> workerCommand(String[] args, String... properties) {
+		return workerCommand(BigFuzzPlusDriver.class, args, properties);
+	}
+
+	/**
+	 * Command that starts a worker JVM with the same JVM arguments and class path as this JVM, that runs the main method
+	 * of the given class.
+	 *
+	 * @param mainClass  class whose main method the worker runs
+	 * @param args       program arguments of the worker
+	 * @param properties additional JVM arguments for the worker
+	 * @return the command
+	 */
+	static List<String> workerCommand(Class<?> mainClass, String[] args, String... properties) {
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		for (String jvmArg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			// A debugger agent cannot be attached to more than one JVM at the same port
+			if (!jvmArg.startsWith("-agentlib:jdwp")) {
+				command.add(jvmArg);
+			}
+		}
+		for (String property : properties) {
+			command.add(property);
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(mainClass.getName());
+		for (String arg : args) {
+			command.add(arg);
+		}
+		return command;
+	}
+
+	/**
+	 * @param outputDir   output directory of the program
+	 * @param atIteration iteration number
+	 * @return file that the worker of the iteration writes its result to
+	 */
+	static File resultFile(File outputDir, int atIteration) {
+		return new File(outputDir, "Test" + atIteration + ".result");
+	}
+}
@@ -0,0 +1,150 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * An append-only log of JSON records, one per line (JSON Lines). Records are written as they happen instead of being
+ * collected in memory, and the log is flushed at least every {@link #FLUSH_INTERVAL_MILLIS}, such that the records of a
+ * campaign survive a crash of the driver.
+ *
+ * <p>A record is written from alternating keys and values, e.g.
+ * <code>log.record("iteration", "iteration", 1, "duration", 5230)</code> is written as
+ * <code>{"type":"iteration","iteration":1,"duration":5230}</code>. Values can be strings, numbers, booleans, null,
+ * collections and primitive arrays of numbers. NaN and infinite numbers are written as null.</p>
+ */
+public class CampaignLog implements Closeable {
+
+	/**
+	 * Maximal time between writing a record and flushing it to the file.
+	 */
+	public static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+	private final Writer out;
+	private final StringBuilder line = new StringBuilder();
+	private long lastFlush = System.currentTimeMillis();
+
+	/**
+	 * @param file file to append the records to, it is created if it does not exist
+	 * @throws IOException if the file cannot be opened
+	 */
+	public CampaignLog(File file) throws IOException {
+		this.out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Append a record.
+	 *
+	 * @param type          type of the record
+	 * @param keysAndValues alternating keys and values of the fields of the record
+	 * @throws IOException if the record cannot be written
+	 */
+	public void record(String type, Object... keysAndValues) throws IOException {
+		if (keysAndValues.length % 2 != 0) {
+			throw new IllegalArgumentException("Every key needs a value");
+		}
+		line.setLength(0);
+		line.append("{\"type\":");
+		appendValue(line, type);
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			line.append(',');
+			appendValue(line, keysAndValues[i].toString());
+			line.append(':');
+			appendValue(line, keysAndValues[i + 1]);
+		}
+		line.append("}\n");
+		out.write(line.toString());
+
+		long now = System.currentTimeMillis();
+		if (now - lastFlush >= FLUSH_INTERVAL_MILLIS) {
+			flush();
+		}
+	}
+
+	/**
+	 * Flush the records that have been written so far to the file.
+	 *
+	 * @throws IOException if the records cannot be written
+	 */
+	public void flush() throws IOException {
+		out.flush();
+		lastFlush = System.currentTimeMillis();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * Append a value in JSON notation.
+	 *
+	 * @param json  builder to append to
+	 * @param value value to append
+	 */
+	static void appendValue(StringBuilder json, Object value) {
+		if (value == null) {
+			json.append("null");
+		} else if ((value instanceof Double && !Double.isFinite((Double) value))
+				|| (value instanceof Float && !Float.isFinite((Float) value))) {
+			// JSON has no notation for NaN and the infinities
+			json.append("null");
+		} else if (value instanceof Number || value instanceof Boolean) {
+			json.append(value);
+		} else if (value instanceof long[]) {
+			long[] values = (long[]) value;
+			json.append('[');
+			for (int i = 0; i < values.length; i++) {
+				json.append(i == 0 ? "" : ",").append(values[i]);
+			}
+			json.append(']');
+		} else if (value instanceof int[]) {
+			int[] values = (int[]) value;
+			json.append('[');
+			for (int i = 0; i < values.length; i++) {
+				json.append(i == 0 ? "" : ",").append(values[i]);
+			}
+			json.append(']');
+		} else if (value instanceof Collection) {
+			json.append('[');
+			boolean first = true;
+			for (Object element : (Collection<?>) value) {
+				json.append(first ? "" : ",");
+				appendValue(json, element);
+				first = false;
+			}
+			json.append(']');
+		} else {
+			String s = value.toString();
+			json.append('"');
+			for (int i = 0; i < s.length(); i++) {
+				char c = s.charAt(i);
+				switch (c) {
+					case '"':
+						json.append("\\\"");
+						break;
+					case '\\':
+						json.append("\\\\");
+						break;
+					case '\n':
+						json.append("\\n");
+						break;
+					case '\r':
+						json.append("\\r");
+						break;
+					case '\t':
+						json.append("\\t");
+						break;
+					default:
+						if (c < 0x20) {
+							json.append(String.format("\\u%04x", (int) c));
+						} else {
+							json.append(c);
+						}
+				}
+			}
+			json.append('"');
+		}
+	}
+}
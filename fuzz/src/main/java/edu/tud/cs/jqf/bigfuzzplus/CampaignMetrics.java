@@ -0,0 +1,310 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.beans.ConstructorProperties;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Runtime metrics of a program iteration of the BigFuzzPlusGuidance: latency histograms of the phases of a trial,
+ * throughput, validity and coverage over time. The metrics are exposed through JMX while the iteration runs, and are
+ * appended periodically to a <code>plot_data</code> file in the output directory of the iteration, like the one of
+ * the ZestGuidance.
+ *
+ * <p>A trial consists of the following phases:</p>
+ * <ul>
+ *     <li>mutation: producing the mutant, which includes writing it to disk unless inputs are kept in memory;</li>
+ *     <li>materialization: the rest of preparing the input, e.g. registering an in-memory mutant, fingerprinting it
+ *     and skipping duplicates;</li>
+ *     <li>execution: running the test method on the input;</li>
+ *     <li>coverage merge: merging the coverage of the run and keeping or discarding the input.</li>
+ * </ul>
+ */
+public class CampaignMetrics implements CampaignMetricsMXBean {
+
+	/**
+	 * JMX name of the metrics of the running iteration.
+	 */
+	public static final String OBJECT_NAME = "edu.tud.cs.jqf.bigfuzzplus:type=CampaignMetrics";
+
+	public enum Phase {
+		MUTATION("mutation"),
+		MATERIALIZATION("materialization"),
+		EXECUTION("execution"),
+		COVERAGE_MERGE("coverage_merge");
+
+		private final String label;
+
+		Phase(String label) {
+			this.label = label;
+		}
+	}
+
+	/**
+	 * Summary of a latency histogram in microseconds, which JMX clients show as composite data.
+	 */
+	public static class LatencySummary {
+		private final long count;
+		private final double meanMicros;
+		private final double p50Micros;
+		private final double p90Micros;
+		private final double p99Micros;
+		private final double maxMicros;
+
+		@ConstructorProperties({"count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "maxMicros"})
+		public LatencySummary(long count, double meanMicros, double p50Micros, double p90Micros, double p99Micros,
+							  double maxMicros) {
+			this.count = count;
+			this.meanMicros = meanMicros;
+			this.p50Micros = p50Micros;
+			this.p90Micros = p90Micros;
+			this.p99Micros = p99Micros;
+			this.maxMicros = maxMicros;
+		}
+
+		static LatencySummary of(LatencyHistogram histogram) {
+			return new LatencySummary(histogram.getCount(), histogram.getMean() / 1000,
+					histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+					histogram.getValueAtPercentile(99) / 1000.0, histogram.getMax() / 1000.0);
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public double getMeanMicros() {
+			return meanMicros;
+		}
+
+		public double getP50Micros() {
+			return p50Micros;
+		}
+
+		public double getP90Micros() {
+			return p90Micros;
+		}
+
+		public double getP99Micros() {
+			return p99Micros;
+		}
+
+		public double getMaxMicros() {
+			return maxMicros;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "n=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus",
+					count, meanMicros, p50Micros, p90Micros, p99Micros, maxMicros);
+		}
+	}
+
+	private final String testName;
+	private final File plotDataFile;
+	private final long flushIntervalMillis;
+	private final long startTime = System.currentTimeMillis();
+	private final LatencyHistogram[] latencies = new LatencyHistogram[Phase.values().length];
+
+	private volatile long trials = 0;
+	private volatile long validTrials = 0;
+	private volatile int totalCoverage = 0;
+	private volatile int validCoverage = 0;
+	private volatile int uniqueFailures = 0;
+
+	private long lastFlushTime = startTime;
+	private long lastFlushTrials = 0;
+	private ObjectName registeredName;
+
+	/**
+	 * @param testName            name of the program iteration
+	 * @param plotDataFile        file the metrics are appended to, it is replaced if it exists
+	 * @param flushIntervalMillis minimal time between two lines of the plot data file
+	 */
+	public CampaignMetrics(String testName, File plotDataFile, long flushIntervalMillis) {
+		this.testName = testName;
+		this.plotDataFile = plotDataFile;
+		this.flushIntervalMillis = flushIntervalMillis;
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = new LatencyHistogram();
+		}
+
+		StringBuilder header = new StringBuilder("# unix_time, trials, trials_per_sec, valid_ratio, total_coverage, " +
+				"valid_coverage, unique_failures");
+		for (Phase phase : Phase.values()) {
+			header.append(", ").append(phase.label).append("_p50_us, ").append(phase.label).append("_p99_us");
+		}
+		plotDataFile.delete();
+		appendLine(header.toString());
+	}
+
+	/**
+	 * Record the latency of a phase of a trial.
+	 *
+	 * @param phase phase of the trial
+	 * @param nanos duration of the phase in nanoseconds
+	 */
+	public void record(Phase phase, long nanos) {
+		latencies[phase.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Record the outcome of a trial, and append a line to the plot data file if the flush interval has passed.
+	 *
+	 * @param valid          whether the input of the trial was valid
+	 * @param totalCoverage  total coverage after the trial
+	 * @param validCoverage  valid coverage after the trial
+	 * @param uniqueFailures amount of unique failures after the trial
+	 */
+	public void trialCompleted(boolean valid, int totalCoverage, int validCoverage, int uniqueFailures) {
+		this.trials++;
+		if (valid) {
+			this.validTrials++;
+		}
+		this.totalCoverage = totalCoverage;
+		this.validCoverage = validCoverage;
+		this.uniqueFailures = uniqueFailures;
+
+		long now = System.currentTimeMillis();
+		if (now - lastFlushTime >= flushIntervalMillis) {
+			flush(now);
+		}
+	}
+
+	/**
+	 * Append the final metrics to the plot data file and unregister the metrics from JMX.
+	 */
+	public void close() {
+		if (trials > lastFlushTrials) {
+			flush(System.currentTimeMillis());
+		}
+		if (registeredName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+			} catch (JMException e) {
+				e.printStackTrace();
+			}
+			registeredName = null;
+		}
+	}
+
+	/**
+	 * Register the metrics with the platform MBean server under {@link #OBJECT_NAME}, replacing the metrics of an
+	 * earlier iteration in this JVM.
+	 */
+	public void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+			registeredName = name;
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private void flush(long now) {
+		double seconds = Math.max(1, now - lastFlushTime) / 1000.0;
+		StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%d, %d, %.2f, %.4f, %d, %d, %d",
+				now / 1000, trials, (trials - lastFlushTrials) / seconds, getValidRatio(), totalCoverage,
+				validCoverage, uniqueFailures));
+		for (LatencyHistogram histogram : latencies) {
+			line.append(String.format(Locale.ROOT, ", %.1f, %.1f", histogram.getValueAtPercentile(50) / 1000.0,
+					histogram.getValueAtPercentile(99) / 1000.0));
+		}
+		appendLine(line.toString());
+		lastFlushTime = now;
+		lastFlushTrials = trials;
+	}
+
+	private void appendLine(String line) {
+		try (PrintWriter out = new PrintWriter(new FileWriter(plotDataFile, true))) {
+			out.println(line);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @return the latency summaries of the phases, one line per phase
+	 */
+	public String summary() {
+		StringBuilder summary = new StringBuilder();
+		for (Phase phase : Phase.values()) {
+			summary.append(String.format(Locale.ROOT, "%-16s %s%n", phase.label + ":",
+					LatencySummary.of(latencies[phase.ordinal()])));
+		}
+		summary.append(String.format(Locale.ROOT, "Trials per second: %.2f", getTrialsPerSecond()));
+		return summary.toString();
+	}
+
+	@Override
+	public String getTestName() {
+		return testName;
+	}
+
+	@Override
+	public long getTrials() {
+		return trials;
+	}
+
+	@Override
+	public long getValidTrials() {
+		return validTrials;
+	}
+
+	@Override
+	public double getValidRatio() {
+		long t = trials;
+		return t == 0 ? 0 : (double) validTrials / t;
+	}
+
+	@Override
+	public double getTrialsPerSecond() {
+		long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+		return trials * 1000.0 / elapsed;
+	}
+
+	@Override
+	public int getTotalCoverage() {
+		return totalCoverage;
+	}
+
+	@Override
+	public int getValidCoverage() {
+		return validCoverage;
+	}
+
+	@Override
+	public int getUniqueFailures() {
+		return uniqueFailures;
+	}
+
+	@Override
+	public LatencySummary getMutationLatency() {
+		return LatencySummary.of(latencies[Phase.MUTATION.ordinal()]);
+	}
+
+	@Override
+	public LatencySummary getMaterializationLatency() {
+		return LatencySummary.of(latencies[Phase.MATERIALIZATION.ordinal()]);
+	}
+
+	@Override
+	public LatencySummary getExecutionLatency() {
+		return LatencySummary.of(latencies[Phase.EXECUTION.ordinal()]);
+	}
+
+	@Override
+	public LatencySummary getCoverageMergeLatency() {
+		return LatencySummary.of(latencies[Phase.COVERAGE_MERGE.ordinal()]);
+	}
+}
@@ -0,0 +1,32 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+/**
+ * Management interface of the {@link CampaignMetrics} of a running program iteration, registered under
+ * {@link CampaignMetrics#OBJECT_NAME}. Latencies are reported in microseconds.
+ */
+public interface CampaignMetricsMXBean {
+
+	String getTestName();
+
+	long getTrials();
+
+	long getValidTrials();
+
+	double getValidRatio();
+
+	double getTrialsPerSecond();
+
+	int getTotalCoverage();
+
+	int getValidCoverage();
+
+	int getUniqueFailures();
+
+	CampaignMetrics.LatencySummary getMutationLatency();
+
+	CampaignMetrics.LatencySummary getMaterializationLatency();
+
+	CampaignMetrics.LatencySummary getExecutionLatency();
+
+	CampaignMetrics.LatencySummary getCoverageMergeLatency();
+}
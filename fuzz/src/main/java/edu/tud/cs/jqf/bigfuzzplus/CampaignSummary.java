@@ -0,0 +1,205 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Summary of the program iterations of the BigFuzzPlusDriver, which is computed incrementally as iterations finish.
+ * The parts of the summary that grow with the amount of trials (the cumulative unique failures per trial and the
+ * mutated inputs) are streamed to temporary section files in the output directory instead of being kept in memory, the
+ * other parts have a single value per iteration.
+ */
+public class CampaignSummary implements Closeable {
+
+	private final File failuresSection;
+	private final File inputsSection;
+	private final Writer failures;
+	private final Writer inputs;
+
+	private int runs = 0;
+	private final List<String> methods = new ArrayList<>();
+	private final List<String> columns = new ArrayList<>();
+	private final List<Long> durations = new ArrayList<>();
+	private final List<Integer> uniqueFailures = new ArrayList<>();
+	private int restartAmount = 0;
+
+	private final CrashSignatureIndex mergedFailures = new CrashSignatureIndex();
+	private final BitSet mergedCoverage = new BitSet();
+
+	/**
+	 * @param outputDir output directory of the program, which holds the section files until the summary is closed
+	 * @throws IOException if the section files cannot be created
+	 */
+	public CampaignSummary(File outputDir) throws IOException {
+		failuresSection = new File(outputDir, "summary.failures.tmp");
+		inputsSection = new File(outputDir, "summary.inputs.tmp");
+		failures = Files.newBufferedWriter(failuresSection.toPath(), StandardCharsets.UTF_8);
+		inputs = Files.newBufferedWriter(inputsSection.toPath(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Add the result of an iteration to the summary.
+	 *
+	 * @param result result of the iteration
+	 * @throws IOException if the section files cannot be written
+	 */
+	public void add(IterationResult result) throws IOException {
+		runs++;
+
+		failures.write("\n");
+		result.writeCumulativeUniqueFailures(failures);
+
+		inputs.write("\nRun " + runs + " [");
+		if (result.inputsFile != null) {
+			try (BufferedReader in = new BufferedReader(new FileReader(result.inputsFile))) {
+				String input;
+				boolean first = true;
+				while ((input = in.readLine()) != null) {
+					inputs.write((first ? "" : ", ") + "\"" + input + "\"");
+					first = false;
+				}
+			}
+		}
+		inputs.write("]");
+
+		if (result.methods != null) {
+			methods.add(formatCounts(result.methods));
+			columns.add(formatCounts(result.columns));
+		}
+		durations.add(result.duration);
+		uniqueFailures.add(result.uniqueFailures);
+		restartAmount += result.restartAmount;
+
+		mergedFailures.merge(result.crashes);
+		for (Integer branch : result.coveredBranches) {
+			mergedCoverage.set(branch);
+		}
+	}
+
+	/**
+	 * @return amount of unique failures over all iterations
+	 */
+	public int getMergedUniqueFailures() {
+		return mergedFailures.size();
+	}
+
+	/**
+	 * Write the unique failures of all iterations to a crash index file.
+	 *
+	 * @param file file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	public void writeCrashIndex(File file) throws IOException {
+		mergedFailures.write(file);
+	}
+
+	/**
+	 * @return amount of covered branches over all iterations
+	 */
+	public int getMergedCoverage() {
+		return mergedCoverage.cardinality();
+	}
+
+	/**
+	 * @return total amount of tree restarts of the SystematicMutation
+	 */
+	public int getRestartAmount() {
+		return restartAmount;
+	}
+
+	/**
+	 * Write the summary of the iterations that have been added.
+	 *
+	 * @param out writer to write to
+	 * @throws IOException if the summary cannot be written
+	 */
+	public void writeTo(Writer out) throws IOException {
+		failures.flush();
+		inputs.flush();
+
+		out.write("********* PROGRAM SUMMARY **********");
+		// --------------- UNIQUE FAILURES --------------
+		out.write("\nCUMULATIVE UNIQUE FAILURE PER TEST PER ITERATION");
+		copySection(failuresSection, out);
+
+		// --------------- INPUTS --------------
+		out.write("\n\nAPPLIED MUTATIONS PER ITERATION");
+		copySection(inputsSection, out);
+
+		// --------------- MUTATION COUNTER --------------
+		out.write("\n\n MUTATED INPUTS PER ITERATION");
+		writeRuns(methods, out);
+
+		// --------------- COLUMN COUNTER --------------
+		out.write("\n\n MUTATIONS APPLIED ON COLUMN PER ITERATION");
+		writeRuns(columns, out);
+
+		// --------------- DURATION --------------
+		out.write("\n\n DURATION PER ITERATION");
+		out.write("\ndurations: " + durations);
+		for (int i = 0; i < durations.size(); i++) {
+			out.write("\nRun " + (i + 1) + ": " + durations.get(i) + " ms ");
+		}
+		// --------------- TREE RESTARTS ----------------
+		out.write("\n\n AMOUNT OF TREE RESTARTS");
+		out.write("\nTotal amount of restarts: " + restartAmount);
+
+		// --------------- UNIQUE FAILURES --------------
+		out.write("\n\n UNIQUE FAILURES PER RUN");
+		for (int i = 0; i < uniqueFailures.size(); i++) {
+			out.write("\nRun " + (i + 1) + ": " + uniqueFailures.get(i));
+		}
+
+		// --------------- MERGED RESULTS --------------
+		out.write("\n\n MERGED RESULTS OF ALL RUNS");
+		out.write("\nUnique failures: " + getMergedUniqueFailures());
+		out.write("\nTotal coverage: " + getMergedCoverage());
+		out.flush();
+	}
+
+	/**
+	 * @return the counts of a run formatted as <code>(a: 1), (b: 2)</code>
+	 */
+	private static String formatCounts(List<String> counts) {
+		StringBuilder formatted = new StringBuilder();
+		for (int j = 0; j < counts.size(); j++) {
+			if (j != 0) {
+				formatted.append(", ");
+			}
+			formatted.append("(" + counts.get(j) + ")");
+		}
+		return formatted.toString();
+	}
+
+	/**
+	 * Write the formatted counts per run, e.g. <code>Run 1: [(a: 1), (b: 2)]</code>.
+	 */
+	private static void writeRuns(List<String> runs, Writer out) throws IOException {
+		for (int i = 0; i < runs.size(); i++) {
+			out.write("\nRun " + (i + 1) + ": [" + runs.get(i) + "]");
+		}
+	}
+
+	private static void copySection(File section, Writer out) throws IOException {
+		try (Reader in = Files.newBufferedReader(section.toPath(), StandardCharsets.UTF_8)) {
+			char[] buffer = new char[8192];
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				out.write(buffer, 0, n);
+			}
+		}
+	}
+
+	/**
+	 * Close and delete the section files.
+	 */
+	@Override
+	public void close() throws IOException {
+		failures.close();
+		inputs.close();
+		Files.deleteIfExists(failuresSection.toPath());
+		Files.deleteIfExists(inputsSection.toPath());
+	}
+}
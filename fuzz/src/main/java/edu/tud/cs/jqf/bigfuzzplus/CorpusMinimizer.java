@@ -0,0 +1,346 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.berkeley.cs.jqf.fuzz.guidance.Result;
+import edu.berkeley.cs.jqf.fuzz.junit.GuidedFuzzing;
+import org.apache.commons.io.FileUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Minimizes a corpus of inputs that were kept by the BigFuzzPlusGuidance, like afl-cmin does for AFL. Every input of
+ * the corpus is replayed once through the instrumented test method, and a subset of the inputs is selected greedily
+ * that covers the same branches and dataflow operators, and that contains every distinct failure. The selected inputs
+ * are copied to the output directory with their data files, and their configuration files are rewritten to point to
+ * the copies, such that the output directory can be used as seeds of a new campaign.
+ *
+ * <p>The corpus is replayed by worker JVMs in parallel (<code>-Dbigfuzz.workers=N</code>), since the tracing of the
+ * instrumentation relies on static state and a JVM can run a single test at a time.</p>
+ *
+ * <p>Usage: <code>CorpusMinimizer TEST_CLASS TEST_METHOD CORPUS_DIR OUT_DIR</code></p>
+ */
+public class CorpusMinimizer {
+
+	/**
+	 * System properties passed to a worker JVM to replay a part of the corpus.
+	 */
+	static final String WORKER_INPUTS_PROPERTY = "bigfuzz.cmin.inputs";
+	static final String WORKER_REPLAYS_PROPERTY = "bigfuzz.cmin.replays";
+
+	/**
+	 * Configuration files of inputs that are kept by the guidance, e.g. <code>20201017203521_26+cov</code> or
+	 * <code>20201017203521_3+crash+1+java.lang.NumberFormatException</code>.
+	 */
+	private static final Pattern KEPT_INPUT = Pattern.compile(".*_\\d+\\+(cov|valid|crash|hang)([+].*)?");
+
+	/**
+	 * Features of failures are numbered after the coverage indices, which are smaller than 2^16.
+	 */
+	private static final int FAILURE_FEATURES = 1 << 16;
+
+	/**
+	 * Outcome and coverage of a single replayed input.
+	 */
+	public static class Replay {
+		final File input;
+		final Result result;
+		final String failure;
+		final int[] coverage;
+
+		/**
+		 * @param input    configuration file of the input
+		 * @param result   result of the run
+		 * @param failure  signature of the failure of the run, empty if the run did not fail
+		 * @param coverage sorted coverage indices that were hit by the run
+		 */
+		Replay(File input, Result result, String failure, int[] coverage) {
+			this.input = input;
+			this.result = result;
+			this.failure = failure;
+			this.coverage = coverage;
+		}
+
+		/**
+		 * @return the replay as a single line, see {@link #parse(String)}
+		 */
+		String format() {
+			return result + "\t" + failure + "\t" +
+					Arrays.stream(coverage).mapToObj(Integer::toString).collect(Collectors.joining(",")) + "\t" +
+					input.getPath();
+		}
+
+		/**
+		 * @param line line written by {@link #format()}
+		 * @return the replay
+		 */
+		static Replay parse(String line) {
+			String[] fields = line.split("\t", 4);
+			int[] coverage = fields[2].isEmpty() ? new int[0] :
+					Arrays.stream(fields[2].split(",")).mapToInt(Integer::parseInt).toArray();
+			return new Replay(new File(fields[3]), Result.valueOf(fields[0]), fields[1], coverage);
+		}
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 4) {
+			System.err.println("Usage: java " + CorpusMinimizer.class + " TEST_CLASS TEST_METHOD CORPUS_DIR OUT_DIR");
+			System.exit(1);
+		}
+		String testClassName = args[0];
+		String testMethodName = args[1];
+
+		String workerInputs = System.getProperty(WORKER_INPUTS_PROPERTY);
+		if (workerInputs != null) {
+			replayAsWorker(testClassName, testMethodName, new File(workerInputs),
+					new File(System.getProperty(WORKER_REPLAYS_PROPERTY)));
+			return;
+		}
+
+		File corpusDir = new File(args[2]);
+		File outDir = new File(args[3]);
+		int workers = Math.max(1, Integer.getInteger("bigfuzz.workers", 1));
+
+		try {
+			List<File> inputs = collectInputs(corpusDir, outDir);
+			if (inputs.isEmpty()) {
+				System.err.println("No kept inputs found in " + corpusDir);
+				System.exit(2);
+			}
+
+			long startTime = System.currentTimeMillis();
+			List<Replay> replays = workers > 1 && inputs.size() > 1
+					? replayInWorkers(args, inputs, Math.min(workers, inputs.size()))
+					: replay(testClassName, testMethodName, inputs);
+			System.out.println("Replayed " + replays.size() + " of " + inputs.size() + " inputs in " +
+					(System.currentTimeMillis() - startTime) + " ms");
+
+			List<Replay> selected = minimize(replays);
+			for (Replay replay : selected) {
+				copyInput(replay.input, corpusDir, outDir);
+			}
+			System.out.println("Selected " + selected.size() + " inputs with the same coverage and failures, written to " +
+					outDir);
+		} catch (IOException | InterruptedException | ClassNotFoundException e) {
+			e.printStackTrace();
+			System.exit(3);
+		}
+	}
+
+	/**
+	 * Collect the configuration files of the kept inputs in a corpus directory and its subdirectories, in path order.
+	 *
+	 * @param corpusDir corpus directory
+	 * @param outDir    output directory, which is skipped if it is inside the corpus directory
+	 * @return the configuration files
+	 * @throws IOException if the corpus directory cannot be read
+	 */
+	static List<File> collectInputs(File corpusDir, File outDir) throws IOException {
+		Path skipped = outDir.getAbsoluteFile().toPath().normalize();
+		try (Stream<Path> walk = Files.walk(corpusDir.toPath())) {
+			return walk.filter(Files::isRegularFile)
+					.filter(p -> !p.toAbsolutePath().normalize().startsWith(skipped))
+					.filter(p -> KEPT_INPUT.matcher(p.getFileName().toString()).matches())
+					.sorted()
+					.map(Path::toFile)
+					.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Replay inputs in this JVM.
+	 *
+	 * @param testClassName  test class of the program
+	 * @param testMethodName test method of the program
+	 * @param inputs         configuration files of the inputs
+	 * @return the replays, in the order of the inputs
+	 * @throws ClassNotFoundException if the test class cannot be loaded
+	 */
+	static List<Replay> replay(String testClassName, String testMethodName, List<File> inputs)
+			throws ClassNotFoundException {
+		CorpusReplayGuidance guidance = new CorpusReplayGuidance(inputs);
+		GuidedFuzzing.run(testClassName, testMethodName, guidance, null);
+		return guidance.getReplays();
+	}
+
+	/**
+	 * Replay the inputs listed in a file and write the replays to another file, run by a worker JVM.
+	 */
+	private static void replayAsWorker(String testClassName, String testMethodName, File inputsFile, File replaysFile) {
+		try {
+			List<File> inputs = Files.readAllLines(inputsFile.toPath()).stream()
+					.map(File::new)
+					.collect(Collectors.toList());
+			List<Replay> replays = replay(testClassName, testMethodName, inputs);
+			try (BufferedWriter out = Files.newBufferedWriter(replaysFile.toPath(), StandardCharsets.UTF_8)) {
+				for (Replay replay : replays) {
+					out.write(replay.format());
+					out.newLine();
+				}
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			e.printStackTrace();
+			System.exit(3);
+		}
+	}
+
+	/**
+	 * Replay inputs in worker JVMs. The inputs are dealt round-robin to the workers, such that inputs of the same
+	 * iteration, which tend to have similar run times, are spread over the workers.
+	 *
+	 * @param args    program arguments, passed on to the workers
+	 * @param inputs  configuration files of the inputs
+	 * @param workers amount of worker JVMs
+	 * @return the replays of the workers that completed
+	 * @throws IOException          if a worker cannot be started
+	 * @throws InterruptedException if interrupted while waiting for the workers
+	 */
+	private static List<Replay> replayInWorkers(String[] args, List<File> inputs, int workers)
+			throws IOException, InterruptedException {
+		File workDir = Files.createTempDirectory("bigfuzz-cmin").toFile();
+		List<Process> processes = new ArrayList<>();
+		for (int w = 0; w < workers; w++) {
+			List<String> part = new ArrayList<>();
+			for (int i = w; i < inputs.size(); i += workers) {
+				part.add(inputs.get(i).getPath());
+			}
+			File inputsFile = new File(workDir, "Worker" + w + ".inputs");
+			Files.write(inputsFile.toPath(), part);
+			List<String> command = BigFuzzPlusWorkerPool.workerCommand(CorpusMinimizer.class, args,
+					"-D" + WORKER_INPUTS_PROPERTY + "=" + inputsFile.getPath(),
+					"-D" + WORKER_REPLAYS_PROPERTY + "=" + new File(workDir, "Worker" + w + ".replays").getPath());
+			processes.add(new ProcessBuilder(command)
+					.redirectErrorStream(true)
+					.redirectOutput(new File(workDir, "Worker" + w + ".log"))
+					.start());
+		}
+
+		List<Replay> replays = new ArrayList<>();
+		boolean failed = false;
+		for (int w = 0; w < workers; w++) {
+			int exitCode = processes.get(w).waitFor();
+			File replaysFile = new File(workDir, "Worker" + w + ".replays");
+			if (exitCode != 0 || !replaysFile.exists()) {
+				System.err.println("Worker " + w + " finished with exit code " + exitCode + ", see " +
+						new File(workDir, "Worker" + w + ".log"));
+				failed = true;
+				continue;
+			}
+			for (String line : Files.readAllLines(replaysFile.toPath(), StandardCharsets.UTF_8)) {
+				replays.add(Replay.parse(line));
+			}
+		}
+		if (!failed) {
+			FileUtils.deleteDirectory(workDir);
+		}
+		return replays;
+	}
+
+	/**
+	 * Select a subset of the replayed inputs that covers every coverage index and every distinct failure of the
+	 * replays. The selection is the greedy approximation of the minimal set cover: the input that adds the most
+	 * uncovered features is selected until all features are covered, preferring the smallest input on a tie. Since the
+	 * gain of an input can only decrease while inputs are selected, gains are re-evaluated lazily.
+	 *
+	 * @param replays replayed inputs
+	 * @return the selected inputs, in the order of selection
+	 */
+	static List<Replay> minimize(List<Replay> replays) {
+		int n = replays.size();
+		int[][] features = new int[n][];
+		long[] sizes = new long[n];
+		Map<String, Integer> failures = new HashMap<>();
+		for (int i = 0; i < n; i++) {
+			Replay replay = replays.get(i);
+			if (replay.failure.isEmpty()) {
+				features[i] = replay.coverage;
+			} else {
+				Integer failure = failures.computeIfAbsent(replay.failure, f -> failures.size());
+				features[i] = Arrays.copyOf(replay.coverage, replay.coverage.length + 1);
+				features[i][replay.coverage.length] = FAILURE_FEATURES + failure;
+			}
+			sizes[i] = inputSize(replay.input);
+		}
+
+		int[] gains = new int[n];
+		PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> gains[a] != gains[b]
+				? Integer.compare(gains[b], gains[a])
+				: sizes[a] != sizes[b] ? Long.compare(sizes[a], sizes[b]) : Integer.compare(a, b));
+		for (int i = 0; i < n; i++) {
+			gains[i] = features[i].length;
+			if (gains[i] > 0) {
+				queue.add(i);
+			}
+		}
+
+		BitSet covered = new BitSet();
+		List<Replay> selected = new ArrayList<>();
+		while (!queue.isEmpty()) {
+			int best = queue.poll();
+			int gain = 0;
+			for (int feature : features[best]) {
+				if (!covered.get(feature)) {
+					gain++;
+				}
+			}
+			gains[best] = gain;
+			if (gain == 0) {
+				continue;
+			}
+			if (!queue.isEmpty() && queue.comparator().compare(best, queue.peek()) > 0) {
+				// Another input may add more, re-evaluate that one first
+				queue.add(best);
+				continue;
+			}
+			for (int feature : features[best]) {
+				covered.set(feature);
+			}
+			selected.add(replays.get(best));
+		}
+		return selected;
+	}
+
+	/**
+	 * @return size of the configuration file and its data files, which is 0 for files that do not exist
+	 */
+	private static long inputSize(File confFile) {
+		long size = confFile.length();
+		try {
+			for (String location : CorpusReplayGuidance.resolveDataFiles(confFile)) {
+				size += new File(location).length();
+			}
+		} catch (IOException e) {
+			// The input is still selectable, it just has no size preference
+		}
+		return size;
+	}
+
+	/**
+	 * Copy an input with its data files to the output directory, at the same relative path as in the corpus directory.
+	 * The configuration file is rewritten to point to the copied data files.
+	 */
+	private static void copyInput(File confFile, File corpusDir, File outDir) throws IOException {
+		Path relative = corpusDir.toPath().toAbsolutePath().normalize()
+				.relativize(confFile.toPath().toAbsolutePath().normalize());
+		File target = new File(outDir, relative.toString()).getAbsoluteFile();
+		target.getParentFile().mkdirs();
+
+		List<String> locations = new ArrayList<>();
+		for (String location : CorpusReplayGuidance.resolveDataFiles(confFile)) {
+			File dataFile = new File(location);
+			File copy = new File(target.getParentFile(), dataFile.getName());
+			if (dataFile.exists()) {
+				Files.copy(dataFile.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			locations.add(copy.getPath());
+		}
+		Files.write(target.toPath(), locations);
+	}
+}
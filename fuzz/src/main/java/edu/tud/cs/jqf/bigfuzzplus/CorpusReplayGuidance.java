@@ -0,0 +1,124 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.berkeley.cs.jqf.fuzz.guidance.Guidance;
+import edu.berkeley.cs.jqf.fuzz.guidance.GuidanceException;
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
+import edu.berkeley.cs.jqf.fuzz.guidance.Result;
+import edu.berkeley.cs.jqf.fuzz.util.Coverage;
+import edu.berkeley.cs.jqf.instrument.tracing.FastCoverageLogger;
+import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A guidance that runs every input of a corpus once and records the coverage and the outcome of each run, which is used
+ * by the {@link CorpusMinimizer}.
+ *
+ * <p>The inputs are the configuration files kept by the BigFuzzPlusGuidance, which point to their data files with
+ * absolute paths. When a corpus has been moved, a data file that no longer exists at its absolute path is looked up in
+ * the directory of the configuration file instead.</p>
+ */
+public class CorpusReplayGuidance implements Guidance {
+
+	private final List<File> inputs;
+	private final List<CorpusMinimizer.Replay> replays = new ArrayList<>();
+	private final Coverage runCoverage = new Coverage();
+	private int nextInput = 0;
+	private File currentInput;
+
+	/**
+	 * @param inputs configuration files of the inputs to replay
+	 */
+	public CorpusReplayGuidance(List<File> inputs) {
+		this.inputs = inputs;
+	}
+
+	/**
+	 * @return the recorded replays, in the order of the inputs
+	 */
+	public List<CorpusMinimizer.Replay> getReplays() {
+		return replays;
+	}
+
+	@Override
+	public InputStream getInput() throws IllegalStateException, GuidanceException {
+		currentInput = inputs.get(nextInput++);
+		runCoverage.clear();
+		try {
+			InputProvider.register(currentInput.getPath(), resolveDataFiles(currentInput));
+		} catch (IOException e) {
+			throw new GuidanceException(e);
+		}
+		return new ByteArrayInputStream(currentInput.getPath().getBytes());
+	}
+
+	@Override
+	public boolean hasInput() {
+		return nextInput < inputs.size();
+	}
+
+	@Override
+	public void handleResult(Result result, Throwable error) throws GuidanceException {
+		if (FastCoverageLogger.ENABLED) {
+			runCoverage.drainFastCoverage();
+		}
+		InputProvider.unregister(currentInput.getPath());
+
+		int[] counts = runCoverage.getCounts();
+		int[] branches = new int[counts.length / 2];
+		for (int i = 0; i < branches.length; i++) {
+			branches[i] = counts[2 * i];
+		}
+		Arrays.sort(branches);
+
+		String failure = "";
+		if (result == Result.FAILURE) {
+			Throwable rootCause = error;
+			while (rootCause.getCause() != null) {
+				rootCause = rootCause.getCause();
+			}
+			// The stack trace identifies the failure, the message may contain parts of the input
+			failure = rootCause.getClass().getName() + "@" +
+					Long.toHexString(CrashSignatureIndex.signature(rootCause, null));
+		}
+		replays.add(new CorpusMinimizer.Replay(currentInput, result, failure, branches));
+	}
+
+	@Override
+	public Consumer<TraceEvent> generateCallBack(Thread thread) {
+		return runCoverage::handleEvent;
+	}
+
+	/**
+	 * Resolve the data files that a configuration file points to.
+	 *
+	 * @param confFile configuration file of an input
+	 * @return the locations of the data files that exist, in the order of the configuration file
+	 * @throws IOException if the configuration file cannot be read
+	 */
+	static List<String> resolveDataFiles(File confFile) throws IOException {
+		List<String> locations = new ArrayList<>();
+		for (String location : Files.readAllLines(confFile.toPath())) {
+			if (location.trim().isEmpty()) {
+				continue;
+			}
+			File dataFile = new File(location);
+			if (!dataFile.exists()) {
+				File sibling = new File(confFile.getAbsoluteFile().getParentFile(), dataFile.getName());
+				if (sibling.exists()) {
+					dataFile = sibling;
+				}
+			}
+			locations.add(dataFile.getAbsolutePath());
+		}
+		return locations;
+	}
+}
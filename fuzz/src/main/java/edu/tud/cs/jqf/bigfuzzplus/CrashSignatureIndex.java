@@ -0,0 +1,204 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Index of the unique failures of a campaign, keyed by a 64-bit signature of the stack trace of the failure. Instead of
+ * keeping the stack traces of the failures, the relevant frames of a trace are hashed once into a signature, and per
+ * signature only the amount of failures, the trial at which it was first seen and a description of the first failure
+ * are kept. Checking whether a failure is new therefore takes a single walk over its stack trace and no allocation,
+ * which keeps targets that fail on most inputs cheap to fuzz.
+ *
+ * <p>Signatures are numbered in the order in which they are found, which is the crash index used in the names of the
+ * kept inputs. The index can be written to a crash index file that maps the numbers to signatures, counts and
+ * descriptions.</p>
+ */
+public class CrashSignatureIndex implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	// Entries in the order in which they are found
+	private long[] signatures = new long[16];
+	private long[] counts = new long[16];
+	private long[] firstTrials = new long[16];
+	private final List<String> descriptions = new ArrayList<>();
+	private int size = 0;
+
+	// Open addressing table of entry numbers + 1, 0 marks an empty slot
+	private int[] table = new int[32];
+
+	/**
+	 * Compute the signature of a failure from the frames of its stack trace. If a test class is given, only the frames
+	 * up to and including the frames of the test class are part of the signature, the frames below belong to the test
+	 * framework and are the same for every failure.
+	 *
+	 * @param rootCause     root cause of the failure
+	 * @param testClassName name of the test class, null to use all frames
+	 * @return the signature
+	 */
+	public static long signature(Throwable rootCause, String testClassName) {
+		long hash = FNV_OFFSET_BASIS;
+		boolean testClassFound = false;
+		for (StackTraceElement frame : rootCause.getStackTrace()) {
+			boolean inTestClass = frame.getClassName().equals(testClassName);
+			if (testClassFound && !inTestClass) {
+				break;
+			}
+			hash = update(hash, frame.getClassName());
+			hash = update(hash, frame.getMethodName());
+			hash = update(hash, frame.getFileName());
+			hash = (hash ^ frame.getLineNumber()) * FNV_PRIME;
+			testClassFound |= inTestClass;
+		}
+		// Spread the bits of the last characters over the whole signature
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	private static long update(long hash, String s) {
+		if (s != null) {
+			for (int i = 0; i < s.length(); i++) {
+				hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+			}
+		}
+		// Separate the fields, such that moving characters between them changes the signature
+		return (hash ^ 0xff) * FNV_PRIME;
+	}
+
+	/**
+	 * Record a failure.
+	 *
+	 * @param signature   signature of the failure, see {@link #signature(Throwable, String)}
+	 * @param trial       trial at which the failure occurred
+	 * @param description description of the failure, only kept if the signature is new
+	 * @return whether the signature is new
+	 */
+	public boolean add(long signature, long trial, String description) {
+		return add(signature, 1, trial, () -> description);
+	}
+
+	/**
+	 * Record a failure, and only compute its description if the signature is new. Most failures of a campaign repeat
+	 * a known signature, whose description is not needed.
+	 *
+	 * @param signature   signature of the failure, see {@link #signature(Throwable, String)}
+	 * @param trial       trial at which the failure occurred
+	 * @param description supplies the description of the failure, only called if the signature is new
+	 * @return whether the signature is new
+	 */
+	public boolean add(long signature, long trial, Supplier<String> description) {
+		return add(signature, 1, trial, description);
+	}
+
+	private boolean add(long signature, long count, long trial, Supplier<String> description) {
+		int slot = slot(signature);
+		if (table[slot] != 0) {
+			counts[table[slot] - 1] += count;
+			return false;
+		}
+		if (size == signatures.length) {
+			signatures = Arrays.copyOf(signatures, size * 2);
+			counts = Arrays.copyOf(counts, size * 2);
+			firstTrials = Arrays.copyOf(firstTrials, size * 2);
+		}
+		signatures[size] = signature;
+		counts[size] = count;
+		firstTrials[size] = trial;
+		descriptions.add(description.get());
+		size++;
+		table[slot] = size;
+		if (size * 2 > table.length) {
+			rehash();
+		}
+		return true;
+	}
+
+	/**
+	 * @return the slot of the signature in the table, which is empty if the signature is not in the index
+	 */
+	private int slot(long signature) {
+		int mask = table.length - 1;
+		int slot = (int) signature & mask;
+		while (table[slot] != 0 && signatures[table[slot] - 1] != signature) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash() {
+		table = new int[table.length * 2];
+		for (int i = 0; i < size; i++) {
+			table[slot(signatures[i])] = i + 1;
+		}
+	}
+
+	/**
+	 * Add the entries of another index to this index. Counts of signatures that are in both indexes are summed, the
+	 * first trial and description of this index are kept.
+	 *
+	 * @param other index to merge
+	 */
+	public void merge(CrashSignatureIndex other) {
+		for (int i = 0; i < other.size; i++) {
+			String description = other.descriptions.get(i);
+			add(other.signatures[i], other.counts[i], other.firstTrials[i], () -> description);
+		}
+	}
+
+	/**
+	 * @return amount of unique signatures
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param signature signature of a failure
+	 * @return amount of failures with the signature
+	 */
+	public long getCount(long signature) {
+		int entry = table[slot(signature)];
+		return entry == 0 ? 0 : counts[entry - 1];
+	}
+
+	/**
+	 * @param signature signature of a failure
+	 * @return trial at which the signature was first seen, -1 if it has not been seen
+	 */
+	public long getFirstTrial(long signature) {
+		int entry = table[slot(signature)];
+		return entry == 0 ? -1 : firstTrials[entry - 1];
+	}
+
+	/**
+	 * Write the index to a file with a line per signature, in the order in which they were found: the crash index,
+	 * the signature in hexadecimal, the amount of failures, the trial at which it was first seen and the description of
+	 * the first failure, separated by tabs.
+	 *
+	 * @param file file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+		try (PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+			out.println("# crash\tsignature\tcount\tfirst_trial\tdescription");
+			for (int i = 0; i < size; i++) {
+				String description = descriptions.get(i) == null ? "" : descriptions.get(i).replaceAll("[\t\r\n]+", " ");
+				out.println(i + "\t" + String.format("%016x", signatures[i]) + "\t" + counts[i] + "\t" + firstTrials[i] +
+						"\t" + description);
+			}
+			if (out.checkError()) {
+				throw new IOException("Could not write the crash index to " + file);
+			}
+		}
+	}
+}
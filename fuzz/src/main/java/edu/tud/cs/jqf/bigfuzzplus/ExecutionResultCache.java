@@ -0,0 +1,312 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.berkeley.cs.jqf.fuzz.guidance.Result;
+import edu.berkeley.cs.jqf.fuzz.util.Coverage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the outcome of running an input, keyed by the fingerprint of the input (see {@link MutantFingerprintCache}).
+ * A guidance that gets an input that is in the cache can handle the cached outcome instead of running the input, which
+ * is sound for deterministic test programs.
+ *
+ * <p>An outcome consists of the result, the coverage counts and, for failures, the class, message, description and
+ * stack trace of the root cause.
+ * The cache holds a bounded amount of outcomes and evicts the least recently used one. It can be saved to a file and
+ * loaded in later program iterations, also by worker JVMs: saving merges the cache with the outcomes that are already
+ * in the file while holding a file lock.</p>
+ */
+public class ExecutionResultCache {
+	private static final int MAGIC = 0x42465243; // "BFRC"
+	private static final int VERSION = 3;
+	// Longer failure descriptions are cut off, such that they fit in a modified UTF-8 string
+	private static final int MAX_DESCRIPTION_LENGTH = 8192;
+
+	/**
+	 * Outcome of running an input.
+	 */
+	public static class Outcome {
+		private final Result result;
+		private final int[] coverage;
+		private final String failure;
+		private final String failureClass;
+		private final String failureMessage;
+		private final StackTraceElement[] failureTrace;
+
+		private Outcome(Result result, int[] coverage, String failure, String failureClass, String failureMessage,
+		                StackTraceElement[] failureTrace) {
+			this.result = result;
+			this.coverage = coverage;
+			this.failure = failure;
+			this.failureClass = failureClass;
+			this.failureMessage = failureMessage;
+			this.failureTrace = failureTrace;
+		}
+
+		/**
+		 * @return result of the run
+		 */
+		public Result getResult() {
+			return result;
+		}
+
+		/**
+		 * @param coverage coverage map that is replaced by the coverage of the run
+		 */
+		public void restoreCoverage(Coverage coverage) {
+			coverage.setCounts(this.coverage);
+		}
+
+		/**
+		 * @return an error equal to the root cause of the failure of the run, null if the run did not fail
+		 */
+		public Throwable getError() {
+			return failure == null ? null : new CachedFailure(failureClass, failureMessage, failure, failureTrace);
+		}
+	}
+
+	/**
+	 * Failure of a cached outcome. It has the class name, message, description and stack trace of the original failure,
+	 * such that it is recognized and named as the same unique failure.
+	 */
+	public static class CachedFailure extends Throwable {
+		private final String failureClass;
+		private final String description;
+
+		CachedFailure(String failureClass, String message, String description, StackTraceElement[] stackTrace) {
+			super(message, null, false, true);
+			this.failureClass = failureClass;
+			this.description = description;
+			setStackTrace(stackTrace);
+		}
+
+		/**
+		 * @return name of the class of the original failure
+		 */
+		public String getFailureClassName() {
+			return failureClass;
+		}
+
+		@Override
+		public String toString() {
+			return description;
+		}
+	}
+
+	/**
+	 * Name of the class of a failure, which is the class of the original failure for a {@link CachedFailure}.
+	 *
+	 * @param error failure of a run
+	 * @return the class name
+	 */
+	public static String failureClassName(Throwable error) {
+		if (error instanceof CachedFailure) {
+			return ((CachedFailure) error).getFailureClassName();
+		}
+		return error.getClass().getName();
+	}
+
+	private final String target;
+	private final int capacity;
+	private final LinkedHashMap<Long, Outcome> outcomes;
+
+	/**
+	 * @param target   test class and method that the outcomes belong to, outcomes of other targets are not loaded
+	 * @param capacity maximal amount of outcomes
+	 */
+	public ExecutionResultCache(String target, int capacity) {
+		this.target = target;
+		this.capacity = capacity;
+		this.outcomes = new LinkedHashMap<Long, Outcome>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Outcome> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * @return amount of cached outcomes
+	 */
+	public synchronized int size() {
+		return outcomes.size();
+	}
+
+	/**
+	 * @param fingerprint fingerprint of an input
+	 * @return cached outcome of the input, null if it is not cached
+	 */
+	public synchronized Outcome get(long fingerprint) {
+		return outcomes.get(fingerprint);
+	}
+
+	/**
+	 * Cache the outcome of running an input.
+	 *
+	 * @param fingerprint fingerprint of the input
+	 * @param result      result of the run
+	 * @param coverage    coverage of the run
+	 * @param error       error of the run, null if it did not fail
+	 */
+	public synchronized void put(long fingerprint, Result result, Coverage coverage, Throwable error) {
+		String failure = null;
+		String failureClass = null;
+		String failureMessage = null;
+		StackTraceElement[] failureTrace = null;
+		if (error != null) {
+			Throwable rootCause = error;
+			while (rootCause.getCause() != null) {
+				rootCause = rootCause.getCause();
+			}
+			failure = truncate(rootCause.toString());
+			failureClass = failureClassName(rootCause);
+			failureMessage = rootCause.getMessage() == null ? null : truncate(rootCause.getMessage());
+			failureTrace = rootCause.getStackTrace();
+		}
+		outcomes.put(fingerprint, new Outcome(result, coverage.getCounts(), failure, failureClass, failureMessage,
+				failureTrace));
+	}
+
+	private static String truncate(String description) {
+		return description.length() > MAX_DESCRIPTION_LENGTH ? description.substring(0, MAX_DESCRIPTION_LENGTH) : description;
+	}
+
+	/**
+	 * Load the outcomes of a file written by {@link #save(File)}. Outcomes of another target are ignored.
+	 *
+	 * @param file cache file, which may not exist yet
+	 * @throws IOException if the file cannot be read
+	 */
+	public synchronized void load(File file) throws IOException {
+		if (!file.exists()) {
+			return;
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		     FileChannel channel = raf.getChannel()) {
+			FileLock lock = channel.lock();
+			try {
+				read(channel, outcomes);
+			} finally {
+				lock.release();
+			}
+		}
+	}
+
+	/**
+	 * Save the outcomes to a file. Outcomes that are in the file but not in this cache are kept, such that several
+	 * JVMs can save to the same file.
+	 *
+	 * @param file cache file
+	 * @throws IOException if the file cannot be written
+	 */
+	public synchronized void save(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		     FileChannel channel = raf.getChannel()) {
+			FileLock lock = channel.lock();
+			try {
+				Map<Long, Outcome> merged = new LinkedHashMap<>();
+				read(channel, merged);
+				merged.putAll(outcomes);
+				// Keep the outcomes that were added last
+				int skipped = Math.max(0, merged.size() - capacity);
+
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(bytes);
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(target);
+				out.writeInt(merged.size() - skipped);
+				for (Map.Entry<Long, Outcome> entry : merged.entrySet()) {
+					if (skipped > 0) {
+						skipped--;
+						continue;
+					}
+					writeOutcome(out, entry.getKey(), entry.getValue());
+				}
+				out.flush();
+				channel.truncate(0);
+				ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+				while (buffer.hasRemaining()) {
+					channel.write(buffer, buffer.position());
+				}
+			} finally {
+				lock.release();
+			}
+		}
+	}
+
+	private void read(FileChannel channel, Map<Long, Outcome> into) throws IOException {
+		if (channel.size() == 0) {
+			return;
+		}
+		channel.position(0);
+		DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+		if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(target)) {
+			// Written by another version or for another target, so it is replaced when saving
+			return;
+		}
+		int amount = in.readInt();
+		for (int i = 0; i < amount; i++) {
+			long fingerprint = in.readLong();
+			into.put(fingerprint, readOutcome(in));
+		}
+	}
+
+	private static void writeOutcome(DataOutputStream out, long fingerprint, Outcome outcome) throws IOException {
+		out.writeLong(fingerprint);
+		out.writeByte(outcome.result.ordinal());
+		out.writeInt(outcome.coverage.length);
+		for (int count : outcome.coverage) {
+			out.writeInt(count);
+		}
+		out.writeBoolean(outcome.failure != null);
+		if (outcome.failure != null) {
+			out.writeUTF(outcome.failure);
+			out.writeUTF(outcome.failureClass);
+			out.writeBoolean(outcome.failureMessage != null);
+			if (outcome.failureMessage != null) {
+				out.writeUTF(outcome.failureMessage);
+			}
+			// Serialized as a whole, such that frames keep their module and class loader on newer JVMs
+			ByteArrayOutputStream trace = new ByteArrayOutputStream();
+			try (ObjectOutputStream traceOut = new ObjectOutputStream(trace)) {
+				traceOut.writeObject(outcome.failureTrace);
+			}
+			out.writeInt(trace.size());
+			trace.writeTo(out);
+		}
+	}
+
+	private static Outcome readOutcome(DataInputStream in) throws IOException {
+		Result result = Result.values()[in.readByte()];
+		int[] coverage = new int[in.readInt()];
+		for (int i = 0; i < coverage.length; i++) {
+			coverage[i] = in.readInt();
+		}
+		String failure = null;
+		String failureClass = null;
+		String failureMessage = null;
+		StackTraceElement[] failureTrace = null;
+		if (in.readBoolean()) {
+			failure = in.readUTF();
+			failureClass = in.readUTF();
+			if (in.readBoolean()) {
+				failureMessage = in.readUTF();
+			}
+			byte[] trace = new byte[in.readInt()];
+			in.readFully(trace);
+			try (ObjectInputStream traceIn = new ObjectInputStream(new ByteArrayInputStream(trace))) {
+				failureTrace = (StackTraceElement[]) traceIn.readObject();
+			} catch (ClassNotFoundException | ClassCastException e) {
+				throw new IOException("Invalid stack trace in the results cache", e);
+			}
+		}
+		return new Outcome(result, coverage, failure, failureClass, failureMessage, failureTrace);
+	}
+}
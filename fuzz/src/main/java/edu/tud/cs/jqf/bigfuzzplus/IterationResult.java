@@ -0,0 +1,208 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.tud.cs.jqf.bigfuzzplus.stackedMutation.HighOrderMutation;
+import edu.tud.cs.jqf.bigfuzzplus.stackedMutation.StackedMutation;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Results of a single program iteration of the BigFuzzPlusDriver. The result is serializable such that iterations that
+ * run in a worker process can report back to the coordinating driver.
+ */
+public class IterationResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Iteration number, starting at 1.
+	 */
+	public final int iteration;
+
+	/**
+	 * Amount of trials of the iteration (configuration), see {@link #writeCumulativeUniqueFailures(Writer)}.
+	 */
+	public final long trials;
+
+	/**
+	 * Trials at which a new unique failure was found, in increasing order.
+	 */
+	public final long[] uniqueFailureTrials;
+
+	/**
+	 * File with the mutated inputs passed to the program that is being tested, one per line, null if inputs are not
+	 * saved.
+	 */
+	public final String inputsFile;
+
+	/**
+	 * Summed HighOrderMutation methods applied, null if the mutation is not a StackedMutation.
+	 */
+	public ArrayList<String> methods;
+
+	/**
+	 * Count how many times mutation was applied per column, null if the mutation is not a StackedMutation.
+	 */
+	public ArrayList<String> columns;
+
+	/**
+	 * Duration of the iteration in ms.
+	 */
+	public final long duration;
+
+	/**
+	 * Amount of unique failures found in this iteration.
+	 */
+	public final int uniqueFailures;
+
+	/**
+	 * Amount of tree restarts of the SystematicMutation during this iteration.
+	 */
+	public final int restartAmount;
+
+	/**
+	 * Signatures of the unique failures, used to merge failures over iterations.
+	 */
+	public final CrashSignatureIndex crashes;
+
+	/**
+	 * Covered branch indices of the total coverage, used to merge coverage over iterations.
+	 */
+	public final HashSet<Integer> coveredBranches = new HashSet<>();
+
+	/**
+	 * Collect the results of an iteration from the guidance that was used to run it.
+	 *
+	 * @param iteration     iteration number
+	 * @param guidance      guidance class which contains all data
+	 * @param maxTrials     maximal amount of trials (configuration)
+	 * @param duration      duration of the iteration in ms
+	 * @param restartAmount amount of tree restarts during the iteration
+	 */
+	public IterationResult(int iteration, BigFuzzPlusGuidance guidance, long maxTrials, long duration, int restartAmount) {
+		this(iteration, maxTrials, guidance.uniqueFailureRuns.stream().mapToLong(Long::longValue).sorted().toArray(),
+				guidance.inputsFile != null ? guidance.inputsFile.getPath() : null, duration, restartAmount,
+				guidance.uniqueFailures, guidance.totalCoverage.getCovered());
+
+		// Methods and columns
+		if (guidance.mutation instanceof StackedMutation) {
+			methods = new ArrayList<>();
+			columns = new ArrayList<>();
+			combineUsedMethodsAndColumns((StackedMutation) guidance.mutation);
+		}
+	}
+
+	/**
+	 * @param iteration           iteration number
+	 * @param trials              maximal amount of trials (configuration)
+	 * @param uniqueFailureTrials trials at which a new unique failure was found, in increasing order
+	 * @param inputsFile          file with the mutated inputs, null if inputs are not saved
+	 * @param duration            duration of the iteration in ms
+	 * @param restartAmount       amount of tree restarts during the iteration
+	 * @param crashes             signatures of the unique failures
+	 * @param coveredBranches     covered branch indices of the total coverage
+	 */
+	IterationResult(int iteration, long trials, long[] uniqueFailureTrials, String inputsFile, long duration,
+	                int restartAmount, CrashSignatureIndex crashes, Collection<?> coveredBranches) {
+		this.iteration = iteration;
+		this.duration = duration;
+		this.restartAmount = restartAmount;
+
+		// Unique failure results
+		this.trials = trials;
+		this.uniqueFailureTrials = uniqueFailureTrials;
+		int found = 0;
+		for (long trial : uniqueFailureTrials) {
+			if (trial < trials) {
+				found++;
+			}
+		}
+		this.uniqueFailures = found;
+
+		this.inputsFile = inputsFile;
+		this.crashes = crashes;
+		for (Object branch : coveredBranches) {
+			this.coveredBranches.add((Integer) branch);
+		}
+	}
+
+	private void combineUsedMethodsAndColumns(StackedMutation mutation) {
+		ArrayList<HighOrderMutation.HighOrderMutationMethod> methodTracker = mutation.getMutationMethodTracker();
+		ArrayList<Integer> columnTracker = mutation.getMutationColumnTracker();
+
+		HashMap<HighOrderMutation.HighOrderMutationMethod, Integer> methodMap = new HashMap<>();
+		HashMap<Integer, Integer> columnMap = new HashMap<>();
+		for (int i = 0; i < methodTracker.size(); i++) {
+			HighOrderMutation.HighOrderMutationMethod method = methodTracker.get(i);
+			int column = columnTracker.get(i);
+			if (methodMap.containsKey(method)) {
+				methodMap.put(method, methodMap.get(method) + 1);
+			} else {
+				methodMap.put(method, 1);
+			}
+			if (columnMap.containsKey(column)) {
+				columnMap.put(column, columnMap.get(column) + 1);
+			} else {
+				columnMap.put(column, 1);
+			}
+		}
+		for (Map.Entry<HighOrderMutation.HighOrderMutationMethod, Integer> e : methodMap.entrySet()) {
+			methods.add(e.getKey() + ": " + e.getValue());
+		}
+
+		for (Map.Entry<Integer, Integer> e : columnMap.entrySet()) {
+			columns.add(e.getKey() + ": " + e.getValue());
+		}
+	}
+
+	/**
+	 * Write the cumulative unique failure count of every trial, as a list like <code>[0, 0, 1, 1]</code>. The list
+	 * has an element per trial, so it is written as it is computed instead of being kept in memory.
+	 *
+	 * @param out writer to write to
+	 * @throws IOException if the list cannot be written
+	 */
+	public void writeCumulativeUniqueFailures(Writer out) throws IOException {
+		out.write('[');
+		int cumulative = 0;
+		int next = 0;
+		for (long j = 0; j < trials; j++) {
+			while (next < uniqueFailureTrials.length && uniqueFailureTrials[next] == j) {
+				cumulative++;
+				next++;
+			}
+			if (j != 0) {
+				out.write(", ");
+			}
+			out.write(Integer.toString(cumulative));
+		}
+		out.write(']');
+	}
+
+	/**
+	 * Write this result to a file.
+	 *
+	 * @param file file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeObject(this);
+		}
+	}
+
+	/**
+	 * Read a result that was written using {@link #write(File)}.
+	 *
+	 * @param file file to read from
+	 * @return the iteration result
+	 * @throws IOException if the file cannot be read
+	 */
+	public static IterationResult read(File file) throws IOException {
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			return (IterationResult) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+}
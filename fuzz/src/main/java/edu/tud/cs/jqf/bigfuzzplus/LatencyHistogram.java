@@ -0,0 +1,121 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+/**
+ * A histogram of latencies in nanoseconds with a bounded relative error, in the style of HdrHistogram. Values below 128
+ * have their own bucket, larger values share a bucket with values that have the same 7 most significant bits, such
+ * that a recorded value is reported with a relative error below 1/64. The histogram takes a fixed amount of memory
+ * (about 30KB) for the whole range of long values, and recording a value does not allocate.
+ *
+ * <p>Values are recorded by the fuzzing thread and may be read concurrently by JMX clients.</p>
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+	private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+	private long totalCount = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = 0;
+
+	/**
+	 * Record a latency.
+	 *
+	 * @param nanos latency in nanoseconds, negative values are recorded as 0
+	 */
+	public synchronized void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts[bucket(value)]++;
+		totalCount++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * @return amount of recorded latencies
+	 */
+	public synchronized long getCount() {
+		return totalCount;
+	}
+
+	/**
+	 * @return sum of the recorded latencies in nanoseconds
+	 */
+	public synchronized long getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return mean of the recorded latencies in nanoseconds, 0 if nothing has been recorded
+	 */
+	public synchronized double getMean() {
+		return totalCount == 0 ? 0 : (double) sum / totalCount;
+	}
+
+	/**
+	 * @return smallest recorded latency in nanoseconds, 0 if nothing has been recorded
+	 */
+	public synchronized long getMin() {
+		return totalCount == 0 ? 0 : min;
+	}
+
+	/**
+	 * @return largest recorded latency in nanoseconds
+	 */
+	public synchronized long getMax() {
+		return max;
+	}
+
+	/**
+	 * The latency at a percentile, i.e. the smallest latency such that the given percentage of the recorded latencies
+	 * is not larger, up to the precision of the histogram.
+	 *
+	 * @param percentile percentile between 0 and 100
+	 * @return latency in nanoseconds, 0 if nothing has been recorded
+	 */
+	public synchronized long getValueAtPercentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * totalCount));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				// The exact extremes are known, the value of a bucket is its largest value
+				return Math.max(min, Math.min(max, highestValue(i)));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @param value latency in nanoseconds, not negative
+	 * @return index of the bucket of the value
+	 */
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		// Shift the value such that it has SUB_BUCKET_BITS significant bits, i.e. lies in [HALF_SUB_BUCKETS, SUB_BUCKETS)
+		int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+	}
+
+	/**
+	 * @param bucket index of a bucket
+	 * @return largest value that is recorded in the bucket
+	 */
+	static long highestValue(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+		long mantissa = (bucket - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+		return ((mantissa + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,139 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.ucla.cs.jqf.bigfuzz.MutatedInput;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Bounded cache of 64-bit fingerprints of the inputs that have been run, used to skip mutants that are identical to an
+ * input that was run before.
+ *
+ * <p>The cache is a set-associative table of fingerprints: every fingerprint maps to a bucket of four slots, and a
+ * full bucket evicts its oldest fingerprint. Memory use is therefore fixed at 8 bytes per slot. An evicted input may be
+ * run again, but an input is only reported as a duplicate if it has the same fingerprint as an input that was run.</p>
+ */
+public class MutantFingerprintCache {
+	private static final int WAYS = 4;
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	// Fingerprints per bucket, ordered from new to old, 0 for an empty slot
+	private final long[] slots;
+	private final int bucketMask;
+
+	/**
+	 * @param capacity amount of fingerprints the cache holds, rounded up to a power of two
+	 */
+	public MutantFingerprintCache(int capacity) {
+		int buckets = 1;
+		while (buckets * WAYS < capacity) {
+			buckets <<= 1;
+		}
+		slots = new long[buckets * WAYS];
+		bucketMask = buckets - 1;
+	}
+
+	/**
+	 * Add a fingerprint to the cache.
+	 *
+	 * @param fingerprint fingerprint of an input
+	 * @return true if the fingerprint was not in the cache, false if it is a duplicate
+	 */
+	public boolean add(long fingerprint) {
+		if (fingerprint == 0) {
+			// 0 marks an empty slot
+			fingerprint = 1;
+		}
+		int start = (int) (mix(fingerprint) & bucketMask) * WAYS;
+		for (int i = start; i < start + WAYS; i++) {
+			if (slots[i] == fingerprint) {
+				return false;
+			}
+		}
+		System.arraycopy(slots, start, slots, start + 1, WAYS - 1);
+		slots[start] = fingerprint;
+		return true;
+	}
+
+	/**
+	 * Continue a fingerprint with the lines of an input.
+	 *
+	 * @param fingerprint fingerprint of the preceding content, {@link #start()} for the first content
+	 * @param lines       lines of the input
+	 * @return the fingerprint including the lines
+	 */
+	public static long update(long fingerprint, Iterable<String> lines) {
+		for (String line : lines) {
+			for (int i = 0; i < line.length(); i++) {
+				fingerprint = (fingerprint ^ line.charAt(i)) * FNV_PRIME;
+			}
+			// Separate the lines, such that lines ["ab"] and ["a", "b"] differ
+			fingerprint = (fingerprint ^ 0x10000) * FNV_PRIME;
+		}
+		// Separate the inputs
+		return (fingerprint ^ 0x20000) * FNV_PRIME;
+	}
+
+	/**
+	 * Fingerprint of the input of a conf file, i.e. of the content of the data files it lists. The paths of the data
+	 * files differ for every mutant, so they are not part of the fingerprint.
+	 *
+	 * @param confFile conf file with the paths of the data files, one per line
+	 * @return the fingerprint
+	 * @throws IOException if a file cannot be read
+	 */
+	public static long fingerprint(String confFile) throws IOException {
+		long fingerprint = start();
+		try (BufferedReader conf = new BufferedReader(new FileReader(confFile))) {
+			String location;
+			while ((location = conf.readLine()) != null) {
+				fingerprint = updateWithFile(fingerprint, location);
+			}
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Fingerprint of an input that has been mutated in memory. It is the same as the fingerprint of the conf file that
+	 * file based mutation would have written for the mutant, such that both modes detect the same duplicates.
+	 *
+	 * @param mutant the mutated input
+	 * @return the fingerprint
+	 * @throws IOException if a data file that has not been mutated cannot be read
+	 */
+	public static long fingerprint(MutatedInput mutant) throws IOException {
+		long fingerprint = start();
+		List<String> locations = mutant.getInputLocations("");
+		for (int i = 0; i < locations.size(); i++) {
+			if (i == mutant.getMutatedIndex()) {
+				fingerprint = update(fingerprint, mutant.getRows());
+			} else {
+				fingerprint = updateWithFile(fingerprint, locations.get(i));
+			}
+		}
+		return fingerprint;
+	}
+
+	private static long updateWithFile(long fingerprint, String dataFile) throws IOException {
+		try (BufferedReader data = new BufferedReader(new FileReader(dataFile))) {
+			return update(fingerprint, data.lines()::iterator);
+		}
+	}
+
+	/**
+	 * @return fingerprint of empty content
+	 */
+	public static long start() {
+		return FNV_OFFSET;
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -6,7 +6,8 @@ package edu.tud.cs.jqf.bigfuzzplus.stackedMutation;
 
 //import org.apache.commons.lang.ArrayUtils;
 
-import edu.ucla.cs.jqf.bigfuzz.BigFuzzMutation;
+import edu.ucla.cs.jqf.bigfuzz.InMemoryMutation;
+import edu.ucla.cs.jqf.bigfuzz.MutatedInput;
 import org.apache.commons.lang.RandomStringUtils;
 
 import java.io.*;
@@ -18,7 +19,7 @@ import java.util.*;
 import static edu.tud.cs.jqf.bigfuzzplus.BigFuzzPlusDriver.PRINT_MUTATIONS;
 import static edu.tud.cs.jqf.bigfuzzplus.stackedMutation.HighOrderMutation.*;
 
-public class StackedMutation implements BigFuzzMutation {
+public class StackedMutation implements InMemoryMutation {
     private final Random r = new Random();
     private long randomizationSeed;
     ArrayList<String> fileRows = new ArrayList<>();
@@ -45,6 +46,9 @@ public class StackedMutation implements BigFuzzMutation {
     ArrayList<Integer> mutationStackTracker = new ArrayList();
     ArrayList<MutationPair> appliedMutations = new ArrayList();
 
+    // Seed files do not change during a run, so in-memory mutation reads them only once
+    private final Map<String, List<String>> seedCache = new HashMap<>();
+
     public StackedMutationEnum.StackedMutationMethod stackedMutationMethod = StackedMutationEnum.StackedMutationMethod.Disabled;
 
     /**
@@ -90,6 +94,48 @@ public class StackedMutation implements BigFuzzMutation {
         bw.close();
     }
 
+    /**
+     * Applies the same mutation as {@link #mutate(String, String)}, but returns the mutant instead of writing it and its
+     * conf file to disk.
+     *
+     * @param inputFile File from which a line is read which contains other input files paths
+     * @return mutant of the selected input file
+     * @throws IOException When the input file or the selected seed cannot be read
+     */
+    @Override
+    public MutatedInput mutateInMemory(String inputFile) throws IOException {
+        List<String> fileList = readSeed(inputFile);
+
+        int n = r.nextInt(fileList.size());
+        String fileToMutate = fileList.get(n);
+
+        // Empty applied mutations, as it is only containing the mutations performed in this cycle
+        appliedMutations = new ArrayList<>();
+
+        ArrayList<String> rows = new ArrayList<>(readSeed(fileToMutate));
+        mutate(rows);
+        fileRows = rows;
+
+        // Build the content the same way writeFile does
+        StringBuilder content = new StringBuilder();
+        for (String fileRow : fileRows) {
+            if (fileRow == null) {
+                continue;
+            }
+            content.append(fileRow).append(System.lineSeparator());
+        }
+        return new MutatedInput(fileList, n, content.toString());
+    }
+
+    private List<String> readSeed(String file) throws IOException {
+        List<String> lines = seedCache.get(file);
+        if (lines == null) {
+            lines = Files.readAllLines(Paths.get(file));
+            seedCache.put(file, lines);
+        }
+        return lines;
+    }
+
     /**
      * Loads provided path to input file and calls mutation in loaded input. Applies changes to the field "fileRows"
      *
@@ -0,0 +1,262 @@
+package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
+
+import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.MutationTree.MutationType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static edu.tud.cs.jqf.bigfuzzplus.systematicMutation.MutationTree.MutationType.*;
+
+/**
+ * Walks the same tree of higher order mutations as {@link MutationTree}, in the same order, without materializing its
+ * nodes.
+ *
+ * <p>Only the path from the root to the current mutation is stored, in arrays that are indexed by level. The children
+ * of a mutation are enumerated implicitly by a cursor per level: a child is identified by its position in the order in
+ * which {@link MutationTree.Mutation#addAllTypes()} adds children. Whether a child is allowed by the mutations on the
+ * path is a lookup in a bitmask of blocked mutation types per column, which is updated when the walk moves down or up
+ * the tree. The exclusion rules are precomputed into such masks per mutation type. Moving to the next mutation
+ * therefore does not allocate, and takes time proportional to the depth of the tree.</p>
+ *
+ * <p>The walk can be restricted to a {@link MutationSubtree}, such that the subtrees of a tree can be explored
+ * independently of each other.</p>
+ */
+public class CompactMutationTree implements MutationTreeWalker {
+
+	private static final MutationType[] TYPES = MutationType.values();
+
+	/**
+	 * Mutation types that are applied to a single column, which are the types from ChangeValue up to EmptyColumn.
+	 */
+	private static final int COLUMN_TYPES = EmptyColumn.ordinal();
+
+	/**
+	 * Mask of the mutation types that can not be applied to the same column after a mutation type. A mutation type
+	 * blocks itself, since a combination of mutation type and column is only applied once on a path.
+	 */
+	private static final int[] BLOCKS = new int[TYPES.length];
+
+	static {
+		for (MutationType type : TYPES) {
+			int mask = 1 << type.ordinal();
+			for (int excluded : type.exclusion.values) {
+				mask |= 1 << excluded;
+			}
+			BLOCKS[type.ordinal()] = mask;
+		}
+	}
+
+	private final int depth;
+	private final boolean mutateColumns;
+
+	// Current mutation is at path[level], the seed is at level 0
+	private int level;
+	private boolean expanded;
+
+	// The walk does not go above the root of the explored subtree, which is the seed unless walking a subtree
+	private int rootLevel;
+	// Whether the next mutation is the root of the explored subtree
+	private boolean atRoot;
+
+	private final MutationType[] types;
+	private final int[] columns;
+	private final int[] columnAmounts;
+	// Position of the next child to consider per level
+	private final int[] cursors;
+	// Random columns chosen per level and column type when not mutating all columns
+	private final int[][] randomColumns;
+	// Mutation types applied on the path up to and including each level
+	private final int[] usedTypes;
+
+	// Blocked mutation types per column; the last entry is for mutations that apply to all columns
+	private final int[] blocked;
+	// Mask of the column of each level before the mutation of that level was applied
+	private final int[] blockedBefore;
+
+	/**
+	 * @param columnAmount amount of columns of the seed
+	 */
+	public CompactMutationTree(int columnAmount) {
+		this(columnAmount, SystematicMutation.MUTATION_DEPTH);
+	}
+
+	/**
+	 * Walks only the mutations of a subtree, starting with the root of the subtree.
+	 *
+	 * @param columnAmount amount of columns of the seed
+	 * @param subtree      subtree to walk
+	 */
+	public CompactMutationTree(int columnAmount, MutationSubtree subtree) {
+		this(columnAmount, subtree.isRootOnly() ? subtree.getLevel() : SystematicMutation.MUTATION_DEPTH);
+		for (int i = 0; i < subtree.getLevel(); i++) {
+			push(subtree.getMutationType(i), subtree.getColumn(i));
+		}
+		rootLevel = level;
+		atRoot = true;
+	}
+
+	private CompactMutationTree(int columnAmount, int depth) {
+		this.depth = depth;
+		this.mutateColumns = SystematicMutation.MUTATE_COLUMNS;
+		this.types = new MutationType[depth + 1];
+		this.columns = new int[depth + 1];
+		this.columnAmounts = new int[depth + 1];
+		this.cursors = new int[depth + 1];
+		this.randomColumns = new int[depth + 1][COLUMN_TYPES];
+		this.usedTypes = new int[depth + 1];
+		this.blocked = new int[columnAmount + 1];
+		this.blockedBefore = new int[depth + 1];
+
+		types[0] = NoMutation;
+		columns[0] = -1;
+		columnAmounts[0] = columnAmount;
+	}
+
+	@Override
+	public int next() {
+		if (atRoot) {
+			atRoot = false;
+			return level;
+		}
+		if (!expanded) {
+			expand();
+		}
+		while (true) {
+			if (descend()) {
+				return level;
+			}
+			if (level == rootLevel) {
+				// All mutations have been applied
+				return 0;
+			}
+			ascend();
+		}
+	}
+
+	/**
+	 * Splits the tree into subtrees that can be explored independently. Together, the subtrees contain every mutation
+	 * of the tree once: the mutations at the split level are the roots of subtrees, and the mutations above the split
+	 * level are subtrees that consist of their root only.
+	 *
+	 * @param columnAmount amount of columns of the seed
+	 * @param splitLevel   level of the roots of the subtrees
+	 * @return subtrees in the order in which the whole tree would be explored
+	 */
+	public static List<MutationSubtree> split(int columnAmount, int splitLevel) {
+		splitLevel = Math.min(splitLevel, SystematicMutation.MUTATION_DEPTH);
+		List<MutationSubtree> subtrees = new ArrayList<>();
+		CompactMutationTree tree = new CompactMutationTree(columnAmount, splitLevel);
+		while (tree.next() != 0) {
+			int level = tree.level;
+			MutationType[] pathTypes = new MutationType[level];
+			int[] pathColumns = new int[level];
+			System.arraycopy(tree.types, 1, pathTypes, 0, level);
+			System.arraycopy(tree.columns, 1, pathColumns, 0, level);
+			subtrees.add(new MutationSubtree(pathTypes, pathColumns, level < splitLevel));
+		}
+		return subtrees;
+	}
+
+	/**
+	 * Starts the enumeration of the children of the current mutation, the equivalent of
+	 * {@link MutationTree.Mutation#addAllTypes()}.
+	 */
+	private void expand() {
+		expanded = true;
+		if (level >= depth) {
+			cursors[level] = Integer.MAX_VALUE;
+			return;
+		}
+		cursors[level] = 0;
+		if (!mutateColumns) {
+			// Draw the random columns in the same order as MutationTree does
+			for (int i = 0; i < COLUMN_TYPES; i++) {
+				randomColumns[level][i] = SystematicMutation.r.nextInt(columnAmounts[level]);
+			}
+		}
+	}
+
+	/**
+	 * Moves to the next allowed child of the current mutation.
+	 *
+	 * @return false if the current mutation has no more children
+	 */
+	private boolean descend() {
+		int columnAmount = columnAmounts[level];
+		int columnChildren = mutateColumns ? COLUMN_TYPES * columnAmount : COLUMN_TYPES;
+		int cursor = cursors[level];
+		while (cursor < columnChildren + 2) {
+			int child = cursor++;
+			MutationType type;
+			int column;
+			if (child < columnChildren) {
+				if (mutateColumns) {
+					type = TYPES[1 + child / columnAmount];
+					column = child % columnAmount;
+				} else {
+					type = TYPES[1 + child];
+					column = randomColumns[level][child];
+					if ((usedTypes[level] & (1 << type.ordinal())) != 0) {
+						continue;
+					}
+				}
+			} else {
+				type = child == columnChildren ? AddElement : ChangeDelimiter;
+				column = -1;
+			}
+			if ((blocked[slot(column)] & (1 << type.ordinal())) == 0) {
+				cursors[level] = cursor;
+				push(type, column);
+				return true;
+			}
+		}
+		cursors[level] = cursor;
+		return false;
+	}
+
+	private void push(MutationType type, int column) {
+		int parent = level;
+		level++;
+		types[level] = type;
+		columns[level] = column;
+		if (type == RemoveElement && columnAmounts[parent] > 1) {
+			columnAmounts[level] = columnAmounts[parent] - 1;
+		} else {
+			columnAmounts[level] = columnAmounts[parent];
+		}
+		usedTypes[level] = usedTypes[parent] | (1 << type.ordinal());
+		blockedBefore[level] = blocked[slot(column)];
+		blocked[slot(column)] |= BLOCKS[type.ordinal()];
+		expanded = false;
+	}
+
+	private void ascend() {
+		blocked[slot(columns[level])] = blockedBefore[level];
+		level--;
+		expanded = true;
+	}
+
+	private int slot(int column) {
+		return column < 0 ? blocked.length - 1 : column;
+	}
+
+	@Override
+	public int getLevel() {
+		return level;
+	}
+
+	@Override
+	public MutationType getMutationType() {
+		return types[level];
+	}
+
+	@Override
+	public int getColumn() {
+		return columns[level];
+	}
+
+	@Override
+	public int getColumnAmount() {
+		return columnAmounts[level];
+	}
+}
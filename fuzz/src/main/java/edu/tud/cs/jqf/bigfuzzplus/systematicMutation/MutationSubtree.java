@@ -0,0 +1,94 @@
+package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
+
+import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.MutationTree.MutationType;
+
+/**
+ * Subtree of the mutation tree, identified by the path of mutations from the seed to its root.
+ */
+public class MutationSubtree {
+	private final MutationType[] types;
+	private final int[] columns;
+	private final boolean rootOnly;
+
+	/**
+	 * @param types    mutation types on the path from the seed to the root of the subtree
+	 * @param columns  columns of the mutations on the path, -1 for mutations that apply to all columns
+	 * @param rootOnly whether the subtree consists of its root only, instead of the root and all its descendants
+	 */
+	public MutationSubtree(MutationType[] types, int[] columns, boolean rootOnly) {
+		assert types.length == columns.length && types.length > 0;
+		this.types = types;
+		this.columns = columns;
+		this.rootOnly = rootOnly;
+	}
+
+	/**
+	 * @return level of the root of the subtree
+	 */
+	public int getLevel() {
+		return types.length;
+	}
+
+	/**
+	 * @param i index on the path, the mutation at level i + 1
+	 * @return mutation type of the mutation
+	 */
+	public MutationType getMutationType(int i) {
+		return types[i];
+	}
+
+	/**
+	 * @param i index on the path, the mutation at level i + 1
+	 * @return column of the mutation
+	 */
+	public int getColumn(int i) {
+		return columns[i];
+	}
+
+	/**
+	 * @return whether the subtree consists of its root only
+	 */
+	public boolean isRootOnly() {
+		return rootOnly;
+	}
+
+	/**
+	 * Formats the subtree such that it can be read back by {@link #parse(String)}, e.g.
+	 * <code>tree ChangeValue:0 AddElement:-1</code>.
+	 *
+	 * @return the subtree as a string
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(rootOnly ? "node" : "tree");
+		for (int i = 0; i < types.length; i++) {
+			sb.append(' ').append(types[i]).append(':').append(columns[i]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Reads a subtree that was formatted by {@link #toString()}.
+	 *
+	 * @param s formatted subtree
+	 * @return the subtree
+	 * @throws IllegalArgumentException if the string is not a formatted subtree
+	 */
+	public static MutationSubtree parse(String s) {
+		String[] parts = s.trim().split(" ");
+		if (parts.length < 2 || !(parts[0].equals("node") || parts[0].equals("tree"))) {
+			throw new IllegalArgumentException("Invalid subtree: " + s);
+		}
+		MutationType[] types = new MutationType[parts.length - 1];
+		int[] columns = new int[parts.length - 1];
+		for (int i = 1; i < parts.length; i++) {
+			int separator = parts[i].indexOf(':');
+			if (separator < 0) {
+				throw new IllegalArgumentException("Invalid subtree: " + s);
+			}
+			types[i - 1] = MutationType.valueOf(parts[i].substring(0, separator));
+			columns[i - 1] = Integer.parseInt(parts[i].substring(separator + 1));
+		}
+		return new MutationSubtree(types, columns, parts[0].equals("node"));
+	}
+}
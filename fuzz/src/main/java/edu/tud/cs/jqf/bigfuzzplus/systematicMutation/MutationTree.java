@@ -10,7 +10,7 @@ import static edu.tud.cs.jqf.bigfuzzplus.systematicMutation.SystematicMutation.M
 /**
  * Provides the next mutation type for exploration of hihger order mutations. Also contains the mutation types and exclusion rules.
  */
-public class MutationTree {
+public class MutationTree implements MutationTreeWalker {
 	private Mutation currentMutation;
 
 	public MutationTree(int columnAmount) {
@@ -32,9 +32,6 @@ public class MutationTree {
 		if (currentMutation.children.isEmpty()) {
 			//go to parent
 			while (currentMutation.hasParent()) {
-				if (currentMutation.mutationType == ChangeDelimiter) {
-					SystematicMutation.revertDelimiter();
-				}
 				currentMutation = currentMutation.parent;
 				if (currentMutation.hasChildren()) {
 					currentMutation = currentMutation.removeChild();
@@ -49,6 +46,31 @@ public class MutationTree {
 		return currentMutation;
 	}
 
+	@Override
+	public int next() {
+		return traverseTree().getLevel();
+	}
+
+	@Override
+	public int getLevel() {
+		return currentMutation.getLevel();
+	}
+
+	@Override
+	public MutationType getMutationType() {
+		return currentMutation.getMutationType();
+	}
+
+	@Override
+	public int getColumn() {
+		return currentMutation.getColumn();
+	}
+
+	@Override
+	public int getColumnAmount() {
+		return currentMutation.getColumnAmount();
+	}
+
 	/**
 	 * Getter for current mutation in tree.
 	 *
@@ -332,7 +354,7 @@ public class MutationTree {
 		AddElementExclusion(new int[]{4}),
 		NoExclusion(new int[]{});
 
-		private final int[] values;
+		final int[] values;
 
 		MutationExclusion(int[] exclusions) {
 			this.values = exclusions;
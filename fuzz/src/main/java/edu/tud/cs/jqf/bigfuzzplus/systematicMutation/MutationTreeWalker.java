@@ -0,0 +1,36 @@
+package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
+
+import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.MutationTree.MutationType;
+
+/**
+ * Depth-first walk over the tree of higher order mutations that is explored by {@link SystematicMutation}.
+ */
+public interface MutationTreeWalker {
+
+	/**
+	 * Moves to the next mutation of the tree.
+	 *
+	 * @return level of the next mutation, 0 if all mutations of the tree have been applied
+	 */
+	int next();
+
+	/**
+	 * @return level of the current mutation, 0 for the seed
+	 */
+	int getLevel();
+
+	/**
+	 * @return mutation type of the current mutation
+	 */
+	MutationType getMutationType();
+
+	/**
+	 * @return column of the current mutation, -1 for mutations that apply to all columns
+	 */
+	int getColumn();
+
+	/**
+	 * @return amount of columns after the current mutation has been applied
+	 */
+	int getColumnAmount();
+}
@@ -0,0 +1,91 @@
+package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Rows of a mutant: the rows of the seed, with a few of them replaced by mutated rows. The seed rows are not copied,
+ * so creating a mutant costs time and memory proportional to the amount of mutated rows.
+ *
+ * <p>The rows are the lines a driver reads from the mutant when it is written to disk, joined by "\n". A mutated row
+ * that contains line terminators (e.g. inserted by InsertChar) therefore replaces one seed row by several rows.</p>
+ */
+public class PatchedRows extends AbstractList<String> implements RandomAccess {
+	private final List<String> seed;
+	// Seed rows that are replaced, in ascending order
+	private final int[] patchedRows;
+	// Rows that replace each patched seed row
+	private final String[][] patches;
+	// Index of the first row of each patch in this list
+	private final int[] patchStarts;
+	private final int size;
+
+	/**
+	 * @param seed        rows of the seed
+	 * @param patchedRows indices of the seed rows that are replaced, in ascending order
+	 * @param mutatedRows rows that replace the seed rows
+	 */
+	public PatchedRows(List<String> seed, int[] patchedRows, String[] mutatedRows) {
+		assert patchedRows.length == mutatedRows.length;
+		this.seed = seed;
+		this.patchedRows = patchedRows;
+		this.patches = new String[patchedRows.length][];
+		this.patchStarts = new int[patchedRows.length];
+		int extraRows = 0;
+		for (int i = 0; i < patchedRows.length; i++) {
+			// A row that is not the last one is followed by a line terminator when the mutant is written
+			boolean lastRow = patchedRows[i] == seed.size() - 1;
+			patches[i] = lines(lastRow ? mutatedRows[i] : mutatedRows[i] + "\n");
+			patchStarts[i] = patchedRows[i] + extraRows;
+			extraRows += patches[i].length - 1;
+		}
+		this.size = seed.size() + extraRows;
+	}
+
+	private static String[] lines(String text) {
+		if (text.isEmpty()) {
+			// An emptied last row stays a row, like the rows it replaces
+			return new String[]{""};
+		}
+		if (text.indexOf('\r') < 0 && text.indexOf('\n') == text.length() - 1) {
+			return new String[]{text.substring(0, text.length() - 1)};
+		}
+		return new BufferedReader(new StringReader(text)).lines().toArray(String[]::new);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+		}
+		// Last patch that starts at or before the index
+		int low = 0;
+		int high = patchStarts.length - 1;
+		int patch = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (patchStarts[mid] <= index) {
+				patch = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		if (patch < 0) {
+			return seed.get(index);
+		}
+		int offset = index - patchStarts[patch];
+		if (offset < patches[patch].length) {
+			return patches[patch][offset];
+		}
+		return seed.get(patchedRows[patch] + offset - patches[patch].length + 1);
+	}
+}
@@ -0,0 +1,125 @@
+package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Rows of a seed file, read on demand from a memory-mapped copy of the file. Only the start of every row is kept in
+ * memory, such that seeds with millions of rows can be mutated without reading them into memory.
+ *
+ * <p>Rows are split the same way BufferedReader#readLine splits the file, so the rows are exactly the lines a driver
+ * reads from the seed.</p>
+ */
+public class SeedFile extends AbstractList<String> implements RandomAccess {
+	// Files larger than 2GB cannot be mapped at once, so they are mapped in segments
+	private static final int SEGMENT_BITS = 30;
+	private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+
+	private final MappedByteBuffer[] segments;
+	// Start offset of every row, followed by the size of the file
+	private final long[] rowStarts;
+	private final int rowAmount;
+
+	/**
+	 * Maps a seed file and indexes its rows.
+	 *
+	 * @param file the seed file
+	 * @throws IOException if the file cannot be read
+	 */
+	public SeedFile(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+		     FileChannel channel = raf.getChannel()) {
+			long size = channel.size();
+			segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS)];
+			for (int i = 0; i < segments.length; i++) {
+				long start = (long) i << SEGMENT_BITS;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+			}
+
+			long[] starts = new long[1024];
+			int rows = 0;
+			boolean rowStart = true;
+			boolean afterCarriageReturn = false;
+			for (int i = 0; i < segments.length; i++) {
+				ByteBuffer segment = segments[i];
+				long offset = (long) i << SEGMENT_BITS;
+				for (int j = 0; j < segment.limit(); j++) {
+					byte b = segment.get(j);
+					if (afterCarriageReturn) {
+						afterCarriageReturn = false;
+						if (b == '\n') {
+							// \r\n terminates a single row
+							continue;
+						}
+					}
+					if (rowStart) {
+						if (rows + 1 >= starts.length) {
+							starts = Arrays.copyOf(starts, starts.length * 2);
+						}
+						starts[rows++] = offset + j;
+						rowStart = false;
+					}
+					if (b == '\n') {
+						rowStart = true;
+					} else if (b == '\r') {
+						rowStart = true;
+						afterCarriageReturn = true;
+					}
+				}
+			}
+			starts[rows] = size;
+			rowStarts = starts;
+			rowAmount = rows;
+		}
+	}
+
+	@Override
+	public int size() {
+		return rowAmount;
+	}
+
+	/**
+	 * @param index row index
+	 * @return the row, without its line terminator
+	 */
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= rowAmount) {
+			throw new IndexOutOfBoundsException("Row " + index + " of " + rowAmount);
+		}
+		long start = rowStarts[index];
+		long end = rowStarts[index + 1];
+		if (end > start && byteAt(end - 1) == '\n') {
+			end--;
+		}
+		if (end > start && byteAt(end - 1) == '\r') {
+			end--;
+		}
+		byte[] bytes = new byte[(int) (end - start)];
+		int segment = (int) (start >>> SEGMENT_BITS);
+		int position = (int) (start & (SEGMENT_SIZE - 1));
+		if (position + bytes.length <= segments[segment].limit()) {
+			ByteBuffer view = segments[segment].duplicate();
+			view.position(position);
+			view.get(bytes);
+		} else {
+			// The row crosses the end of a segment
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = byteAt(start + i);
+			}
+		}
+		return new String(bytes, Charset.defaultCharset());
+	}
+
+	private byte byteAt(long offset) {
+		return segments[(int) (offset >>> SEGMENT_BITS)].get((int) (offset & (SEGMENT_SIZE - 1)));
+	}
+}
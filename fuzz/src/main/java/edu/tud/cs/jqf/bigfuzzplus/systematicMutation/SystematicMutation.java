@@ -1,31 +1,50 @@
 package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
 
 import edu.berkeley.cs.jqf.fuzz.guidance.GuidanceException;
-import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.MutationTree.Mutation;
 import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.MutationTree.MutationType;
-import edu.ucla.cs.jqf.bigfuzz.BigFuzzMutation;
+import edu.ucla.cs.jqf.bigfuzz.InMemoryMutation;
+import edu.ucla.cs.jqf.bigfuzz.MutatedInput;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 /**
  * Mutation class for applying mutations systematically. Based on MutationTemplate.
  *
+ * <p>The seed may have any amount of rows. Every mutation is applied to the rows selected by bigfuzz.mutationRows
+ * (the first row by default), and a mutant consists of the seed with the selected rows replaced, see
+ * {@link PatchedRows}. The seed itself is memory-mapped, so only the selected rows are read into memory.</p>
+ *
  * @author Lars van Koetsveld van Ankeren
  */
-public class SystematicMutation implements BigFuzzMutation {
+public class SystematicMutation implements InMemoryMutation {
+	//seeded once, since reseeding it with the clock for every mutation made mutants of the same millisecond identical
 	protected static final Random r = new Random();
-	private static String delimiter;
+	//delimiter of the data that is being mutated
+	private String delimiter;
 	private String deletePath;
 	private String seedFile;
 
 	//mutation tree
-	private MutationTree mutationTree;
-	//mutation data per mutation depth level
-	private final ArrayList<String[]> levelData;
+	private MutationTreeWalker mutationTree;
+	//rows of the seed
+	private List<String> seedRows;
+	//indices of the seed rows that are mutated, in ascending order
+	private int[] mutatedRows;
+	//amount of columns of the first mutated row, which determines the mutations of the tree
+	private int columnAmount;
+	//mutation data per mutation depth level, containing the columns of every mutated row
+	private final ArrayList<String[][]> levelData;
+	//delimiter of the mutation data per mutation depth level
+	private final ArrayList<String> levelDelimiters;
 	//current level in tree
 	private int currentLevel;
+	//level of the next mutation if the tree has already been advanced to it, -1 otherwise
+	private int nextLevel = -1;
 
 	//maximum depth of tree
 	public static int MUTATION_DEPTH;
@@ -33,6 +52,12 @@ public class SystematicMutation implements BigFuzzMutation {
 	public static boolean MUTATE_COLUMNS;
 	//apply random first order mutations for simulating BigFuzz
 	public static boolean MUTATE_RANDOM;
+	//walk the tree with the node based MutationTree instead of the CompactMutationTree
+	public static boolean LEGACY_TREE = Boolean.getBoolean("bigfuzz.legacyMutationTree");
+	//only explore this subtree of the tree, null to explore the whole tree
+	public static MutationSubtree SUBTREE;
+	//seed rows to mutate, as comma separated row indices and ranges of row indices starting at 0, e.g. "0,5,10-20"
+	public static String MUTATION_ROWS = System.getProperty("bigfuzz.mutationRows", "0");
 
 	//print level and mutation type for every mutation
 	public static final boolean EVALUATE = false;
@@ -45,31 +70,108 @@ public class SystematicMutation implements BigFuzzMutation {
 	 * @param inputFile path of input conf file containing path of seed
 	 */
 	public SystematicMutation(String inputFile) {
-		revertDelimiter();
+		delimiter = ",";
 		currentLevel = 0;
 		levelData = new ArrayList<>(MUTATION_DEPTH);
+		levelDelimiters = new ArrayList<>(MUTATION_DEPTH);
 
 		//reads files and sets seedFile and fileRows.
 		try {
 			BufferedReader br = new BufferedReader(new FileReader(inputFile));
 			seedFile = br.readLine();
-			br = new BufferedReader(new FileReader(seedFile));
-			levelData.add(br.readLine().split(delimiter));
-			levelData.add(null);
 			br.close();
+			seedRows = new SeedFile(new File(seedFile));
+			mutatedRows = parseRows(MUTATION_ROWS, seedRows.size());
+			String[][] seedData = new String[mutatedRows.length][];
+			for (int i = 0; i < mutatedRows.length; i++) {
+				seedData[i] = seedRows.get(mutatedRows[i]).split(delimiter);
+			}
+			levelData.add(seedData);
+			levelData.add(null);
+			levelDelimiters.add(delimiter);
+			levelDelimiters.add(null);
 		} catch (IOException e) {
 			System.out.println("Error loading mutation files.");
 		}
-		mutationTree = new MutationTree(levelData.get(0).length);
+		columnAmount = levelData.get(0)[0].length;
+		mutationTree = newMutationTree(columnAmount);
 		if (MUTATE_RANDOM) {
 			currentLevel = 1;
 		}
 	}
 
+	/**
+	 * Parses the selection of seed rows to mutate. Rows past the end of the seed are ignored.
+	 *
+	 * @param selection comma separated row indices and ranges of row indices, e.g. "0,5,10-20"
+	 * @param rowAmount amount of rows of the seed
+	 * @return selected row indices in ascending order, the first row if none of the selected rows exist
+	 */
+	static int[] parseRows(String selection, int rowAmount) {
+		BitSet rows = new BitSet();
+		for (String part : selection.split(",")) {
+			part = part.trim();
+			if (part.isEmpty()) {
+				continue;
+			}
+			int separator = part.indexOf('-');
+			int first = Integer.parseInt(separator < 0 ? part : part.substring(0, separator).trim());
+			int last = separator < 0 ? first : Integer.parseInt(part.substring(separator + 1).trim());
+			if (first <= last && first < rowAmount) {
+				rows.set(first, Math.min(last, rowAmount - 1) + 1);
+			}
+		}
+		if (rows.isEmpty()) {
+			return new int[]{0};
+		}
+		return rows.stream().toArray();
+	}
+
+	/**
+	 * Creates the tree of mutations to explore from the seed.
+	 *
+	 * @param columnAmount amount of columns of the seed
+	 * @return walker over the mutation tree
+	 */
+	private static MutationTreeWalker newMutationTree(int columnAmount) {
+		if (SUBTREE != null) {
+			return new CompactMutationTree(columnAmount, SUBTREE);
+		}
+		return LEGACY_TREE ? new MutationTree(columnAmount) : new CompactMutationTree(columnAmount);
+	}
+
+	/**
+	 * Splits the mutation tree of a seed into subtrees that can be explored independently, see
+	 * {@link CompactMutationTree#split(int, int)}.
+	 *
+	 * @param inputFile  path of input conf file containing path of seed
+	 * @param splitLevel level of the roots of the subtrees
+	 * @return subtrees in the order in which the whole tree would be explored
+	 */
+	public static List<MutationSubtree> splitTree(String inputFile, int splitLevel) {
+		return CompactMutationTree.split(new SystematicMutation(inputFile).columnAmount, splitLevel);
+	}
+
+	/**
+	 * Returns whether all mutations of the subtree that is explored have been applied. The whole tree is explored
+	 * repeatedly, so it is never exhausted.
+	 *
+	 * @return true if there is no next mutation
+	 */
+	public boolean isExhausted() {
+		if (SUBTREE == null || MUTATE_RANDOM) {
+			return false;
+		}
+		if (nextLevel < 0) {
+			nextLevel = mutationTree.next();
+		}
+		return nextLevel == 0;
+	}
+
 	public String evaluation() {
-		return "Next mutation: " + mutationTree.getCurrentMutation().getMutationType() +
+		return "Next mutation: " + mutationTree.getMutationType() +
 				"\nLevel: " + currentLevel +
-				"\nColumn: " + mutationTree.getCurrentMutation().getColumn();
+				"\nColumn: " + mutationTree.getColumn();
 	}
 
 	/**
@@ -79,16 +181,48 @@ public class SystematicMutation implements BigFuzzMutation {
 	 * @throws IOException if file cannot be found
 	 */
 	public void mutate(String inputFile, String outputFile) throws IOException {
+		nextMutation();
+
+		String fileName = outputFile + "+" + seedFile.substring(seedFile.lastIndexOf('/') + 1);
+		writeFile(fileName);
+
+		String path = System.getProperty("user.dir") + "/" + fileName;
+
+		deletePath = path;
+		// write next input config
+		BufferedWriter bw = new BufferedWriter(new FileWriter(outputFile));
+		bw.write(path);
+		bw.close();
+	}
+
+	/**
+	 * Applies the next mutation in the same way as {@link #mutate(String, String)}, but returns the mutant instead of
+	 * writing it and its conf file to disk.
+	 *
+	 * @param inputFile path of input conf file, unused since the seed is read by the constructor
+	 * @return mutant of the seed input
+	 */
+	@Override
+	public MutatedInput mutateInMemory(String inputFile) {
+		nextMutation();
+		return new MutatedInput(Collections.singletonList(seedFile), 0, currentRows());
+	}
+
+	/**
+	 * Applies the next mutation to the data of the previous level, or a random mutation to the seed when simulating
+	 * BigFuzz. The result is stored as the data of the current level.
+	 */
+	private void nextMutation() {
 		if (EVALUATE) {
 			System.out.println(evaluation());
 		}
 		//for simulating BigFuzz
 		if (MUTATE_RANDOM) {
-			mutateRandom(outputFile);
+			mutateRandom();
 			return;
 		}
-		Mutation currentMutation = mutationTree.traverseTree();
-		currentLevel = currentMutation.getLevel();
+		currentLevel = nextLevel >= 0 ? nextLevel : mutationTree.next();
+		nextLevel = -1;
 
 		//Start from seed after all mutations have been applied
 		if (currentLevel == 0) {
@@ -96,86 +230,92 @@ public class SystematicMutation implements BigFuzzMutation {
 				System.out.println("Reached end of tree, restarting.");
 			}
 			restartAmount++;
-			mutationTree = new MutationTree(levelData.get(0).length);
+			mutationTree = newMutationTree(columnAmount);
 			levelData.subList(1, levelData.size()).clear();
-			revertDelimiter();
-			currentMutation = mutationTree.traverseTree();
-			currentLevel = currentMutation.getLevel();
+			levelDelimiters.subList(1, levelDelimiters.size()).clear();
+			currentLevel = mutationTree.next();
 		}
 
-		int columnsBefore = levelData.get(currentLevel - 1).length;
-		String[] mutationRows = new String[columnsBefore];
-		System.arraycopy(levelData.get(currentLevel - 1), 0, mutationRows, 0, columnsBefore);
-		mutationRows = applyMutation(mutationRows, currentMutation);
+		String[][] mutationRows = copyRows(levelData.get(currentLevel - 1));
+		delimiter = levelDelimiters.get(currentLevel - 1);
+		applyMutation(mutationRows, mutationTree);
 
 		if (levelData.size() <= currentLevel) {
 			levelData.add(currentLevel, mutationRows);
+			levelDelimiters.add(currentLevel, delimiter);
 		} else {
 			levelData.set(currentLevel, mutationRows);
+			levelDelimiters.set(currentLevel, delimiter);
 		}
-		String fileName = outputFile + "+" + seedFile.substring(seedFile.lastIndexOf('/') + 1);
-		writeFile(fileName);
-
-		String path = System.getProperty("user.dir") + "/" + fileName;
-
-		deletePath = path;
-		// write next input config
-		BufferedWriter bw = new BufferedWriter(new FileWriter(outputFile));
-		bw.write(path);
-		bw.close();
 	}
 
 	/**
 	 * Applies random mutation type on seed input. Used for simulating BigFuzz.
-	 *
-	 * @param outputFile path of output file written to by the class, will contain mutated data
-	 * @throws IOException if file cannot be found
 	 */
-	private void mutateRandom(String outputFile) throws IOException {
-		int columnsBefore = levelData.get(0).length;
-		String[] mutationRows = new String[columnsBefore];
-		System.arraycopy(levelData.get(0), 0, mutationRows, 0, columnsBefore);
-		mutationRows = randomMutation(mutationRows, columnsBefore);
+	private void mutateRandom() {
+		String[][] mutationRows = copyRows(levelData.get(0));
+		delimiter = levelDelimiters.get(0);
+		randomMutation(mutationRows, columnAmount);
 
 		levelData.set(1, mutationRows);
+		levelDelimiters.set(1, delimiter);
+	}
 
-		String fileName = outputFile + "+" + seedFile.substring(seedFile.lastIndexOf('/') + 1);
-		writeFile(fileName);
-
-		String path = System.getProperty("user.dir") + "/" + fileName;
+	/**
+	 * Copies the columns of the mutated rows, such that they can be mutated without changing the data of a level.
+	 *
+	 * @param rows columns of the mutated rows
+	 * @return copy of the columns
+	 */
+	private static String[][] copyRows(String[][] rows) {
+		String[][] copy = new String[rows.length][];
+		for (int i = 0; i < rows.length; i++) {
+			copy[i] = rows[i].clone();
+		}
+		return copy;
+	}
 
-		deletePath = path;
-		// write next input config
-		BufferedWriter bw = new BufferedWriter(new FileWriter(outputFile));
-		bw.write(path);
-		bw.close();
-		if (delimiter.equals("~")) {
+	/**
+	 * Mutate on rows of an input file. Applies 7 mutations systematically. A ChangeDelimiter mutation applies to all
+	 * rows at once, the other mutations are applied to every row separately.
+	 *
+	 * @param mutationRows columns of the rows that will be mutated, replaced by the mutated columns
+	 * @param mutation     tree positioned at the mutation to be applied
+	 */
+	private void applyMutation(String[][] mutationRows, MutationTreeWalker mutation) {
+		if (mutation.getMutationType() == MutationType.ChangeDelimiter) {
 			changeDelimiter();
+			return;
+		}
+		for (int i = 0; i < mutationRows.length; i++) {
+			mutationRows[i] = applyMutation(mutationRows[i], mutation.getMutationType(), mutation.getColumn());
 		}
 	}
 
 	/**
-	 * Mutate on rows of an input file. Applies 7 mutations systematically.
+	 * Applies a mutation to the columns of a single row.
 	 *
-	 * @param mutationRows input rows that will be mutated.
-	 * @param mutation     mutation to be applied
+	 * @param mutationRows columns of the row that will be mutated
+	 * @param type         type of the mutation
+	 * @param columnIndex  column that is mutated, -1 for mutations that apply to all columns
 	 * @return array of strings containing mutated data
 	 */
-	private String[] applyMutation(String[] mutationRows, Mutation mutation) {
-		r.setSeed(System.currentTimeMillis());
+	private String[] applyMutation(String[] mutationRows, MutationType type, int columnIndex) {
 		//can only mutate if data is present
 		assert mutationRows.length > 0;
-		int columnIndex = mutation.getColumn();
+		//rows other than the first may have fewer columns
+		if (columnIndex >= mutationRows.length) {
+			return mutationRows;
+		}
 
-		switch (mutation.getMutationType()) {
+		switch (type) {
 			case ChangeValue:       //change value
 				mutationRows[columnIndex] = Integer.toString(r.nextInt());
 				break;
 			case ChangeType:        //change data type
 				changeType(columnIndex, mutationRows);
 				break;
-			case ChangeDelimiter:               //change delimiter
-				changeDelimiter();
+			case ChangeDelimiter:               //change delimiter, applies to all rows at once
 				break;
 			case InsertChar:                    //insert characters
 				insertChar(columnIndex, mutationRows);
@@ -196,47 +336,24 @@ public class SystematicMutation implements BigFuzzMutation {
 	}
 
 	/**
-	 * Applies random mutation type on data from input file.
+	 * Applies random mutation type on data from input file. The same mutation type and column are used for all rows.
 	 *
-	 * @param mutationRows input data to mutate
+	 * @param mutationRows columns of the rows to mutate, replaced by the mutated columns
 	 * @param columnAmount number of columns in input file
-	 * @return array of strings containing mutated data
 	 */
-	private String[] randomMutation(String[] mutationRows, int columnAmount) {
-		r.setSeed(System.currentTimeMillis());
-		//can only mutate if data is present
-		assert mutationRows.length > 0;
+	private void randomMutation(String[][] mutationRows, int columnAmount) {
 		int columnIndex = r.nextInt(columnAmount);
 
 		MutationType nextType = MutationType.values()[r.nextInt(MutationType.values().length - 1) + 1];
-		switch (nextType) {
-			case ChangeValue:       //change value
-				mutationRows[columnIndex] = Integer.toString(r.nextInt());
-				break;
-			case ChangeType:        //change data type
-				changeType(columnIndex, mutationRows);
-				break;
-			case ChangeDelimiter:               //change delimiter
-				if (delimiter.equals(",")) {
-					changeDelimiter();
-				}
-				break;
-			case InsertChar:                    //insert characters
-				insertChar(columnIndex, mutationRows);
-				break;
-			case RemoveElement:                 //remove column
-				mutationRows = removeOneElement(columnIndex, mutationRows);
-				break;
-			case AddElement:                    //add column
-				mutationRows = addOneElement(mutationRows);
-				break;
-			case EmptyColumn:                   //change to empty string
-				mutationRows[columnIndex] = "";
-				break;
-			case NoMutation:
-				throw new GuidanceException("Can not mutate without mutation");
+		if (nextType == MutationType.ChangeDelimiter) {
+			if (delimiter.equals(",")) {
+				changeDelimiter();
+			}
+			return;
+		}
+		for (int i = 0; i < mutationRows.length; i++) {
+			mutationRows[i] = applyMutation(mutationRows[i], nextType, nextType == MutationType.AddElement ? -1 : columnIndex);
 		}
-		return mutationRows;
 	}
 
 	/**
@@ -265,7 +382,7 @@ public class SystematicMutation implements BigFuzzMutation {
 
 	/**
 	 * Change delimiter to new character. Changes "," to "~" and changes other delimiter characters to ",".
-	 * The change is applied when writeFile is called.
+	 * The change applies to the data of the mutation that is being applied and of the mutations applied on top of it.
 	 */
 	private void changeDelimiter() {
 		if (delimiter.equals(",")) {
@@ -298,7 +415,8 @@ public class SystematicMutation implements BigFuzzMutation {
 	 * @return array of strings with column removed at provided index
 	 */
 	private String[] removeOneElement(int removeIndex, String[] mutationRows) {
-		if (mutationTree.getCurrentMutation().getColumnAmount() < 2) {
+		//rows other than the first may have fewer columns, and a row must keep at least one column
+		if (mutationRows.length < 2) {
 			return mutationRows;
 		}
 		String[] result = new String[mutationRows.length - 1];
@@ -345,24 +463,37 @@ public class SystematicMutation implements BigFuzzMutation {
 	public void writeFile(String outputFile) throws IOException {
 		File fOut = new File(outputFile);
 		FileOutputStream fos = new FileOutputStream(fOut);
-		String[] mutationRows = levelData.get(currentLevel);
-
-		StringBuilder sb = new StringBuilder(mutationRows[0]);
-		for (int i = 1; i < mutationRows.length; i++) {
-			String element = mutationRows[i];
-			sb.append(delimiter).append(element);
-		}
 		BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos));
-		bw.write(sb.toString());
+		List<String> rows = currentRows();
+		for (int i = 0; i < rows.size(); i++) {
+			if (i > 0) {
+				bw.write('\n');
+			}
+			bw.write(rows.get(i));
+		}
 		bw.close();
 		fos.close();
 	}
 
 	/**
-	 * Reverts delimiter to standard value: ",".
+	 * Joins the columns of the mutated rows of the current level using the current delimiter, and patches them into the
+	 * seed.
+	 *
+	 * @return rows of the mutant as they are written to the input file
 	 */
-	public static void revertDelimiter() {
-		delimiter = ",";
+	private List<String> currentRows() {
+		String[][] mutationRows = levelData.get(currentLevel);
+		String delimiter = levelDelimiters.get(currentLevel);
+
+		String[] patches = new String[mutationRows.length];
+		for (int i = 0; i < mutationRows.length; i++) {
+			StringBuilder sb = new StringBuilder(mutationRows[i][0]);
+			for (int j = 1; j < mutationRows[i].length; j++) {
+				sb.append(delimiter).append(mutationRows[i][j]);
+			}
+			patches[i] = sb.toString();
+		}
+		return new PatchedRows(seedRows, mutatedRows, patches);
 	}
 
 	public void deleteFile(String currentFile) throws IOException {
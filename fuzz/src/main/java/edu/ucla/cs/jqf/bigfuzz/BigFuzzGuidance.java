@@ -5,6 +5,7 @@ import edu.berkeley.cs.jqf.fuzz.guidance.GuidanceException;
 import edu.berkeley.cs.jqf.fuzz.guidance.Result;
 import edu.berkeley.cs.jqf.fuzz.guidance.TimeoutException;
 import edu.berkeley.cs.jqf.fuzz.util.Coverage;
+import edu.berkeley.cs.jqf.instrument.tracing.FastCoverageLogger;
 import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
 import edu.ucla.cs.jqf.bigfuzz.mutationclasses.IncomeAggregationMutation;
 import org.apache.commons.io.FileUtils;
@@ -228,6 +229,11 @@ public class BigFuzzGuidance implements Guidance {
         // Stop timeout handling
         this.runStart = null;
 
+        // Collect branch and call coverage that was not emitted as trace events
+        if (FastCoverageLogger.ENABLED) {
+            runCoverage.drainFastCoverage();
+        }
+
         System.out.println("BigFuzz::handleResult");
         System.out.println(result);
 
@@ -0,0 +1,19 @@
+package edu.ucla.cs.jqf.bigfuzz;
+
+import java.io.IOException;
+
+/**
+ * A mutation that can hand its mutants to the guidance in memory, instead of
+ * writing a mutated data file and a conf file pointing to it for every trial.
+ */
+public interface InMemoryMutation extends BigFuzzMutation {
+
+    /**
+     * Mutate one of the inputs listed in a conf file without writing to disk.
+     *
+     * @param inputFile conf file containing the paths of the seed inputs
+     * @return the mutated input
+     * @throws IOException if the seed inputs cannot be read
+     */
+    public MutatedInput mutateInMemory(String inputFile) throws IOException;
+}
@@ -0,0 +1,112 @@
+package edu.ucla.cs.jqf.bigfuzz;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * An input produced by an {@link InMemoryMutation}: the input locations of a conf file,
+ * one of which has been replaced by a mutated data file that only exists in memory.
+ */
+public class MutatedInput {
+    private final List<String> inputLocations;
+    private final int mutatedIndex;
+    private String content;
+    private List<String> rows;
+
+    /**
+     * @param inputLocations lines of the conf file the mutation started from
+     * @param mutatedIndex   index of the input location whose data has been mutated
+     * @param content        content of the mutated data file, exactly as it would be written to disk
+     */
+    public MutatedInput(List<String> inputLocations, int mutatedIndex, String content) {
+        this.inputLocations = inputLocations;
+        this.mutatedIndex = mutatedIndex;
+        this.content = content;
+    }
+
+    /**
+     * @param inputLocations lines of the conf file the mutation started from
+     * @param mutatedIndex   index of the input location whose data has been mutated
+     * @param rows           lines of the mutated data file, which is written as the lines joined by "\n"
+     */
+    public MutatedInput(List<String> inputLocations, int mutatedIndex, List<String> rows) {
+        this.inputLocations = inputLocations;
+        this.mutatedIndex = mutatedIndex;
+        this.rows = Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * @return index of the input location whose data has been mutated
+     */
+    public int getMutatedIndex() {
+        return mutatedIndex;
+    }
+
+    /**
+     * @return file name of the seed input that has been mutated
+     */
+    public String getSeedFileName() {
+        String seed = inputLocations.get(mutatedIndex);
+        return seed.substring(seed.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * @return content of the mutated data file
+     */
+    public String getContent() {
+        if (content == null) {
+            content = String.join("\n", rows);
+        }
+        return content;
+    }
+
+    /**
+     * Write the content of the mutated data file, without building it in memory if the input was created from rows.
+     *
+     * @param writer writer to write the content to
+     * @throws IOException if the content cannot be written
+     */
+    public void writeContent(Writer writer) throws IOException {
+        if (content != null) {
+            writer.write(content);
+            return;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                writer.write('\n');
+            }
+            writer.write(rows.get(i));
+        }
+    }
+
+    /**
+     * Rows are split the same way BufferedReader#readLine splits the data file,
+     * so a driver sees exactly the lines it would see when reading from disk.
+     *
+     * @return the lines of the mutated data file
+     */
+    public List<String> getRows() {
+        if (rows == null) {
+            rows = Collections.unmodifiableList(new BufferedReader(new StringReader(content)).lines().collect(Collectors.toList()));
+        }
+        return rows;
+    }
+
+    /**
+     * Lines of the conf file for this input.
+     *
+     * @param dataFile path under which the mutated data is stored
+     * @return the input locations, with the mutated location pointing to dataFile
+     */
+    public List<String> getInputLocations(String dataFile) {
+        List<String> locations = new ArrayList<>(inputLocations);
+        locations.set(mutatedIndex, dataFile);
+        return locations;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.fuzz.afl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import edu.berkeley.cs.jqf.fuzz.guidance.Result;
+import edu.berkeley.cs.jqf.fuzz.util.Hashing;
+import edu.berkeley.cs.jqf.instrument.tracing.events.BranchEvent;
+import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class AFLGuidanceTest {
+
+    private static final int MAP_SIZE = AFLGuidance.COVERAGE_MAP_SIZE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Runs one trial that takes two branches, the first of them three times. */
+    private File run(File sharedMap) throws IOException {
+        File input = folder.newFile();
+        File inPipe = folder.newFile();
+        File outPipe = folder.newFile();
+        // The "ready" signal of the proxy
+        Files.write(inPipe.toPath(), new byte[4]);
+
+        AFLGuidance guidance = new AFLGuidance(input, inPipe, outPipe, sharedMap);
+        assertTrue(guidance.hasInput());
+        guidance.getInput();
+        Consumer<TraceEvent> callback = guidance.generateCallBack(Thread.currentThread());
+        for (int i = 0; i < 3; i++) {
+            callback.accept(new BranchEvent(42, null, 0, 1));
+        }
+        callback.accept(new BranchEvent(7, null, 0, 0));
+        guidance.handleResult(Result.FAILURE, new RuntimeException());
+        guidance.finalize();
+        return outPipe;
+    }
+
+    private static byte[] expectedTraceBits() {
+        byte[] traceBits = new byte[MAP_SIZE];
+        traceBits[0] = 1;
+        traceBits[1 + Hashing.hash1(42, 1, MAP_SIZE - 1)] += 3;
+        traceBits[1 + Hashing.hash1(7, 0, MAP_SIZE - 1)] += 1;
+        return traceBits;
+    }
+
+    @Test
+    public void testSharedMapHoldsTheCoverageOfARun() throws IOException {
+        File sharedMap = folder.newFile();
+        File outPipe = run(sharedMap);
+
+        // Only the status goes through the pipe
+        ByteBuffer status = ByteBuffer.wrap(Files.readAllBytes(outPipe.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(4, status.capacity());
+        assertEquals(6, status.getInt(0));
+
+        byte[] map = Files.readAllBytes(sharedMap.toPath());
+        assertArrayEquals(expectedTraceBits(), Arrays.copyOf(map, MAP_SIZE));
+    }
+
+    @Test
+    public void testSharedMapMatchesThePipe() throws IOException {
+        File sharedMap = folder.newFile();
+        run(sharedMap);
+        byte[] piped = Files.readAllBytes(run(null).toPath());
+
+        // The pipe sends the status followed by the trace bits
+        assertEquals(4 + MAP_SIZE, piped.length);
+        assertArrayEquals(expectedTraceBits(), Arrays.copyOfRange(piped, 4, 4 + MAP_SIZE));
+        assertArrayEquals(Arrays.copyOfRange(piped, 4, 4 + MAP_SIZE),
+                Arrays.copyOf(Files.readAllBytes(sharedMap.toPath()), MAP_SIZE));
+    }
+}
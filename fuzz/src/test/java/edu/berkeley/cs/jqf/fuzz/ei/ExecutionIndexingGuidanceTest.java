@@ -32,8 +32,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 import edu.berkeley.cs.jqf.fuzz.ei.ExecutionIndexingGuidance.InputLocation;
@@ -128,6 +128,33 @@ public class ExecutionIndexingGuidanceTest {
 
     }
 
+    @Test
+    public void testCompactTrie() {
+        MappedInput saved = g.new MappedInput();
+        int k1 = saved.getOrGenerateFresh(e1, r);
+        int k2 = saved.getOrGenerateFresh(e2, r);
+        saved.gc();
+        g.savedInputs.add(saved);
+
+        // Executed but not saved
+        MappedInput discarded = g.new MappedInput();
+        discarded.getOrGenerateFresh(e5, r);
+        discarded.getOrGenerateFresh(e7, r);
+        discarded.gc();
+
+        g.compactTrie();
+
+        assertEquals(-1, g.eiTrie.find(e5));
+        assertEquals(-1, g.eiTrie.find(e7));
+        assertEquals(3, g.eiTrie.size()); // The root, [1,1] and [1,1,3,4]
+
+        assertEquals(Integer.valueOf(k1), saved.getValueAtKey(e1));
+        assertEquals(Integer.valueOf(k2), saved.getValueAtKey(e2));
+        MappedInput clone = g.new MappedInput(saved);
+        assertEquals(k2, clone.getOrGenerateFresh(e2, r));
+        assertEquals(k1, clone.getOrGenerateFresh(e1, r));
+    }
+
     @Test
     public void testExecutionContexts() {
         assertEquals(new ExecutionContext(e2), new ExecutionContext(e4));
@@ -168,9 +195,10 @@ public class ExecutionIndexingGuidanceTest {
 
 
         // Map EC of e2 (= EC of e4 or EC of e6) to locations in srcInput
-        Map<ExecutionContext, ArrayList<InputLocation>>
-                ecToInputLoc = new HashMap<>();
-        ecToInputLoc.put(new ExecutionContext(e2),
+        int ec = g.eiTrie.getContext(g.eiTrie.intern(e2));
+        List<ArrayList<InputLocation>>
+                ecToInputLoc = new ArrayList<>(Collections.nCopies(ec + 1, null));
+        ecToInputLoc.set(ec,
                 new ArrayList<>(Arrays.asList(new InputLocation[]{
                         new InputLocation(srcInput, 1), // e2
                         new InputLocation(srcInput, 3), // e4
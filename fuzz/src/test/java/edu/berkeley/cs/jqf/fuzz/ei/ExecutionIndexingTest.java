@@ -29,6 +29,7 @@
 package edu.berkeley.cs.jqf.fuzz.ei;
 
 import java.util.Arrays;
+import java.util.BitSet;
 
 import com.pholser.junit.quickcheck.Property;
 import com.pholser.junit.quickcheck.generator.InRange;
@@ -144,6 +145,77 @@ public class ExecutionIndexingTest {
         assertArrayEquals(expected, ei);
     }
 
+    @Test
+    public void testTrieNodes() {
+        ExecutionIndexTrie trie = new ExecutionIndexTrie();
+        ExecutionIndexingState plain = new ExecutionIndexingState();
+        ExecutionIndexingState interned = new ExecutionIndexingState(trie);
+        int[] callSites = {4, 5, -1, 5, 3, -1, -1, 4};
+        int[] nodes = new int[callSites.length * 2];
+        for (int i = 0; i < callSites.length; i++) {
+            if (callSites[i] < 0) {
+                plain.popReturn(returnEvent(-1));
+                interned.popReturn(returnEvent(-1));
+            } else {
+                plain.pushCall(callEvent(callSites[i]));
+                interned.pushCall(callEvent(callSites[i]));
+            }
+            for (int j = 0; j < 2; j++) {
+                ExecutionIndex ei = plain.getExecutionIndex(readEvent(42));
+                nodes[2*i + j] = interned.getExecutionIndexNode(readEvent(42));
+                assertEquals(ei, trie.getExecutionIndex(nodes[2*i + j]));
+                assertEquals(nodes[2*i + j], trie.find(ei));
+                assertEquals(nodes[2*i + j], trie.intern(ei));
+            }
+        }
+
+        // [4,1,5,1,42,1] and [4,1,5,1,42,2] share an execution context, but not
+        // with [4,1,42,1] or [4,1,5,2,3,1,42,1]
+        assertEquals(trie.getContext(nodes[2]), trie.getContext(nodes[3]));
+        assertNotEquals(trie.getContext(nodes[0]), trie.getContext(nodes[2]));
+        assertNotEquals(trie.getContext(nodes[2]), trie.getContext(nodes[8]));
+        assertEquals(-1, trie.find(new ExecutionIndex(new int[]{4, 1, 5, 3})));
+    }
+
+    @Test
+    public void testTrieCompaction() {
+        ExecutionIndexTrie trie = new ExecutionIndexTrie();
+        ExecutionIndex kept = new ExecutionIndex(new int[]{4, 1, 5, 2, 42, 1});
+        ExecutionIndex sibling = new ExecutionIndex(new int[]{4, 1, 5, 1, 42, 3});
+        ExecutionIndex dropped = new ExecutionIndex(new int[]{4, 1, 6, 1, 42, 1});
+        ExecutionIndex prefix = new ExecutionIndex(new int[]{4, 1, 5, 2});
+        int droppedNode = trie.intern(dropped);
+        int keptNode = trie.intern(kept);
+        int siblingNode = trie.intern(sibling);
+        int droppedContexts = trie.numContexts();
+
+        BitSet retained = new BitSet();
+        retained.set(keptNode);
+        retained.set(siblingNode);
+        ExecutionIndexTrie.Compaction compaction = trie.compact(retained);
+
+        // The retained nodes and their ancestors remain, in their original order
+        assertEquals(-1, compaction.getNode(droppedNode));
+        assertEquals(-1, trie.find(dropped));
+        assertEquals(6, trie.size());
+        assertEquals(trie.find(kept), compaction.getNode(keptNode));
+        assertEquals(trie.find(sibling), compaction.getNode(siblingNode));
+        assertThat(trie.find(sibling), greaterThan(trie.find(kept)));
+        assertEquals(kept, trie.getExecutionIndex(trie.find(kept)));
+        assertEquals(prefix, trie.getExecutionIndex(trie.find(prefix)));
+
+        // Contexts are renumbered, and nodes with the same context still share it
+        assertEquals(droppedContexts - 2, trie.numContexts());
+        assertEquals(trie.getContext(trie.find(kept)), trie.getContext(trie.find(sibling)));
+
+        // The trie can grow again after the compaction
+        int node = trie.intern(dropped);
+        assertEquals(7, node);
+        assertEquals(8, trie.size());
+        assertEquals(dropped, trie.getExecutionIndex(node));
+        assertEquals(kept, trie.getExecutionIndex(trie.find(kept)));
+    }
+
     @Property
     public void validExecutionIndex(@InRange(minInt=1, maxInt=32) int @Size(min=2, max=48)[] expected) {
         assumeTrue(expected.length % 2 == 0);
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.fuzz.ei;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.berkeley.cs.jqf.fuzz.ei.ZestGuidance.LinearInput;
+import edu.berkeley.cs.jqf.fuzz.ei.ZestGuidance.SeedInput;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ZestGuidanceTest {
+
+    private Random r;
+    private ZestGuidance g;
+
+    @Before
+    public void createGuidanceInstance() throws IOException {
+        r = new Random(42);
+        g = new ZestGuidance("test", null, Files.createTempDirectory("fuzz-out").toFile());
+    }
+
+    private LinearInput freshInput(int size) {
+        LinearInput input = g.new LinearInput();
+        for (int i = 0; i < size; i++) {
+            input.getOrGenerateFresh(i, r);
+        }
+        input.gc();
+        return input;
+    }
+
+    private static byte[] bytes(ZestGuidance.Input<?> input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        input.writeTo(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testGetOrFresh() {
+        LinearInput input = g.new LinearInput();
+        int first = input.getOrGenerateFresh(0, r);
+        int second = input.getOrGenerateFresh(1, r);
+        assertTrue(first >= 0 && first < 256);
+        assertTrue(second >= 0 && second < 256);
+        assertEquals(2, input.size());
+
+        try {
+            input.getOrGenerateFresh(5, r);
+            fail("Out of order keys should not be accepted");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testGcTruncatesToRequested() throws IOException {
+        LinearInput input = freshInput(100);
+        LinearInput child = (LinearInput) input.fuzz(r);
+        // Replay only the first 10 bytes of the child
+        for (int i = 0; i < 10; i++) {
+            child.getOrGenerateFresh(i, r);
+        }
+        child.gc();
+        assertEquals(10, child.size());
+        assertEquals(100, input.size());
+    }
+
+    @Test
+    public void testFuzzDoesNotModifyParent() throws IOException {
+        LinearInput parent = freshInput(1000);
+        byte[] before = bytes(parent);
+        for (int i = 0; i < 100; i++) {
+            LinearInput child = (LinearInput) parent.fuzz(r);
+            assertEquals(parent.size(), child.size());
+            // Extend the child beyond the parent
+            int size = child.size();
+            for (int k = 0; k <= size; k++) {
+                child.getOrGenerateFresh(k, r);
+            }
+            assertEquals(parent.size() + 1, child.size());
+        }
+        assertArrayEquals(before, bytes(parent));
+    }
+
+    @Test
+    public void testWriteToMatchesIterator() throws IOException {
+        LinearInput input = freshInput(300);
+        List<Integer> iterated = new ArrayList<>();
+        for (Integer b : input) {
+            iterated.add(b);
+        }
+        byte[] written = bytes(input);
+        assertEquals(iterated.size(), written.length);
+        for (int i = 0; i < written.length; i++) {
+            assertEquals((int) iterated.get(i), written[i] & 0xFF);
+        }
+    }
+
+    @Test
+    public void testSeedInput() throws IOException {
+        File seedFile = File.createTempFile("seed", ".bin");
+        seedFile.deleteOnExit();
+        byte[] seed = {0, 1, (byte) 200, (byte) 255};
+        Files.write(seedFile.toPath(), seed);
+
+        SeedInput input = g.new SeedInput(seedFile);
+        for (int i = 0; i < seed.length; i++) {
+            assertEquals(seed[i] & 0xFF, input.getOrGenerateFresh(i, r));
+        }
+        assertEquals(-1, input.getOrGenerateFresh(seed.length, r));
+        input.gc();
+        assertArrayEquals(seed, bytes(input));
+    }
+
+    @Test
+    public void testParameterStream() throws IOException {
+        LinearInput input = freshInput(20);
+        // A copy of the input replays its bytes
+        g.currentInput = g.new LinearInput(input);
+        InputStream in = g.createParameterStream();
+        byte[] buffer = new byte[8];
+        assertEquals(8, in.read(buffer, 0, 8));
+        int ninth = in.read();
+        assertTrue(ninth >= 0);
+        byte[] expected = bytes(input);
+        for (int i = 0; i < 8; i++) {
+            assertEquals(expected[i], buffer[i]);
+        }
+        assertEquals(expected[8] & 0xFF, ninth);
+    }
+
+    @Test
+    public void testParameterStreamChecksBounds() throws IOException {
+        g.currentInput = g.new LinearInput(freshInput(20));
+        InputStream in = g.createParameterStream();
+        byte[] buffer = new byte[8];
+        int[][] invalid = {{-1, 1}, {0, -1}, {0, 9}, {4, 5}, {9, 0}};
+        for (int[] range : invalid) {
+            try {
+                in.read(buffer, range[0], range[1]);
+                fail("Expected an exception for offset " + range[0] + " and length " + range[1]);
+            } catch (IndexOutOfBoundsException e) {
+                // Expected
+            }
+        }
+        // Nothing has been consumed by the invalid reads
+        assertEquals(0, in.read(buffer, 8, 0));
+        assertEquals(4, in.read(buffer, 4, 4));
+        assertEquals(bytes(g.currentInput)[0], buffer[4]);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.fuzz.guidance;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class InputProviderTest {
+
+    @Test
+    public void testRegisteredInputShadowsDisk() throws IOException {
+        File file = File.createTempFile("input", ".csv");
+        try {
+            Files.write(file.toPath(), Arrays.asList("on,disk"));
+            String path = file.getPath();
+            assertNull(InputProvider.get(path));
+            assertEquals(Arrays.asList("on,disk"), InputProvider.readAllLines(path));
+
+            List<String> rows = Arrays.asList("in,memory", "second,row");
+            InputProvider.register(path, rows);
+            try {
+                assertSame(rows, InputProvider.get(path));
+                assertEquals(rows, InputProvider.readAllLines(path));
+            } finally {
+                InputProvider.unregister(path);
+            }
+            assertNull(InputProvider.get(path));
+            assertEquals(Arrays.asList("on,disk"), InputProvider.readAllLines(path));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testInputsWithoutFile() throws IOException {
+        String path = new File(Files.createTempDirectory("inputs").toFile(), "mutant.csv").getPath();
+        assertFalse(InputProvider.exists(path));
+
+        InputProvider.register(path, Arrays.asList("a", "b"));
+        try {
+            assertTrue(InputProvider.exists(path));
+            assertEquals(Arrays.asList("a", "b"), InputProvider.readAllLines(path));
+            assertFalse(new File(path).exists());
+        } finally {
+            InputProvider.unregister(path);
+        }
+        assertFalse(InputProvider.exists(path));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void testMissingInput() throws IOException {
+        InputProvider.readAllLines(new File(Files.createTempDirectory("inputs").toFile(), "missing.csv").getPath());
+    }
+}
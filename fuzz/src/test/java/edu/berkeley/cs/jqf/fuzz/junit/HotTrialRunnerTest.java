@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.fuzz.junit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.berkeley.cs.jqf.fuzz.Fuzz;
+import org.junit.AssumptionViolatedException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.TestClass;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class HotTrialRunnerTest {
+
+    public static class Plain {
+        static final List<Object> instances = new ArrayList<>();
+        static final List<String> inputs = new ArrayList<>();
+
+        @Fuzz
+        public void fuzz(String input, int times) {
+            instances.add(this);
+            for (int i = 0; i < times; i++) {
+                inputs.add(input);
+            }
+            if (input.equals("assume")) {
+                throw new AssumptionViolatedException(input);
+            }
+            if (input.equals("fail")) {
+                throw new IllegalStateException(input);
+            }
+            if (input.equals("error")) {
+                throw new StackOverflowError(input);
+            }
+        }
+    }
+
+    public static class WithBefore {
+        @Before
+        public void setUp() {
+        }
+
+        @Fuzz
+        public void fuzz(String input) {
+        }
+    }
+
+    public static class Invalid {
+        public Invalid(int unused) {
+        }
+
+        @Fuzz
+        public void fuzz(String input) {
+        }
+    }
+
+    private static HotTrialRunner create(Class<?> clazz) {
+        TestClass testClass = new TestClass(clazz);
+        FrameworkMethod method = testClass.getAnnotatedMethods(Fuzz.class).get(0);
+        return HotTrialRunner.create(testClass, method);
+    }
+
+    private static Throwable thrownBy(HotTrialRunner runner, Object... args) {
+        try {
+            runner.run(args);
+        } catch (Throwable t) {
+            return t;
+        }
+        return null;
+    }
+
+    private static Throwable thrownByTrialRunner(Object... args) throws Exception {
+        TestClass testClass = new TestClass(Plain.class);
+        FrameworkMethod method = testClass.getAnnotatedMethods(Fuzz.class).get(0);
+        try {
+            new TrialRunner(Plain.class, method, args).run();
+        } catch (Throwable t) {
+            return t;
+        }
+        return null;
+    }
+
+    @Test
+    public void testEveryTrialGetsANewInstance() throws Throwable {
+        Plain.instances.clear();
+        Plain.inputs.clear();
+        HotTrialRunner runner = create(Plain.class);
+        assertNotNull(runner);
+
+        runner.run(new Object[]{"a", 2});
+        runner.run(new Object[]{"b", 1});
+
+        assertEquals(2, Plain.instances.size());
+        assertNotSame(Plain.instances.get(0), Plain.instances.get(1));
+        assertEquals(3, Plain.inputs.size());
+        assertEquals("a", Plain.inputs.get(0));
+        assertEquals("a", Plain.inputs.get(1));
+        assertEquals("b", Plain.inputs.get(2));
+    }
+
+    @Test
+    public void testExceptionsAreThrownLikeTrialRunner() throws Exception {
+        HotTrialRunner runner = create(Plain.class);
+        for (String input : new String[]{"assume", "fail", "error"}) {
+            Throwable hot = thrownBy(runner, input, 0);
+            Throwable expected = thrownByTrialRunner(input, 0);
+            assertNotNull(hot);
+            assertNotNull(expected);
+            // Unwrapped, such that the guidance classifies the trial the same way
+            assertSame(expected.getClass(), hot.getClass());
+            assertEquals(input, hot.getMessage());
+        }
+        assertNull(thrownBy(runner, "pass", 0));
+    }
+
+    @Test
+    public void testFallsBackToTrialRunner() {
+        // Befores and rules need the full JUnit statement
+        assertNull(create(WithBefore.class));
+        // Invalid test classes are reported by the TrialRunner on every trial
+        assertNull(create(Invalid.class));
+    }
+}
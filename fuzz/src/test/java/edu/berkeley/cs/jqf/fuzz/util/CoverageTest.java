@@ -28,11 +28,16 @@
  */
 package edu.berkeley.cs.jqf.fuzz.util;
 
+import edu.berkeley.cs.jqf.instrument.tracing.FastCoverageLogger;
 import edu.berkeley.cs.jqf.instrument.tracing.events.BranchEvent;
 import edu.berkeley.cs.jqf.instrument.tracing.events.CallEvent;
 import edu.berkeley.cs.jqf.instrument.tracing.events.ReadEvent;
 import edu.berkeley.cs.jqf.instrument.tracing.events.ReturnEvent;
 import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import janala.logger.inst.INVOKESTATIC;
 import org.junit.Assert;
 import org.junit.Test;
@@ -177,4 +182,74 @@ public class CoverageTest {
         Assert.assertTrue(changed); // Because hob(3) and hob(1) are different
         Assert.assertEquals(c2.getNonZeroCount(), total.getNonZeroCount());
     }
+
+    @Test
+    public void fastCoverageIndicesMatchEventIndices() {
+        Assert.assertEquals(new Coverage().size(), FastCoverageLogger.MAP_SIZE);
+        int[] iids = { -1, 0, 1, 42, 65535, 1 << 20, Integer.MAX_VALUE, Integer.MIN_VALUE };
+        for (int iid : iids) {
+            for (int arm = -1; arm <= 2; arm++) {
+                Coverage c = new Coverage();
+                c.handleEvent(callEvent(iid));
+                c.handleEvent(branchEvent(iid, arm));
+
+                Set<Object> expected = new HashSet<>();
+                expected.add(FastCoverageLogger.callIndex(iid));
+                expected.add(FastCoverageLogger.branchIndex(iid, arm));
+                Assert.assertEquals(expected, new HashSet<Object>(c.getCovered()));
+            }
+        }
+    }
+
+    @Test
+    public void hashCodeMatchesHashOfAllCounts() {
+        Coverage c = new Coverage();
+        int[] counts = new int[c.size()];
+        int[] iids = { 1, 2, 2, 3, 5, 8, 13, 21, 1000, 65534 };
+        for (int iid : iids) {
+            c.handleEvent(callEvent(iid));
+            counts[FastCoverageLogger.callIndex(iid)]++;
+            c.handleEvent(branchEvent(iid, iid % 2));
+            counts[FastCoverageLogger.branchIndex(iid, iid % 2)]++;
+        }
+        Assert.assertEquals(Arrays.hashCode(counts), c.hashCode());
+        Assert.assertEquals(Arrays.hashCode(new int[c.size()]), new Coverage().hashCode());
+    }
+
+    @Test
+    public void clearedCoverageCanBeReused() {
+        Coverage run = new Coverage();
+        Coverage total = new Coverage();
+        run.handleEvent(callEvent(1));
+        run.handleEvent(branchEvent(2, 1));
+        Assert.assertTrue(total.updateBits(run));
+
+        run.clear();
+        Assert.assertEquals(0, run.getNonZeroCount());
+        Assert.assertTrue(run.getCovered().isEmpty());
+        Assert.assertEquals(new Coverage().hashCode(), run.hashCode());
+        Assert.assertFalse(total.updateBits(run));
+
+        run.handleEvent(callEvent(3));
+        Assert.assertEquals(1, run.getNonZeroCount());
+        Assert.assertEquals(1, run.computeNewCoverage(total).size());
+        Assert.assertTrue(total.updateBits(run));
+        Assert.assertEquals(3, total.getNonZeroCount());
+        Assert.assertEquals(3, new Coverage(total).getNonZeroCount());
+    }
+
+    @Test
+    public void countsCanBeRestored() {
+        Coverage run = new Coverage();
+        run.handleEvent(callEvent(1));
+        run.handleEvent(callEvent(1));
+        run.handleEvent(branchEvent(2, 1));
+        int[] counts = run.getCounts();
+
+        Coverage restored = new Coverage();
+        restored.handleEvent(callEvent(5));
+        restored.setCounts(counts);
+        Assert.assertEquals(run.hashCode(), restored.hashCode());
+        Assert.assertEquals(2, restored.getNonZeroCount());
+    }
 }
@@ -0,0 +1,53 @@
+package edu.tabfuzz;
+
+import com.opencsv.CSVWriter;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+
+@RunWith(JUnit4.class)
+public class BulkTableGeneratorTest {
+
+    private static final String[] SPECIFICATIONS = {"conceptNewInputFormat", "onlyDatatypes", "salaryAnalysisFileFormat"};
+    private static final int ROWS = 250;
+    private static final int CHUNK_ROWS = 16;
+
+    private static String writeRows(DataFormat[] specification, WriterSettings ws, long seed, int threads) throws IOException {
+        StringWriter out = new StringWriter();
+        new BulkTableGenerator(specification, ws, seed, threads, CHUNK_ROWS).writeRows(ROWS, out);
+        return out.toString();
+    }
+
+    @Test
+    public void testOutputIsDeterministic() throws IOException {
+        for (String name : SPECIFICATIONS) {
+            WriterSettings ws = new WriterSettings();
+            DataFormat[] specification = new InputManager(new File("src/main/java/edu/tabfuzz/dataset", name), ws).getInputs();
+            Assert.assertTrue(name, specification.length > 0);
+
+            String single = writeRows(specification, ws, 42, 1);
+            Assert.assertEquals(name, single, writeRows(specification, ws, 42, 8));
+            Assert.assertEquals(name, single, writeRows(specification, ws, 42, 3));
+            Assert.assertNotEquals(name, single, writeRows(specification, ws, 43, 2));
+
+            // The columns hold the same values as the rows
+            String[][] columns = new BulkTableGenerator(specification, ws, 42, 4, CHUNK_ROWS).generateColumns(ROWS);
+            StringWriter rows = new StringWriter();
+            CSVWriter writer = new CSVWriter(rows, ws.getSeparator(), ws.getQuoteChar(), ws.getEscapeChar(), ws.getLineEnd());
+            String[] row = new String[columns.length];
+            for (int i = 0; i < ROWS; i++) {
+                for (int column = 0; column < columns.length; column++) {
+                    row[column] = columns[column][i];
+                }
+                writer.writeNext(row);
+            }
+            writer.flush();
+            Assert.assertEquals(name, single, rows.toString());
+        }
+    }
+}
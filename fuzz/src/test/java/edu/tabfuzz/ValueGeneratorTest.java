@@ -0,0 +1,74 @@
+package edu.tabfuzz;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class ValueGeneratorTest {
+
+    private static ValueGenerator outsideRange(DataFormat format) {
+        return ValueGenerator.outsideRange(format.getDataType(), format.getRange(), format.findReverseIntervals());
+    }
+
+    @Test
+    public void testDecimalReverseBounds() {
+        DataFormat format = new DataFormat("c", "int", "0#100, 200#300", "");
+        ValueGenerator generator = outsideRange(format);
+        Random random = new Random(1);
+        boolean between = false;
+        for (int i = 0; i < 1000; i++) {
+            int value = Integer.parseInt(generator.generate(random));
+            Assert.assertTrue(value + " is in range", value < 0 || (value > 100 && value < 200));
+            between |= value > 100;
+        }
+        Assert.assertTrue(between);
+    }
+
+    @Test
+    public void testOverlappingRangesLoad() {
+        DataFormat format = new DataFormat("c", "int", "0#100, 50#2147483647, 300#400", "");
+        ValueGenerator generator = outsideRange(format);
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(Integer.parseInt(generator.generate(random)) < 0);
+        }
+    }
+
+    @Test
+    public void testRangeIsNotModified() {
+        DataFormat format = new DataFormat("c", "int", "<5, 10#20", "");
+        String[] reverseIntervals = format.findReverseIntervals();
+        format.generateInputOutsideRange();
+        Assert.assertArrayEquals(new String[]{"<5", "10#20"}, format.getRange());
+        Assert.assertArrayEquals(reverseIntervals, format.findReverseIntervals());
+    }
+
+    @Test
+    public void testFullWidthIntervals() {
+        ValueGenerator ints = ValueGenerator.inRange("int", new String[]{"-2147483648#2147483647"});
+        ValueGenerator longs = ValueGenerator.inRange("long", new String[]{"<0", ">9223372036854775800"});
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            Integer.parseInt(ints.generate(random));
+            long value = Long.parseLong(longs.generate(random));
+            Assert.assertTrue(value + " is not in range", value <= 0 || value >= 9223372036854775800L);
+        }
+    }
+
+    @Test
+    public void testNoReverseIntervalsLeft() {
+        // The range covers every int, so the only reverse interval is inverted and dropped
+        DataFormat ints = new DataFormat("c", "int", "<5, 6#2147483647", "");
+        Assert.assertEquals(1, ints.findReverseIntervals().length);
+        DataFormat doubles = new DataFormat("c", "double", "<5, 6#1.7976931348623157E308", "");
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("", outsideRange(ints).generate(random));
+            Assert.assertEquals("", outsideRange(doubles).generate(random));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.berkeley.cs.jqf.fuzz.guidance.InputProvider;
+import edu.berkeley.cs.jqf.fuzz.guidance.Result;
+import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.SystematicMutation;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class BigFuzzPlusGuidanceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * @return path of a conf file that points to a seed with the given content
+	 */
+	private String seedInput(String content) throws IOException {
+		File seed = folder.newFile("seed.csv");
+		Files.write(seed.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		File conf = folder.newFile("guidance-test-seed.conf");
+		Files.write(conf.toPath(), seed.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+		return conf.getPath();
+	}
+
+	private BigFuzzPlusGuidance guidance(String inputFile, File outputDir) throws IOException {
+		return new BigFuzzPlusGuidance("test", inputFile, 100, System.currentTimeMillis(), null, System.out,
+				outputDir.getPath(), "SystematicMutation");
+	}
+
+	private static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) >= 0) {
+			bytes.write(b);
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testSeedIsCopiedToTheOutputDirectory() throws IOException {
+		String inputFile = seedInput("a,b,c");
+		File outputDir = new File(folder.getRoot(), "out");
+		BigFuzzPlusGuidance guidance = guidance(inputFile, outputDir);
+
+		String conf = read(guidance.getInput());
+		Assert.assertEquals(new File(outputDir, "guidance-test-seed.conf").getPath(), conf);
+		Assert.assertEquals(Files.readAllLines(new File(inputFile).toPath()), Files.readAllLines(new File(conf).toPath()));
+		// Parallel workers share the working directory
+		Assert.assertFalse(new File("guidance-test-seed.conf").exists());
+		Assert.assertArrayEquals(new String[]{"guidance-test-seed.conf"}, outputDir.list());
+	}
+
+	@Test
+	public void testInMemoryInputs() throws IOException {
+		boolean inMemory = BigFuzzPlusDriver.IN_MEMORY_INPUTS;
+		int depth = SystematicMutation.MUTATION_DEPTH;
+		boolean random = SystematicMutation.MUTATE_RANDOM;
+		try {
+			BigFuzzPlusDriver.IN_MEMORY_INPUTS = true;
+			SystematicMutation.MUTATION_DEPTH = 2;
+			SystematicMutation.MUTATE_RANDOM = false;
+			String inputFile = seedInput("a,b,c");
+			File outputDir = new File(folder.getRoot(), "out");
+			BigFuzzPlusGuidance guidance = guidance(inputFile, outputDir);
+
+			// The seed is run from disk and kept
+			read(guidance.getInput());
+			guidance.runCoverage.setCounts(new int[]{1, 1});
+			guidance.handleResult(Result.SUCCESS, null);
+
+			// A mutant without new coverage never touches the disk
+			String discarded = read(guidance.getInput());
+			List<String> locations = InputProvider.readAllLines(discarded);
+			Assert.assertEquals(1, locations.size());
+			String dataFile = locations.get(0);
+			Assert.assertTrue(dataFile, dataFile.startsWith(new File(discarded).getAbsolutePath() + "+"));
+			Assert.assertNotNull(InputProvider.get(dataFile));
+			Assert.assertFalse(new File(discarded).exists());
+			Assert.assertFalse(new File(dataFile).exists());
+			guidance.runCoverage.setCounts(new int[]{1, 1});
+			guidance.handleResult(Result.SUCCESS, null);
+			Assert.assertNull(InputProvider.get(discarded));
+			Assert.assertNull(InputProvider.get(dataFile));
+
+			// A mutant with new coverage is written to the output directory
+			String kept = read(guidance.getInput());
+			dataFile = InputProvider.readAllLines(kept).get(0);
+			List<String> rows = InputProvider.readAllLines(dataFile);
+			guidance.runCoverage.setCounts(new int[]{1, 1, 2, 1});
+			guidance.handleResult(Result.SUCCESS, null);
+			Assert.assertNull(InputProvider.get(kept));
+			Assert.assertNull(InputProvider.get(dataFile));
+			Assert.assertEquals(Arrays.asList(dataFile), Files.readAllLines(new File(kept + "+cov").toPath()));
+			Assert.assertEquals(rows, Files.readAllLines(new File(dataFile).toPath()));
+			Assert.assertEquals(outputDir.getAbsoluteFile(), new File(dataFile).getParentFile());
+			Assert.assertEquals(3, outputDir.list().length);
+		} finally {
+			BigFuzzPlusDriver.IN_MEMORY_INPUTS = inMemory;
+			SystematicMutation.MUTATION_DEPTH = depth;
+			SystematicMutation.MUTATE_RANDOM = random;
+		}
+	}
+}
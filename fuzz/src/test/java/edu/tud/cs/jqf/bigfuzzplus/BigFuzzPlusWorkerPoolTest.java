@@ -0,0 +1,62 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class BigFuzzPlusWorkerPoolTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Stands in for the driver in a worker JVM. Later iterations finish first, and iteration 3 fails without a result.
+	 */
+	public static class Worker {
+		public static void main(String[] args) throws IOException, InterruptedException {
+			int iteration = Integer.getInteger(BigFuzzPlusWorkerPool.WORKER_ITERATION_PROPERTY);
+			File outputDir = new File(System.getProperty(BigFuzzPlusWorkerPool.WORKER_OUTPUT_DIR_PROPERTY));
+			long startTime = Long.getLong(BigFuzzPlusWorkerPool.WORKER_START_TIME_PROPERTY);
+			System.out.println("Iteration " + iteration + " of " + String.join(" ", args) + " started at " + startTime);
+			Thread.sleep(200 * (4 - iteration));
+			if (iteration == 3) {
+				System.exit(1);
+			}
+			new IterationResult(iteration, 1, new long[0], null, startTime + iteration, 0, new CrashSignatureIndex(),
+					Collections.emptyList()).write(BigFuzzPlusWorkerPool.resultFile(outputDir, iteration));
+		}
+	}
+
+	@Test
+	public void testResultsInIterationOrder() throws IOException {
+		File outputDir = folder.getRoot();
+		List<IterationResult> results = new ArrayList<>();
+		new BigFuzzPlusWorkerPool(Worker.class, new String[]{"Test", "conf"}, outputDir, 1000, 4).run(4, results::add);
+
+		List<Integer> iterations = new ArrayList<>();
+		for (IterationResult result : results) {
+			iterations.add(result.iteration);
+			Assert.assertEquals(1000 + result.iteration, result.duration);
+		}
+		Assert.assertEquals(Arrays.asList(1, 2, 4), iterations);
+
+		for (int i = 1; i <= 4; i++) {
+			List<String> log = Files.readAllLines(new File(outputDir, "Test" + i + ".log").toPath(), StandardCharsets.UTF_8);
+			Assert.assertTrue(log.contains("Iteration " + i + " of Test conf started at 1000"));
+		}
+		Assert.assertFalse(BigFuzzPlusWorkerPool.resultFile(outputDir, 3).exists());
+	}
+}
@@ -0,0 +1,82 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class CampaignLogTest {
+
+	private static String json(Object value) {
+		StringBuilder json = new StringBuilder();
+		CampaignLog.appendValue(json, value);
+		return json.toString();
+	}
+
+	@Test
+	public void testStringEscaping() {
+		Assert.assertEquals("\"say \\\"hi\\\"\"", json("say \"hi\""));
+		Assert.assertEquals("\"C:\\\\tmp\"", json("C:\\tmp"));
+		Assert.assertEquals("\"a\\nb\\rc\\td\"", json("a\nb\rc\td"));
+		Assert.assertEquals("\"\\u0000\\u001f\\u0008\"", json("\u0000\u001f\b"));
+		Assert.assertEquals("\"\u00e9\u20ac\"", json("\u00e9\u20ac"));
+	}
+
+	@Test
+	public void testValues() {
+		Assert.assertEquals("null", json(null));
+		Assert.assertEquals("42", json(42));
+		Assert.assertEquals("1.5", json(1.5));
+		Assert.assertEquals("true", json(true));
+		Assert.assertEquals("[1,2,3]", json(new long[]{1, 2, 3}));
+		Assert.assertEquals("[]", json(new int[0]));
+		Assert.assertEquals("[\"a\",null,7]", json(Arrays.asList("a", null, 7)));
+	}
+
+	@Test
+	public void testNonFiniteNumbers() {
+		Assert.assertEquals("null", json(Double.NaN));
+		Assert.assertEquals("null", json(Double.POSITIVE_INFINITY));
+		Assert.assertEquals("null", json(Double.NEGATIVE_INFINITY));
+		Assert.assertEquals("null", json(Float.NaN));
+		Assert.assertEquals("null", json(Float.POSITIVE_INFINITY));
+		Assert.assertEquals("[0.5,null]", json(Arrays.asList(0.5, Double.NaN)));
+	}
+
+	@Test
+	public void testRecordsAreAppended() throws IOException {
+		File file = File.createTempFile("campaign", ".jsonl");
+		try {
+			try (CampaignLog log = new CampaignLog(file)) {
+				log.record("iteration", "iteration", 1, "rate", Double.POSITIVE_INFINITY, "input", "a,\"b\"\n");
+			}
+			try (CampaignLog log = new CampaignLog(file)) {
+				log.record("summary", "failure", null);
+			}
+			List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+			Assert.assertEquals(Arrays.asList(
+					"{\"type\":\"iteration\",\"iteration\":1,\"rate\":null,\"input\":\"a,\\\"b\\\"\\n\"}",
+					"{\"type\":\"summary\",\"failure\":null}"), lines);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testKeyWithoutValue() throws IOException {
+		File file = File.createTempFile("campaign", ".jsonl");
+		try (CampaignLog log = new CampaignLog(file)) {
+			log.record("iteration", "iteration");
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+@RunWith(JUnit4.class)
+public class CampaignSummaryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCumulativeUniqueFailures() throws IOException {
+		IterationResult result = new IterationResult(1, 6, new long[]{1, 1, 4, 9}, null, 0, 0,
+				new CrashSignatureIndex(), new ArrayList<Integer>());
+		StringWriter out = new StringWriter();
+		result.writeCumulativeUniqueFailures(out);
+		Assert.assertEquals("[0, 2, 2, 2, 3, 3]", out.toString());
+		Assert.assertEquals(3, result.uniqueFailures);
+	}
+
+	@Test
+	public void testLayout() throws IOException {
+		File inputs = folder.newFile("inputs.txt");
+		Files.write(inputs.toPath(), Arrays.asList("in1.csv", "in2.csv"), StandardCharsets.UTF_8);
+
+		CrashSignatureIndex crashes1 = new CrashSignatureIndex();
+		crashes1.add(1, 1, "a");
+		crashes1.add(2, 3, "b");
+		IterationResult first = new IterationResult(1, 4, new long[]{1, 3}, inputs.getPath(), 120, 2,
+				crashes1, Arrays.asList(1, 2, 3));
+		first.methods = new ArrayList<>(Arrays.asList("ChangeValue: 3", "AddElement: 1"));
+		first.columns = new ArrayList<>(Arrays.asList("0: 4"));
+
+		CrashSignatureIndex crashes2 = new CrashSignatureIndex();
+		crashes2.add(2, 0, "b");
+		crashes2.add(5, 1, "c");
+		IterationResult second = new IterationResult(2, 3, new long[]{0, 1}, null, 80, 1,
+				crashes2, Arrays.asList(3, 4));
+
+		StringWriter out = new StringWriter();
+		try (CampaignSummary summary = new CampaignSummary(folder.getRoot())) {
+			summary.add(first);
+			summary.add(second);
+			summary.writeTo(out);
+			Assert.assertEquals(3, summary.getMergedUniqueFailures());
+			Assert.assertEquals(4, summary.getMergedCoverage());
+			Assert.assertEquals(3, summary.getRestartAmount());
+		}
+
+		Assert.assertEquals("********* PROGRAM SUMMARY **********"
+				+ "\nCUMULATIVE UNIQUE FAILURE PER TEST PER ITERATION"
+				+ "\n[0, 1, 1, 2]"
+				+ "\n[1, 2, 2]"
+				+ "\n\nAPPLIED MUTATIONS PER ITERATION"
+				+ "\nRun 1 [\"in1.csv\", \"in2.csv\"]"
+				+ "\nRun 2 []"
+				+ "\n\n MUTATED INPUTS PER ITERATION"
+				+ "\nRun 1: [(ChangeValue: 3), (AddElement: 1)]"
+				+ "\n\n MUTATIONS APPLIED ON COLUMN PER ITERATION"
+				+ "\nRun 1: [(0: 4)]"
+				+ "\n\n DURATION PER ITERATION"
+				+ "\ndurations: [120, 80]"
+				+ "\nRun 1: 120 ms "
+				+ "\nRun 2: 80 ms "
+				+ "\n\n AMOUNT OF TREE RESTARTS"
+				+ "\nTotal amount of restarts: 3"
+				+ "\n\n UNIQUE FAILURES PER RUN"
+				+ "\nRun 1: 2"
+				+ "\nRun 2: 2"
+				+ "\n\n MERGED RESULTS OF ALL RUNS"
+				+ "\nUnique failures: 3"
+				+ "\nTotal coverage: 4", out.toString());
+
+		// The section files are removed when the summary is closed
+		Assert.assertArrayEquals(new String[]{"inputs.txt"}, folder.getRoot().list());
+	}
+}
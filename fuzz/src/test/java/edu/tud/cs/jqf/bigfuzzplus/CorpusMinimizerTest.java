@@ -0,0 +1,54 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.berkeley.cs.jqf.fuzz.guidance.Result;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class CorpusMinimizerTest {
+
+	private static CorpusMinimizer.Replay replay(String name, String failure, int... coverage) {
+		Result result = failure.isEmpty() ? Result.SUCCESS : Result.FAILURE;
+		return new CorpusMinimizer.Replay(new File(name), result, failure, coverage);
+	}
+
+	@Test
+	public void testSubsumedInputsAreDropped() {
+		CorpusMinimizer.Replay a = replay("a", "", 1, 2);
+		CorpusMinimizer.Replay b = replay("b", "", 2, 3);
+		CorpusMinimizer.Replay c = replay("c", "", 1, 2, 3);
+		CorpusMinimizer.Replay d = replay("d", "", 4);
+		List<CorpusMinimizer.Replay> selected = CorpusMinimizer.minimize(Arrays.asList(a, b, c, d));
+		Assert.assertEquals(Arrays.asList(c, d), selected);
+	}
+
+	@Test
+	public void testEveryFailureIsKept() {
+		CorpusMinimizer.Replay a = replay("a", "", 1, 2, 3);
+		CorpusMinimizer.Replay b = replay("b", "java.lang.NumberFormatException@1", 1);
+		CorpusMinimizer.Replay c = replay("c", "java.lang.NumberFormatException@1", 2);
+		CorpusMinimizer.Replay d = replay("d", "java.lang.ArithmeticException@2", 3);
+		List<CorpusMinimizer.Replay> selected = CorpusMinimizer.minimize(Arrays.asList(a, b, c, d));
+		Assert.assertEquals(Arrays.asList(a, b, d), selected);
+	}
+
+	@Test
+	public void testReplayFormat() {
+		CorpusMinimizer.Replay replay = replay("Test1/20201017203521_3+crash+1+java.lang.Exception: a\tb", "x@1", 5, 7);
+		CorpusMinimizer.Replay parsed = CorpusMinimizer.Replay.parse(replay.format());
+		Assert.assertEquals(replay.input, parsed.input);
+		Assert.assertEquals(replay.result, parsed.result);
+		Assert.assertEquals(replay.failure, parsed.failure);
+		Assert.assertArrayEquals(replay.coverage, parsed.coverage);
+
+		CorpusMinimizer.Replay empty = CorpusMinimizer.Replay.parse(replay("a", "").format());
+		Assert.assertEquals("", empty.failure);
+		Assert.assertEquals(0, empty.coverage.length);
+	}
+}
@@ -0,0 +1,95 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class CrashSignatureIndexTest {
+
+	private static Throwable failure(String... classAndMethods) {
+		Throwable t = new IllegalStateException("input 42");
+		StackTraceElement[] trace = new StackTraceElement[classAndMethods.length];
+		for (int i = 0; i < classAndMethods.length; i++) {
+			String[] parts = classAndMethods[i].split("#");
+			trace[i] = new StackTraceElement(parts[0], parts[1], parts[0] + ".java", 10 + i);
+		}
+		t.setStackTrace(trace);
+		return t;
+	}
+
+	@Test
+	public void testFramesBelowTheTestClassAreIgnored() {
+		Throwable a = failure("Udf#map", "Driver#test", "Driver#test", "junit.Runner#run");
+		Throwable b = failure("Udf#map", "Driver#test", "Driver#test", "other.Runner#invoke", "other.Runner#run");
+		Assert.assertEquals(CrashSignatureIndex.signature(a, "Driver"), CrashSignatureIndex.signature(b, "Driver"));
+		Assert.assertNotEquals(CrashSignatureIndex.signature(a, null), CrashSignatureIndex.signature(b, null));
+
+		Throwable c = failure("Udf#reduce", "Driver#test", "junit.Runner#run");
+		Assert.assertNotEquals(CrashSignatureIndex.signature(a, "Driver"), CrashSignatureIndex.signature(c, "Driver"));
+	}
+
+	@Test
+	public void testCountsAndFirstTrials() {
+		CrashSignatureIndex index = new CrashSignatureIndex();
+		Assert.assertTrue(index.add(7, 3, "first"));
+		Assert.assertFalse(index.add(7, 9, "again"));
+		Assert.assertTrue(index.add(8, 12, "second"));
+		Assert.assertEquals(2, index.size());
+		Assert.assertEquals(2, index.getCount(7));
+		Assert.assertEquals(3, index.getFirstTrial(7));
+		Assert.assertEquals(0, index.getCount(9));
+		Assert.assertEquals(-1, index.getFirstTrial(9));
+
+		CrashSignatureIndex other = new CrashSignatureIndex();
+		other.add(8, 1, "second");
+		other.add(1000, 5, "third");
+		index.merge(other);
+		Assert.assertEquals(3, index.size());
+		Assert.assertEquals(2, index.getCount(8));
+		Assert.assertEquals(12, index.getFirstTrial(8));
+	}
+
+	@Test
+	public void testDescriptionOnlyForNewSignatures() {
+		CrashSignatureIndex index = new CrashSignatureIndex();
+		Assert.assertTrue(index.add(7, 1, () -> "first"));
+		Assert.assertFalse(index.add(7, 2, () -> {
+			throw new AssertionError("Description of a known signature was computed");
+		}));
+		Assert.assertEquals(2, index.getCount(7));
+	}
+
+	@Test
+	public void testIndexGrows() {
+		CrashSignatureIndex index = new CrashSignatureIndex();
+		for (long i = 0; i < 10_000; i++) {
+			Assert.assertTrue(index.add(i * 0x9E3779B97F4A7C15L, i, (String) null));
+		}
+		for (long i = 0; i < 10_000; i++) {
+			Assert.assertEquals(i, index.getFirstTrial(i * 0x9E3779B97F4A7C15L));
+		}
+		Assert.assertEquals(10_000, index.size());
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		CrashSignatureIndex index = new CrashSignatureIndex();
+		index.add(0xabcL, 4, "java.lang.NumberFormatException: For input string: \"a\tb\"");
+		File file = File.createTempFile("crashes", ".txt");
+		try {
+			index.write(file);
+			List<String> lines = Files.readAllLines(file.toPath());
+			Assert.assertEquals(2, lines.size());
+			Assert.assertEquals("0\t0000000000000abc\t1\t4\tjava.lang.NumberFormatException: For input string: \"a b\"", lines.get(1));
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.berkeley.cs.jqf.fuzz.guidance.Result;
+import edu.berkeley.cs.jqf.fuzz.util.Coverage;
+import edu.berkeley.cs.jqf.instrument.tracing.events.BranchEvent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+@RunWith(JUnit4.class)
+public class ExecutionResultCacheTest {
+
+	private static Coverage coverage(int iid) {
+		Coverage coverage = new Coverage();
+		coverage.handleEvent(new BranchEvent(iid, null, 0, 1));
+		return coverage;
+	}
+
+	@Test
+	public void testOutcomesAreRestored() {
+		ExecutionResultCache cache = new ExecutionResultCache("Test#test", 16);
+		Throwable error = new RuntimeException("wrapped", new IndexOutOfBoundsException("Index: 0, Size: 0"));
+		cache.put(1, Result.FAILURE, coverage(3), error);
+		cache.put(2, Result.SUCCESS, coverage(4), null);
+
+		ExecutionResultCache.Outcome failure = cache.get(1);
+		Assert.assertEquals(Result.FAILURE, failure.getResult());
+		Throwable restored = failure.getError();
+		Assert.assertEquals(error.getCause().toString(), restored.toString());
+		Assert.assertArrayEquals(error.getCause().getStackTrace(), restored.getStackTrace());
+		Coverage run = new Coverage();
+		failure.restoreCoverage(run);
+		Assert.assertEquals(coverage(3).hashCode(), run.hashCode());
+
+		Assert.assertNull(cache.get(2).getError());
+		Assert.assertNull(cache.get(3));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedOutcomeIsEvicted() {
+		ExecutionResultCache cache = new ExecutionResultCache("Test#test", 2);
+		cache.put(1, Result.SUCCESS, coverage(1), null);
+		cache.put(2, Result.SUCCESS, coverage(2), null);
+		cache.get(1);
+		cache.put(3, Result.SUCCESS, coverage(3), null);
+		Assert.assertNotNull(cache.get(1));
+		Assert.assertNull(cache.get(2));
+		Assert.assertNotNull(cache.get(3));
+	}
+
+	@Test
+	public void testSavedOutcomesAreMerged() throws IOException {
+		File file = File.createTempFile("results", ".cache");
+		file.deleteOnExit();
+		Throwable error = new IllegalStateException("failure");
+
+		ExecutionResultCache first = new ExecutionResultCache("Test#test", 16);
+		first.put(1, Result.FAILURE, coverage(1), error);
+		first.save(file);
+		ExecutionResultCache second = new ExecutionResultCache("Test#test", 16);
+		second.put(2, Result.INVALID, coverage(2), null);
+		second.save(file);
+
+		ExecutionResultCache loaded = new ExecutionResultCache("Test#test", 16);
+		loaded.load(file);
+		Assert.assertEquals(2, loaded.size());
+		Assert.assertEquals(Result.INVALID, loaded.get(2).getResult());
+		Assert.assertEquals(error.toString(), loaded.get(1).getError().toString());
+		Assert.assertEquals(Arrays.asList(error.getStackTrace()), Arrays.asList(loaded.get(1).getError().getStackTrace()));
+
+		ExecutionResultCache otherTarget = new ExecutionResultCache("Other#test", 16);
+		otherTarget.load(file);
+		Assert.assertEquals(0, otherTarget.size());
+	}
+
+	/** Key under which the guidances record a failure: its signature, the class in the crash file name and its description. */
+	private static String crashKey(Throwable error) {
+		Throwable rootCause = error;
+		while (rootCause.getCause() != null) {
+			rootCause = rootCause.getCause();
+		}
+		return CrashSignatureIndex.signature(rootCause, ExecutionResultCacheTest.class.getName()) + "+" +
+				ExecutionResultCache.failureClassName(rootCause) + "+" + rootCause + "+" + rootCause.getMessage();
+	}
+
+	@Test
+	public void testCachedFailureHasTheCrashKeyOfTheOriginal() throws IOException {
+		File file = File.createTempFile("results", ".cache");
+		file.deleteOnExit();
+		Throwable error = new RuntimeException("wrapped", new ArrayIndexOutOfBoundsException(5));
+		Throwable withoutMessage = new IllegalStateException();
+
+		ExecutionResultCache cache = new ExecutionResultCache("Test#test", 16);
+		cache.put(1, Result.FAILURE, coverage(1), error);
+		cache.put(2, Result.TIMEOUT, coverage(2), withoutMessage);
+		cache.save(file);
+		ExecutionResultCache loaded = new ExecutionResultCache("Test#test", 16);
+		loaded.load(file);
+
+		for (ExecutionResultCache c : Arrays.asList(cache, loaded)) {
+			Throwable cached = c.get(1).getError();
+			Assert.assertEquals(crashKey(error), crashKey(cached));
+			Assert.assertEquals(ArrayIndexOutOfBoundsException.class.getName(), ExecutionResultCache.failureClassName(cached));
+			Assert.assertEquals(error.getCause().getMessage(), cached.getMessage());
+			Assert.assertEquals(crashKey(withoutMessage), crashKey(c.get(2).getError()));
+			Assert.assertNull(c.get(2).getError().getMessage());
+		}
+	}
+}
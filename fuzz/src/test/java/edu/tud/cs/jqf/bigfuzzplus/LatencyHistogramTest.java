@@ -0,0 +1,49 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LatencyHistogramTest {
+
+	@Test
+	public void testPercentilesHaveBoundedError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long v = 1; v <= 100_000; v++) {
+			histogram.record(v * 1000);
+		}
+		Assert.assertEquals(100_000, histogram.getCount());
+		Assert.assertEquals(1000, histogram.getMin());
+		Assert.assertEquals(100_000_000, histogram.getMax());
+		Assert.assertEquals(50_000_500.0, histogram.getMean(), 0.001);
+		for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+			double exact = percentile * 1_000_000;
+			double reported = histogram.getValueAtPercentile(percentile);
+			Assert.assertTrue(percentile + ": " + reported, reported >= exact && reported <= exact * (1 + 1.0 / 64));
+		}
+		Assert.assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testBucketsCoverTheValueRange() {
+		for (long value : new long[]{0, 1, 127, 128, 129, 255, 256, 1 << 20, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+			int bucket = LatencyHistogram.bucket(value);
+			Assert.assertTrue(value + " above its bucket", value <= LatencyHistogram.highestValue(bucket));
+			if (bucket > 0) {
+				Assert.assertTrue(value + " below its bucket", value > LatencyHistogram.highestValue(bucket - 1));
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+		Assert.assertEquals(0, histogram.getMin());
+		Assert.assertEquals(0.0, histogram.getMean(), 0);
+		histogram.record(-5);
+		Assert.assertEquals(0, histogram.getMax());
+	}
+}
@@ -0,0 +1,89 @@
+package edu.tud.cs.jqf.bigfuzzplus;
+
+import edu.ucla.cs.jqf.bigfuzz.MutatedInput;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class MutantFingerprintCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static long fingerprint(String... lines) {
+		return MutantFingerprintCache.update(MutantFingerprintCache.start(), Arrays.asList(lines));
+	}
+
+	@Test
+	public void testDuplicatesAreDetected() {
+		MutantFingerprintCache cache = new MutantFingerprintCache(1024);
+		Assert.assertTrue(cache.add(fingerprint("a,b", "c")));
+		Assert.assertTrue(cache.add(fingerprint("a,b,c")));
+		Assert.assertTrue(cache.add(fingerprint("a,bc")));
+		Assert.assertFalse(cache.add(fingerprint("a,b", "c")));
+		Assert.assertFalse(cache.add(fingerprint("a,b,c")));
+		Assert.assertTrue(cache.add(0));
+		Assert.assertFalse(cache.add(0));
+	}
+
+	@Test
+	public void testLinesAreSeparated() {
+		Assert.assertNotEquals(fingerprint("ab"), fingerprint("a", "b"));
+		Assert.assertNotEquals(fingerprint("a"), fingerprint("a", ""));
+		long twoInputs = MutantFingerprintCache.update(fingerprint("a"), Collections.singletonList("b"));
+		Assert.assertNotEquals(fingerprint("a", "b"), twoInputs);
+	}
+
+	@Test
+	public void testCacheIsBounded() {
+		MutantFingerprintCache cache = new MutantFingerprintCache(64);
+		for (long i = 1; i <= 100000; i++) {
+			Assert.assertTrue(cache.add(i * 0x9e3779b97f4a7c15L));
+		}
+		// Recent fingerprints are still known, old ones have been evicted
+		Assert.assertFalse(cache.add(100000 * 0x9e3779b97f4a7c15L));
+		Assert.assertTrue(cache.add(0x9e3779b97f4a7c15L));
+	}
+
+	private String dataFile(String name, String... rows) throws IOException {
+		File file = folder.newFile(name);
+		Files.write(file.toPath(), Arrays.asList(rows));
+		return file.getPath();
+	}
+
+	@Test
+	public void testInMemoryMutantHasTheFingerprintOfItsFile() throws IOException {
+		String first = dataFile("first.csv", "a,1", "b,2");
+		String second = dataFile("second.csv", "c,3");
+		List<String> seedLocations = Arrays.asList(first, second);
+		List<String> rows = Arrays.asList("c,3", "d,4");
+
+		for (int mutated = 0; mutated < seedLocations.size(); mutated++) {
+			// The mutant as file based mutation writes it
+			File conf = folder.newFile("mutant" + mutated + ".conf");
+			String mutatedFile = dataFile("mutant" + mutated + ".csv", rows.toArray(new String[0]));
+			List<String> locations = new ArrayList<>(seedLocations);
+			locations.set(mutated, mutatedFile);
+			Files.write(conf.toPath(), locations);
+
+			MutatedInput mutant = new MutatedInput(seedLocations, mutated, rows);
+			Assert.assertEquals(MutantFingerprintCache.fingerprint(conf.getPath()), MutantFingerprintCache.fingerprint(mutant));
+		}
+
+		// Mutating a different data file gives a different input
+		Assert.assertNotEquals(MutantFingerprintCache.fingerprint(new MutatedInput(seedLocations, 0, rows)),
+				MutantFingerprintCache.fingerprint(new MutatedInput(seedLocations, 1, rows)));
+	}
+}
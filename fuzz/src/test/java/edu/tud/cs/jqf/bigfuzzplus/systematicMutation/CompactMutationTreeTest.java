@@ -0,0 +1,96 @@
+package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class CompactMutationTreeTest {
+
+	static {
+		// MutationPair asserts that the column of a ChangeDelimiter pair is never read, which MutationTree does
+		CompactMutationTreeTest.class.getClassLoader().setClassAssertionStatus(MutationPair.class.getName(), false);
+	}
+
+	private final int depth = SystematicMutation.MUTATION_DEPTH;
+	private final boolean mutateColumns = SystematicMutation.MUTATE_COLUMNS;
+
+	@After
+	public void restore() {
+		SystematicMutation.MUTATION_DEPTH = depth;
+		SystematicMutation.MUTATE_COLUMNS = mutateColumns;
+	}
+
+	private static int assertSameWalk(int columnAmount) {
+		SystematicMutation.r.setSeed(42);
+		MutationTree expected = new MutationTree(columnAmount);
+		SystematicMutation.r.setSeed(42);
+		CompactMutationTree actual = new CompactMutationTree(columnAmount);
+
+		int mutations = 0;
+		while (true) {
+			// Random columns are drawn while walking, so both trees have to draw from the same state
+			SystematicMutation.r.setSeed(mutations);
+			int expectedLevel = expected.next();
+			SystematicMutation.r.setSeed(mutations);
+			int actualLevel = actual.next();
+
+			Assert.assertEquals(expectedLevel, actualLevel);
+			if (expectedLevel == 0) {
+				return mutations;
+			}
+			Assert.assertEquals(expected.getMutationType(), actual.getMutationType());
+			Assert.assertEquals(expected.getColumn(), actual.getColumn());
+			Assert.assertEquals(expected.getColumnAmount(), actual.getColumnAmount());
+			mutations++;
+		}
+	}
+
+	@Test
+	public void testSameWalkForAllColumns() {
+		SystematicMutation.MUTATE_COLUMNS = true;
+		for (int depth = 0; depth <= 3; depth++) {
+			SystematicMutation.MUTATION_DEPTH = depth;
+			for (int columns = 1; columns <= 4; columns++) {
+				int mutations = assertSameWalk(columns);
+				Assert.assertTrue(depth == 0 || mutations > 0);
+			}
+		}
+	}
+
+	@Test
+	public void testSameWalkForRandomColumns() {
+		SystematicMutation.MUTATE_COLUMNS = false;
+		for (int depth = 0; depth <= 6; depth++) {
+			SystematicMutation.MUTATION_DEPTH = depth;
+			for (int columns = 1; columns <= 4; columns++) {
+				assertSameWalk(columns);
+			}
+		}
+	}
+
+	@Test
+	public void testSubtreesCoverWalk() {
+		SystematicMutation.MUTATE_COLUMNS = true;
+		SystematicMutation.MUTATION_DEPTH = 3;
+		int columnAmount = 3;
+		for (int splitLevel = 1; splitLevel <= 4; splitLevel++) {
+			List<MutationSubtree> subtrees = CompactMutationTree.split(columnAmount, splitLevel);
+			CompactMutationTree expected = new CompactMutationTree(columnAmount);
+			for (MutationSubtree subtree : subtrees) {
+				CompactMutationTree actual = new CompactMutationTree(columnAmount, MutationSubtree.parse(subtree.toString()));
+				int actualLevel;
+				while ((actualLevel = actual.next()) != 0) {
+					Assert.assertEquals(expected.next(), actualLevel);
+					Assert.assertEquals(expected.getMutationType(), actual.getMutationType());
+					Assert.assertEquals(expected.getColumn(), actual.getColumn());
+				}
+			}
+			Assert.assertEquals(0, expected.next());
+		}
+	}
+}
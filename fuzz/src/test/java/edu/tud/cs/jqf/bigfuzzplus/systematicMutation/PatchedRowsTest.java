@@ -0,0 +1,74 @@
+package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(JUnit4.class)
+public class PatchedRowsTest {
+
+	private static List<String> readLines(String content) {
+		return new BufferedReader(new StringReader(content)).lines().collect(Collectors.toList());
+	}
+
+	private static SeedFile seed(String content) throws IOException {
+		File file = File.createTempFile("seed", ".csv");
+		file.deleteOnExit();
+		Files.write(file.toPath(), content.getBytes(Charset.defaultCharset()));
+		return new SeedFile(file);
+	}
+
+	@Test
+	public void testSeedRowsMatchReadLine() throws IOException {
+		for (String content : Arrays.asList("", "a,b", "a,b\n", "a\nb\r\nc\rd", "a\r\r\nb\n\nc\n", "\n\n")) {
+			Assert.assertEquals(readLines(content), new ArrayList<>(seed(content)));
+		}
+	}
+
+	@Test
+	public void testPatchedRowsMatchWrittenContent() throws IOException {
+		SeedFile seed = seed("r0\nr1\nr2\nr3\n");
+		String[][] patches = {
+				{"x", "y"},
+				{"x\ny", ""},
+				{"x\r", "y\r\nz"},
+				{"", "\n"},
+		};
+		int[][] rows = {{0, 3}, {1, 2}, {0, 1}, {2, 3}};
+		for (int i = 0; i < patches.length; i++) {
+			List<String> written = new ArrayList<>(seed);
+			for (int j = 0; j < rows[i].length; j++) {
+				written.set(rows[i][j], patches[i][j]);
+			}
+			PatchedRows patched = new PatchedRows(seed, rows[i], patches[i]);
+			Assert.assertEquals(readLines(String.join("\n", written)), new ArrayList<>(patched));
+		}
+	}
+
+	@Test
+	public void testEmptiedLastRow() throws IOException {
+		Assert.assertEquals(Arrays.asList(""), new PatchedRows(Arrays.asList("x"), new int[]{0}, new String[]{""}));
+		SeedFile seed = seed("r0\nr1\n");
+		Assert.assertEquals(Arrays.asList("", "r1"), new PatchedRows(seed, new int[]{0}, new String[]{""}));
+		Assert.assertEquals(Arrays.asList("r0", ""), new PatchedRows(seed, new int[]{1}, new String[]{""}));
+	}
+
+	@Test
+	public void testParseRows() {
+		Assert.assertArrayEquals(new int[]{0}, SystematicMutation.parseRows("0", 10));
+		Assert.assertArrayEquals(new int[]{1, 4, 5, 6, 9}, SystematicMutation.parseRows("4-6, 1,9-20", 10));
+		Assert.assertArrayEquals(new int[]{0}, SystematicMutation.parseRows("12", 10));
+	}
+}
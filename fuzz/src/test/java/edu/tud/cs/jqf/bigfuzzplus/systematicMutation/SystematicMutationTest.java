@@ -0,0 +1,56 @@
+package edu.tud.cs.jqf.bigfuzzplus.systematicMutation;
+
+import edu.ucla.cs.jqf.bigfuzz.MutatedInput;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+@RunWith(JUnit4.class)
+public class SystematicMutationTest {
+
+	private static String inputFile(String content) throws IOException {
+		File seed = File.createTempFile("seed", ".csv");
+		seed.deleteOnExit();
+		Files.write(seed.toPath(), content.getBytes());
+		File conf = File.createTempFile("input", ".conf");
+		conf.deleteOnExit();
+		Files.write(conf.toPath(), seed.getAbsolutePath().getBytes());
+		return conf.getAbsolutePath();
+	}
+
+	@Test
+	public void testRaggedRowsKeepOneColumn() throws IOException {
+		int depth = SystematicMutation.MUTATION_DEPTH;
+		String rows = SystematicMutation.MUTATION_ROWS;
+		boolean random = SystematicMutation.MUTATE_RANDOM;
+		boolean columns = SystematicMutation.MUTATE_COLUMNS;
+		try {
+			SystematicMutation.MUTATION_DEPTH = 2;
+			SystematicMutation.MUTATION_ROWS = "0-1";
+			SystematicMutation.MUTATE_RANDOM = false;
+			SystematicMutation.MUTATE_COLUMNS = true;
+			String inputFile = inputFile("a,b,c\nd\n");
+			SystematicMutation mutation = new SystematicMutation(inputFile);
+
+			// Walk the whole tree, which removes the first column of both rows
+			int restarts = SystematicMutation.restartAmount;
+			boolean removed = false;
+			while (SystematicMutation.restartAmount == restarts) {
+				MutatedInput mutant = mutation.mutateInMemory(inputFile);
+				removed |= mutant.getRows().equals(Arrays.asList("b,c", "d"));
+			}
+			Assert.assertTrue(removed);
+		} finally {
+			SystematicMutation.MUTATION_DEPTH = depth;
+			SystematicMutation.MUTATION_ROWS = rows;
+			SystematicMutation.MUTATE_RANDOM = random;
+			SystematicMutation.MUTATE_COLUMNS = columns;
+		}
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package edu.berkeley.cs.jqf.instrument.tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
+
+/**
+ * A bounded multi-producer single-consumer ring of trace events, which
+ * delivers events to the guidance callbacks on a dedicated thread.
+ *
+ * <p>The ring is used by {@link ThreadTracer} when the system property
+ * <tt>jqf.tracing.ASYNC</tt> is set. Traced threads then only publish
+ * their events into the ring, and never call into the guidance
+ * themselves. This way, targets that trace several threads do not
+ * serialize on the guidance callbacks, and the callbacks are never
+ * invoked concurrently.</p>
+ *
+ * <p>The slots of the ring are allocated up front, and publishing an
+ * event does not lock or allocate. Every slot has a sequence number
+ * that tells producers whether the slot is free and the consumer whether
+ * the slot has been published (see Vyukov's bounded MPMC queue, of which
+ * this is the single-consumer variant).</p>
+ *
+ * <p>When the ring is full, a producer waits for the consumer to free a
+ * slot, or drops the event if <tt>jqf.tracing.ASYNC_DROP</tt> is set.
+ * Both are counted, see {@link #getBlockedEvents()} and
+ * {@link #getDroppedEvents()}. Before a guidance evaluates the result
+ * of a run, {@link #awaitDelivery()} has to be called such that all
+ * events of the run have been delivered. Exceptions thrown by the
+ * callbacks are rethrown there as well.</p>
+ *
+ * <p>The consumer parks when the ring stays empty, and is unparked by
+ * the next publish. It stops once the ring is shut down, which happens
+ * when the JVM exits.</p>
+ */
+public final class AsyncEventRing {
+
+    /** Whether trace events are delivered asynchronously. */
+    public static final boolean ENABLED = Boolean.getBoolean("jqf.tracing.ASYNC");
+
+    /** Whether events are dropped instead of waiting when the ring is full. */
+    private static final boolean DROP_WHEN_FULL = Boolean.getBoolean("jqf.tracing.ASYNC_DROP");
+
+    /** The number of slots. */
+    private static final int CAPACITY = Integer.getInteger("jqf.tracing.ASYNC_CAPACITY", 1 << 16);
+
+    /** The number of empty polls after which the consumer starts parking. */
+    private static final int SPINS = 1000;
+
+    private static final AsyncEventRing singleton = ENABLED ? create() : null;
+
+    private final boolean dropWhenFull;
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final ThreadTracer[] producers;
+    private final TraceEvent[] events;
+
+    // Next position to publish to, shared by all producers
+    private final AtomicLong tail = new AtomicLong();
+
+    // Next position to consume, only written by the consumer
+    private volatile long head = 0;
+
+    private final AtomicLong blocked = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Thread consumer;
+
+    // Whether the consumer is about to park, or parked
+    private volatile boolean idle = false;
+
+    // Whether the consumer has to stop once the ring is empty
+    private volatile boolean stopped = false;
+
+    // The first exception thrown by a callback since the last awaitDelivery()
+    private volatile Throwable failure = null;
+
+    /**
+     * Creates a ring and starts its consumer.
+     *
+     * @param capacity the number of slots, which is rounded up to a power of two
+     * @param dropWhenFull whether events are dropped instead of waiting when the ring is full
+     */
+    AsyncEventRing(int capacity, boolean dropWhenFull) {
+        capacity = Integer.highestOneBit(Math.max(2, capacity * 2 - 1));
+        this.dropWhenFull = dropWhenFull;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.producers = new ThreadTracer[capacity];
+        this.events = new TraceEvent[capacity];
+
+        // The name makes SingleSnoop skip this thread, such that the callbacks are not traced
+        this.consumer = new Thread(this::consume, "__JWIG_TRACER__async");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    private static AsyncEventRing create() {
+        AsyncEventRing ring = new AsyncEventRing(CAPACITY, DROP_WHEN_FULL);
+        Runtime.getRuntime().addShutdownHook(new Thread(ring::shutdown, "__JWIG_TRACER__async-shutdown"));
+        return ring;
+    }
+
+    /**
+     * Returns the ring, or <tt>null</tt> if trace events are
+     * delivered synchronously.
+     */
+    public static AsyncEventRing get() {
+        return singleton;
+    }
+
+    /**
+     * Waits until all events that have been published so far have been
+     * delivered. Does nothing if trace events are delivered synchronously.
+     *
+     * <p>If a callback threw while delivering these events, the first
+     * such exception is rethrown here, just like it would have been
+     * thrown on the traced thread with synchronous delivery.</p>
+     */
+    public static void awaitDelivery() {
+        if (singleton != null) {
+            singleton.await();
+        }
+    }
+
+    /**
+     * Waits until all events that have been published so far have been
+     * delivered, or the consumer has stopped, and rethrows the first
+     * exception thrown by a callback since the last call.
+     */
+    void await() {
+        long position = tail.get();
+        while (head < position && consumer.isAlive()) {
+            Thread.yield();
+        }
+        Throwable t = failure;
+        if (t != null) {
+            failure = null;
+            ThreadTracer.rethrow(t);
+        }
+    }
+
+    /**
+     * Stops the consumer after it has delivered the events that are in
+     * the ring. Events published afterwards are dropped.
+     */
+    void shutdown() {
+        stopped = true;
+        LockSupport.unpark(consumer);
+    }
+
+    /** Returns how many events had to wait for a free slot. */
+    public long getBlockedEvents() {
+        return blocked.get();
+    }
+
+    /** Returns how many events were dropped because the ring was full. */
+    public long getDroppedEvents() {
+        return dropped.get();
+    }
+
+    /** Returns how many events have been delivered to the callbacks. */
+    public long getDeliveredEvents() {
+        return head;
+    }
+
+    /**
+     * Publishes an event, to be delivered to the callback of its tracer.
+     *
+     * @param producer the tracer that emits the event
+     * @param event the event
+     */
+    void publish(ThreadTracer producer, TraceEvent event) {
+        if (stopped) {
+            // The consumer would not deliver it
+            dropped.incrementAndGet();
+            return;
+        }
+        if (!offer(producer, event)) {
+            if (dropWhenFull) {
+                dropped.incrementAndGet();
+                return;
+            }
+            blocked.incrementAndGet();
+            while (!offer(producer, event)) {
+                if (stopped) {
+                    // Nobody frees a slot anymore
+                    dropped.incrementAndGet();
+                    return;
+                }
+                Thread.yield();
+            }
+        }
+        if (idle) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private boolean offer(ThreadTracer producer, TraceEvent event) {
+        long pos = claim();
+        if (pos < 0) {
+            return false;
+        }
+        int idx = (int) pos & mask;
+        producers[idx] = producer;
+        events[idx] = event;
+        // A full store, such that the consumer sees the event if it goes idle before we read its flag
+        sequences.set(idx, pos + 1);
+        return true;
+    }
+
+    /** Claims the next position, or returns -1 if the ring is full. */
+    private long claim() {
+        long pos = tail.get();
+        while (true) {
+            long diff = sequences.get((int) pos & mask) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    return pos;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return -1;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    private void consume() {
+        int spins = 0;
+        while (true) {
+            long pos = head;
+            int idx = (int) pos & mask;
+            if (sequences.get(idx) != pos + 1) {
+                // Nothing published yet
+                if (stopped) {
+                    return;
+                }
+                if (++spins > SPINS) {
+                    idle = true;
+                    // Check again, a producer may have published before it could see the flag
+                    if (sequences.get(idx) != pos + 1 && !stopped) {
+                        LockSupport.park(this);
+                    }
+                    idle = false;
+                }
+                continue;
+            }
+            spins = 0;
+
+            ThreadTracer producer = producers[idx];
+            TraceEvent event = events[idx];
+            producers[idx] = null;
+            events[idx] = null;
+            try {
+                producer.callback.accept(event);
+            } catch (Throwable t) {
+                // Keep delivering, and report the first exception to the next awaitDelivery()
+                if (failure == null) {
+                    failure = t;
+                }
+            }
+
+            // Free the slot for the producers of the next round
+            sequences.lazySet(idx, pos + mask + 1);
+            head = pos + 1;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package edu.berkeley.cs.jqf.instrument.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import janala.logger.AbstractLogger;
+import janala.logger.inst.Instruction;
+
+/**
+ * A logger that records branch and call coverage of instrumented
+ * code directly into per-thread hit-count arrays.
+ *
+ * <p>Unlike {@link TraceLogger}, this logger does not allocate
+ * {@link Instruction} or {@link edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent}
+ * objects for instrumented bytecode. It is used by {@link SingleSnoop}
+ * when the system property <tt>jqf.tracing.FAST_COVERAGE</tt> is set,
+ * in which case all instrumented instructions that are not relevant
+ * for coverage are skipped. Events that are emitted programmatically
+ * via {@link TraceLogger#emit} are still delivered to the guidance.</p>
+ *
+ * <p>The hit counts are indexed the same way as the coverage maps of the
+ * fuzzing guidances, and can be collected using {@link #drainHits}.</p>
+ */
+public class FastCoverageLogger extends AbstractLogger {
+
+    /** Whether instrumented code records coverage using this logger. */
+    public static final boolean ENABLED = Boolean.getBoolean("jqf.tracing.FAST_COVERAGE");
+
+    /** The size of the hit-count arrays. */
+    public static final int MAP_SIZE = (1 << 16) - 1; // Minus one to reduce collisions
+
+    private static final FastCoverageLogger singleton = new FastCoverageLogger();
+
+    private final List<FastCoverageTracer> tracers = new ArrayList<>();
+
+    private final ThreadLocal<FastCoverageTracer> tracer
+            = ThreadLocal.withInitial(() -> register(FastCoverageTracer.spawn(Thread.currentThread())));
+
+    private FastCoverageLogger() {
+        // Singleton: Prevent outside construction
+    }
+
+    /** Returns a handle to the singleton instance. */
+    public static FastCoverageLogger get() {
+        return singleton;
+    }
+
+    private FastCoverageTracer register(FastCoverageTracer t) {
+        synchronized (tracers) {
+            tracers.add(t);
+        }
+        return t;
+    }
+
+    /**
+     * A consumer of hit counts.
+     */
+    public interface HitConsumer {
+        void accept(int index, int count);
+    }
+
+    /**
+     * Passes the non-zero hit counts recorded by all threads to a consumer
+     * and resets them.
+     *
+     * <p>This method should be called when the traced threads are not
+     * executing instrumented code, e.g. after a test run has completed.</p>
+     *
+     * @param consumer the consumer of (index, count) pairs
+     */
+    public void drainHits(HitConsumer consumer) {
+        synchronized (tracers) {
+            for (FastCoverageTracer t : tracers) {
+                t.drain(consumer);
+            }
+        }
+    }
+
+    /**
+     * Returns the hit-count index of a call event.
+     *
+     * @param iid the instruction ID of the call site
+     * @return the index in the hit-count array
+     */
+    public static int callIndex(int iid) {
+        return knuth(iid);
+    }
+
+    /**
+     * Returns the hit-count index of a branch event.
+     *
+     * @param iid the instruction ID of the branch
+     * @param arm the arm of the branch that was taken
+     * @return the index in the hit-count array
+     */
+    public static int branchIndex(int iid, int arm) {
+        return knuth((long) iid * 31 + arm);
+    }
+
+    // Knuth's multiplicative hash, bounded to the map size
+    private static int knuth(long x) {
+        int res = (int) ((x * 2654435761L) % MAP_SIZE);
+        if (res < 0) {
+            res += MAP_SIZE;
+        }
+        return res;
+    }
+
+    /** Instructions that are not relevant for coverage are not logged. */
+    @Override
+    protected void log(Instruction insn) {
+        // Nothing to do
+    }
+
+    @Override
+    public void GETVALUE_boolean(boolean v) {
+        tracer.get().booleanValue = v;
+    }
+
+    @Override
+    public void GETVALUE_int(int v) {
+        tracer.get().intValue = v;
+    }
+
+    @Override
+    public void IFEQ(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IFNE(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IFLT(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IFGE(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IFGT(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IFLE(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IF_ICMPEQ(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IF_ICMPNE(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IF_ICMPLT(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IF_ICMPGE(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IF_ICMPGT(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IF_ICMPLE(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IF_ACMPEQ(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IF_ACMPNE(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IFNULL(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void IFNONNULL(int iid, int mid, int label) {
+        tracer.get().branch(iid);
+    }
+
+    @Override
+    public void TABLESWITCH(int iid, int mid, int min, int max, int dflt, int[] labels) {
+        tracer.get().tableSwitch(iid, labels.length);
+    }
+
+    @Override
+    public void LOOKUPSWITCH(int iid, int mid, int dflt, int[] keys, int[] labels) {
+        tracer.get().lookupSwitch(iid, keys);
+    }
+
+    @Override
+    public void INVOKEVIRTUAL(int iid, int mid, String owner, String name, String desc) {
+        tracer.get().invoke(iid, name, desc);
+    }
+
+    @Override
+    public void INVOKESPECIAL(int iid, int mid, String owner, String name, String desc) {
+        tracer.get().invoke(iid, name, desc);
+    }
+
+    @Override
+    public void INVOKESTATIC(int iid, int mid, String owner, String name, String desc) {
+        tracer.get().invoke(iid, name, desc);
+    }
+
+    @Override
+    public void INVOKEINTERFACE(int iid, int mid, String owner, String name, String desc) {
+        tracer.get().invoke(iid, name, desc);
+    }
+
+    @Override
+    public void METHOD_BEGIN(String owner, String name, String desc) {
+        tracer.get().methodBegin(owner, name, desc);
+    }
+
+    @Override
+    public void INVOKEMETHOD_END() {
+        tracer.get().invokeMethodEnd();
+    }
+
+    @Override
+    public void INVOKEMETHOD_EXCEPTION() {
+        tracer.get().invokeMethodException();
+    }
+
+    @Override
+    public void SPECIAL(int i) {
+        tracer.get().special(i);
+    }
+
+    @Override
+    public void IRETURN(int iid, int mid) {
+        tracer.get().returnOrMethodThrow();
+    }
+
+    @Override
+    public void LRETURN(int iid, int mid) {
+        tracer.get().returnOrMethodThrow();
+    }
+
+    @Override
+    public void FRETURN(int iid, int mid) {
+        tracer.get().returnOrMethodThrow();
+    }
+
+    @Override
+    public void DRETURN(int iid, int mid) {
+        tracer.get().returnOrMethodThrow();
+    }
+
+    @Override
+    public void ARETURN(int iid, int mid) {
+        tracer.get().returnOrMethodThrow();
+    }
+
+    @Override
+    public void RETURN(int iid, int mid) {
+        tracer.get().returnOrMethodThrow();
+    }
+
+    @Override
+    public void METHOD_THROW() {
+        tracer.get().returnOrMethodThrow();
+    }
+}
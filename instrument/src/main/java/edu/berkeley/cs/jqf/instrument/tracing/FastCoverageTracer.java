@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package edu.berkeley.cs.jqf.instrument.tracing;
+
+import java.util.Arrays;
+
+import janala.logger.inst.SPECIAL;
+
+/**
+ * Records the coverage of the instruction stream generated by a single
+ * thread into a primitive hit-count array.
+ *
+ * <p>This is the allocation-free counterpart of {@link ThreadTracer}:
+ * it tracks the same call stack of handlers (entry point matching,
+ * class loading, super() and this() calls), but instead of emitting
+ * {@link edu.berkeley.cs.jqf.instrument.tracing.events.BranchEvent}s and
+ * {@link edu.berkeley.cs.jqf.instrument.tracing.events.CallEvent}s it
+ * increments the counts at the index the coverage map would use
+ * for these events. The handler stack is kept in primitive arrays.</p>
+ */
+class FastCoverageTracer {
+
+    // Kinds of handlers on the stack, see ThreadTracer
+    private static final byte BASE = 0;
+    private static final byte GENERATING = 1;
+    private static final byte MATCHING_NULL = 2;
+
+    // Whether to check if caller and callee have the same method name/desc when tracing
+    private static final boolean MATCH_CALLEE_NAMES = Boolean.getBoolean("jqf.tracing.MATCH_CALLEE_NAMES");
+
+    private final String entryPointClass;
+    private final String entryPointMethod;
+
+    // Whether to instrument generators
+    private final boolean traceGenerators;
+
+    // Hit counts, and the indices that have a non-zero count
+    private final int[] hits = new int[FastCoverageLogger.MAP_SIZE];
+    private final int[] touched = new int[FastCoverageLogger.MAP_SIZE];
+    private int numTouched = 0;
+
+    // Values set by GETVALUE_* instructions inserted by Janala
+    boolean booleanValue;
+    int intValue;
+
+    // Handler stack
+    private int depth = 0;
+    private byte[] kinds = new byte[64];
+    private boolean[] hasInvokeTarget = new boolean[64];
+    private int[] invokeTargetIid = new int[64];
+    private String[] invokeTargetName = new String[64];
+    private String[] invokeTargetDesc = new String[64];
+    private boolean[] invokingSuperOrThis = new boolean[64];
+
+    private FastCoverageTracer(String entryPoint) {
+        if (entryPoint != null) {
+            int separator = entryPoint.indexOf('#');
+            if (separator <= 0 || separator == entryPoint.length() - 1) {
+                throw new IllegalArgumentException("Invalid entry point: " + entryPoint);
+            }
+            this.entryPointClass = entryPoint.substring(0, separator).replace('.', '/');
+            this.entryPointMethod = entryPoint.substring(separator + 1);
+        } else {
+            this.entryPointClass = null;
+            this.entryPointMethod = null;
+        }
+        this.traceGenerators = Boolean.getBoolean("jqf.traceGenerators");
+        this.kinds[0] = BASE;
+    }
+
+    /**
+     * Spawns a coverage tracer for the given thread.
+     *
+     * @param thread the thread to trace
+     * @return a tracer for the given thread
+     */
+    static FastCoverageTracer spawn(Thread thread) {
+        return new FastCoverageTracer(SingleSnoop.entryPoints.get(thread));
+    }
+
+    private void hit(int idx) {
+        if (hits[idx]++ == 0) {
+            touched[numTouched++] = idx;
+        }
+    }
+
+    void drain(FastCoverageLogger.HitConsumer consumer) {
+        for (int i = 0; i < numTouched; i++) {
+            int idx = touched[i];
+            consumer.accept(idx, hits[idx]);
+            hits[idx] = 0;
+        }
+        numTouched = 0;
+    }
+
+    private void push(byte kind) {
+        depth++;
+        if (depth == kinds.length) {
+            int newLength = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, newLength);
+            hasInvokeTarget = Arrays.copyOf(hasInvokeTarget, newLength);
+            invokeTargetIid = Arrays.copyOf(invokeTargetIid, newLength);
+            invokeTargetName = Arrays.copyOf(invokeTargetName, newLength);
+            invokeTargetDesc = Arrays.copyOf(invokeTargetDesc, newLength);
+            invokingSuperOrThis = Arrays.copyOf(invokingSuperOrThis, newLength);
+        }
+        kinds[depth] = kind;
+        hasInvokeTarget[depth] = false;
+        invokeTargetName[depth] = null;
+        invokeTargetDesc[depth] = null;
+        invokingSuperOrThis[depth] = false;
+    }
+
+    private void pop() {
+        invokeTargetName[depth] = null;
+        invokeTargetDesc[depth] = null;
+        depth--;
+    }
+
+    void methodBegin(String owner, String name, String desc) {
+        switch (kinds[depth]) {
+            case BASE:
+                // Try to match the top-level call with the entry point
+                if ((owner.equals(entryPointClass) && name.equals(entryPointMethod)) ||
+                        (traceGenerators && owner.endsWith("Generator") && name.equals("generate"))) {
+                    hit(FastCoverageLogger.callIndex(0));
+                    push(GENERATING);
+                } else {
+                    // Ignore all top-level calls that are not the entry point
+                    push(MATCHING_NULL);
+                }
+                break;
+            case GENERATING:
+                boolean sameNameDesc = hasInvokeTarget[depth] &&
+                        name.equals(invokeTargetName[depth]) && desc.equals(invokeTargetDesc[depth]);
+                if ((!MATCH_CALLEE_NAMES && !name.equals("<clinit>")) || sameNameDesc) {
+                    // Trace continues with callee
+                    int invokerIid = hasInvokeTarget[depth] ? invokeTargetIid[depth] : -1;
+                    hit(FastCoverageLogger.callIndex(invokerIid));
+                    push(GENERATING);
+                } else {
+                    // Class loading or static initializer
+                    push(MATCHING_NULL);
+                }
+                break;
+            default:
+                push(MATCHING_NULL);
+        }
+    }
+
+    void invoke(int iid, String name, String desc) {
+        if (kinds[depth] == GENERATING) {
+            // Remember invocation target until METHOD_BEGIN or INVOKEMETHOD_END/INVOKEMETHOD_EXCEPTION
+            hasInvokeTarget[depth] = true;
+            invokeTargetIid[depth] = iid;
+            invokeTargetName[depth] = name;
+            invokeTargetDesc[depth] = desc;
+        }
+    }
+
+    private void unsetInvokeTarget(String instruction) {
+        if (!hasInvokeTarget[depth]) {
+            throw new RuntimeException("Unexpected " + instruction);
+        }
+        hasInvokeTarget[depth] = false;
+        invokeTargetName[depth] = null;
+        invokeTargetDesc[depth] = null;
+    }
+
+    void invokeMethodEnd() {
+        if (kinds[depth] == GENERATING) {
+            unsetInvokeTarget("INVOKEMETHOD_END");
+            // For normal end of super() or this() call, simply unset the flag
+            invokingSuperOrThis[depth] = false;
+        }
+    }
+
+    void invokeMethodException() {
+        if (kinds[depth] == GENERATING) {
+            unsetInvokeTarget("INVOKEMETHOD_EXCEPTION");
+            // Handle end of super() or this() call
+            if (invokingSuperOrThis[depth]) {
+                while (true) { // will break when outer caller of <init> found
+                    pop();
+                    // We should not reach the base handler without finding
+                    // the generating handler who called the outer <init>().
+                    assert (kinds[depth] == GENERATING);
+                    if (!invokingSuperOrThis[depth]) {
+                        // Found caller of new(), which handles the instruction
+                        unsetInvokeTarget("INVOKEMETHOD_EXCEPTION");
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    void special(int i) {
+        // Handle marker that says calling super() or this()
+        if (kinds[depth] == GENERATING && i == SPECIAL.CALLING_SUPER_OR_THIS) {
+            invokingSuperOrThis[depth] = true;
+        }
+    }
+
+    void returnOrMethodThrow() {
+        if (kinds[depth] != BASE) {
+            pop();
+        }
+    }
+
+    void branch(int iid) {
+        if (kinds[depth] == GENERATING) {
+            // The branch taken-or-not would have been set by a previous
+            // GETVALUE instruction
+            hit(FastCoverageLogger.branchIndex(iid, booleanValue ? 1 : 0));
+        }
+    }
+
+    void tableSwitch(int iid, int numCases) {
+        if (kinds[depth] == GENERATING) {
+            int value = intValue;
+            // Compute arm index or else default
+            int arm = -1;
+            if (value >= 0 && value < numCases) {
+                arm = value;
+            }
+            hit(FastCoverageLogger.branchIndex(iid, arm));
+        }
+    }
+
+    void lookupSwitch(int iid, int[] cases) {
+        if (kinds[depth] == GENERATING) {
+            int value = intValue;
+            // Compute arm index or else default
+            int arm = -1;
+            for (int i = 0; i < cases.length; i++) {
+                if (value == cases[i]) {
+                    arm = i;
+                    break;
+                }
+            }
+            hit(FastCoverageLogger.branchIndex(iid, arm));
+        }
+    }
+}
@@ -107,7 +107,11 @@ public class ThreadTracer {
         return t;
     }
 
-    protected RuntimeException callBackException = null;
+    // Exception thrown by the callback, to be rethrown on the traced thread
+    protected Throwable callBackException = null;
+
+    // Ring that delivers the events, or null if they are delivered on the traced thread
+    private static final AsyncEventRing asyncEvents = AsyncEventRing.get();
 
     /**
      * Emits a trace event to be consumed by the registered callback.
@@ -115,6 +119,21 @@ public class ThreadTracer {
      * @param e the event to emit
      */
     protected final void emit(TraceEvent e) {
+        if (asyncEvents != null) {
+            asyncEvents.publish(this, e);
+        } else {
+            deliver(e);
+        }
+    }
+
+    /**
+     * Invokes the registered callback with a trace event. Exceptions
+     * and errors thrown by the callback are rethrown on the traced
+     * thread by {@link #consume}.
+     *
+     * @param e the event to deliver
+     */
+    final void deliver(TraceEvent e) {
         try {
 //            String typeName = e.getClass().getTypeName();
 //            System.out.println(typeName);
@@ -141,11 +160,27 @@ public class ThreadTracer {
 //                }
 //            }
             callback.accept(e);
-        } catch (RuntimeException ex) {
+        } catch (Throwable ex) {
             callBackException = ex;
         }
     }
 
+    /**
+     * Rethrows an exception thrown by a callback.
+     *
+     * @param t the exception
+     */
+    static void rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else {
+            // Callbacks cannot declare checked exceptions, but may still throw them
+            throw new RuntimeException(t);
+        }
+    }
+
     /**
      * Handles tracing of a single bytecode instruction.
      *
@@ -155,9 +190,9 @@ public class ThreadTracer {
         // Apply the visitor at the top of the stack
         ins.visit(handlers.peek());
         if (callBackException != null) {
-            RuntimeException e = callBackException;
+            Throwable e = callBackException;
             callBackException = null;
-            throw e;
+            rethrow(e);
         }
     }
 
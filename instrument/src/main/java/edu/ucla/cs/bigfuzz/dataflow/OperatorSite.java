@@ -0,0 +1,82 @@
+package edu.ucla.cs.bigfuzz.dataflow;
+
+import janala.logger.inst.METHOD_BEGIN;
+import janala.logger.inst.MemberRef;
+
+/**
+ * Call-site identity of a dataflow operator, i.e. the iid, containing method and line number that are attached to the
+ * dataflow events it emits.
+ *
+ * <p>A site is declared as a static field next to the operator and is resolved from the stack of the operator the
+ * first time it is used. Later events of the operator reuse the resolved method and line number, such that emitting
+ * an event does not need a stack walk.</p>
+ *
+ * <p>The iid is derived from the fully qualified class name and the name of the operator method (which carries the
+ * ordinal of the operator, e.g. <code>map1</code>). Every operator therefore gets its own iid, which is the same in
+ * every run of the program.</p>
+ */
+public final class OperatorSite {
+
+    private int iid;
+    private int lineNumber;
+    private volatile MemberRef method;
+
+    /**
+     * @return iid of the operator, to be called from the operator itself
+     */
+    public int iid() {
+        if (method == null) {
+            resolve();
+        }
+        return iid;
+    }
+
+    /**
+     * @return line number of the operator, to be called from the operator itself
+     */
+    public int lineNumber() {
+        if (method == null) {
+            resolve();
+        }
+        return lineNumber;
+    }
+
+    /**
+     * @return containing method of the operator, to be called from the operator itself
+     */
+    public MemberRef method() {
+        MemberRef m = method;
+        if (m == null) {
+            m = resolve();
+        }
+        return m;
+    }
+
+    private MemberRef resolve() {
+        // [0] is resolve(), [1] is the accessor and [2] is the operator
+        StackTraceElement operator = new Throwable().getStackTrace()[2];
+        // Concurrent resolves of the same site produce equal values, so there is no need to lock
+        iid = iid(operator.getClassName(), operator.getMethodName());
+        lineNumber = operator.getLineNumber();
+        MemberRef m = new METHOD_BEGIN(operator.getClassName(), operator.getMethodName(), "()V");
+        method = m;
+        return m;
+    }
+
+    /**
+     * Compute the iid of an operator.
+     *
+     * @param className  fully qualified name of the class that declares the operator
+     * @param methodName name of the operator method
+     * @return a stable iid for the operator
+     */
+    public static int iid(String className, String methodName) {
+        // String hash codes are specified, so the iid does not change between runs
+        int h = (className + "#" + methodName).hashCode();
+        // Spread the bits, such that operators with similar names do not map to neighbouring coverage slots
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+}
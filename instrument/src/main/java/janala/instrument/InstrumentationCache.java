@@ -0,0 +1,226 @@
+package janala.instrument;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A persistent cache of instrumented classes, stored in a single archive
+ * file in the instrumentation cache directory.
+ *
+ * <p>Entries are keyed by the SHA-256 hash of the instrumentation config,
+ * the class name and the original class bytes. A class that changes, or a
+ * change of the config, therefore never hits a stale entry. The archive is
+ * append-only: a header followed by records of a 32-byte key, the length
+ * of the instrumented class and its bytes. Existing records are memory-mapped
+ * when the cache is opened, and new records are appended while holding a
+ * file lock, such that several JVMs can share one cache directory.</p>
+ */
+public class InstrumentationCache {
+  public static final String ARCHIVE_NAME = "instrumentation.cache";
+
+  private static final int MAGIC = 0x4A514643; // "JQFC"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 8;
+  private static final int KEY_SIZE = 32;
+
+  private static final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  // One monitor per archive, for the writers of this JVM
+  private static final Map<String, Object> writerLocks = new ConcurrentHashMap<>();
+
+  private final File archive;
+  private final byte[] configHash;
+
+  // Records that were in the archive when it was opened, as (offset << 32 | length)
+  private final MappedByteBuffer mapped;
+  private final Map<ByteBuffer, Long> mappedRecords;
+  private final long mappedSize;
+  private final long validSize;
+  private final boolean unknownFormat;
+
+  // Records added since the archive was opened
+  private final Map<ByteBuffer, byte[]> addedRecords = new ConcurrentHashMap<>();
+
+  private InstrumentationCache(File archive, Config config) throws IOException {
+    this.archive = archive;
+    this.configHash = configHash(config);
+
+    Map<ByteBuffer, Long> records = new HashMap<>();
+    long size = 0;
+    long valid = 0;
+    boolean unknown = false;
+    MappedByteBuffer buffer = null;
+    if (archive.exists()) {
+      try (RandomAccessFile file = new RandomAccessFile(archive, "r");
+           FileChannel channel = file.getChannel()) {
+        size = channel.size();
+        if (size >= HEADER_SIZE && size <= Integer.MAX_VALUE) {
+          buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+          if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) {
+            valid = scan(buffer, records);
+          } else {
+            unknown = true;
+          }
+        }
+      }
+    }
+    this.mapped = buffer;
+    this.mappedRecords = records;
+    this.mappedSize = size;
+    this.validSize = valid;
+    this.unknownFormat = unknown;
+  }
+
+  /**
+   * Opens the cache archive in a directory, creating the directory if needed.
+   *
+   * @param dir the instrumentation cache directory
+   * @return the cache
+   * @throws IOException if the archive cannot be read
+   */
+  public static InstrumentationCache open(File dir) throws IOException {
+    dir.mkdirs();
+    return new InstrumentationCache(new File(dir, ARCHIVE_NAME), Config.instance);
+  }
+
+  /** Returns the number of cached classes. */
+  public int size() {
+    return mappedRecords.size() + addedRecords.size();
+  }
+
+  /**
+   * Computes the cache key of a class.
+   *
+   * @param cname the internal name of the class
+   * @param original the original class bytes
+   * @return the key
+   */
+  public ByteBuffer key(String cname, byte[] original) {
+    MessageDigest digest = sha256.get();
+    digest.update(configHash);
+    digest.update(cname.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(original);
+    return ByteBuffer.wrap(digest.digest());
+  }
+
+  /**
+   * Looks up an instrumented class.
+   *
+   * @param key the key computed by {@link #key}
+   * @return the instrumented class bytes, or <tt>null</tt> if not cached
+   */
+  public byte[] get(ByteBuffer key) {
+    Long record = mappedRecords.get(key);
+    if (record != null) {
+      ByteBuffer view = mapped.duplicate();
+      view.position((int) (record >>> 32));
+      byte[] bytes = new byte[(int) (long) record];
+      view.get(bytes);
+      return bytes;
+    }
+    return addedRecords.get(key);
+  }
+
+  /**
+   * Adds an instrumented class to the cache and appends it to the archive.
+   *
+   * @param key the key computed by {@link #key}
+   * @param instrumented the instrumented class bytes
+   * @throws IOException if the archive cannot be written
+   */
+  public synchronized void put(ByteBuffer key, byte[] instrumented) throws IOException {
+    if (mappedRecords.containsKey(key) || addedRecords.putIfAbsent(key, instrumented) != null) {
+      return;
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(KEY_SIZE + 4 + instrumented.length);
+    record.put(key.duplicate());
+    record.putInt(instrumented.length);
+    record.put(instrumented);
+    record.flip();
+
+    // File locks are held by the whole JVM, so writers of the same JVM take turns first
+    synchronized (writerLock(archive)) {
+      try (RandomAccessFile file = new RandomAccessFile(archive, "rw");
+           FileChannel channel = file.getChannel()) {
+        FileLock lock = channel.lock();
+        try {
+          append(channel, record);
+        } finally {
+          lock.release();
+        }
+      }
+    }
+  }
+
+  /** Appends a record to the archive, which is locked by the caller. */
+  private void append(FileChannel channel, ByteBuffer record) throws IOException {
+    long size = channel.size();
+    if (size < HEADER_SIZE || (size == mappedSize && unknownFormat)) {
+      // New archive, or one written by another version that is replaced
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC).putInt(VERSION).flip();
+      channel.truncate(0);
+      channel.write(header, 0);
+      size = HEADER_SIZE;
+    } else if (size == mappedSize && validSize < mappedSize && validSize >= HEADER_SIZE) {
+      // Nobody appended since we opened the archive, so the incomplete
+      // record at its end is left over from a process that was killed
+      channel.truncate(validSize);
+      size = validSize;
+    }
+    while (record.hasRemaining()) {
+      size += channel.write(record, size);
+    }
+  }
+
+  private static Object writerLock(File archive) throws IOException {
+    return writerLocks.computeIfAbsent(archive.getCanonicalPath(), (path) -> new Object());
+  }
+
+  /** Indexes the records of an archive, and returns the end of the last complete record. */
+  private static long scan(ByteBuffer buffer, Map<ByteBuffer, Long> records) {
+    int pos = HEADER_SIZE;
+    int limit = buffer.limit();
+    while (pos + KEY_SIZE + 4 <= limit) {
+      int length = buffer.getInt(pos + KEY_SIZE);
+      int start = pos + KEY_SIZE + 4;
+      if (length < 0 || start + (long) length > limit) {
+        break;
+      }
+      byte[] key = new byte[KEY_SIZE];
+      ByteBuffer view = buffer.duplicate();
+      view.position(pos);
+      view.get(key);
+      records.put(ByteBuffer.wrap(key), ((long) start << 32) | length);
+      pos = start + length;
+    }
+    return pos;
+  }
+
+  /** Hashes the settings that change the output of the instrumentation. */
+  private static byte[] configHash(Config config) {
+    MessageDigest digest = sha256.get();
+    String settings = VERSION + ";" + config.analysisClass + ";" +
+        config.instrumentHeapLoad + ";" + config.instrumentAlloc;
+    return digest.digest(settings.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,160 @@
+package janala.instrument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Instruments all classes of a class path ahead of time, and stores them in
+ * the instrumentation cache (<tt>janala.instrumentationCacheDir</tt>).
+ *
+ * <p>Classes are selected with the same includes and excludes as the
+ * instrumenting agent, and are instrumented in parallel. Campaigns that
+ * use the same cache directory then load instrumented classes from the
+ * cache instead of instrumenting them at start-up.</p>
+ *
+ * <p>Usage: <tt>PreInstrument CLASSPATH [THREADS]</tt></p>
+ */
+public class PreInstrument {
+
+  private static class ClassFile {
+    final String cname;
+    final byte[] bytes;
+
+    ClassFile(String cname, byte[] bytes) {
+      this.cname = cname;
+      this.bytes = bytes;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 1) {
+      System.err.println("Usage: java " + PreInstrument.class.getName() + " CLASSPATH [THREADS]");
+      System.exit(1);
+    }
+    if (Config.instance.instrumentationCacheDir == null) {
+      System.err.println("The cache directory has to be set with -Djanala.instrumentationCacheDir=DIR");
+      System.exit(1);
+    }
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+    List<File> entries = new ArrayList<>();
+    for (String path : args[0].split(File.pathSeparator)) {
+      if (!path.isEmpty()) {
+        entries.add(new File(path));
+      }
+    }
+
+    long startTime = System.currentTimeMillis();
+    List<ClassFile> classes = new ArrayList<>();
+    for (File entry : entries) {
+      if (entry.isDirectory()) {
+        readDirectory(entry, classes);
+      } else if (entry.isFile()) {
+        readJar(entry, classes);
+      }
+    }
+
+    InstrumentationCache cache = SnoopInstructionTransformer.diskCache;
+    if (cache == null) {
+      System.err.println("Could not open the instrumentation cache in " + Config.instance.instrumentationCacheDir);
+      System.exit(1);
+    }
+    URL[] urls = new URL[entries.size()];
+    for (int i = 0; i < urls.length; i++) {
+      urls[i] = entries.get(i).toURI().toURL();
+    }
+    AtomicInteger instrumented = new AtomicInteger();
+    AtomicInteger cached = new AtomicInteger();
+    AtomicInteger failed = new AtomicInteger();
+
+    try (URLClassLoader loader = new URLClassLoader(urls)) {
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      List<Future<?>> futures = new ArrayList<>();
+      for (ClassFile c : classes) {
+        futures.add(executor.submit(() -> {
+          ByteBuffer key = cache.key(c.cname, c.bytes);
+          if (cache.get(key) != null) {
+            cached.incrementAndGet();
+            return null;
+          }
+          byte[] instBytes = SnoopInstructionTransformer.instrument(loader, c.cname, c.bytes);
+          if (instBytes == null) {
+            failed.incrementAndGet();
+            return null;
+          }
+          cache.put(key, instBytes);
+          instrumented.incrementAndGet();
+          return null;
+        }));
+      }
+      executor.shutdown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+
+    System.out.println(String.format("Instrumented %d classes in %d ms (%d already cached, %d failed)",
+        instrumented.get(), System.currentTimeMillis() - startTime, cached.get(), failed.get()));
+  }
+
+  private static void readDirectory(File dir, List<ClassFile> classes) throws IOException {
+    Path root = dir.toPath();
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(root)) {
+      files = walk.filter(p -> p.toString().endsWith(".class")).collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+      addClass(name, Files.readAllBytes(file), classes);
+    }
+  }
+
+  private static void readJar(File jar, List<ClassFile> classes) throws IOException {
+    try (JarFile jarFile = new JarFile(jar)) {
+      Enumeration<JarEntry> jarEntries = jarFile.entries();
+      while (jarEntries.hasMoreElements()) {
+        JarEntry entry = jarEntries.nextElement();
+        if (entry.getName().endsWith(".class") && !entry.getName().startsWith("META-INF/")) {
+          try (InputStream in = jarFile.getInputStream(entry)) {
+            addClass(entry.getName(), readAll(in), classes);
+          }
+        }
+      }
+    }
+  }
+
+  private static void addClass(String fileName, byte[] bytes, List<ClassFile> classes) {
+    String cname = fileName.substring(0, fileName.length() - ".class".length());
+    if (!SnoopInstructionTransformer.shouldExclude(cname)) {
+      classes.add(new ClassFile(cname, bytes));
+    }
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int n;
+    while ((n = in.read(buffer)) > 0) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+}
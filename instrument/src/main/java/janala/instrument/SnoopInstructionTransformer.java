@@ -1,16 +1,14 @@
 package janala.instrument;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.IllegalClassFormatException;
 import java.lang.instrument.Instrumentation;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.security.ProtectionDomain;
-import java.util.Arrays;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
@@ -63,7 +61,7 @@ public class SnoopInstructionTransformer implements ClassFileTransformer {
   }
 
   /** packages that should be exluded from the instrumentation */
-  private static boolean shouldExclude(String cname) {
+  static boolean shouldExclude(String cname) {
     for (String e : banned) {
       if (cname.startsWith(e)) {
         return true;
@@ -82,10 +80,24 @@ public class SnoopInstructionTransformer implements ClassFileTransformer {
     return false;
   }
 
-  static Map<String, byte[]> instrumentedBytes = new TreeMap<>();
+  static Map<String, byte[]> instrumentedBytes = new ConcurrentHashMap<>();
+
+  static final InstrumentationCache diskCache = openDiskCache();
+
+  private static InstrumentationCache openDiskCache() {
+    if (instDir == null) {
+      return null;
+    }
+    try {
+      return InstrumentationCache.open(new File(instDir));
+    } catch (IOException e) {
+      System.err.println("[WARNING] Could not open instrumentation cache in " + instDir);
+      return null;
+    }
+  }
 
   @Override
-  synchronized public byte[] transform(ClassLoader loader, String cname, Class<?> classBeingRedefined,
+  public byte[] transform(ClassLoader loader, String cname, Class<?> classBeingRedefined,
       ProtectionDomain d, byte[] cbuf)
     throws IllegalClassFormatException {
 
@@ -97,66 +109,36 @@ public class SnoopInstructionTransformer implements ClassFileTransformer {
         print("* ");
       }
       print("Instrumenting: " + cname + "... ");
-      GlobalStateForInstrumentation.instance.setCid(cname.hashCode());
 
-      if (instrumentedBytes.containsKey(cname)) {
+      byte[] cached = instrumentedBytes.get(cname);
+      if (cached != null) {
         println(" Found in fast-cache!");
-        return instrumentedBytes.get(cname);
+        return cached;
       }
 
-      if (instDir != null) {
-        File cachedFile = new File(instDir + "/" + cname + ".instrumented.class");
-        File referenceFile = new File(instDir + "/" + cname + ".original.class");
-        if (cachedFile.exists() && referenceFile.exists()) {
-          try {
-            byte[] origBytes = Files.readAllBytes(referenceFile.toPath());
-            if (Arrays.equals(cbuf, origBytes)) {
-              byte[] instBytes = Files.readAllBytes(cachedFile.toPath());
-              println(" Found in disk-cache!");
-              instrumentedBytes.put(cname, instBytes);
-              return instBytes;
-            }
-          } catch (IOException e) {
-            print(" <cache error> ");
-          }
+      ByteBuffer key = null;
+      if (diskCache != null) {
+        key = diskCache.key(cname, cbuf);
+        byte[] instBytes = diskCache.get(key);
+        if (instBytes != null) {
+          println(" Found in disk-cache!");
+          instrumentedBytes.put(cname, instBytes);
+          return instBytes;
         }
       }
 
-      byte[] ret = cbuf;
-      try {
-
-        ClassReader cr = new ClassReader(cbuf);
-        ClassWriter cw = new SafeClassWriter(cr,  loader,
-                ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-        ClassVisitor cv = new SnoopInstructionClassAdapter(cw, cname);
-
-        cr.accept(cv, 0);
-
-        ret = cw.toByteArray();
-      } catch (Throwable e) {
-        println("\n[WARNING] Could not instrument " + cname);
-        if (verbose) {
-          e.printStackTrace();
-        }
+      byte[] ret = instrument(loader, cname, cbuf);
+      if (ret == null) {
         return null;
       }
 
       println("Done!");
       instrumentedBytes.put(cname, ret);
 
-      if (instDir != null) {
+      if (diskCache != null) {
         try {
-          File cachedFile = new File(instDir + "/" + cname + ".instrumented.class");
-          File referenceFile = new File(instDir + "/" + cname + ".original.class");
-          File parent = new File(cachedFile.getParent());
-          parent.mkdirs();
-          try(FileOutputStream out = new FileOutputStream(cachedFile)) {
-            out.write(ret);
-          }
-          try(FileOutputStream out = new FileOutputStream(referenceFile)) {
-            out.write(cbuf);
-          }
-        } catch(Exception e) {
+          diskCache.put(key, ret);
+        } catch (IOException e) {
           e.printStackTrace();
         }
       }
@@ -166,13 +148,44 @@ public class SnoopInstructionTransformer implements ClassFileTransformer {
     }
   }
 
-  private static void print(String str) {
+  /**
+   * Instruments a class. Every call uses its own instrumentation state,
+   * so classes can be instrumented concurrently.
+   *
+   * @param loader the loader used to resolve super classes
+   * @param cname the internal name of the class
+   * @param cbuf the original class bytes
+   * @return the instrumented class bytes, or <tt>null</tt> if the class
+   * could not be instrumented
+   */
+  static byte[] instrument(ClassLoader loader, String cname, byte[] cbuf) {
+    GlobalStateForInstrumentation state = new GlobalStateForInstrumentation();
+    state.setCid(cname.hashCode());
+    try {
+      ClassReader cr = new ClassReader(cbuf);
+      ClassWriter cw = new SafeClassWriter(cr,  loader,
+              ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+      ClassVisitor cv = new SnoopInstructionClassAdapter(cw, cname, state);
+
+      cr.accept(cv, 0);
+
+      return cw.toByteArray();
+    } catch (Throwable e) {
+      println("\n[WARNING] Could not instrument " + cname);
+      if (verbose) {
+        e.printStackTrace();
+      }
+      return null;
+    }
+  }
+
+  static void print(String str) {
     if (verbose) {
       System.out.print(str);
     }
   }
 
-  private static void println(String line) {
+  static void println(String line) {
     if (verbose) {
       System.out.println(line);
     }
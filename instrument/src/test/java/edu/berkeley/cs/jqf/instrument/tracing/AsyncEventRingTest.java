@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.instrument.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import edu.berkeley.cs.jqf.instrument.tracing.events.BranchEvent;
+import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class AsyncEventRingTest {
+
+    private final List<AsyncEventRing> rings = new ArrayList<>();
+
+    @After
+    public void shutdownRings() {
+        for (AsyncEventRing ring : rings) {
+            ring.shutdown();
+        }
+    }
+
+    private AsyncEventRing ring(int capacity, boolean dropWhenFull) {
+        AsyncEventRing ring = new AsyncEventRing(capacity, dropWhenFull);
+        rings.add(ring);
+        return ring;
+    }
+
+    private static ThreadTracer tracer(Consumer<TraceEvent> callback) {
+        return new ThreadTracer(Thread.currentThread(), null, callback);
+    }
+
+    private static TraceEvent event(int producer, int seq) {
+        return new BranchEvent(producer, null, 0, seq);
+    }
+
+    @Test(timeout = 20000)
+    public void testEventsOfEachProducerArriveInOrder() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 20_000;
+        AsyncEventRing ring = ring(64, false);
+        // Only the consumer thread appends, and await() publishes its writes
+        List<BranchEvent> delivered = new ArrayList<>();
+        ThreadTracer tracer = tracer((e) -> delivered.add((BranchEvent) e));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.publish(tracer, event(producer, i));
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        ring.await();
+
+        assertEquals(producers * perProducer, delivered.size());
+        assertEquals(producers * perProducer, ring.getDeliveredEvents());
+        assertEquals(0, ring.getDroppedEvents());
+        int[] next = new int[producers];
+        for (BranchEvent e : delivered) {
+            assertEquals(next[e.getIid()]++, e.getArm());
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testFullRingBlocksUntilConsumed() throws InterruptedException {
+        AsyncEventRing ring = ring(2, false);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new ArrayList<>();
+        ThreadTracer tracer = tracer((e) -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new AssertionError(ex);
+            }
+            delivered.add(((BranchEvent) e).getArm());
+        });
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                ring.publish(tracer, event(0, i));
+            }
+        });
+        producer.start();
+        // The consumer holds one event and the ring two more, after which the producer has to wait
+        while (ring.getBlockedEvents() == 0) {
+            Thread.sleep(1);
+        }
+        assertTrue(producer.isAlive());
+        assertEquals(0, ring.getDeliveredEvents());
+
+        release.countDown();
+        producer.join();
+        ring.await();
+        assertEquals(10, delivered.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, (int) delivered.get(i));
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testFullRingDropsEvents() throws InterruptedException {
+        AsyncEventRing ring = ring(2, true);
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadTracer tracer = tracer((e) -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new AssertionError(ex);
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            ring.publish(tracer, event(0, i));
+        }
+        assertTrue(ring.getDroppedEvents() > 0);
+
+        release.countDown();
+        ring.await();
+        assertEquals(10, ring.getDeliveredEvents() + ring.getDroppedEvents());
+    }
+
+    @Test(timeout = 20000)
+    public void testThrowingCallbackIsRethrownByAwait() throws InterruptedException {
+        AsyncEventRing ring = ring(16, false);
+        List<Integer> delivered = new ArrayList<>();
+        ThreadTracer tracer = tracer((e) -> {
+            int arm = ((BranchEvent) e).getArm();
+            delivered.add(arm);
+            if (arm == 1) {
+                throw new StackOverflowError("first");
+            } else if (arm == 3) {
+                throw new IllegalStateException("second");
+            }
+        });
+
+        for (int i = 0; i < 5; i++) {
+            ring.publish(tracer, event(0, i));
+        }
+        try {
+            ring.await();
+            fail("Expected the error of the callback");
+        } catch (StackOverflowError e) {
+            assertEquals("first", e.getMessage());
+        }
+        // The consumer kept delivering after the error
+        assertEquals(5, delivered.size());
+
+        // The exception is reported once, and the idle consumer still picks up new events
+        ring.await();
+        Thread.sleep(50);
+        ring.publish(tracer, event(0, 5));
+        ring.await();
+        assertEquals(6, delivered.size());
+    }
+
+    @Test(timeout = 20000)
+    public void testAwaitReturnsAfterShutdown() throws InterruptedException {
+        AsyncEventRing ring = ring(2, false);
+        ThreadTracer tracer = tracer((e) -> {});
+        ring.publish(tracer, event(0, 0));
+        ring.shutdown();
+
+        // Producers and waiters do not wait for a consumer that has stopped
+        for (int i = 1; i < 10; i++) {
+            ring.publish(tracer, event(0, i));
+        }
+        ring.await();
+        assertEquals(10, ring.getDeliveredEvents() + ring.getDroppedEvents());
+    }
+}
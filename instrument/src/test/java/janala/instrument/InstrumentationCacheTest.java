@@ -0,0 +1,174 @@
+package janala.instrument;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class InstrumentationCacheTest {
+
+  private static final int WRITER_CLASSES = 200;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Puts classes named prefix0, prefix1, ... whose instrumented bytes repeat their name. */
+  public static class Writer {
+    public static void main(String[] args) throws IOException {
+      InstrumentationCache cache = InstrumentationCache.open(new File(args[0]));
+      for (int i = 0; i < WRITER_CLASSES; i++) {
+        put(cache, args[1] + i);
+      }
+    }
+
+    static void put(InstrumentationCache cache, String cname) throws IOException {
+      cache.put(cache.key(cname, bytes(cname)), instrumented(cname));
+    }
+
+    static byte[] instrumented(String cname) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 50; i++) {
+        sb.append(cname);
+      }
+      return bytes(sb.toString());
+    }
+  }
+
+  @Test
+  public void testHitAndMiss() throws IOException {
+    File dir = folder.newFolder();
+    InstrumentationCache cache = InstrumentationCache.open(dir);
+    ByteBuffer key = cache.key("pkg/A", bytes("original"));
+    assertNull(cache.get(key));
+
+    cache.put(key, bytes("instrumented"));
+    assertArrayEquals(bytes("instrumented"), cache.get(key));
+
+    // A new JVM finds the class in the archive
+    InstrumentationCache reopened = InstrumentationCache.open(dir);
+    assertEquals(1, reopened.size());
+    assertArrayEquals(bytes("instrumented"), reopened.get(reopened.key("pkg/A", bytes("original"))));
+    assertNull(reopened.get(reopened.key("pkg/B", bytes("original"))));
+  }
+
+  @Test
+  public void testChangedClassIsAMiss() throws IOException {
+    File dir = folder.newFolder();
+    InstrumentationCache cache = InstrumentationCache.open(dir);
+    cache.put(cache.key("pkg/A", bytes("version 1")), bytes("instrumented 1"));
+
+    // The entry of the old version is stale, and is never returned for the new one
+    InstrumentationCache reopened = InstrumentationCache.open(dir);
+    ByteBuffer key = reopened.key("pkg/A", bytes("version 2"));
+    assertNull(reopened.get(key));
+    reopened.put(key, bytes("instrumented 2"));
+
+    InstrumentationCache third = InstrumentationCache.open(dir);
+    assertEquals(2, third.size());
+    assertArrayEquals(bytes("instrumented 1"), third.get(third.key("pkg/A", bytes("version 1"))));
+    assertArrayEquals(bytes("instrumented 2"), third.get(third.key("pkg/A", bytes("version 2"))));
+  }
+
+  @Test
+  public void testTruncatedRecordIsDropped() throws IOException {
+    File dir = folder.newFolder();
+    InstrumentationCache cache = InstrumentationCache.open(dir);
+    Writer.put(cache, "pkg/A");
+    Writer.put(cache, "pkg/B");
+
+    // A writer that was killed in the middle of its record
+    File archive = new File(dir, InstrumentationCache.ARCHIVE_NAME);
+    try (RandomAccessFile file = new RandomAccessFile(archive, "rw")) {
+      file.setLength(file.length() - 10);
+    }
+
+    InstrumentationCache reopened = InstrumentationCache.open(dir);
+    assertEquals(1, reopened.size());
+    assertArrayEquals(Writer.instrumented("pkg/A"), reopened.get(reopened.key("pkg/A", bytes("pkg/A"))));
+    assertNull(reopened.get(reopened.key("pkg/B", bytes("pkg/B"))));
+
+    // The next record replaces the incomplete one
+    Writer.put(reopened, "pkg/C");
+    InstrumentationCache third = InstrumentationCache.open(dir);
+    assertEquals(2, third.size());
+    assertArrayEquals(Writer.instrumented("pkg/C"), third.get(third.key("pkg/C", bytes("pkg/C"))));
+  }
+
+  @Test
+  public void testUnknownArchiveIsReplaced() throws IOException {
+    File dir = folder.newFolder();
+    File archive = new File(dir, InstrumentationCache.ARCHIVE_NAME);
+    try (RandomAccessFile file = new RandomAccessFile(archive, "rw")) {
+      file.write(bytes("not an instrumentation cache at all"));
+    }
+
+    InstrumentationCache cache = InstrumentationCache.open(dir);
+    assertEquals(0, cache.size());
+    Writer.put(cache, "pkg/A");
+
+    InstrumentationCache reopened = InstrumentationCache.open(dir);
+    assertEquals(1, reopened.size());
+    assertArrayEquals(Writer.instrumented("pkg/A"), reopened.get(reopened.key("pkg/A", bytes("pkg/A"))));
+  }
+
+  @Test(timeout = 60000)
+  public void testConcurrentWriters() throws Exception {
+    File dir = folder.newFolder();
+
+    // Two JVMs and two caches of this JVM append to the same archive at the same time
+    String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+    List<Process> processes = new ArrayList<>();
+    for (String prefix : Arrays.asList("p/A", "p/B")) {
+      processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+          Writer.class.getName(), dir.getPath(), prefix).inheritIO().start());
+    }
+    List<Thread> threads = new ArrayList<>();
+    List<Throwable> errors = new ArrayList<>();
+    for (String prefix : Arrays.asList("t/A", "t/B")) {
+      Thread t = new Thread(() -> {
+        try {
+          Writer.main(new String[]{dir.getPath(), prefix});
+        } catch (Throwable e) {
+          synchronized (errors) {
+            errors.add(e);
+          }
+        }
+      });
+      t.start();
+      threads.add(t);
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    for (Process p : processes) {
+      assertEquals(0, p.waitFor());
+    }
+    assertEquals(Arrays.asList(), errors);
+
+    InstrumentationCache cache = InstrumentationCache.open(dir);
+    assertEquals(4 * WRITER_CLASSES, cache.size());
+    for (String prefix : Arrays.asList("p/A", "p/B", "t/A", "t/B")) {
+      for (int i = 0; i < WRITER_CLASSES; i++) {
+        String cname = prefix + i;
+        assertArrayEquals(cname, Writer.instrumented(cname), cache.get(cache.key(cname, bytes(cname))));
+      }
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import edu.berkeley.cs.jqf.fuzz.util.Counter;
+import edu.berkeley.cs.jqf.fuzz.util.Hashing;
+import edu.berkeley.cs.jqf.fuzz.util.NonZeroCachingCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the counters that back a coverage map.
+ *
+ * <p>The increment benchmarks record the branch hits of one trial into a
+ * cleared counter, the scan benchmarks enumerate the non-zero entries of a
+ * populated counter. Every benchmark operation handles <tt>hits</tt>
+ * branch hits, spread over <tt>hits / 4</tt> distinct branches.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterBenchmark {
+
+    /** The size of the coverage map, see {@link edu.berkeley.cs.jqf.fuzz.util.Coverage}. */
+    private static final int SIZE = (1 << 16) - 1;
+
+    @Param({"64", "4096"})
+    public int hits;
+
+    private int[] iids;
+    private int[] arms;
+
+    private Counter counter;
+    private NonZeroCachingCounter cachingCounter;
+
+    private Counter populatedCounter;
+    private NonZeroCachingCounter populatedCachingCounter;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int[] branches = new int[Math.max(1, hits / 4)];
+        for (int i = 0; i < branches.length; i++) {
+            branches[i] = random.nextInt();
+        }
+        iids = new int[hits];
+        arms = new int[hits];
+        for (int i = 0; i < hits; i++) {
+            iids[i] = branches[random.nextInt(branches.length)];
+            arms[i] = random.nextInt(2);
+        }
+
+        counter = new Counter(SIZE);
+        cachingCounter = new NonZeroCachingCounter(SIZE);
+        populatedCounter = new Counter(SIZE);
+        populatedCachingCounter = new NonZeroCachingCounter(SIZE);
+        for (int i = 0; i < hits; i++) {
+            populatedCounter.increment1(iids[i], arms[i]);
+            populatedCachingCounter.increment1(iids[i], arms[i]);
+        }
+    }
+
+    @Benchmark
+    public int counterIncrement() {
+        counter.clear();
+        for (int i = 0; i < hits; i++) {
+            counter.increment1(iids[i], arms[i]);
+        }
+        return counter.get(0);
+    }
+
+    @Benchmark
+    public int nonZeroCachingCounterIncrement() {
+        cachingCounter.clear();
+        for (int i = 0; i < hits; i++) {
+            cachingCounter.increment1(iids[i], arms[i]);
+        }
+        return cachingCounter.getNonZeroSize();
+    }
+
+    @Benchmark
+    public void counterScan(Blackhole bh) {
+        for (Integer idx : populatedCounter.getNonZeroIndices()) {
+            bh.consume(idx);
+        }
+    }
+
+    @Benchmark
+    public void nonZeroCachingCounterScan(Blackhole bh) {
+        for (Integer idx : populatedCachingCounter.getNonZeroIndices()) {
+            bh.consume(idx);
+        }
+    }
+
+    @Benchmark
+    public int hash1() {
+        int sum = 0;
+        for (int i = 0; i < hits; i++) {
+            sum += Hashing.hash1(iids[i], arms[i], SIZE);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.benchmarks;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import edu.berkeley.cs.jqf.fuzz.util.Coverage;
+import edu.berkeley.cs.jqf.instrument.tracing.events.BranchEvent;
+import edu.berkeley.cs.jqf.instrument.tracing.events.CallEvent;
+import edu.berkeley.cs.jqf.instrument.tracing.events.TraceEvent;
+import janala.logger.inst.METHOD_BEGIN;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the coverage map operations that a guidance performs
+ * after every trial.
+ *
+ * <p>The total coverage holds the branches of 100 earlier trials. The
+ * run coverage holds the branch and call events of one trial, of which
+ * about one in 16 is not in the total coverage.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoverageBenchmark {
+
+    @Param({"64", "4096"})
+    public int events;
+
+    private TraceEvent[] trial;
+
+    private Coverage runCoverage;
+    private Coverage totalCoverage;
+    private Coverage saturatedCoverage;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        METHOD_BEGIN method = new METHOD_BEGIN("Benchmark", "run", "()V");
+        int[] branches = new int[Math.max(16, events / 4)];
+        for (int i = 0; i < branches.length; i++) {
+            branches[i] = random.nextInt();
+        }
+
+        totalCoverage = new Coverage();
+        for (int run = 0; run < 100; run++) {
+            for (int i = 0; i < events; i++) {
+                int iid = branches[random.nextInt(branches.length)];
+                if (iid % 16 != 0) {
+                    totalCoverage.handleEvent(new BranchEvent(iid, method, 0, random.nextInt(2)));
+                }
+            }
+        }
+
+        trial = new TraceEvent[events];
+        for (int i = 0; i < events; i++) {
+            int iid = branches[random.nextInt(branches.length)];
+            if (i % 8 == 0) {
+                trial[i] = new CallEvent(iid, method, 0, method);
+            } else {
+                trial[i] = new BranchEvent(iid, method, 0, random.nextInt(2));
+            }
+        }
+        runCoverage = new Coverage();
+        for (TraceEvent e : trial) {
+            runCoverage.handleEvent(e);
+        }
+
+        // Once the run coverage has been merged, further merges do not
+        // change anything, which is what happens after most trials
+        saturatedCoverage = new Coverage(totalCoverage);
+        saturatedCoverage.updateBits(runCoverage);
+    }
+
+    @Benchmark
+    public int handleEvents() {
+        Coverage coverage = runCoverage;
+        coverage.clear();
+        for (TraceEvent e : trial) {
+            coverage.handleEvent(e);
+        }
+        return coverage.getNonZeroCount();
+    }
+
+    @Benchmark
+    public boolean updateBits() {
+        return saturatedCoverage.updateBits(runCoverage);
+    }
+
+    @Benchmark
+    public Collection<?> computeNewCoverage() {
+        return runCoverage.computeNewCoverage(totalCoverage);
+    }
+
+    @Benchmark
+    public int copy() {
+        return new Coverage(totalCoverage).getNonZeroCount();
+    }
+}
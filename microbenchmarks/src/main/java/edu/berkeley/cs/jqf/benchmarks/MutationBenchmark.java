@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import edu.tabfuzz.DataFormat;
+import edu.tabfuzz.TabFuzzMutation;
+import edu.tabfuzz.WriterSettings;
+import edu.tud.cs.jqf.bigfuzzplus.stackedMutation.StackedMutation;
+import edu.tud.cs.jqf.bigfuzzplus.stackedMutation.StackedMutationEnum.StackedMutationMethod;
+import edu.tud.cs.jqf.bigfuzzplus.systematicMutation.SystematicMutation;
+import edu.ucla.cs.jqf.bigfuzz.MutatedInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the mutations that produce the input of every trial.
+ *
+ * <p>The mutations read a seed from a temporary directory, which holds a
+ * salary analysis seed and the conf file that points to it. BigFuzz+
+ * mutations produce their mutants in memory, such that these benchmarks
+ * measure the mutation itself. TabFuzz always writes its mutant to a
+ * file, so its benchmark includes writing the mutant.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutationBenchmark {
+
+    private static final String[] SEED = {
+            "90024,20,10900",
+            "90095,45,38000",
+            "90036,31,64000",
+            "90042,19,4500",
+            "90015,67,120000",
+            "90089,52,87000",
+            "90024,38,56000",
+            "90012,24,22000",
+    };
+
+    @State(Scope.Thread)
+    public static class Seed {
+        File dir;
+        String confFile;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("mutation-benchmark").toFile();
+            File seedFile = new File(dir, "seed.csv");
+            Files.write(seedFile.toPath(), Arrays.asList(SEED));
+            File conf = new File(dir, "seed.conf");
+            Files.write(conf.toPath(), Arrays.asList(seedFile.getAbsolutePath()));
+            confFile = conf.getAbsolutePath();
+        }
+
+        @TearDown
+        public void tearDown() {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Systematic {
+        @Param({"2", "6"})
+        public int depth;
+
+        SystematicMutation mutation;
+
+        @Setup
+        public void setup(Seed seed) {
+            SystematicMutation.MUTATION_DEPTH = depth;
+            SystematicMutation.MUTATE_COLUMNS = true;
+            SystematicMutation.MUTATE_RANDOM = false;
+            mutation = new SystematicMutation(seed.confFile);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Stacked {
+        @Param({"Disabled", "Smart_stack"})
+        public StackedMutationMethod method;
+
+        StackedMutation mutation;
+
+        @Setup
+        public void setup() {
+            mutation = new StackedMutation();
+            mutation.stackedMutationMethod = method;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TabFuzz {
+        TabFuzzMutation mutation;
+        List<String[]> rows;
+        String mutantFile;
+        PrintStream out;
+
+        @Setup
+        public void setup(Seed seed) {
+            DataFormat[] format = {
+                    new DataFormat("Zipcode", "String", "900[0-9]{2}", "90042"),
+                    new DataFormat("Age", "int", "1#120", ""),
+                    new DataFormat("Salary", "int", "0#200000", "0"),
+            };
+            mutation = new TabFuzzMutation(format, new WriterSettings());
+            rows = new ArrayList<>();
+            for (String row : SEED) {
+                rows.add(row.split(","));
+            }
+            mutantFile = new File(seed.dir, "mutant.csv").getAbsolutePath();
+
+            // The mutation logs every mutant it applies
+            out = System.out;
+            System.setOut(new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+            }));
+        }
+
+        @TearDown
+        public void tearDown() {
+            System.setOut(out);
+        }
+    }
+
+    @Benchmark
+    public MutatedInput systematicMutation(Seed seed, Systematic systematic) {
+        return systematic.mutation.mutateInMemory(seed.confFile);
+    }
+
+    @Benchmark
+    public MutatedInput stackedMutation(Seed seed, Stacked stacked) throws IOException {
+        return stacked.mutation.mutateInMemory(seed.confFile);
+    }
+
+    @Benchmark
+    public List<String[]> tabFuzzMutation(TabFuzz tabFuzz) {
+        // Mutations change rows in place, so every mutation starts from a copy of the seed
+        List<String[]> data = new ArrayList<>(tabFuzz.rows.size());
+        for (String[] row : tabFuzz.rows) {
+            data.add(row.clone());
+        }
+        tabFuzz.mutation.performRandomMutation(data, tabFuzz.mutantFile);
+        return data;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017-2018 The Regents of the University of California
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are
+ * met:
+ *
+ * 1. Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package edu.berkeley.cs.jqf.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import edu.berkeley.cs.jqf.fuzz.util.Coverage;
+import edu.berkeley.cs.jqf.instrument.tracing.AsyncEventRing;
+import edu.berkeley.cs.jqf.instrument.tracing.FastCoverageLogger;
+import edu.berkeley.cs.jqf.instrument.tracing.SingleSnoop;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the path from instrumented code to the coverage map.
+ *
+ * <p>Every operation replays the callbacks that instrumented code makes
+ * for one trial: entering the entry point, taking <tt>branches</tt>
+ * conditional branches with a method call after every 8th branch, and
+ * returning. The callbacks go through {@link SingleSnoop}, which hands
+ * them to the thread tracer, whose trace events are recorded by a
+ * {@link Coverage}.</p>
+ *
+ * <p>The tracing modes can be compared by passing their flags to the
+ * benchmark JVM, e.g. <tt>-jvmArgsAppend -Djqf.tracing.ASYNC=true</tt> or
+ * <tt>-jvmArgsAppend -Djqf.tracing.FAST_COVERAGE=true</tt>.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracePipelineBenchmark {
+
+    private static final String ENTRY_CLASS = "edu/berkeley/cs/jqf/benchmarks/Trial";
+    private static final String ENTRY_METHOD = "run";
+    private static final String CALLEE = "callee";
+
+    @Param({"64", "4096"})
+    public int branches;
+
+    private int[] iids;
+    private boolean[] taken;
+
+    private Coverage coverage;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        iids = new int[branches];
+        taken = new boolean[branches];
+        for (int i = 0; i < branches; i++) {
+            iids[i] = random.nextInt(branches / 4 + 1);
+            taken[i] = random.nextBoolean();
+        }
+
+        // Thread-scoped state is set up by the benchmark thread, which is the thread that is traced
+        coverage = new Coverage();
+        SingleSnoop.setCallbackGenerator(thread -> coverage::handleEvent);
+        SingleSnoop.startSnooping(ENTRY_CLASS.replace('/', '.') + "#" + ENTRY_METHOD);
+    }
+
+    @Benchmark
+    public int trial() {
+        coverage.clear();
+
+        SingleSnoop.METHOD_BEGIN(ENTRY_CLASS, ENTRY_METHOD, "()V");
+        for (int i = 0; i < branches; i++) {
+            int iid = iids[i];
+            SingleSnoop.GETVALUE_boolean(taken[i]);
+            SingleSnoop.IFEQ(iid, i, iid);
+            if (i % 8 == 0) {
+                SingleSnoop.INVOKESTATIC(iid, i, ENTRY_CLASS, CALLEE, "()V");
+                SingleSnoop.METHOD_BEGIN(ENTRY_CLASS, CALLEE, "()V");
+                SingleSnoop.RETURN(iid, i);
+                SingleSnoop.INVOKEMETHOD_END();
+            }
+        }
+        SingleSnoop.RETURN(-1, branches);
+
+        AsyncEventRing.awaitDelivery();
+        if (FastCoverageLogger.ENABLED) {
+            coverage.drainFastCoverage();
+        }
+        return coverage.getNonZeroCount();
+    }
+}
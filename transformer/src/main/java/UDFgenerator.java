@@ -25,7 +25,6 @@ public class UDFgenerator {
                 "\n" +
                 "import edu.berkeley.cs.jqf.instrument.tracing.TraceLogger;\n" +
                 "import edu.ucla.cs.bigfuzz.dataflow.*;\n" +
-                "import janala.logger.inst.METHOD_BEGIN;\n" +
                 "import janala.logger.inst.MemberRef;\n" +
                 "import javafx.util.Pair;\n" +
                 "\n" +
@@ -163,16 +162,16 @@ public class UDFgenerator {
             if ((!operator.equals("CustomArray.read(inputFile);"))&&(!operator.equals("CustomArray.readStr(inputFile);"))) {
 
                 String Line = UDFreader(operator);
+                String site = operator.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_SITE";
 
-                CustomFile.write(" public static " +
+                CustomFile.write(" private static final OperatorSite " + site + " = new OperatorSite();\n\n" +
+                    " public static " +
                     checkOutType(Line)+" "+operator+checkInType(Line)+"{\n"+
 
-                    "        int callersLineNumber = Thread.currentThread().getStackTrace()[1].getLineNumber();\n" +
+                    "        int callersLineNumber = " + site + ".lineNumber();\n" +
                     "\n" +
-                    "        int iid = CustomArray.class.hashCode(); // this should be a random value associated with a " +
-                    "program location\n" +
-                    "        MemberRef method = new METHOD_BEGIN(Thread.currentThread().getStackTrace()[1].getClassN" +
-                    "ame(), Thread.currentThread().getStackTrace()[1].getMethodName(), \"()V\"); // containing method\n" +
+                    "        int iid = " + site + ".iid(); // unique for every operator and stable across runs\n" +
+                    "        MemberRef method = " + site + ".method(); // containing method\n" +
                     "\n" +
                     "        // Generate a custom event!\n" +
                     "        TraceLogger.get().emit(new "+operator.substring(0,operator.length()-1)+"Event(iid, m" +